@@ -0,0 +1,82 @@
+package com.github.tylerspaeth.benchmark;
+
+import com.github.tylerspaeth.common.data.entity.Candlestick;
+import com.github.tylerspaeth.common.data.entity.HistoricalDataset;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.common.enums.AssetTypeEnum;
+import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
+
+import java.lang.reflect.Field;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds the entities used by the benchmarks without a database.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {}
+
+    /**
+     * Creates a Symbol with its ID set, as if it had been persisted.
+     * @param symbolID ID to give the Symbol.
+     * @return Symbol
+     */
+    public static Symbol createSymbol(int symbolID) {
+        Symbol symbol = new Symbol();
+        symbol.setTicker("BENCH");
+        symbol.setAssetType(AssetTypeEnum.EQUITIES);
+        try {
+            Field field = Symbol.class.getDeclaredField("symbolID");
+            field.setAccessible(true);
+            field.set(symbol, symbolID);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to set the ID of the benchmark Symbol.", e);
+        }
+        return symbol;
+    }
+
+    /**
+     * Creates a HistoricalDataset for a Symbol and adds it to the Symbol's datasets.
+     * @param symbol Symbol the dataset is for.
+     * @param timeInterval How many of the interval unit each Candlestick is.
+     * @param intervalUnit IntervalUnitEnum
+     * @param candlesticks Candlesticks of the dataset, used for its start and end.
+     * @return HistoricalDataset
+     */
+    public static HistoricalDataset createHistoricalDataset(Symbol symbol, int timeInterval, IntervalUnitEnum intervalUnit, List<Candlestick> candlesticks) {
+        HistoricalDataset historicalDataset = new HistoricalDataset();
+        historicalDataset.setDatasetName("Benchmark " + timeInterval + " " + intervalUnit);
+        historicalDataset.setSymbol(symbol);
+        historicalDataset.setTimeInterval(timeInterval);
+        historicalDataset.setIntervalUnit(intervalUnit);
+        historicalDataset.setDatasetStart(candlesticks.getFirst().getTimestamp());
+        historicalDataset.setDatasetEnd(candlesticks.getLast().getTimestamp());
+        symbol.getHistoricalDatasets().add(historicalDataset);
+        return historicalDataset;
+    }
+
+    /**
+     * Creates a contiguous series of Candlesticks following a seeded random walk so every run sees the same prices.
+     * @param start Timestamp of the first Candlestick. Should be aligned to the size of any condensed Candlestick.
+     * @param count Number of Candlesticks.
+     * @param secondsApart Length of each Candlestick in seconds.
+     * @return List of Candlesticks ordered by timestamp.
+     */
+    public static List<Candlestick> createCandlesticks(Instant start, int count, long secondsApart) {
+        Random random = new Random(42);
+        List<Candlestick> candlesticks = new ArrayList<>(count);
+        float close = 100;
+        for(int i = 0; i < count; i++) {
+            float open = close;
+            close = Math.max(1, open + (random.nextFloat() - 0.5f));
+            float high = Math.max(open, close) + random.nextFloat() * 0.25f;
+            float low = Math.min(open, close) - random.nextFloat() * 0.25f;
+            candlesticks.add(new Candlestick(open, high, low, close, (float) random.nextInt(1000), Timestamp.from(start.plusSeconds(i * secondsApart))));
+        }
+        return candlesticks;
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.tylerspaeth.benchmark;
+
+import com.github.tylerspaeth.common.data.dao.*;
+import com.github.tylerspaeth.common.data.entity.*;
+import com.github.tylerspaeth.common.enums.AssetTypeEnum;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAOs that never touch the database so that benchmarks measure only the code under test.
+ */
+public final class InMemoryDAOs {
+
+    private InMemoryDAOs() {}
+
+    /**
+     * OrderDAO that drops every update.
+     */
+    public static class NoOpOrderDAO extends OrderDAO {
+        @Override
+        public Order update(Order order) {
+            return order;
+        }
+
+        @Override
+        public Order update(Order order, List<Trade> newTrades, List<Trade> changedTrades, List<OrderEvent> newOrderEvents) {
+            return order;
+        }
+    }
+
+    /**
+     * TradeDAO that drops every insert.
+     */
+    public static class NoOpTradeDAO extends TradeDAO {
+        @Override
+        public void insert(Trade trade) {}
+    }
+
+    /**
+     * CommissionDAO that charges nothing for every asset type.
+     */
+    public static class ZeroCommissionDAO extends CommissionDAO {
+        private final Commission commission = new Commission();
+
+        public ZeroCommissionDAO() {
+            commission.setCommissionAmount(0f);
+        }
+
+        @Override
+        public Commission findDefaultCommissionForAssetType(AssetTypeEnum assetType) {
+            return commission;
+        }
+    }
+
+    /**
+     * SymbolDAO that treats every Symbol as already persisted.
+     */
+    public static class PassThroughSymbolDAO extends SymbolDAO {
+        @Override
+        public Symbol getPersistedVersionOfSymbol(Symbol symbol) {
+            return symbol;
+        }
+    }
+
+    /**
+     * CandlestickDAO serving the queries of the backtester data feed from a list of Candlesticks held in memory. Each
+     * query returns new Candlesticks as the database would.
+     */
+    public static class InMemoryCandlestickDAO extends CandlestickDAO {
+
+        private final long[] timestamps; // Milliseconds since the epoch
+        private final List<Candlestick> candlesticks;
+
+        /**
+         * @param candlesticks Candlesticks ordered by timestamp.
+         */
+        public InMemoryCandlestickDAO(List<Candlestick> candlesticks) {
+            this.candlesticks = candlesticks;
+            timestamps = new long[candlesticks.size()];
+            for(int i = 0; i < timestamps.length; i++) {
+                timestamps[i] = candlesticks.get(i).getTimestamp().getTime();
+            }
+        }
+
+        @Override
+        public List<Candlestick> getPaginatedCandlesticksFromHistoricalDataset(HistoricalDataset historicalDataset, Timestamp startTime, Timestamp endTime, int numCandles) {
+            int from = firstIndexAfter(startTime.getTime());
+            int to = endTime == null ? timestamps.length : firstIndexAfter(endTime.getTime() - 1);
+            to = (int) Math.min(to, (long) from + numCandles);
+
+            List<Candlestick> page = new ArrayList<>(Math.max(0, to - from));
+            for(int i = from; i < to; i++) {
+                page.add(copy(candlesticks.get(i)));
+            }
+            return page;
+        }
+
+        @Override
+        public CandlestickCursor streamCandlesticksFromHistoricalDataset(HistoricalDataset historicalDataset, Timestamp startTime, Timestamp endTime, int pageSize) {
+            return createCursor((after, numCandles) -> getPaginatedCandlesticksFromHistoricalDataset(historicalDataset, after, endTime, numCandles), startTime, pageSize);
+        }
+
+        @Override
+        public Candlestick getFirstAlignedCandlestick(HistoricalDataset historicalDataset, Timestamp startTime, Timestamp endTime, long alignmentSeconds) {
+            int to = endTime == null ? timestamps.length : firstIndexAfter(endTime.getTime() - 1);
+            for(int i = firstIndexAfter(startTime.getTime()); i < to; i++) {
+                if(Math.floorDiv(timestamps[i], 1000) % alignmentSeconds == 0) {
+                    return copy(candlesticks.get(i));
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Binary search for the first index with a timestamp after the provided time.
+         * @param millis Milliseconds since the epoch.
+         * @return Index, or the number of Candlesticks if there is none.
+         */
+        private int firstIndexAfter(long millis) {
+            int low = 0;
+            int high = timestamps.length;
+            while(low < high) {
+                int mid = (low + high) >>> 1;
+                if(timestamps[mid] <= millis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static Candlestick copy(Candlestick candlestick) {
+            return new Candlestick(candlestick.getOpen(), candlestick.getHigh(), candlestick.getLow(), candlestick.getClose(),
+                    candlestick.getVolume(), candlestick.getTimestamp());
+        }
+    }
+}
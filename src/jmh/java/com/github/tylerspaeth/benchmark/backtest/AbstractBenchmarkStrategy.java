@@ -0,0 +1,157 @@
+package com.github.tylerspaeth.benchmark.backtest;
+
+import com.github.tylerspaeth.common.data.entity.BacktestResult;
+import com.github.tylerspaeth.common.data.entity.Candlestick;
+import com.github.tylerspaeth.common.data.entity.Order;
+import com.github.tylerspaeth.common.data.entity.StrategyParameterSet;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.common.data.entity.User;
+import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
+import com.github.tylerspaeth.engine.request.datafeed.ReadFromDataFeedRequest;
+import com.github.tylerspaeth.engine.request.datafeed.SubscribeToDataFeedRequest;
+import com.github.tylerspaeth.engine.request.datafeed.UnsubscribeFromDataFeedRequest;
+import com.github.tylerspaeth.engine.request.order.PlaceOrderRequest;
+import com.github.tylerspaeth.strategy.AbstractStrategy;
+import com.github.tylerspaeth.strategy.BacktestContext;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Reference strategy for the backtest benchmark. Every engine request the strategy makes is timed, and the bars and
+ * orders it handles are counted. Requests are either submitted to the engine or made through the BacktestContext so
+ * the two can be compared. Implementations are constructed directly by the BacktestBenchmarkRunner rather than being
+ * registered through the StrategyRegistry.
+ */
+public abstract class AbstractBenchmarkStrategy extends AbstractStrategy {
+
+    protected final Symbol symbol;
+
+    private final LatencyRecorder requestLatencies = new LatencyRecorder();
+    private long barsRead = 0;
+    private long ordersPlaced = 0;
+    private volatile boolean stopped = false;
+    private boolean direct = false;
+
+    public AbstractBenchmarkStrategy(StrategyParameterSet strategyParameterSet, User user, BacktestResult backtestResult, Symbol symbol) {
+        super(strategyParameterSet, user, backtestResult);
+        this.symbol = symbol;
+    }
+
+    @Override
+    protected final void onRun() {
+        try {
+            BacktestContext backtestContext = getBacktestContext();
+            timed(() -> {
+                if(direct) {
+                    backtestContext.subscribeToDataFeed(symbol);
+                    return null;
+                }
+                return submitEngineRequest(new SubscribeToDataFeedRequest(symbol));
+            });
+            List<Candlestick> candlesticks = readMinute(backtestContext);
+            while(!stopped && candlesticks != null && !candlesticks.isEmpty()) {
+                for(Candlestick candlestick : candlesticks) {
+                    barsRead++;
+                    onCandlestick(candlestick);
+                }
+                candlesticks = readMinute(backtestContext);
+            }
+            timed(() -> {
+                if(direct) {
+                    backtestContext.unsubscribeFromDataFeed(symbol);
+                    return null;
+                }
+                return submitEngineRequest(new UnsubscribeFromDataFeedRequest(symbol));
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    protected final void onStop() {
+        stopped = true;
+    }
+
+    /**
+     * Handles a bar read from the data feed.
+     * @param candlestick Candlestick that was read.
+     * @throws ExecutionException ExecutionException
+     * @throws InterruptedException InterruptedException
+     */
+    protected abstract void onCandlestick(Candlestick candlestick) throws ExecutionException, InterruptedException;
+
+    /**
+     * Places an order for the symbol of this strategy.
+     * @param order Order to place. The symbol, user and parameter set are filled in.
+     * @return The placed Order, or null if it could not be placed.
+     * @throws ExecutionException ExecutionException
+     * @throws InterruptedException InterruptedException
+     */
+    protected final Order placeOrder(Order order) throws ExecutionException, InterruptedException {
+        order.setSymbol(symbol);
+        order.setUser(user);
+        order.setStrategyParameterSet(strategyParameterSet);
+        Order placedOrder = timed(() -> direct ? getBacktestContext().placeOrder(order) : submitEngineRequest(new PlaceOrderRequest(order)));
+        if(placedOrder != null) {
+            ordersPlaced++;
+        }
+        return placedOrder;
+    }
+
+    private List<Candlestick> readMinute(BacktestContext backtestContext) throws ExecutionException, InterruptedException {
+        return timed(() -> direct ? backtestContext.readFromDataFeed(symbol, 1, IntervalUnitEnum.MINUTE)
+                : submitEngineRequest(new ReadFromDataFeedRequest(symbol, 1, IntervalUnitEnum.MINUTE)));
+    }
+
+    /**
+     * Makes a request and records how long it took, including persisting any Order it returns.
+     */
+    private <T> T timed(Request<T> request) throws ExecutionException, InterruptedException {
+        long start = System.nanoTime();
+        T result = request.make();
+        requestLatencies.record(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Set whether requests are made through the BacktestContext instead of being submitted to the engine. Must be set
+     * before the strategy is run.
+     * @param direct true to use the BacktestContext.
+     */
+    public void setDirect(boolean direct) {
+        this.direct = direct;
+    }
+
+    /**
+     * Get the latencies of the engine requests made so far. These should only be read once the strategy has finished.
+     * @return LatencyRecorder
+     */
+    public LatencyRecorder getRequestLatencies() {
+        return requestLatencies;
+    }
+
+    /**
+     * Get the number of bars read so far. This should only be read once the strategy has finished.
+     * @return Number of bars.
+     */
+    public long getBarsRead() {
+        return barsRead;
+    }
+
+    /**
+     * Get the number of orders placed so far. This should only be read once the strategy has finished.
+     * @return Number of orders.
+     */
+    public long getOrdersPlaced() {
+        return ordersPlaced;
+    }
+
+    @FunctionalInterface
+    private interface Request<T> {
+        T make() throws ExecutionException, InterruptedException;
+    }
+}
@@ -0,0 +1,369 @@
+package com.github.tylerspaeth.benchmark.backtest;
+
+import com.github.tylerspaeth.AppInitializer;
+import com.github.tylerspaeth.broker.backtester.BacktesterDataFeedService;
+import com.github.tylerspaeth.broker.backtester.BacktesterOrderService;
+import com.github.tylerspaeth.broker.backtester.BacktesterSharedService;
+import com.github.tylerspaeth.common.data.dao.*;
+import com.github.tylerspaeth.common.data.entity.*;
+import com.github.tylerspaeth.common.enums.AccountTypeEnum;
+import com.github.tylerspaeth.common.enums.AssetTypeEnum;
+import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
+import com.github.tylerspaeth.engine.EngineCoordinator;
+import com.github.tylerspaeth.engine.request.StrategyRunRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End to end backtest benchmark. A synthetic dataset is loaded into an EmbeddedDatabase and a reference strategy is
+ * backtested over it through the EngineCoordinator, the backtester services and the DAOs, the same path a backtest
+ * started from the UI takes. Throughput, engine request latency, allocation and GC time are written as JSON, and
+ * compared against the JSON of an earlier run when a baseline is given.
+ * <p>
+ * Run with ./gradlew backtestBenchmark --args="--candles 1000000 --strategy MA_CROSSOVER --baseline previous.json". Add
+ * --direct true to make the requests through the BacktestContext instead of the engine.
+ */
+public class BacktestBenchmarkRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BacktestBenchmarkRunner.class);
+
+    private static final int INSERT_BATCH_SIZE = 100_000;
+    private static final Instant DATA_START = Instant.parse("2020-01-01T00:00:00Z");
+    private static final Pattern JSON_NUMBER = Pattern.compile("\"(\\w+)\"\\s*:\\s*(-?[0-9.Ee+-]+)");
+
+    /**
+     * Reference strategies that can be benchmarked.
+     */
+    enum ReferenceStrategy {
+        MA_CROSSOVER,
+        READ_ONLY
+    }
+
+    /**
+     * Command line options of the benchmark.
+     * @param candles Number of one minute Candlesticks to generate.
+     * @param strategy Strategy to backtest.
+     * @param databasePath Path to keep the database files at, or null to keep the database in memory.
+     * @param warmups Number of backtests to run before measuring.
+     * @param runs Number of backtests to measure.
+     * @param output File to write the results to.
+     * @param baseline Results of an earlier run to compare against, or null.
+     * @param tolerance Fraction a metric can be worse than the baseline before it counts as a regression.
+     * @param direct Whether the strategy calls the backtester through the BacktestContext instead of the engine.
+     */
+    record Options(long candles, ReferenceStrategy strategy, String databasePath, int warmups, int runs, Path output,
+                   Path baseline, double tolerance, boolean direct) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new LinkedHashMap<>();
+            for(int i = 0; i + 1 < args.length; i += 2) {
+                if(!args[i].startsWith("--")) {
+                    throw new IllegalArgumentException("Expected an option but found " + args[i]);
+                }
+                values.put(args[i].substring(2), args[i + 1]);
+            }
+            return new Options(
+                    Long.parseLong(values.getOrDefault("candles", "1000000")),
+                    ReferenceStrategy.valueOf(values.getOrDefault("strategy", ReferenceStrategy.MA_CROSSOVER.name())),
+                    values.get("database-path"),
+                    Integer.parseInt(values.getOrDefault("warmups", "1")),
+                    Integer.parseInt(values.getOrDefault("runs", "3")),
+                    Path.of(values.getOrDefault("output", "build/results/backtest-benchmark.json")),
+                    values.containsKey("baseline") ? Path.of(values.get("baseline")) : null,
+                    Double.parseDouble(values.getOrDefault("tolerance", "0.1")),
+                    Boolean.parseBoolean(values.getOrDefault("direct", "false")));
+        }
+    }
+
+    /**
+     * Entities that every backtest of the benchmark shares.
+     */
+    private record Fixtures(Symbol symbol, StrategyParameterSet strategyParameterSet, User user) {}
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+
+        // The database has to be in place before anything touches DatasourceConfig
+        String url = EmbeddedDatabase.start(options.databasePath());
+        LOGGER.info("Started embedded database at {}", url);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("candles", options.candles());
+        results.put("strategy", options.strategy().name());
+        results.put("direct", options.direct());
+        results.put("runs", options.runs());
+
+        long loadStart = System.nanoTime();
+        Fixtures fixtures = createFixtures(options);
+        double loadSeconds = (System.nanoTime() - loadStart) / 1e9;
+        results.put("loadCandlesPerSecond", options.candles() / loadSeconds);
+
+        EngineCoordinator engineCoordinator = createEngine();
+        engineCoordinator.useBacktester();
+        Thread engineThread = AppInitializer.launchEngine(engineCoordinator);
+
+        try {
+            for(int i = 0; i < options.warmups(); i++) {
+                AbstractBenchmarkStrategy strategy = runBacktest(engineCoordinator, fixtures, options);
+                LOGGER.info("Warmup {} read {} bars and placed {} orders.", i + 1, strategy.getBarsRead(), strategy.getOrdersPlaced());
+            }
+            results.putAll(measure(engineCoordinator, fixtures, options));
+        } finally {
+            engineCoordinator.stop();
+            engineThread.join();
+        }
+
+        String json = toJson(results);
+        Files.createDirectories(options.output().toAbsolutePath().getParent());
+        Files.writeString(options.output(), json);
+        LOGGER.info("Backtest benchmark results written to {}\n{}", options.output(), json);
+
+        if(options.baseline() != null) {
+            List<String> regressions = findRegressions(parseJson(Files.readString(options.baseline())), results, options.tolerance());
+            regressions.forEach(regression -> LOGGER.error("Regression: {}", regression));
+            if(!regressions.isEmpty()) {
+                System.exit(1);
+            }
+            LOGGER.info("No regressions against {}", options.baseline());
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Runs the measured backtests and collects their metrics.
+     */
+    private static Map<String, Object> measure(EngineCoordinator engineCoordinator, Fixtures fixtures, Options options) throws Exception {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        List<GarbageCollectorMXBean> garbageCollectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+        LatencyRecorder requestLatencies = new LatencyRecorder();
+        long barsRead = 0;
+        long ordersPlaced = 0;
+
+        long gcTimeStart = garbageCollectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+        long gcCountStart = garbageCollectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+        long allocatedStart = threadMXBean.getTotalThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        for(int i = 0; i < options.runs(); i++) {
+            AbstractBenchmarkStrategy strategy = runBacktest(engineCoordinator, fixtures, options);
+            barsRead += strategy.getBarsRead();
+            ordersPlaced += strategy.getOrdersPlaced();
+            requestLatencies.addAll(strategy.getRequestLatencies());
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long allocated = threadMXBean.getTotalThreadAllocatedBytes() - allocatedStart;
+        long gcTime = garbageCollectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum() - gcTimeStart;
+        long gcCount = garbageCollectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum() - gcCountStart;
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("seconds", seconds);
+        metrics.put("barsRead", barsRead);
+        metrics.put("ordersPlaced", ordersPlaced);
+        metrics.put("barsPerSecond", barsRead / seconds);
+        metrics.put("ordersPerSecond", ordersPlaced / seconds);
+        metrics.put("requests", requestLatencies.getCount());
+        metrics.put("requestLatencyP50Micros", requestLatencies.getPercentile(50) / 1e3);
+        metrics.put("requestLatencyP99Micros", requestLatencies.getPercentile(99) / 1e3);
+        metrics.put("allocationMBPerSecond", allocated / 1e6 / seconds);
+        metrics.put("gcTimeMillis", gcTime);
+        metrics.put("gcTimePercent", gcTime / 10.0 / seconds);
+        metrics.put("gcCount", gcCount);
+        return metrics;
+    }
+
+    /**
+     * Backtests a reference strategy over the whole dataset and waits for it to finish.
+     */
+    private static AbstractBenchmarkStrategy runBacktest(EngineCoordinator engineCoordinator, Fixtures fixtures, Options options) throws Exception {
+        BacktestResult backtestResult = new BacktestResult();
+        backtestResult.setStrategyParameterSet(fixtures.strategyParameterSet());
+        backtestResult.setStartTime(Timestamp.from(Instant.now()));
+        backtestResult.setStartingBalance(100_000f);
+        backtestResult = new BacktestResultDAO().update(backtestResult);
+
+        AbstractBenchmarkStrategy strategy = switch (options.strategy()) {
+            case MA_CROSSOVER -> new MovingAverageCrossoverStrategy(fixtures.strategyParameterSet(), fixtures.user(), backtestResult, fixtures.symbol());
+            case READ_ONLY -> new ReadOnlyStrategy(fixtures.strategyParameterSet(), fixtures.user(), backtestResult, fixtures.symbol());
+        };
+        strategy.setDirect(options.direct());
+        strategy.setEngineCoordinator(engineCoordinator);
+        engineCoordinator.submitRequest(new StrategyRunRequest(strategy));
+        strategy.getCompletionFuture().get();
+        return strategy;
+    }
+
+    /**
+     * Wires the EngineCoordinator the same way AppInitializer does, without the IB services since only the backtester
+     * is used.
+     */
+    private static EngineCoordinator createEngine() {
+        OrderDAO orderDAO = new OrderDAO();
+        SymbolDAO symbolDAO = new SymbolDAO();
+        BacktesterSharedService backtesterSharedService = new BacktesterSharedService(orderDAO, new TradeDAO(), new CommissionDAO());
+        return new EngineCoordinator(Executors.newSingleThreadExecutor(), null, null, null,
+                new BacktesterDataFeedService(backtesterSharedService, symbolDAO, new CandlestickDAO()),
+                new BacktesterOrderService(backtesterSharedService, orderDAO, symbolDAO));
+    }
+
+    /**
+     * Persists the entities a backtest needs along with the synthetic dataset.
+     */
+    private static Fixtures createFixtures(Options options) {
+        Timestamp now = Timestamp.from(Instant.now());
+
+        Exchange exchange = new Exchange();
+        exchange.setName("BENCH");
+        new AbstractDAO<Exchange>() {}.insert(exchange);
+
+        Symbol symbol = new Symbol();
+        symbol.setTicker("BENCH");
+        symbol.setName("Synthetic Benchmark Symbol");
+        symbol.setExchange(exchange);
+        symbol.setAssetType(AssetTypeEnum.EQUITIES);
+        symbol.setCurrency("USD");
+        symbol.setTickSize(0.01f);
+        symbol.setTickValue(0.01f);
+
+        HistoricalDataset historicalDataset = new HistoricalDataset();
+        historicalDataset.setDatasetName("Synthetic " + options.candles());
+        historicalDataset.setDatasetSource("Synthetic");
+        historicalDataset.setSymbol(symbol);
+        historicalDataset.setTimeInterval(1);
+        historicalDataset.setIntervalUnit(IntervalUnitEnum.MINUTE);
+        historicalDataset.setDatasetStart(Timestamp.from(DATA_START));
+        historicalDataset.setDatasetEnd(Timestamp.from(DATA_START));
+        historicalDataset.setLastUpdated(now);
+        symbol.getHistoricalDatasets().add(historicalDataset);
+        new SymbolDAO().insert(symbol);
+
+        Commission commission = new Commission();
+        commission.setAssetType(AssetTypeEnum.EQUITIES);
+        commission.setCommissionAmount(1f);
+        new CommissionDAO().insert(commission);
+
+        appendSyntheticCandlesticks(historicalDataset, options.candles());
+
+        Strategy strategy = new Strategy();
+        strategy.setName(options.strategy().name());
+        strategy.setVersion(0);
+        strategy.setActive(true);
+        strategy.setCreatedAt(now);
+        strategy.setLastUpdated(now);
+
+        StrategyParameterSet strategyParameterSet = new StrategyParameterSet();
+        strategyParameterSet.setName("Benchmark");
+        strategyParameterSet.setStrategy(strategy);
+        strategyParameterSet.getStrategyParameters().add(createStrategyParameter(strategyParameterSet, "fastPeriod", "10"));
+        strategyParameterSet.getStrategyParameters().add(createStrategyParameter(strategyParameterSet, "slowPeriod", "50"));
+        strategy.getStrategyParameterSets().add(strategyParameterSet);
+        new StrategyDAO().insert(strategy);
+
+        User user = new User();
+        user.setExternalAccountID("BENCH");
+        user.setAccountType(AccountTypeEnum.INTERNAL);
+        new UserDAO().insert(user);
+
+        return new Fixtures(symbol, strategyParameterSet, user);
+    }
+
+    private static StrategyParameter createStrategyParameter(StrategyParameterSet strategyParameterSet, String name, String value) {
+        StrategyParameter strategyParameter = new StrategyParameter();
+        strategyParameter.setStrategyParameterSet(strategyParameterSet);
+        strategyParameter.setName(name);
+        strategyParameter.setValue(value);
+        return strategyParameter;
+    }
+
+    /**
+     * Appends a seeded random walk of one minute Candlesticks to the dataset in batches, so that datasets far larger
+     * than the heap can be generated.
+     */
+    private static void appendSyntheticCandlesticks(HistoricalDataset historicalDataset, long count) {
+        CandlestickDAO candlestickDAO = new CandlestickDAO();
+        Random random = new Random(42);
+        float close = 100;
+        List<Candlestick> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for(long i = 0; i < count; i++) {
+            float open = close;
+            close = Math.max(1, open + (random.nextFloat() - 0.5f));
+            float high = Math.max(open, close) + random.nextFloat() * 0.25f;
+            float low = Math.min(open, close) - random.nextFloat() * 0.25f;
+            batch.add(new Candlestick(open, high, low, close, (float) random.nextInt(1000), Timestamp.from(DATA_START.plusSeconds(60 * (i + 1)))));
+
+            if(batch.size() == INSERT_BATCH_SIZE || i == count - 1) {
+                candlestickDAO.appendCandlesticks(historicalDataset, batch, Timestamp.from(Instant.now()));
+                historicalDataset.setDatasetEnd(batch.getLast().getTimestamp());
+                batch.clear();
+                if((i + 1) % (INSERT_BATCH_SIZE * 10L) == 0) {
+                    LOGGER.info("Generated {} of {} Candlesticks", i + 1, count);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares the results of this run against a baseline. Throughput that has dropped or latency that has grown by
+     * more than the tolerance is a regression.
+     * @param baseline Metrics of the baseline run.
+     * @param results Metrics of this run.
+     * @param tolerance Fraction a metric can be worse than the baseline.
+     * @return Descriptions of the regressions found.
+     */
+    static List<String> findRegressions(Map<String, Double> baseline, Map<String, Object> results, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for(String metric : List.of("loadCandlesPerSecond", "barsPerSecond", "ordersPerSecond")) {
+            Double expected = baseline.get(metric);
+            if(expected != null && expected > 0 && ((Number) results.get(metric)).doubleValue() < expected * (1 - tolerance)) {
+                regressions.add(metric + " dropped from " + expected + " to " + results.get(metric));
+            }
+        }
+        for(String metric : List.of("requestLatencyP50Micros", "requestLatencyP99Micros")) {
+            Double expected = baseline.get(metric);
+            if(expected != null && expected > 0 && ((Number) results.get(metric)).doubleValue() > expected * (1 + tolerance)) {
+                regressions.add(metric + " grew from " + expected + " to " + results.get(metric));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Reads the numeric fields of a results file written by this benchmark.
+     */
+    static Map<String, Double> parseJson(String json) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        Matcher matcher = JSON_NUMBER.matcher(json);
+        while(matcher.find()) {
+            values.put(matcher.group(1), Double.parseDouble(matcher.group(2)));
+        }
+        return values;
+    }
+
+    private static String toJson(Map<String, Object> results) {
+        StringBuilder json = new StringBuilder("{\n");
+        int i = 0;
+        for(Map.Entry<String, Object> entry : results.entrySet()) {
+            Object value = entry.getValue();
+            json.append("  \"").append(entry.getKey()).append("\": ")
+                    .append(value instanceof String ? "\"" + value + "\"" : value)
+                    .append(++i < results.size() ? ",\n" : "\n");
+        }
+        return json.append("}\n").toString();
+    }
+}
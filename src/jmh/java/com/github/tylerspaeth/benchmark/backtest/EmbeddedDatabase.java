@@ -0,0 +1,108 @@
+package com.github.tylerspaeth.benchmark.backtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * H2 database in MySQL mode that the application is pointed at instead of MySQL, created from the same algonexus.sql
+ * schema that MySQL is.
+ */
+public final class EmbeddedDatabase {
+
+    private static final String SCHEMA_RESOURCE = "/database/algonexus.sql";
+    // Lower case unquoted names so Hibernate's names match the backtick quoted names of the schema, and allow the
+    // column names that are keywords in H2 to be used unquoted
+    private static final String URL_SETTINGS = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;NON_KEYWORDS=VALUE,TIMESTAMP";
+
+    private static final Pattern FOREIGN_KEY = Pattern.compile(
+            ",\\s*CONSTRAINT\\s+(`\\w+`)\\s+FOREIGN KEY\\s*\\(([^)]*)\\)\\s*REFERENCES\\s+(`\\w+`)\\s*\\(([^)]*)\\)");
+    private static final Pattern TABLE_NAME = Pattern.compile("CREATE TABLE IF NOT EXISTS\\s+`(\\w+)`");
+
+    private EmbeddedDatabase() {}
+
+    /**
+     * Creates the database and points the application at it. This must be called before anything uses
+     * DatasourceConfig since the EntityManagerFactory reads its settings once.
+     * @param databasePath Path of the database files, or null to hold the database in memory.
+     * @return JDBC URL of the database.
+     * @throws SQLException if the schema could not be created.
+     * @throws IOException if the schema could not be read.
+     */
+    public static String start(String databasePath) throws SQLException, IOException {
+        String url = (databasePath == null ? "jdbc:h2:mem:algonexus;DB_CLOSE_DELAY=-1" : "jdbc:h2:file:" + databasePath) + URL_SETTINGS;
+
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            for(String sql : translateSchema(readSchema())) {
+                statement.execute(sql);
+            }
+        }
+
+        System.setProperty("jakarta.persistence.jdbc.driver", "org.h2.Driver");
+        System.setProperty("jakarta.persistence.jdbc.url", url);
+        System.setProperty("jakarta.persistence.jdbc.user", "sa");
+        System.setProperty("jakarta.persistence.jdbc.password", "");
+        System.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        System.setProperty("hibernate.hbm2ddl.auto", "none");
+        return url;
+    }
+
+    /**
+     * Translates the MySQL Workbench script into statements H2 accepts. Table options, index visibility and the session
+     * variables that Workbench saves and restores are dropped. Index names are prefixed with their table since H2 needs
+     * them to be unique across the schema. MySQL allows tables to reference tables created after them while foreign key
+     * checks are off, so the foreign keys are added once every table exists.
+     * @param script Contents of algonexus.sql.
+     * @return Statements in the order they should be run.
+     */
+    static List<String> translateSchema(String script) {
+        List<String> createTables = new ArrayList<>();
+        List<String> foreignKeys = new ArrayList<>();
+
+        for(String sql : script.replaceAll("(?m)^--.*$", "").split(";")) {
+            sql = sql.strip();
+            if(!sql.startsWith("CREATE TABLE")) {
+                continue;
+            }
+            sql = sql.replace("`algonexus`.", "")
+                    .replaceAll("\\)\\s*ENGINE\\s*=[\\s\\S]*$", ")")
+                    .replace(" VISIBLE", "")
+                    .replace("b'0'", "FALSE")
+                    .replace("b'1'", "TRUE");
+
+            Matcher tableName = TABLE_NAME.matcher(sql);
+            if(!tableName.find()) {
+                continue;
+            }
+            sql = sql.replaceAll("INDEX\\s+`(\\w+)`", "INDEX `" + tableName.group(1) + "_$1`");
+            Matcher foreignKey = FOREIGN_KEY.matcher(sql);
+            while(foreignKey.find()) {
+                foreignKeys.add("ALTER TABLE `" + tableName.group(1) + "` ADD CONSTRAINT " + foreignKey.group(1) + " FOREIGN KEY (" + foreignKey.group(2)
+                        + ") REFERENCES " + foreignKey.group(3) + " (" + foreignKey.group(4) + ")");
+            }
+            createTables.add(foreignKey.replaceAll(""));
+        }
+
+        List<String> statements = new ArrayList<>(createTables);
+        statements.addAll(foreignKeys);
+        return statements;
+    }
+
+    private static String readSchema() throws IOException {
+        try (InputStream inputStream = EmbeddedDatabase.class.getResourceAsStream(SCHEMA_RESOURCE)) {
+            if(inputStream == null) {
+                throw new IOException("Unable to find " + SCHEMA_RESOURCE + " on the classpath.");
+            }
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.tylerspaeth.benchmark.backtest;
+
+/**
+ * Records latencies into a log-linear histogram so that percentiles can be taken over the hundreds of millions of
+ * requests of a large backtest without keeping every latency. Each power of two is split into 32 buckets, so a
+ * percentile is accurate to within about 3%.
+ */
+public class LatencyRecorder {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT * 2 + (62 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long count = 0;
+
+    /**
+     * Records a latency.
+     * @param nanos Latency in nanoseconds.
+     */
+    public synchronized void record(long nanos) {
+        counts[bucketOf(Math.max(0, nanos))]++;
+        count++;
+    }
+
+    /**
+     * Adds all the latencies of another recorder to this one.
+     * @param other LatencyRecorder to copy from.
+     */
+    public synchronized void addAll(LatencyRecorder other) {
+        synchronized (other) {
+            for(int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] += other.counts[i];
+            }
+            count += other.count;
+        }
+    }
+
+    /**
+     * Get the number of latencies that have been recorded.
+     * @return Number of latencies.
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * Get a percentile of the recorded latencies using the nearest rank.
+     * @param percentile Percentile between 0 and 100.
+     * @return Lower bound of the bucket holding the latency in nanoseconds, or 0 if nothing has been recorded.
+     */
+    public synchronized long getPercentile(double percentile) {
+        if(count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for(int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if(seen >= rank) {
+                return lowerBoundOf(i);
+            }
+        }
+        return lowerBoundOf(BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Values below twice the sub bucket count each get their own bucket. Above that, the position of the highest bit
+     * picks the power of two and the bits below it pick the sub bucket.
+     */
+    static int bucketOf(long value) {
+        if(value < SUB_BUCKET_COUNT * 2) {
+            return (int) value;
+        }
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        int shift = highestBit - SUB_BUCKET_BITS;
+        return SUB_BUCKET_COUNT * 2 + (highestBit - SUB_BUCKET_BITS - 1) * SUB_BUCKET_COUNT + (int) (value >> shift) - SUB_BUCKET_COUNT;
+    }
+
+    static long lowerBoundOf(int bucket) {
+        if(bucket < SUB_BUCKET_COUNT * 2) {
+            return bucket;
+        }
+        int offset = bucket - SUB_BUCKET_COUNT * 2;
+        int highestBit = offset / SUB_BUCKET_COUNT + SUB_BUCKET_BITS + 1;
+        long subBucket = offset % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return subBucket << (highestBit - SUB_BUCKET_BITS);
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.tylerspaeth.benchmark.backtest;
+
+import com.github.tylerspaeth.common.data.entity.BacktestResult;
+import com.github.tylerspaeth.common.data.entity.Candlestick;
+import com.github.tylerspaeth.common.data.entity.Order;
+import com.github.tylerspaeth.common.data.entity.StrategyParameterSet;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.common.data.entity.User;
+import com.github.tylerspaeth.common.enums.OrderTypeEnum;
+import com.github.tylerspaeth.common.enums.SideEnum;
+import com.github.tylerspaeth.common.enums.TimeInForceEnum;
+import com.github.tylerspaeth.strategy.annotation.StrategyParameter;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Holds a single contract long while the fast moving average of the close is above the slow one and short while it is
+ * below, reversing with a market order at each crossover. This exercises order placement, fills and the persistence of
+ * Orders and Trades alongside reading bars.
+ */
+public class MovingAverageCrossoverStrategy extends AbstractBenchmarkStrategy {
+
+    @StrategyParameter
+    private int fastPeriod;
+
+    @StrategyParameter
+    private int slowPeriod;
+
+    private float[] closes;
+    private int closeCount = 0;
+    private double fastSum = 0;
+    private double slowSum = 0;
+    private int position = 0;
+
+    public MovingAverageCrossoverStrategy(StrategyParameterSet strategyParameterSet, User user, BacktestResult backtestResult, Symbol symbol) {
+        super(strategyParameterSet, user, backtestResult, symbol);
+    }
+
+    @Override
+    protected void onCandlestick(Candlestick candlestick) throws ExecutionException, InterruptedException {
+        // Parameters are only populated once the strategy starts running
+        if(closes == null) {
+            closes = new float[slowPeriod];
+        }
+
+        float close = candlestick.getClose();
+        fastSum += close;
+        slowSum += close;
+        if(closeCount >= fastPeriod) {
+            fastSum -= closes[(closeCount - fastPeriod) % slowPeriod];
+        }
+        if(closeCount >= slowPeriod) {
+            slowSum -= closes[closeCount % slowPeriod];
+        }
+        closes[closeCount % slowPeriod] = close;
+        closeCount++;
+
+        if(closeCount < slowPeriod) {
+            return;
+        }
+
+        int desiredPosition = fastSum / fastPeriod > slowSum / slowPeriod ? 1 : -1;
+        if(desiredPosition == position) {
+            return;
+        }
+
+        Order order = new Order();
+        order.setOrderType(OrderTypeEnum.MKT);
+        order.setSide(desiredPosition > position ? SideEnum.BUY : SideEnum.SELL);
+        order.setQuantity((float) Math.abs(desiredPosition - position));
+        order.setTimeInForce(TimeInForceEnum.GTC);
+        order.setTransmit(true);
+        if(placeOrder(order) != null) {
+            position = desiredPosition;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.tylerspaeth.benchmark.backtest;
+
+import com.github.tylerspaeth.common.data.entity.BacktestResult;
+import com.github.tylerspaeth.common.data.entity.Candlestick;
+import com.github.tylerspaeth.common.data.entity.StrategyParameterSet;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.common.data.entity.User;
+
+/**
+ * Reads every bar without trading so that the cost of the data feed can be separated from the cost of orders.
+ */
+public class ReadOnlyStrategy extends AbstractBenchmarkStrategy {
+
+    public ReadOnlyStrategy(StrategyParameterSet strategyParameterSet, User user, BacktestResult backtestResult, Symbol symbol) {
+        super(strategyParameterSet, user, backtestResult, symbol);
+    }
+
+    @Override
+    protected void onCandlestick(Candlestick candlestick) {
+        // Only the reads are being measured
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.tylerspaeth.broker.backtester;
+
+import com.github.tylerspaeth.benchmark.BenchmarkFixtures;
+import com.github.tylerspaeth.benchmark.InMemoryDAOs;
+import com.github.tylerspaeth.common.data.entity.Candlestick;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long the backtester takes to read a whole dataset through a data feed that condenses its Candlesticks
+ * into larger ones. Each invocation subscribes, reads until the data feed is empty, then unsubscribes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BacktesterDataFeedServiceBenchmark {
+
+    private static final Instant DATASET_START = Instant.parse("2024-01-02T00:00:00Z");
+
+    /**
+     * 1s_to_1m reads six hours of one second Candlesticks as one minute Candlesticks. 1m_to_1h reads thirty days of one
+     * minute Candlesticks as one hour Candlesticks.
+     */
+    @Param({"1s_to_1m", "1m_to_1h"})
+    public String condensation;
+
+    private BacktesterDataFeedService backtesterDataFeedService;
+    private Symbol symbol;
+    private IntervalUnitEnum readIntervalUnit;
+    private long threadID;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Candlestick> candlesticks;
+        symbol = BenchmarkFixtures.createSymbol(1);
+        switch(condensation) {
+            case "1s_to_1m" -> {
+                candlesticks = BenchmarkFixtures.createCandlesticks(DATASET_START, 6 * 3600, 1);
+                BenchmarkFixtures.createHistoricalDataset(symbol, 1, IntervalUnitEnum.SECOND, candlesticks);
+                readIntervalUnit = IntervalUnitEnum.MINUTE;
+            }
+            case "1m_to_1h" -> {
+                candlesticks = BenchmarkFixtures.createCandlesticks(DATASET_START, 30 * 24 * 60, 60);
+                BenchmarkFixtures.createHistoricalDataset(symbol, 1, IntervalUnitEnum.MINUTE, candlesticks);
+                readIntervalUnit = IntervalUnitEnum.HOUR;
+            }
+            default -> throw new IllegalArgumentException("Unknown condensation " + condensation);
+        }
+
+        BacktesterSharedService backtesterSharedService = new BacktesterSharedService(new InMemoryDAOs.NoOpOrderDAO(), new InMemoryDAOs.NoOpTradeDAO(), new InMemoryDAOs.ZeroCommissionDAO());
+        backtesterDataFeedService = new BacktesterDataFeedService(backtesterSharedService, new InMemoryDAOs.PassThroughSymbolDAO(), new InMemoryDAOs.InMemoryCandlestickDAO(candlesticks));
+    }
+
+    @Benchmark
+    public int readWholeDataset(Blackhole blackhole) {
+        // Each invocation uses a new thread ID so that it starts from a fresh data feed
+        threadID++;
+        backtesterDataFeedService.subscribeToDataFeed(threadID, symbol);
+        int read = 0;
+        List<Candlestick> candlesticks;
+        while(!(candlesticks = backtesterDataFeedService.readFromDataFeed(threadID, symbol, 1, readIntervalUnit)).isEmpty()) {
+            blackhole.consume(candlesticks);
+            read += candlesticks.size();
+        }
+        backtesterDataFeedService.unsubscribeFromDataFeed(threadID, symbol);
+        return read;
+    }
+}
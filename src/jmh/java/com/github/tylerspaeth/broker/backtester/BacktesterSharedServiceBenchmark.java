@@ -0,0 +1,98 @@
+package com.github.tylerspaeth.broker.backtester;
+
+import com.github.tylerspaeth.benchmark.BenchmarkFixtures;
+import com.github.tylerspaeth.benchmark.InMemoryDAOs;
+import com.github.tylerspaeth.common.data.entity.*;
+import com.github.tylerspaeth.common.enums.OrderTypeEnum;
+import com.github.tylerspaeth.common.enums.SideEnum;
+import com.github.tylerspaeth.common.enums.TimeInForceEnum;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long the backtester takes to check every pending order against a new Candlestick. The orders are
+ * priced away from the market so none of them fill and the number pending stays the same for every invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BacktesterSharedServiceBenchmark {
+
+    private static final Timestamp CURRENT_TIMESTAMP = Timestamp.from(Instant.parse("2024-01-02T15:00:00Z")); // Within US trading hours
+
+    @Param({"10", "1000", "10000"})
+    public int pendingOrderCount;
+
+    private BacktesterSharedService backtesterSharedService;
+    private BacktesterDataFeedKey mapKey;
+    private Candlestick risingCandlestick;
+    private Candlestick fallingCandlestick;
+    private boolean rising;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        backtesterSharedService = new BacktesterSharedService(new InMemoryDAOs.NoOpOrderDAO(), new InMemoryDAOs.NoOpTradeDAO(), new InMemoryDAOs.ZeroCommissionDAO());
+
+        Symbol symbol = BenchmarkFixtures.createSymbol(1);
+        mapKey = new BacktesterDataFeedKey(symbol.getSymbolID(), Thread.currentThread().threadId());
+        risingCandlestick = new Candlestick(99f, 101f, 98.5f, 100.5f, 100f, CURRENT_TIMESTAMP);
+        fallingCandlestick = new Candlestick(100.5f, 101.5f, 99f, 99.5f, 100f, CURRENT_TIMESTAMP);
+
+        HistoricalDataset historicalDataset = new HistoricalDataset();
+        historicalDataset.setSymbol(symbol);
+        backtesterSharedService.setHistoricalDatasetForMapKey(mapKey, historicalDataset);
+        backtesterSharedService.updateDataFeed(mapKey, risingCandlestick, CURRENT_TIMESTAMP);
+
+        User user = new User();
+        for(int i = 0; i < pendingOrderCount; i++) {
+            backtesterSharedService.addOrder(mapKey, createOrder(i, symbol, user));
+        }
+        if(backtesterSharedService.pendingOrders.get(mapKey).size() != pendingOrderCount) {
+            throw new IllegalStateException("Expected " + pendingOrderCount + " pending orders.");
+        }
+    }
+
+    @Benchmark
+    public void updateDataFeed() {
+        // Alternate between two Candlesticks so that trailing orders keep moving without ever being reached
+        rising = !rising;
+        backtesterSharedService.updateDataFeed(mapKey, rising ? risingCandlestick : fallingCandlestick, CURRENT_TIMESTAMP);
+    }
+
+    /**
+     * Creates one of a mix of LMT, STP and TRL_LMT orders on either side, all far enough from the market to never fill.
+     * @param orderID ID to give the order.
+     * @param symbol Symbol the order is for.
+     * @param user User placing the order.
+     * @return Order
+     */
+    private static Order createOrder(int orderID, Symbol symbol, User user) {
+        Order order = new Order();
+        order.setOrderID(orderID);
+        order.setSymbol(symbol);
+        order.setUser(user);
+        order.setQuantity(1f);
+        order.setTransmit(true);
+        order.setTimeInForce(orderID % 2 == 0 ? TimeInForceEnum.GTC : TimeInForceEnum.DAY);
+        order.setSide(orderID % 2 == 0 ? SideEnum.BUY : SideEnum.SELL);
+        boolean buy = order.getSide() == SideEnum.BUY;
+        switch(orderID / 2 % 3) {
+            case 0 -> {
+                order.setOrderType(OrderTypeEnum.LMT);
+                order.setPrice(buy ? 50f : 150f);
+            }
+            case 1 -> {
+                order.setOrderType(OrderTypeEnum.STP);
+                order.setPrice(buy ? 150f : 50f);
+            }
+            default -> {
+                order.setOrderType(OrderTypeEnum.TRL_LMT);
+                order.setTrailAmount(10f);
+            }
+        }
+        return order;
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.tylerspaeth.common;
+
+import com.github.tylerspaeth.common.enums.OverflowPolicyEnum;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing to a BroadcastRingBuffer and fanning each item out to its readers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BroadcastRingBufferBenchmark {
+
+    private static final int CAPACITY = BroadcastRingBuffer.DEFAULT_CAPACITY;
+
+    /**
+     * Buffer with a number of readers that are all read from the benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class FanOutState {
+
+        @Param({"1", "4", "16"})
+        public int readerCount;
+
+        BroadcastRingBuffer<Object> buffer;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            buffer = new BroadcastRingBuffer<>(CAPACITY, OverflowPolicyEnum.SKIP_TO_OLDEST);
+            for(long threadID = 0; threadID < readerCount; threadID++) {
+                buffer.subscribe(threadID);
+            }
+        }
+    }
+
+    /**
+     * Buffer shared by a writer thread and reader threads.
+     */
+    @State(Scope.Group)
+    public static class SharedState {
+
+        final BroadcastRingBuffer<Object> buffer = new BroadcastRingBuffer<>(CAPACITY, OverflowPolicyEnum.SKIP_TO_OLDEST);
+    }
+
+    /**
+     * Subscribes each reader thread to the shared buffer under its own thread ID.
+     */
+    @State(Scope.Thread)
+    public static class ReaderState {
+
+        long threadID;
+
+        @Setup(Level.Trial)
+        public void setup(SharedState sharedState) {
+            threadID = Thread.currentThread().threadId();
+            sharedState.buffer.subscribe(threadID);
+        }
+    }
+
+    private final Object item = new Object();
+
+    @Benchmark
+    public void writeThenFanOut(FanOutState state, Blackhole blackhole) {
+        state.buffer.write(item);
+        for(long threadID = 0; threadID < state.readerCount; threadID++) {
+            blackhole.consume(state.buffer.read(threadID));
+        }
+    }
+
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(1)
+    public void write(SharedState sharedState) {
+        sharedState.buffer.write(item);
+    }
+
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(3)
+    public Object read(SharedState sharedState, ReaderState readerState) {
+        return sharedState.buffer.read(readerState.threadID);
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.tylerspaeth.statistics;
+
+import com.github.tylerspaeth.benchmark.BenchmarkFixtures;
+import com.github.tylerspaeth.common.data.entity.Order;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.common.data.entity.Trade;
+import com.github.tylerspaeth.common.enums.OptimizationMetricEnum;
+import com.github.tylerspaeth.common.enums.SideEnum;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the StatisticsUtils metrics that are calculated from the trades of a backtest. The Sharpe ratio is left out
+ * since it reads Candlesticks through its own CandlestickDAO.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StatisticsUtilsBenchmark {
+
+    @Param({"100", "10000"})
+    public int tradeCount;
+
+    private List<Trade> trades;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Symbol symbol = BenchmarkFixtures.createSymbol(1);
+        symbol.setTickSize(0.25f);
+        symbol.setTickValue(12.5f);
+        Order order = new Order();
+        order.setSymbol(symbol);
+
+        // Positions of random size that are opened, sometimes added to, and then closed or reversed
+        Random random = new Random(42);
+        Instant time = Instant.parse("2024-01-02T15:00:00Z");
+        trades = new ArrayList<>(tradeCount);
+        for(int i = 0; i < tradeCount; i++) {
+            Trade trade = new Trade();
+            trade.setOrder(order);
+            trade.setSide(random.nextBoolean() ? SideEnum.BUY : SideEnum.SELL);
+            trade.setFillQuantity((float) (1 + random.nextInt(5)));
+            trade.setFillPrice(100 + random.nextFloat() * 10);
+            trade.setFees(1.5f);
+            trade.setTimestamp(Timestamp.from(time.plusSeconds(60L * i)));
+            trades.add(trade);
+        }
+    }
+
+    @Benchmark
+    public float calculatePnL() {
+        return StatisticsUtils.calculatePnL(trades);
+    }
+
+    @Benchmark
+    public double[] calculateTradePnLs() {
+        return StatisticsUtils.calculateTradePnLs(trades);
+    }
+
+    @Benchmark
+    public int calculatePositionsTaken() {
+        return StatisticsUtils.calculatePositionsTaken(trades);
+    }
+
+    @Benchmark
+    public float calculatePnLPerPosition() {
+        return StatisticsUtils.calculateOptimizationMetric(trades, OptimizationMetricEnum.PNL_PER_POSITION);
+    }
+}
@@ -7,12 +7,21 @@ import com.github.tylerspaeth.broker.ib.service.IBAccountService;
 import com.github.tylerspaeth.broker.ib.service.IBDataFeedService;
 import com.github.tylerspaeth.broker.ib.service.IBOrderService;
 import com.github.tylerspaeth.common.data.dao.*;
+import com.github.tylerspaeth.common.metrics.MetricsRegistry;
+import com.github.tylerspaeth.common.metrics.PrometheusExporter;
+import com.github.tylerspaeth.config.DatasourceConfig;
 import com.github.tylerspaeth.engine.EngineCoordinator;
+import com.github.tylerspaeth.optimization.BacktestWorker;
 import com.github.tylerspaeth.strategy.StrategyRegistry;
 import com.github.tylerspaeth.ui.TUI;
 import com.github.tylerspaeth.ui.UIContext;
 import com.github.tylerspaeth.ui.view.signin.SignInMenu;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -23,6 +32,13 @@ import java.util.concurrent.TimeUnit;
  */
 public class AppInitializer {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(AppInitializer.class);
+
+    private static final String METRICS_FILE_PROPERTY = "algonexus.metrics.file";
+    private static final String METRICS_PORT_PROPERTY = "algonexus.metrics.port";
+    private static final long METRICS_FILE_EXPORT_SECONDS = 15;
+    private static final long WORKER_SHUTDOWN_MILLIS = 10_000; // Time given to a worker to give its backtests back to the queue
+
     /**
      * Initializes the StrategyRegistry
      */
@@ -31,6 +47,54 @@ public class AppInitializer {
         strategyRegistry.initialize();
     }
 
+    /**
+     * Bootstraps and validates the database and initializes the StrategyRegistry on a background thread so that the UI
+     * can start while they load.
+     * @return CompletableFuture that completes once the database and strategies are ready, or exceptionally if either failed.
+     */
+    public static CompletableFuture<Void> initializeInBackground() {
+        CompletableFuture<Void> startup = new CompletableFuture<>();
+        Thread startupThread = new Thread(() -> {
+            long startNanos = System.nanoTime();
+            try {
+                DatasourceConfig.validate();
+                initializeStrategyRegistry();
+                LOGGER.info("Database and strategies initialized in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                startup.complete(null);
+            } catch (Throwable e) {
+                // A failed EntityManagerFactory bootstrap surfaces as an ExceptionInInitializerError
+                LOGGER.error("Failed to initialize the database and strategies.", e);
+                startup.completeExceptionally(e);
+            }
+        }, "Startup-Thread");
+        startupThread.start();
+        return startup;
+    }
+
+    /**
+     * Starts exporting metrics in the Prometheus format to a file and/or over HTTP if they have been enabled with the
+     * algonexus.metrics.file and algonexus.metrics.port system properties.
+     */
+    public static void startMetricsExport() {
+        String metricsFile = System.getProperty(METRICS_FILE_PROPERTY);
+        String metricsPort = System.getProperty(METRICS_PORT_PROPERTY);
+        if(metricsFile == null && metricsPort == null) {
+            return;
+        }
+
+        PrometheusExporter prometheusExporter = new PrometheusExporter(MetricsRegistry.getInstance());
+        if(metricsFile != null) {
+            prometheusExporter.startFileExport(Path.of(metricsFile), METRICS_FILE_EXPORT_SECONDS);
+        }
+        if(metricsPort != null) {
+            try {
+                prometheusExporter.startHttpServer(Integer.parseInt(metricsPort));
+            } catch (IOException | NumberFormatException e) {
+                LOGGER.error("Failed to serve metrics on port {}", metricsPort, e);
+            }
+        }
+    }
+
     /**
      * Create the EngineCoordinator that will be used the engine and ui threads
      * @return EngineCoordinator
@@ -64,16 +128,40 @@ public class AppInitializer {
     /**
      * Wires and launches the UI thread.
      * @param engineCoordinator EngineCoordinator
+     * @param startup CompletableFuture that completes once the application is ready for the first view to be shown.
      * @return Thread that the UI is running on.
      */
-    public static Thread launchUI(EngineCoordinator engineCoordinator) {
+    public static Thread launchUI(EngineCoordinator engineCoordinator, CompletableFuture<Void> startup) {
         Thread uiThread = new Thread(() -> {
-                new TUI(new UIContext(engineCoordinator)).run(new SignInMenu());
+                new TUI(new UIContext(engineCoordinator)).run(new SignInMenu(), startup);
         }, "UI-Thread");
         uiThread.start();
         return uiThread;
     }
 
+    /**
+     * Wires and launches a BacktestWorker that runs backtests from the shared work queue until the process is shut down.
+     * Any backtests still running at shutdown are given back to the queue for another worker.
+     * @param engineCoordinator EngineCoordinator
+     * @return Thread that the worker is running on.
+     */
+    public static Thread launchBacktestWorker(EngineCoordinator engineCoordinator) {
+        engineCoordinator.useBacktester();
+        BacktestWorker backtestWorker = BacktestWorker.fromSystemProperties(engineCoordinator);
+        Thread workerThread = new Thread(backtestWorker, "Backtest-Worker-Thread");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            backtestWorker.stop();
+            try {
+                workerThread.join(WORKER_SHUTDOWN_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "Backtest-Worker-Shutdown-Thread"));
+        workerThread.start();
+        LOGGER.info("Running as backtest worker {}", backtestWorker.getWorkerID());
+        return workerThread;
+    }
+
     /**
      * Creates the ExecutorService that the engine will use for request processing.
      * @return ExecutorService
@@ -3,19 +3,52 @@ package com.github.tylerspaeth;
 import com.github.tylerspaeth.config.DatasourceConfig;
 import com.github.tylerspaeth.engine.EngineCoordinator;
 
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
 public class Main {
-    static void main() throws InterruptedException {
+
+    private static final String WORKER_ARGUMENT = "--worker";
+
+    static void main(String[] args) throws InterruptedException {
 
         // Initialization logic
-        DatasourceConfig.validate();
+        boolean worker = Arrays.asList(args).contains(WORKER_ARGUMENT);
+
+        // The database and strategies load in the background while the UI starts. Workers have nothing to start in the
+        // meantime so they load them first.
+        CompletableFuture<Void> startup;
+        if(worker) {
+            DatasourceConfig.validate();
+            AppInitializer.initializeStrategyRegistry();
+            startup = CompletableFuture.completedFuture(null);
+        } else {
+            startup = AppInitializer.initializeInBackground();
+        }
 
-        AppInitializer.initializeStrategyRegistry();
+        AppInitializer.startMetricsExport();
 
         EngineCoordinator engineCoordinator = AppInitializer.createEngine();
 
         Thread engineThread = AppInitializer.launchEngine(engineCoordinator);
 
-        Thread uiThread = AppInitializer.launchUI(engineCoordinator);
+        // Nothing can run without the database, so the engine is stopped to let the application exit
+        startup.whenComplete((_, throwable) -> {
+            if(throwable != null) {
+                engineCoordinator.stop();
+            }
+        });
+
+        // Workers only run backtests from the shared work queue, so they have no UI
+        if(worker) {
+            Thread workerThread = AppInitializer.launchBacktestWorker(engineCoordinator);
+            workerThread.join();
+            engineCoordinator.stop();
+            engineThread.join();
+            return;
+        }
+
+        Thread uiThread = AppInitializer.launchUI(engineCoordinator, startup);
 
         engineThread.join();
         uiThread.join();
@@ -0,0 +1,230 @@
+package com.github.tylerspaeth.broker.backtester;
+
+import com.github.tylerspaeth.common.data.entity.Candlestick;
+import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshot of a backtest that can be resumed from. Data feeds are identified by symbol rather than by thread since the
+ * resumed backtest runs on a new thread. Orders and Trades are already persisted, so only the IDs needed to find the
+ * ones made after the snapshot and the in-memory state of the pending Orders are kept.
+ * @param backtestResultID ID of the BacktestResult being run.
+ * @param maxOrderID Highest ID of the Orders placed by the backtest, or null if there were none.
+ * @param maxTradeID Highest ID of the Trades made by the backtest, or null if there were none.
+ * @param dataFeeds State of each data feed of the backtest.
+ * @param strategyState State saved by the strategy.
+ */
+public record BacktestCheckpoint(Integer backtestResultID, Integer maxOrderID, Integer maxTradeID, List<DataFeedCheckpoint> dataFeeds, byte[] strategyState) {
+
+    private static final int MAGIC = 0x414C4E43;
+    private static final short VERSION = 1;
+
+    /**
+     * State of a single data feed in the BacktesterDataFeedService and BacktesterSharedService.
+     * @param symbolID ID of the Symbol the data feed is for.
+     * @param historicalDatasetID ID of the HistoricalDataset being read, or null if one has not been picked yet.
+     * @param intervalDuration Interval duration being read, or null if the data feed has not been read.
+     * @param intervalUnit Interval unit being read, or null if the data feed has not been read.
+     * @param cursor Timestamp the next page of Candlesticks is read after.
+     * @param lastCondensedTimestamp Timestamp of the last Candlestick that was condensed, or null if there is none.
+     * @param candlesticksPendingReturn Condensed Candlesticks not yet returned, or null if the data feed has not been read.
+     * @param candlesticksPendingCondensation Candlesticks read but not yet condensed, or null if there are none.
+     * @param lastSeenCandlestick Candlestick the data feed is at, or null if there is none.
+     * @param currentTimestamp Time the data feed is at, or null if there is none.
+     * @param pendingOrders Orders that had not been finalized.
+     */
+    public record DataFeedCheckpoint(Integer symbolID, Integer historicalDatasetID, Integer intervalDuration, IntervalUnitEnum intervalUnit,
+                                     Timestamp cursor, Timestamp lastCondensedTimestamp, List<Candlestick> candlesticksPendingReturn,
+                                     List<Candlestick> candlesticksPendingCondensation, Candlestick lastSeenCandlestick,
+                                     Timestamp currentTimestamp, List<PendingOrderCheckpoint> pendingOrders) {}
+
+    /**
+     * State of a pending Order that is only held in memory by the BacktesterSharedService.
+     * @param orderID ID of the Order.
+     * @param price Price of the Order, which TRL_LMT orders use to track the price they fill at.
+     * @param transmit Whether the Order had been transmitted.
+     */
+    public record PendingOrderCheckpoint(Integer orderID, Float price, boolean transmit) {}
+
+    /**
+     * Write the checkpoint in a compact binary format.
+     * @param outputStream OutputStream to write to. It is not closed.
+     * @throws IOException If the checkpoint can not be written.
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(backtestResultID);
+        writeNullableInt(out, maxOrderID);
+        writeNullableInt(out, maxTradeID);
+
+        out.writeInt(strategyState != null ? strategyState.length : -1);
+        if(strategyState != null) {
+            out.write(strategyState);
+        }
+
+        out.writeInt(dataFeeds.size());
+        for(DataFeedCheckpoint dataFeed : dataFeeds) {
+            out.writeInt(dataFeed.symbolID());
+            writeNullableInt(out, dataFeed.historicalDatasetID());
+            writeNullableInt(out, dataFeed.intervalDuration());
+            out.writeBoolean(dataFeed.intervalUnit() != null);
+            if(dataFeed.intervalUnit() != null) {
+                out.writeUTF(dataFeed.intervalUnit().name());
+            }
+            writeNullableTimestamp(out, dataFeed.cursor());
+            writeNullableTimestamp(out, dataFeed.lastCondensedTimestamp());
+            writeNullableCandlesticks(out, dataFeed.candlesticksPendingReturn());
+            writeNullableCandlesticks(out, dataFeed.candlesticksPendingCondensation());
+            out.writeBoolean(dataFeed.lastSeenCandlestick() != null);
+            if(dataFeed.lastSeenCandlestick() != null) {
+                writeCandlestick(out, dataFeed.lastSeenCandlestick());
+            }
+            writeNullableTimestamp(out, dataFeed.currentTimestamp());
+
+            out.writeInt(dataFeed.pendingOrders().size());
+            for(PendingOrderCheckpoint pendingOrder : dataFeed.pendingOrders()) {
+                out.writeInt(pendingOrder.orderID());
+                out.writeBoolean(pendingOrder.price() != null);
+                if(pendingOrder.price() != null) {
+                    out.writeFloat(pendingOrder.price());
+                }
+                out.writeBoolean(pendingOrder.transmit());
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Read a checkpoint that was written by writeTo.
+     * @param inputStream InputStream to read from. It is not closed.
+     * @return BacktestCheckpoint
+     * @throws IOException If the checkpoint can not be read or is not in the expected format.
+     */
+    public static BacktestCheckpoint readFrom(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if(in.readInt() != MAGIC) {
+            throw new IOException("Not a backtest checkpoint.");
+        }
+        short version = in.readShort();
+        if(version != VERSION) {
+            throw new IOException("Unsupported backtest checkpoint version " + version);
+        }
+        int backtestResultID = in.readInt();
+        Integer maxOrderID = readNullableInt(in);
+        Integer maxTradeID = readNullableInt(in);
+
+        byte[] strategyState = null;
+        int strategyStateLength = in.readInt();
+        if(strategyStateLength >= 0) {
+            strategyState = new byte[strategyStateLength];
+            in.readFully(strategyState);
+        }
+
+        int dataFeedCount = in.readInt();
+        List<DataFeedCheckpoint> dataFeeds = new ArrayList<>(dataFeedCount);
+        for(int i = 0; i < dataFeedCount; i++) {
+            int symbolID = in.readInt();
+            Integer historicalDatasetID = readNullableInt(in);
+            Integer intervalDuration = readNullableInt(in);
+            IntervalUnitEnum intervalUnit = in.readBoolean() ? IntervalUnitEnum.valueOf(in.readUTF()) : null;
+            Timestamp cursor = readNullableTimestamp(in);
+            Timestamp lastCondensedTimestamp = readNullableTimestamp(in);
+            List<Candlestick> candlesticksPendingReturn = readNullableCandlesticks(in);
+            List<Candlestick> candlesticksPendingCondensation = readNullableCandlesticks(in);
+            Candlestick lastSeenCandlestick = in.readBoolean() ? readCandlestick(in) : null;
+            Timestamp currentTimestamp = readNullableTimestamp(in);
+
+            int pendingOrderCount = in.readInt();
+            List<PendingOrderCheckpoint> pendingOrders = new ArrayList<>(pendingOrderCount);
+            for(int j = 0; j < pendingOrderCount; j++) {
+                int orderID = in.readInt();
+                Float price = in.readBoolean() ? in.readFloat() : null;
+                pendingOrders.add(new PendingOrderCheckpoint(orderID, price, in.readBoolean()));
+            }
+
+            dataFeeds.add(new DataFeedCheckpoint(symbolID, historicalDatasetID, intervalDuration, intervalUnit, cursor, lastCondensedTimestamp,
+                    candlesticksPendingReturn, candlesticksPendingCondensation, lastSeenCandlestick, currentTimestamp, pendingOrders));
+        }
+
+        return new BacktestCheckpoint(backtestResultID, maxOrderID, maxTradeID, dataFeeds, strategyState);
+    }
+
+    private static void writeNullableInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if(value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readNullableInt(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeNullableTimestamp(DataOutputStream out, Timestamp timestamp) throws IOException {
+        out.writeBoolean(timestamp != null);
+        if(timestamp != null) {
+            writeTimestamp(out, timestamp);
+        }
+    }
+
+    private static Timestamp readNullableTimestamp(DataInputStream in) throws IOException {
+        return in.readBoolean() ? readTimestamp(in) : null;
+    }
+
+    // Seconds and nanoseconds are kept separately since Timestamps can be more precise than milliseconds
+    private static void writeTimestamp(DataOutputStream out, Timestamp timestamp) throws IOException {
+        out.writeLong(Math.floorDiv(timestamp.getTime(), 1000));
+        out.writeInt(timestamp.getNanos());
+    }
+
+    private static Timestamp readTimestamp(DataInputStream in) throws IOException {
+        Timestamp timestamp = new Timestamp(in.readLong() * 1000);
+        timestamp.setNanos(in.readInt());
+        return timestamp;
+    }
+
+    private static void writeNullableCandlesticks(DataOutputStream out, List<Candlestick> candlesticks) throws IOException {
+        out.writeInt(candlesticks != null ? candlesticks.size() : -1);
+        if(candlesticks != null) {
+            for(Candlestick candlestick : candlesticks) {
+                writeCandlestick(out, candlestick);
+            }
+        }
+    }
+
+    private static List<Candlestick> readNullableCandlesticks(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if(count < 0) {
+            return null;
+        }
+        List<Candlestick> candlesticks = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            candlesticks.add(readCandlestick(in));
+        }
+        return candlesticks;
+    }
+
+    private static void writeCandlestick(DataOutputStream out, Candlestick candlestick) throws IOException {
+        writeTimestamp(out, candlestick.getTimestamp());
+        out.writeFloat(candlestick.getOpen());
+        out.writeFloat(candlestick.getHigh());
+        out.writeFloat(candlestick.getLow());
+        out.writeFloat(candlestick.getClose());
+        out.writeFloat(candlestick.getVolume());
+    }
+
+    private static Candlestick readCandlestick(DataInputStream in) throws IOException {
+        Timestamp timestamp = readTimestamp(in);
+        return new Candlestick(in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat(), timestamp);
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.tylerspaeth.broker.backtester;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Keeps the latest BacktestCheckpoint of each BacktestResult in a file. The directory defaults to checkpoints in the
+ * working directory and can be changed with the algonexus.backtest.checkpointDirectory system property.
+ */
+public class BacktestCheckpointStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BacktestCheckpointStore.class);
+
+    private static final String CHECKPOINT_DIRECTORY_PROPERTY = "algonexus.backtest.checkpointDirectory";
+    private static final String DEFAULT_CHECKPOINT_DIRECTORY = "checkpoints";
+
+    private final Path directory;
+
+    public BacktestCheckpointStore() {
+        this(Path.of(System.getProperty(CHECKPOINT_DIRECTORY_PROPERTY, DEFAULT_CHECKPOINT_DIRECTORY)));
+    }
+
+    public BacktestCheckpointStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Save a checkpoint, replacing any earlier one for the same BacktestResult. The file is replaced in one step so a
+     * crash while saving leaves the earlier checkpoint in place.
+     * @param checkpoint BacktestCheckpoint to save.
+     * @return true if the checkpoint was saved, false otherwise.
+     */
+    public boolean save(BacktestCheckpoint checkpoint) {
+        Path path = getPath(checkpoint.backtestResultID());
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(directory);
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+                checkpoint.writeTo(outputStream);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            LOGGER.error("Failed to save checkpoint for BacktestResult {}", checkpoint.backtestResultID(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Load the latest checkpoint of a BacktestResult.
+     * @param backtestResultID ID of the BacktestResult.
+     * @return BacktestCheckpoint, or null if there is none or it can not be read.
+     */
+    public BacktestCheckpoint load(Integer backtestResultID) {
+        Path path = getPath(backtestResultID);
+        if(!Files.exists(path)) {
+            return null;
+        }
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(path))) {
+            return BacktestCheckpoint.readFrom(inputStream);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.error("Failed to load checkpoint for BacktestResult {}", backtestResultID, e);
+            return null;
+        }
+    }
+
+    /**
+     * Checks if there is a checkpoint for a BacktestResult.
+     * @param backtestResultID ID of the BacktestResult.
+     * @return true if there is a checkpoint, false otherwise.
+     */
+    public boolean exists(Integer backtestResultID) {
+        return backtestResultID != null && Files.exists(getPath(backtestResultID));
+    }
+
+    /**
+     * Delete the checkpoint of a BacktestResult once it is no longer needed.
+     * @param backtestResultID ID of the BacktestResult.
+     */
+    public void delete(Integer backtestResultID) {
+        try {
+            Files.deleteIfExists(getPath(backtestResultID));
+        } catch (IOException e) {
+            LOGGER.error("Failed to delete checkpoint for BacktestResult {}", backtestResultID, e);
+        }
+    }
+
+    private Path getPath(Integer backtestResultID) {
+        return directory.resolve("backtest-" + backtestResultID + ".checkpoint");
+    }
+}
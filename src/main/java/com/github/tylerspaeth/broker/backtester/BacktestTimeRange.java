@@ -0,0 +1,29 @@
+package com.github.tylerspaeth.broker.backtester;
+
+import java.sql.Timestamp;
+
+/**
+ * Range of time that a backtest is limited to.
+ * @param start Time of the first Candlestick that can be read, inclusive.
+ * @param end Time that Candlesticks must be before, exclusive. Null if the backtest runs to the end of the dataset.
+ */
+public record BacktestTimeRange(Timestamp start, Timestamp end) {
+
+    public BacktestTimeRange {
+        if(start == null) {
+            throw new IllegalArgumentException("start must be provided.");
+        }
+        if(end != null && !end.after(start)) {
+            throw new IllegalArgumentException("end must be after start.");
+        }
+    }
+
+    /**
+     * Checks if a timestamp falls within the range.
+     * @param timestamp Timestamp
+     * @return true if the timestamp is at or after the start and before the end, false otherwise.
+     */
+    public boolean contains(Timestamp timestamp) {
+        return !timestamp.before(start) && (end == null || timestamp.before(end));
+    }
+}
@@ -1,13 +1,18 @@
 package com.github.tylerspaeth.broker.backtester;
 
 import com.github.tylerspaeth.broker.ib.response.ContractDetails;
+import com.github.tylerspaeth.broker.response.MarketDepth;
+import com.github.tylerspaeth.broker.response.Quote;
+import com.github.tylerspaeth.broker.service.IDataFeedListener;
 import com.github.tylerspaeth.broker.service.IDataFeedService;
+import com.github.tylerspaeth.common.data.dao.CandlestickCursor;
 import com.github.tylerspaeth.common.data.dao.CandlestickDAO;
 import com.github.tylerspaeth.common.data.dao.SymbolDAO;
 import com.github.tylerspaeth.common.data.entity.Candlestick;
 import com.github.tylerspaeth.common.data.entity.HistoricalDataset;
 import com.github.tylerspaeth.common.data.entity.Symbol;
 import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
+import com.github.tylerspaeth.common.jfr.CandlePageLoadEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,12 +22,15 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class BacktesterDataFeedService implements IDataFeedService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BacktesterDataFeedService.class);
 
-    private static final Integer MAX_CANDLESTICKS = 1_000_000;
+    private static final int STREAMING_PAGE_SIZE = 10_000; // Number of Candlesticks queried at a time for datasets that have not been preloaded
+    private static final int PRELOADED_PAGE_SIZE = 10_000; // Preloaded data is cheap to read so it does not need to be read in large pages
+    private static final int PRELOAD_STREAMING_PAGE_SIZE = 50_000; // Number of Candlesticks queried at a time while preloading
 
     private final SymbolDAO symbolDAO;
     private final CandlestickDAO candlestickDAO;
@@ -34,6 +42,12 @@ public class BacktesterDataFeedService implements IDataFeedService {
     private final Map<BacktesterDataFeedKey, Deque<Candlestick>> candlesticksPendingReturn = new ConcurrentHashMap<>(); // Map of candlesticks that have already been built for each data feed
     private final Map<BacktesterDataFeedKey, Timestamp> lastCondensedCandlestickTimestamp = new ConcurrentHashMap<>(); // Timestamps of the last candlestick that was condensed for each data feed
     private final Map<BacktesterDataFeedKey, Deque<Candlestick>> uncondensedCandlesticksPendingCondensation = new ConcurrentHashMap<>(); // Map of candlestick that have been returned from the DB but not yet condensed
+    private final Map<Long, BacktestTimeRange> timeRanges = new ConcurrentHashMap<>(); // Time ranges that the data feeds of each thread are limited to
+    private final Map<BacktesterDataFeedKey, BacktestCheckpoint.DataFeedCheckpoint> pendingRestores = new ConcurrentHashMap<>(); // Checkpointed state applied when each data feed is subscribed to
+    private final Map<BacktesterDataFeedKey, DataFeedCursor> candlestickCursors = new ConcurrentHashMap<>(); // Open cursors of the data feeds reading datasets that have not been preloaded
+    private final Map<Integer, InMemoryCandlestickSeries> preloadedDatasets = new ConcurrentHashMap<>(); // Datasets that are held in memory and shared by all data feeds
+    private final Map<Integer, Integer> preloadedDatasetReferenceCounts = new HashMap<>(); // Number of users of each preloaded dataset, guarded by itself
+    private final List<IBacktestProgressListener> progressListeners = new CopyOnWriteArrayList<>();
     private final BacktesterSharedService backtesterSharedService;
 
     public BacktesterDataFeedService(BacktesterSharedService backtesterSharedService, SymbolDAO symbolDAO, CandlestickDAO candlestickDAO) {
@@ -51,6 +65,7 @@ public class BacktesterDataFeedService implements IDataFeedService {
         }
 
         BacktesterDataFeedKey mapKey = new BacktesterDataFeedKey(persistedSymbol.getSymbolID(), threadID);
+        closeCandlestickCursor(mapKey);
 
         List<HistoricalDataset> historicalDatasets = persistedSymbol.getHistoricalDatasets();
         if(historicalDatasets == null || historicalDatasets.isEmpty()) {
@@ -61,12 +76,29 @@ public class BacktesterDataFeedService implements IDataFeedService {
             backtesterSharedService.setHistoricalDatasetForMapKey(mapKey, historicalDatasets.getFirst());
         }
 
+        // A resumed backtest picks up from where its checkpoint left off
+        BacktestCheckpoint.DataFeedCheckpoint dataFeedCheckpoint = pendingRestores.remove(mapKey);
+        if(dataFeedCheckpoint != null && restoreDataFeed(mapKey, historicalDatasets, dataFeedCheckpoint)) {
+            return;
+        }
+
         datafeeds.put(mapKey, historicalDatasets);
-        datasetTimestampCursors.put(mapKey, Timestamp.from(Instant.EPOCH));
+
+        // The cursor is exclusive, so when the thread is limited to a time range start just before it
+        BacktestTimeRange timeRange = timeRanges.get(threadID);
+        if(timeRange != null) {
+            datasetTimestampCursors.put(mapKey, Timestamp.from(timeRange.start().toInstant().minusNanos(1000)));
+        } else {
+            datasetTimestampCursors.put(mapKey, Timestamp.from(Instant.EPOCH));
+        }
     }
 
     @Override
     public List<Candlestick> readFromDataFeed(long threadID, Symbol symbol, int intervalDuration, IntervalUnitEnum intervalUnit) {
+        if(intervalUnit.secondsPer == null) {
+            LOGGER.error("{} intervals are not supported by the backtester.", intervalUnit);
+            return List.of();
+        }
 
         // This implementation will use the feed that matches the desired interval duration and unit if possible. Otherwise,
         // it will take the least granular.
@@ -113,6 +145,7 @@ public class BacktesterDataFeedService implements IDataFeedService {
             // If we already have built candlesticks for this, then just grab the first one
             Candlestick first = prebuiltCandlesticks.removeFirst();
             backtesterSharedService.updateDataFeed(mapKey, first, first.getTimestamp());
+            notifyProgressListeners(mapKey, dataset, first.getTimestamp());
             return new ArrayList<>(List.of(first));
         } else if (prebuiltCandlesticks != null && prebuiltCandlesticks.size() == 1) {
             // If we will be removing the last prebuild candlestick do not return it right away, we need to build some more.
@@ -129,7 +162,7 @@ public class BacktesterDataFeedService implements IDataFeedService {
         // Determine how many Candlesticks will be condensed into a single Candlestick
         int numCandlesToCondense = (intervalDuration * intervalUnit.secondsPer) / (int) candlestickDurationInSeconds;
 
-        Deque<Candlestick> candlesticksToCondense = getCandlesticksForCondensation(mapKey, cursor, dataset, dataFeedToReturn.isEmpty(), (long) intervalDuration * intervalUnit.secondsPer);
+        Deque<Candlestick> candlesticksToCondense = getCandlesticksForCondensation(mapKey, cursor, dataset, dataFeedToReturn.isEmpty(), (long) intervalDuration * intervalUnit.secondsPer, numCandlesToCondense);
 
         // If there are no more candlesticks to condense return whatever if in the datafeed, whether empty or not. Otherwise,
         // update the offset to whatever the last candlestick was.
@@ -151,6 +184,7 @@ public class BacktesterDataFeedService implements IDataFeedService {
         }
         if(!dataFeedToReturn.isEmpty()) {
             backtesterSharedService.updateDataFeed(mapKey, dataFeedToReturn.getFirst(), dataFeedToReturn.getFirst().getTimestamp());
+            notifyProgressListeners(mapKey, dataset, dataFeedToReturn.getFirst().getTimestamp());
         }
 
         return dataFeedToReturn;
@@ -171,7 +205,42 @@ public class BacktesterDataFeedService implements IDataFeedService {
         datafeedIntervalMap.remove(mapKey);
         dataFeedIntervalUnitMap.remove(mapKey);
         candlesticksPendingReturn.remove(mapKey);
+        lastCondensedCandlestickTimestamp.remove(mapKey);
         uncondensedCandlesticksPendingCondensation.remove(mapKey);
+        pendingRestores.remove(mapKey);
+        closeCandlestickCursor(mapKey);
+    }
+
+    @Override
+    public void addDataFeedListener(long threadID, Symbol symbol, int intervalDuration, IntervalUnitEnum intervalUnit, IDataFeedListener listener) {
+        LOGGER.error("addDataFeedListener is not supported by the backtester.");
+    }
+
+    @Override
+    public void removeDataFeedListener(long threadID, Symbol symbol, IDataFeedListener listener) {
+        LOGGER.error("removeDataFeedListener is not supported by the backtester.");
+    }
+
+    @Override
+    public void subscribeToTickDataFeed(long threadID, Symbol symbol, boolean includeDepth) {
+        LOGGER.error("subscribeToTickDataFeed is not supported by the backtester.");
+    }
+
+    @Override
+    public void unsubscribeFromTickDataFeed(long threadID, Symbol symbol) {
+        LOGGER.error("unsubscribeFromTickDataFeed is not supported by the backtester.");
+    }
+
+    @Override
+    public Quote getTopOfBook(Symbol symbol) {
+        LOGGER.error("getTopOfBook is not supported by the backtester.");
+        return null;
+    }
+
+    @Override
+    public MarketDepth getMarketDepth(Symbol symbol) {
+        LOGGER.error("getMarketDepth is not supported by the backtester.");
+        return null;
     }
 
     @Override
@@ -180,6 +249,194 @@ public class BacktesterDataFeedService implements IDataFeedService {
         return List.of();
     }
 
+    /**
+     * Limit the data feeds of a thread to a range of time. This must be called before the thread subscribes to a data feed.
+     * @param threadID ID of the thread.
+     * @param timeRange BacktestTimeRange that the data feeds will be limited to.
+     */
+    public void setTimeRange(long threadID, BacktestTimeRange timeRange) {
+        timeRanges.put(threadID, timeRange);
+    }
+
+    /**
+     * Remove any time range limit on the data feeds of a thread.
+     * @param threadID ID of the thread.
+     */
+    public void clearTimeRange(long threadID) {
+        timeRanges.remove(threadID);
+    }
+
+    /**
+     * Create a checkpoint of the data feeds of a thread. The thread must not be reading from its data feeds while this
+     * is called, which is the case when it is called from the thread itself between requests.
+     * @param threadID ID of the thread.
+     * @param backtestResultID ID of the BacktestResult being run on the thread.
+     * @param maxOrderID Highest ID of the Orders placed by the backtest, or null if there are none.
+     * @param maxTradeID Highest ID of the Trades made by the backtest, or null if there are none.
+     * @param strategyState State saved by the strategy.
+     * @return BacktestCheckpoint
+     */
+    public BacktestCheckpoint createCheckpoint(long threadID, Integer backtestResultID, Integer maxOrderID, Integer maxTradeID, byte[] strategyState) {
+        List<BacktestCheckpoint.DataFeedCheckpoint> dataFeedCheckpoints = new ArrayList<>();
+        for(Map.Entry<BacktesterDataFeedKey, List<HistoricalDataset>> entry : datafeeds.entrySet()) {
+            BacktesterDataFeedKey mapKey = entry.getKey();
+            if(mapKey.threadID() != threadID) {
+                continue;
+            }
+
+            // A dataset is only known once there is a single one left to read from
+            List<HistoricalDataset> datasets = entry.getValue();
+            Integer historicalDatasetID = datasets.size() == 1 ? datasets.getFirst().getHistoricalDatasetID() : null;
+            Deque<Candlestick> pendingReturn = candlesticksPendingReturn.get(mapKey);
+            Deque<Candlestick> pendingCondensation = uncondensedCandlesticksPendingCondensation.get(mapKey);
+
+            dataFeedCheckpoints.add(new BacktestCheckpoint.DataFeedCheckpoint(mapKey.symbolID(), historicalDatasetID,
+                    datafeedIntervalMap.get(mapKey), dataFeedIntervalUnitMap.get(mapKey), datasetTimestampCursors.get(mapKey),
+                    lastCondensedCandlestickTimestamp.get(mapKey), pendingReturn != null ? new ArrayList<>(pendingReturn) : null,
+                    pendingCondensation != null ? new ArrayList<>(pendingCondensation) : null,
+                    backtesterSharedService.lastSeenCandlesticks.get(mapKey), backtesterSharedService.currentTimestamps.get(mapKey),
+                    backtesterSharedService.getPendingOrderCheckpoints(mapKey)));
+        }
+        return new BacktestCheckpoint(backtestResultID, maxOrderID, maxTradeID, dataFeedCheckpoints, strategyState);
+    }
+
+    /**
+     * Restore the data feeds of a thread from a checkpoint. The state of the BacktesterSharedService is restored right
+     * away, while the state of each data feed is applied when the thread subscribes to it. Orders and Trades made after
+     * the checkpoint must have been deleted before this is called.
+     * @param threadID ID of the thread that is resuming the backtest.
+     * @param checkpoint BacktestCheckpoint to restore from.
+     */
+    public void restoreCheckpoint(long threadID, BacktestCheckpoint checkpoint) {
+        for(BacktestCheckpoint.DataFeedCheckpoint dataFeedCheckpoint : checkpoint.dataFeeds()) {
+            BacktesterDataFeedKey mapKey = new BacktesterDataFeedKey(dataFeedCheckpoint.symbolID(), threadID);
+            pendingRestores.put(mapKey, dataFeedCheckpoint);
+            backtesterSharedService.restoreDataFeed(mapKey, dataFeedCheckpoint);
+        }
+    }
+
+    /**
+     * Apply the checkpointed state of a data feed as it is subscribed to.
+     * @param mapKey BacktesterDataFeedKey of the data feed.
+     * @param historicalDatasets HistoricalDatasets of the Symbol.
+     * @param dataFeedCheckpoint DataFeedCheckpoint to restore from.
+     * @return true if the state was restored, false if the data feed should start from the beginning instead.
+     */
+    private boolean restoreDataFeed(BacktesterDataFeedKey mapKey, List<HistoricalDataset> historicalDatasets, BacktestCheckpoint.DataFeedCheckpoint dataFeedCheckpoint) {
+        if(dataFeedCheckpoint.historicalDatasetID() == null) {
+            // Nothing had been read yet, so starting from the beginning is the same as restoring
+            return false;
+        }
+        HistoricalDataset dataset = historicalDatasets.stream()
+                .filter(historicalDataset -> dataFeedCheckpoint.historicalDatasetID().equals(historicalDataset.getHistoricalDatasetID()))
+                .findFirst()
+                .orElse(null);
+        if(dataset == null) {
+            LOGGER.error("HistoricalDataset {} from the checkpoint no longer exists, {} will start from the beginning.", dataFeedCheckpoint.historicalDatasetID(), mapKey);
+            return false;
+        }
+
+        backtesterSharedService.setHistoricalDatasetForMapKey(mapKey, dataset);
+        datafeeds.put(mapKey, new ArrayList<>(Collections.singletonList(dataset)));
+        datasetTimestampCursors.put(mapKey, dataFeedCheckpoint.cursor());
+        if(dataFeedCheckpoint.intervalDuration() != null && dataFeedCheckpoint.intervalUnit() != null) {
+            datafeedIntervalMap.put(mapKey, dataFeedCheckpoint.intervalDuration());
+            dataFeedIntervalUnitMap.put(mapKey, dataFeedCheckpoint.intervalUnit());
+        }
+        if(dataFeedCheckpoint.candlesticksPendingReturn() != null) {
+            candlesticksPendingReturn.put(mapKey, new ArrayDeque<>(dataFeedCheckpoint.candlesticksPendingReturn()));
+        }
+        if(dataFeedCheckpoint.lastCondensedTimestamp() != null) {
+            lastCondensedCandlestickTimestamp.put(mapKey, dataFeedCheckpoint.lastCondensedTimestamp());
+        }
+        if(dataFeedCheckpoint.candlesticksPendingCondensation() != null) {
+            uncondensedCandlesticksPendingCondensation.put(mapKey, new ArrayDeque<>(dataFeedCheckpoint.candlesticksPendingCondensation()));
+        }
+        LOGGER.info("Restored {} from a checkpoint at {}.", mapKey, dataFeedCheckpoint.currentTimestamp());
+        return true;
+    }
+
+    /**
+     * Load a HistoricalDataset into memory so that every data feed reading from it shares one copy instead of querying
+     * the database. Each call must be matched by a call to releaseHistoricalDataset.
+     * @param historicalDataset HistoricalDataset to load.
+     */
+    public void preloadHistoricalDataset(HistoricalDataset historicalDataset) {
+        Integer historicalDatasetID = historicalDataset.getHistoricalDatasetID();
+        synchronized (preloadedDatasetReferenceCounts) {
+            preloadedDatasetReferenceCounts.merge(historicalDatasetID, 1, Integer::sum);
+            if(preloadedDatasets.containsKey(historicalDatasetID)) {
+                return;
+            }
+            InMemoryCandlestickSeries series = InMemoryCandlestickSeries.load(candlestickDAO, historicalDataset, PRELOAD_STREAMING_PAGE_SIZE);
+            preloadedDatasets.put(historicalDatasetID, series);
+            LOGGER.info("Preloaded {} Candlesticks from HistoricalDataset {}.", series.size(), historicalDataset);
+        }
+    }
+
+    /**
+     * Release a HistoricalDataset that was preloaded. Once every user has released it, it is removed from memory.
+     * @param historicalDataset HistoricalDataset to release.
+     */
+    public void releaseHistoricalDataset(HistoricalDataset historicalDataset) {
+        Integer historicalDatasetID = historicalDataset.getHistoricalDatasetID();
+        synchronized (preloadedDatasetReferenceCounts) {
+            Integer remaining = preloadedDatasetReferenceCounts.computeIfPresent(historicalDatasetID, (_, count) -> count > 1 ? count - 1 : null);
+            if(remaining == null) {
+                preloadedDatasets.remove(historicalDatasetID);
+            }
+        }
+    }
+
+    /**
+     * Add a listener that will be notified every time a data feed on this service returns a Candlestick.
+     * @param progressListener IBacktestProgressListener
+     */
+    public void addProgressListener(IBacktestProgressListener progressListener) {
+        progressListeners.add(progressListener);
+    }
+
+    /**
+     * Remove a listener that was previously added.
+     * @param progressListener IBacktestProgressListener
+     */
+    public void removeProgressListener(IBacktestProgressListener progressListener) {
+        progressListeners.remove(progressListener);
+    }
+
+    /**
+     * Notify the progress listeners of how far through its HistoricalDataset a data feed is.
+     * @param mapKey BacktesterDataFeedKey of the data feed.
+     * @param dataset HistoricalDataset being read from.
+     * @param currentTimestamp The time that the data feed is at.
+     */
+    private void notifyProgressListeners(BacktesterDataFeedKey mapKey, HistoricalDataset dataset, Timestamp currentTimestamp) {
+        if(progressListeners.isEmpty() || dataset.getDatasetStart() == null || dataset.getDatasetEnd() == null) {
+            return;
+        }
+
+        // Progress is measured through the time range when there is one, otherwise through the whole dataset
+        BacktestTimeRange timeRange = timeRanges.get(mapKey.threadID());
+        long datasetStart = dataset.getDatasetStart().getTime();
+        long datasetEnd = dataset.getDatasetEnd().getTime();
+        if(timeRange != null) {
+            datasetStart = Math.max(datasetStart, timeRange.start().getTime());
+            if(timeRange.end() != null) {
+                datasetEnd = Math.min(datasetEnd, timeRange.end().getTime());
+            }
+        }
+        long datasetLength = datasetEnd - datasetStart;
+        float progress = datasetLength <= 0 ? 1 : Math.clamp((float) (currentTimestamp.getTime() - datasetStart) / datasetLength, 0f, 1f);
+
+        for(IBacktestProgressListener progressListener : progressListeners) {
+            try {
+                progressListener.onProgress(mapKey, currentTimestamp, progress);
+            } catch (Exception e) {
+                LOGGER.error("Backtest progress listener failed for {}.", mapKey, e);
+            }
+        }
+    }
+
     /**
      * Find the HistoricalDataset that will be best for creating Candlesticks of the given duration and unit.
      * @param datasets List of HistoricalDatasets to choose from.
@@ -246,23 +503,24 @@ public class BacktesterDataFeedService implements IDataFeedService {
         }
 
         boolean endOfDataset = candlesticksToCondense.size() < numCandlesToCondense;
+        long windowInSeconds = candlestickDurationInSeconds * numCandlesToCondense;
 
         // Build Candlesticks of desired size
         while ((candlesticksToCondense.size() >= numCandlesToCondense) || (endOfDataset && !candlesticksToCondense.isEmpty())) {
-            List<Candlestick> singleCandlestickList = new ArrayList<>();
-            int effectiveListSize = 0;
-            for (int i = 0; i < numCandlesToCondense; i++) {
+            Instant windowStart = lastCondensedTime.toInstant().plus(candlestickDurationInSeconds, ChronoUnit.SECONDS);
 
-                Instant nextCandlestickTimeAsInstant = candlesticksToCondense.getFirst().getTimestamp().toInstant();
-                long expectedIntervalInSeconds = candlestickDurationInSeconds * (i - effectiveListSize + 1);
-
-                boolean directlyAfterPrevious = Duration.between(lastCondensedTime.toInstant().plus(effectiveListSize*expectedIntervalInSeconds, ChronoUnit.SECONDS), nextCandlestickTimeAsInstant).toSeconds() == expectedIntervalInSeconds;
+            // Skip over any whole windows that have no candlesticks, such as when the market is closed
+            Instant nextCandlestickTimeAsInstant = candlesticksToCondense.getFirst().getTimestamp().toInstant();
+            long emptyWindows = Duration.between(windowStart, nextCandlestickTimeAsInstant).toSeconds() / windowInSeconds;
+            if(emptyWindows > 0) {
+                windowStart = windowStart.plus(emptyWindows * windowInSeconds, ChronoUnit.SECONDS);
+            }
+            Instant windowEnd = windowStart.plus(windowInSeconds, ChronoUnit.SECONDS);
 
-                // If this candle is directly after the previous candlestick in the list
-                if (directlyAfterPrevious) {
-                    singleCandlestickList.add(candlesticksToCondense.removeFirst());
-                    effectiveListSize = i+1;
-                }
+            // Every candlestick within the window is condensed, any missing from it are treated as gaps
+            List<Candlestick> singleCandlestickList = new ArrayList<>();
+            while(!candlesticksToCondense.isEmpty() && candlesticksToCondense.getFirst().getTimestamp().toInstant().isBefore(windowEnd)) {
+                singleCandlestickList.add(candlesticksToCondense.removeFirst());
             }
 
             // If there are candlesticks to condense in this window, then do so
@@ -271,7 +529,7 @@ public class BacktesterDataFeedService implements IDataFeedService {
                 prebuiltCandlesticks.add(condensed);
             }
 
-            lastCondensedTime = Timestamp.from(lastCondensedTime.toInstant().plus(candlestickDurationInSeconds, ChronoUnit.SECONDS));
+            lastCondensedTime = Timestamp.from(windowEnd.minus(candlestickDurationInSeconds, ChronoUnit.SECONDS));
             lastCondensedCandlestickTimestamp.put(mapKey, lastCondensedTime);
         }
     }
@@ -317,42 +575,157 @@ public class BacktesterDataFeedService implements IDataFeedService {
      * @param dataset HistoricalDataset that is being read from.
      * @param firstTimeReading Where or not this is the first time this dataset is being read from.
      * @param condensedCandlestickSizeInSeconds Size of candlesticks that this is being condensed to.
+     * @param numCandlesToCondense Number of candlesticks that are condensed into one.
      * @return List of candlesticks that are ready to be condensed.
      */
-    private Deque<Candlestick> getCandlesticksForCondensation(BacktesterDataFeedKey mapKey, Timestamp lastSeenTime, HistoricalDataset dataset, boolean firstTimeReading, long condensedCandlestickSizeInSeconds) {
+    private Deque<Candlestick> getCandlesticksForCondensation(BacktesterDataFeedKey mapKey, Timestamp lastSeenTime, HistoricalDataset dataset, boolean firstTimeReading, long condensedCandlestickSizeInSeconds, int numCandlesToCondense) {
         Deque<Candlestick> candlesticksToCondense = new ArrayDeque<>();
 
-        Deque<Candlestick> uncondensedCandlesticks = uncondensedCandlesticksPendingCondensation.get(mapKey);
+        // Leftovers are taken out of the map, anything still left over after this read is put back by the caller
+        Deque<Candlestick> uncondensedCandlesticks = uncondensedCandlesticksPendingCondensation.remove(mapKey);
 
         // If this is the first read from this datafeed then we will align this first candlestick.
         if(firstTimeReading) {
-            // Align the first Candlestick
-            Candlestick firstCandlestick = null;
-            while (true) {
-                List<Candlestick> candlesticks = candlestickDAO.getPaginatedCandlesticksFromHistoricalDataset(dataset, lastSeenTime, 1);
-                if (candlesticks.isEmpty()) {
-                    break;
-                }
-                firstCandlestick = candlesticks.getFirst();
-                lastSeenTime = firstCandlestick.getTimestamp();
-                if (firstCandlestick.getTimestamp().toInstant().getEpochSecond() % condensedCandlestickSizeInSeconds == 0) {
-                    break;
-                }
-            }
-
-            if(firstCandlestick != null) {
-                candlesticksToCondense.addFirst(firstCandlestick);
-                lastSeenTime = candlesticksToCondense.getLast().getTimestamp();
+            Candlestick firstCandlestick = getFirstAlignedCandlestickAfter(mapKey, dataset, lastSeenTime, condensedCandlestickSizeInSeconds);
+            if(firstCandlestick == null) {
+                return candlesticksToCondense;
             }
+            candlesticksToCondense.addFirst(firstCandlestick);
+            lastSeenTime = firstCandlestick.getTimestamp();
         } else if (uncondensedCandlesticks != null && !uncondensedCandlesticks.isEmpty()){
             // If there are leftover uncondensed candlesticks from previous retrievals then add them to the returned list.
             candlesticksToCondense.addAll(uncondensedCandlesticks);
         }
 
-        // Query for more candlesticks
-        candlesticksToCondense.addAll(candlestickDAO.getPaginatedCandlesticksFromHistoricalDataset(dataset, lastSeenTime, MAX_CANDLESTICKS));
+        // Query for more candlesticks. Pages must hold at least one condensed candlestick so that a short page means the end of the data.
+        int pageSize = Math.max(isPreloaded(dataset) ? PRELOADED_PAGE_SIZE : STREAMING_PAGE_SIZE, numCandlesToCondense);
+        candlesticksToCondense.addAll(getCandlesticksAfter(mapKey, dataset, lastSeenTime, pageSize));
 
         return candlesticksToCondense;
     }
 
+    /**
+     * Get the Candlesticks after a given time for a data feed, reading from memory if the dataset has been preloaded and
+     * from the data feed's cursor otherwise, and stopping at the end of the time range of the data feed's thread if there
+     * is one.
+     * @param mapKey BacktesterDataFeedKey of the data feed.
+     * @param dataset HistoricalDataset being read from.
+     * @param lastSeenTime The time to return data after.
+     * @param numCandles Maximum number of Candlesticks to return.
+     * @return List of Candlesticks.
+     */
+    private List<Candlestick> getCandlesticksAfter(BacktesterDataFeedKey mapKey, HistoricalDataset dataset, Timestamp lastSeenTime, int numCandles) {
+        BacktestTimeRange timeRange = timeRanges.get(mapKey.threadID());
+        Timestamp endTime = timeRange != null ? timeRange.end() : null;
+
+        CandlePageLoadEvent event = new CandlePageLoadEvent();
+        event.begin();
+
+        InMemoryCandlestickSeries series = isPreloaded(dataset) ? preloadedDatasets.get(dataset.getHistoricalDatasetID()) : null;
+        List<Candlestick> candlesticks;
+        if(series != null) {
+            candlesticks = series.getCandlesticksAfter(lastSeenTime, endTime, numCandles);
+        } else {
+            candlesticks = readFromCandlestickCursor(mapKey, dataset, lastSeenTime, endTime, numCandles);
+        }
+
+        event.end();
+        if(event.shouldCommit()) {
+            // The key is used instead of the dataset's Symbol since that is lazily loaded
+            event.symbolID = mapKey.symbolID();
+            event.threadID = mapKey.threadID();
+            event.historicalDatasetID = dataset.getHistoricalDatasetID() != null ? dataset.getHistoricalDatasetID() : 0;
+            event.requested = numCandles;
+            event.loaded = candlesticks != null ? candlesticks.size() : 0;
+            event.preloaded = series != null;
+            event.commit();
+        }
+        return candlesticks;
+    }
+
+    /**
+     * Read the Candlesticks after a given time from the cursor of a data feed. Each read carries on from where the last
+     * one stopped, so the cursor is only reopened when the data feed has moved somewhere else, such as after the first
+     * Candlestick has been aligned or a checkpoint has been restored.
+     * @param mapKey BacktesterDataFeedKey of the data feed.
+     * @param dataset HistoricalDataset being read from.
+     * @param lastSeenTime The time to return data after.
+     * @param endTime The time to return data before, or null to read to the end of the dataset.
+     * @param numCandles Maximum number of Candlesticks to return.
+     * @return List of Candlesticks, shorter than numCandles only at the end of the data.
+     */
+    private List<Candlestick> readFromCandlestickCursor(BacktesterDataFeedKey mapKey, HistoricalDataset dataset, Timestamp lastSeenTime, Timestamp endTime, int numCandles) {
+        DataFeedCursor dataFeedCursor = candlestickCursors.get(mapKey);
+        if(dataFeedCursor == null || !dataFeedCursor.position.equals(lastSeenTime)) {
+            closeCandlestickCursor(mapKey);
+            dataFeedCursor = new DataFeedCursor(candlestickDAO.streamCandlesticksFromHistoricalDataset(dataset, lastSeenTime, endTime, Math.max(STREAMING_PAGE_SIZE, numCandles)), lastSeenTime);
+            candlestickCursors.put(mapKey, dataFeedCursor);
+        }
+
+        List<Candlestick> candlesticks = new ArrayList<>(Math.min(numCandles, STREAMING_PAGE_SIZE));
+        while(candlesticks.size() < numCandles && dataFeedCursor.cursor.hasNext()) {
+            CandlestickCursor.CandlestickValues values = dataFeedCursor.cursor.next();
+            candlesticks.add(new Candlestick(values.open(), values.high(), values.low(), values.close(), values.volume(), values.timestamp()));
+        }
+        if(!candlesticks.isEmpty()) {
+            dataFeedCursor.position = candlesticks.getLast().getTimestamp();
+        }
+        return candlesticks;
+    }
+
+    /**
+     * Close the cursor of a data feed if it has one open.
+     * @param mapKey BacktesterDataFeedKey of the data feed.
+     */
+    private void closeCandlestickCursor(BacktesterDataFeedKey mapKey) {
+        DataFeedCursor dataFeedCursor = candlestickCursors.remove(mapKey);
+        if(dataFeedCursor != null) {
+            dataFeedCursor.cursor.close();
+        }
+    }
+
+    /**
+     * Get the first Candlestick after a given time for a data feed that lines up with the size it is being condensed to,
+     * reading from memory if the dataset has been preloaded and stopping at the end of the time range of the data feed's
+     * thread if there is one.
+     * @param mapKey BacktesterDataFeedKey of the data feed.
+     * @param dataset HistoricalDataset being read from.
+     * @param lastSeenTime The time to return data after.
+     * @param alignmentSeconds Number of seconds the timestamp must be a multiple of.
+     * @return Candlestick, or null if there is none.
+     */
+    private Candlestick getFirstAlignedCandlestickAfter(BacktesterDataFeedKey mapKey, HistoricalDataset dataset, Timestamp lastSeenTime, long alignmentSeconds) {
+        BacktestTimeRange timeRange = timeRanges.get(mapKey.threadID());
+        Timestamp endTime = timeRange != null ? timeRange.end() : null;
+
+        InMemoryCandlestickSeries series = isPreloaded(dataset) ? preloadedDatasets.get(dataset.getHistoricalDatasetID()) : null;
+        if(series != null) {
+            return series.getFirstAlignedCandlestickAfter(lastSeenTime, endTime, alignmentSeconds);
+        }
+        return candlestickDAO.getFirstAlignedCandlestick(dataset, lastSeenTime, endTime, alignmentSeconds);
+    }
+
+    /**
+     * Checks if a dataset has been preloaded into memory.
+     * @param dataset HistoricalDataset
+     * @return true if the dataset is held in memory, false otherwise.
+     */
+    private boolean isPreloaded(HistoricalDataset dataset) {
+        return dataset.getHistoricalDatasetID() != null && preloadedDatasets.containsKey(dataset.getHistoricalDatasetID());
+    }
+
+    /**
+     * A CandlestickCursor of a data feed along with the timestamp of the last Candlestick read from it.
+     */
+    private static final class DataFeedCursor {
+
+        private final CandlestickCursor cursor;
+        private Timestamp position;
+
+        private DataFeedCursor(CandlestickCursor cursor, Timestamp position) {
+            this.cursor = cursor;
+            this.position = position;
+        }
+    }
+
 }
@@ -5,6 +5,7 @@ import com.github.tylerspaeth.common.data.dao.OrderDAO;
 import com.github.tylerspaeth.common.data.dao.TradeDAO;
 import com.github.tylerspaeth.common.data.entity.*;
 import com.github.tylerspaeth.common.enums.*;
+import com.github.tylerspaeth.common.jfr.OrderFillEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -99,7 +100,19 @@ public class BacktesterSharedService {
                 if(order.isFinalized()) {
                     continue;
                 }
+                OrderFillEvent event = new OrderFillEvent();
+                event.begin();
                 boolean orderFilled = tryToFillOrder(previousPrice, currentPrice, currentTimestamp, order);
+                event.end();
+                if(orderFilled && event.shouldCommit()) {
+                    event.symbolID = mapKey.symbolID();
+                    event.threadID = mapKey.threadID();
+                    event.orderID = order.getOrderID() != null ? order.getOrderID() : 0;
+                    event.orderType = order.getOrderType().name();
+                    event.side = order.getSide().name();
+                    event.quantity = order.getQuantity();
+                    event.commit();
+                }
 
                 // Cancel any day orders that are not valid on the current day
                 if(order.getTimeInForce() == TimeInForceEnum.DAY) {
@@ -550,6 +563,58 @@ public class BacktesterSharedService {
         }
     }
 
+    /**
+     * Get the in-memory state of the pending Orders of a data feed so that it can be saved in a BacktestCheckpoint.
+     * @param mapKey BacktesterDataFeedKey of the data feed.
+     * @return List of PendingOrderCheckpoints.
+     */
+    List<BacktestCheckpoint.PendingOrderCheckpoint> getPendingOrderCheckpoints(BacktesterDataFeedKey mapKey) {
+        Map<Integer, Order> pendingOrdersForMapKey = pendingOrders.get(mapKey);
+        if(pendingOrdersForMapKey == null) {
+            return List.of();
+        }
+        return pendingOrdersForMapKey.values().stream()
+                .filter(order -> !order.isFinalized())
+                .map(order -> new BacktestCheckpoint.PendingOrderCheckpoint(order.getOrderID(), order.getPrice(), Boolean.TRUE.equals(order.isTransmit())))
+                .toList();
+    }
+
+    /**
+     * Restore the last seen Candlestick, current time and pending Orders of a data feed from a BacktestCheckpoint. The
+     * pending Orders are reloaded and put back into the state they were in when the checkpoint was made, so any fills or
+     * cancellations since then must already have been rolled back.
+     * @param mapKey BacktesterDataFeedKey of the data feed on the resumed thread.
+     * @param dataFeed DataFeedCheckpoint to restore from.
+     */
+    void restoreDataFeed(BacktesterDataFeedKey mapKey, BacktestCheckpoint.DataFeedCheckpoint dataFeed) {
+        if(dataFeed.lastSeenCandlestick() != null) {
+            lastSeenCandlesticks.put(mapKey, dataFeed.lastSeenCandlestick());
+        }
+        if(dataFeed.currentTimestamp() != null) {
+            currentTimestamps.put(mapKey, dataFeed.currentTimestamp());
+        }
+        if(dataFeed.pendingOrders().isEmpty()) {
+            return;
+        }
+
+        Map<Integer, BacktestCheckpoint.PendingOrderCheckpoint> pendingOrderCheckpoints = dataFeed.pendingOrders().stream()
+                .collect(Collectors.toMap(BacktestCheckpoint.PendingOrderCheckpoint::orderID, pendingOrder -> pendingOrder));
+        Map<Integer, Order> pendingOrdersForMapKey = pendingOrders.computeIfAbsent(mapKey, _ -> new ConcurrentHashMap<>());
+        for(Order order : orderDAO.getOrdersByIDs(pendingOrderCheckpoints.keySet())) {
+            BacktestCheckpoint.PendingOrderCheckpoint pendingOrder = pendingOrderCheckpoints.get(order.getOrderID());
+            order.setStatus(OrderStatusEnum.SUBMITTED);
+            order.setTimeClosed(null);
+            order.setFinalized(false);
+            order.setPrice(pendingOrder.price());
+            order.setTransmit(pendingOrder.transmit());
+            orderDAO.update(order);
+            pendingOrdersForMapKey.put(order.getOrderID(), order);
+        }
+        if(pendingOrdersForMapKey.size() < pendingOrderCheckpoints.size()) {
+            LOGGER.warn("Only {} of {} pending orders could be restored for {}.", pendingOrdersForMapKey.size(), pendingOrderCheckpoints.size(), mapKey);
+        }
+    }
+
     /**
      * Sets the HistoricalDataset that is being used for a BacktesterDataFeedKey to be linked on Orders.
      * @param mapKey BacktesterDataFeedKey
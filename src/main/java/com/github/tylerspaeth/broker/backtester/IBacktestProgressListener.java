@@ -0,0 +1,19 @@
+package com.github.tylerspaeth.broker.backtester;
+
+import java.sql.Timestamp;
+
+/**
+ * Listener for following how far through their HistoricalDatasets backtester data feeds have progressed.
+ */
+public interface IBacktestProgressListener {
+
+    /**
+     * To be called any time a backtester data feed returns a Candlestick. This is called on the thread that read from
+     * the data feed, so implementations should be quick.
+     * @param mapKey BacktesterDataFeedKey of the data feed that was read from.
+     * @param currentTimestamp The time that the data feed is at.
+     * @param progress Fraction of the HistoricalDataset that has been read, from 0 to 1.
+     */
+    void onProgress(BacktesterDataFeedKey mapKey, Timestamp currentTimestamp, float progress);
+
+}
@@ -0,0 +1,168 @@
+package com.github.tylerspaeth.broker.backtester;
+
+import com.github.tylerspaeth.common.TimestampMicros;
+import com.github.tylerspaeth.common.data.dao.CandlestickCursor;
+import com.github.tylerspaeth.common.data.dao.CandlestickDAO;
+import com.github.tylerspaeth.common.data.entity.Candlestick;
+import com.github.tylerspaeth.common.data.entity.HistoricalDataset;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The Candlesticks of a HistoricalDataset held in memory as primitive arrays. This is immutable once loaded so any
+ * number of backtests can read from it at once without querying the database or keeping their own copy.
+ */
+public class InMemoryCandlestickSeries {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int historicalDatasetID;
+    private long[] timestamps; // Microseconds since the epoch
+    private float[] opens;
+    private float[] highs;
+    private float[] lows;
+    private float[] closes;
+    private float[] volumes;
+    private int size;
+
+    private InMemoryCandlestickSeries(int historicalDatasetID) {
+        this.historicalDatasetID = historicalDatasetID;
+        timestamps = new long[INITIAL_CAPACITY];
+        opens = new float[INITIAL_CAPACITY];
+        highs = new float[INITIAL_CAPACITY];
+        lows = new float[INITIAL_CAPACITY];
+        closes = new float[INITIAL_CAPACITY];
+        volumes = new float[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Load every Candlestick of a HistoricalDataset into memory.
+     * @param candlestickDAO CandlestickDAO to read from.
+     * @param historicalDataset HistoricalDataset to load.
+     * @param pageSize Number of Candlesticks to query at a time. The next page is queried while the current one is copied.
+     * @return InMemoryCandlestickSeries
+     */
+    public static InMemoryCandlestickSeries load(CandlestickDAO candlestickDAO, HistoricalDataset historicalDataset, int pageSize) {
+        InMemoryCandlestickSeries series = new InMemoryCandlestickSeries(historicalDataset.getHistoricalDatasetID());
+
+        try (CandlestickCursor cursor = candlestickDAO.streamCandlesticksFromHistoricalDataset(historicalDataset, Timestamp.from(Instant.EPOCH), null, pageSize)) {
+            while(cursor.hasNext()) {
+                series.add(cursor.next());
+            }
+        }
+        series.trimToSize();
+        return series;
+    }
+
+    /**
+     * Get Candlesticks that are after one time and before another.
+     * @param after Time that the Candlesticks must be after, exclusive.
+     * @param before Time that the Candlesticks must be before, exclusive. Null for no limit.
+     * @param maxCandles Maximum number of Candlesticks to return.
+     * @return List of new Candlesticks ordered by timestamp.
+     */
+    public List<Candlestick> getCandlesticksAfter(Timestamp after, Timestamp before, int maxCandles) {
+        int from = firstIndexAfter(TimestampMicros.toMicros(after));
+        int to = before == null ? size : firstIndexAtOrAfter(TimestampMicros.toMicros(before));
+        to = (int) Math.min(to, (long) from + maxCandles);
+
+        List<Candlestick> candlesticks = new ArrayList<>(Math.max(0, to - from));
+        for(int i = from; i < to; i++) {
+            candlesticks.add(new Candlestick(opens[i], highs[i], lows[i], closes[i], volumes[i], TimestampMicros.toTimestamp(timestamps[i])));
+        }
+        return candlesticks;
+    }
+
+    /**
+     * Get the first Candlestick after one time and before another whose timestamp is a whole multiple of a number of
+     * seconds since the epoch.
+     * @param after Time that the Candlestick must be after, exclusive.
+     * @param before Time that the Candlestick must be before, exclusive. Null for no limit.
+     * @param alignmentSeconds Number of seconds the timestamp must be a multiple of.
+     * @return New Candlestick, or null if there is none.
+     */
+    public Candlestick getFirstAlignedCandlestickAfter(Timestamp after, Timestamp before, long alignmentSeconds) {
+        int to = before == null ? size : firstIndexAtOrAfter(TimestampMicros.toMicros(before));
+        for(int i = firstIndexAfter(TimestampMicros.toMicros(after)); i < to; i++) {
+            if(Math.floorDiv(timestamps[i], 1_000_000) % alignmentSeconds == 0) {
+                return new Candlestick(opens[i], highs[i], lows[i], closes[i], volumes[i], TimestampMicros.toTimestamp(timestamps[i]));
+            }
+        }
+        return null;
+    }
+
+    public int getHistoricalDatasetID() {
+        return historicalDatasetID;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Append the values of a Candlestick. Candlesticks must be added in order of timestamp.
+     * @param candlestick CandlestickValues
+     */
+    private void add(CandlestickCursor.CandlestickValues candlestick) {
+        if(size == timestamps.length) {
+            int capacity = timestamps.length * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            opens = Arrays.copyOf(opens, capacity);
+            highs = Arrays.copyOf(highs, capacity);
+            lows = Arrays.copyOf(lows, capacity);
+            closes = Arrays.copyOf(closes, capacity);
+            volumes = Arrays.copyOf(volumes, capacity);
+        }
+        timestamps[size] = candlestick.timestampMicros();
+        opens[size] = candlestick.open();
+        highs[size] = candlestick.high();
+        lows[size] = candlestick.low();
+        closes[size] = candlestick.close();
+        volumes[size] = candlestick.volume();
+        size++;
+    }
+
+    /**
+     * Release the unused capacity of the arrays.
+     */
+    private void trimToSize() {
+        timestamps = Arrays.copyOf(timestamps, size);
+        opens = Arrays.copyOf(opens, size);
+        highs = Arrays.copyOf(highs, size);
+        lows = Arrays.copyOf(lows, size);
+        closes = Arrays.copyOf(closes, size);
+        volumes = Arrays.copyOf(volumes, size);
+    }
+
+    /**
+     * Binary search for the first index with a timestamp after the provided time.
+     * @param micros Microseconds since the epoch.
+     * @return Index, or size if there is none.
+     */
+    private int firstIndexAfter(long micros) {
+        return micros == Long.MAX_VALUE ? size : firstIndexAtOrAfter(micros + 1);
+    }
+
+    /**
+     * Binary search for the first index with a timestamp at or after the provided time.
+     * @param micros Microseconds since the epoch.
+     * @return Index, or size if there is none.
+     */
+    private int firstIndexAtOrAfter(long micros) {
+        int low = 0;
+        int high = size;
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            if(timestamps[mid] < micros) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.tylerspaeth.broker.ib;
+
+import com.github.tylerspaeth.broker.ib.response.OrderResponse;
+import com.github.tylerspaeth.common.KeyedSerialExecutor;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves the handling of OrderResponse updates off of the IB reader thread. Updates of an order are handled one at a
+ * time in the order they arrived. The delegate always projects everything that is new on the OrderResponse, so updates
+ * that arrive while another is still waiting to be handled are merged into it.
+ */
+public class AsyncOrderResponseListener implements IIBOrderResponseListener {
+
+    private final KeyedSerialExecutor<Integer> executor;
+    private final IIBOrderResponseListener delegate;
+    private final AtomicBoolean updatePending = new AtomicBoolean(false);
+
+    /**
+     * @param executor KeyedSerialExecutor to handle updates on, keyed by order ID.
+     * @param delegate IIBOrderResponseListener that handles the updates.
+     */
+    public AsyncOrderResponseListener(KeyedSerialExecutor<Integer> executor, IIBOrderResponseListener delegate) {
+        this.executor = executor;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void update(OrderResponse orderResponse) {
+        if(updatePending.compareAndSet(false, true)) {
+            executor.execute(orderResponse.orderID, () -> {
+                // Cleared before handling so that anything added from here on queues another update
+                updatePending.set(false);
+                delegate.update(orderResponse);
+            });
+        }
+    }
+}
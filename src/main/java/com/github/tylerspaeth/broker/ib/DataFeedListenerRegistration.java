@@ -0,0 +1,38 @@
+package com.github.tylerspaeth.broker.ib;
+
+import com.github.tylerspaeth.broker.ib.response.RealtimeBar;
+import com.github.tylerspaeth.broker.service.IDataFeedListener;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An IDataFeedListener registered on an IB data feed along with the state needed to build its Candlesticks. Bars are
+ * delivered to a registration one at a time in order through IBConnection's dataFeedListenerExecutor, so it does not
+ * need to be thread safe.
+ * @param threadID ID of the thread that registered the listener.
+ * @param symbol Symbol the data feed is for.
+ * @param listener IDataFeedListener to notify.
+ * @param aggregator RealtimeBarAggregator that builds bars at the listener's granularity.
+ */
+public record DataFeedListenerRegistration(long threadID, Symbol symbol, IDataFeedListener listener, RealtimeBarAggregator aggregator) {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataFeedListenerRegistration.class);
+
+    /**
+     * Deliver a RealtimeBar, notifying the listener if it completes a bar at the listener's granularity.
+     * @param realtimeBar RealtimeBar that was just received.
+     */
+    public void onRealtimeBar(RealtimeBar realtimeBar) {
+        RealtimeBar completed = aggregator.add(realtimeBar);
+        if(completed == null) {
+            return;
+        }
+
+        try {
+            listener.onCandlestick(symbol, IBMapper.mapRealTimeBarToCandlestick(completed));
+        } catch (Exception e) {
+            LOGGER.error("Data feed listener for thread {} failed.", threadID, e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.tylerspaeth.broker.ib;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps historical data requests within IB's pacing limits. IB answers requests that break these limits with a pacing
+ * violation, so requests wait here until they can be made without breaking any of them:
+ * <ul>
+ *     <li>No more than 50 requests open at once.</li>
+ *     <li>No more than 60 requests within 10 minutes.</li>
+ *     <li>No more than 6 requests for the same contract within 2 seconds. This is applied across all contracts.</li>
+ * </ul>
+ */
+public class HistoricalDataPacer {
+
+    public static final int MAX_OPEN_REQUESTS = 50;
+    public static final int MAX_REQUESTS_PER_WINDOW = 60;
+    public static final long WINDOW_MS = 600_000;
+    public static final int MAX_REQUESTS_PER_BURST = 5; // IB allows 6, one is left spare for requests made elsewhere
+    public static final long BURST_WINDOW_MS = 2_000;
+
+    private final int maxOpenRequests;
+    private final Semaphore openRequests;
+    private final int maxRequestsPerWindow;
+    private final long windowNanos;
+    private final int maxRequestsPerBurst;
+    private final long burstWindowNanos;
+
+    private final ArrayDeque<Long> requestTimes = new ArrayDeque<>(); // nanoTime of each request within the window, oldest first
+
+    public HistoricalDataPacer() {
+        this(MAX_OPEN_REQUESTS, MAX_REQUESTS_PER_WINDOW, WINDOW_MS, MAX_REQUESTS_PER_BURST, BURST_WINDOW_MS);
+    }
+
+    /**
+     * @param maxOpenRequests Number of requests that can be waiting for a response at once.
+     * @param maxRequestsPerWindow Number of requests that can be made within windowMS.
+     * @param windowMS Length of the window in milliseconds.
+     * @param maxRequestsPerBurst Number of requests that can be made within burstWindowMS.
+     * @param burstWindowMS Length of the burst window in milliseconds. Must not be longer than windowMS.
+     */
+    public HistoricalDataPacer(int maxOpenRequests, int maxRequestsPerWindow, long windowMS, int maxRequestsPerBurst, long burstWindowMS) {
+        if(burstWindowMS > windowMS) {
+            throw new IllegalArgumentException("burstWindowMS must not be longer than windowMS.");
+        }
+        this.maxOpenRequests = maxOpenRequests;
+        this.openRequests = new Semaphore(maxOpenRequests, true);
+        this.maxRequestsPerWindow = maxRequestsPerWindow;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMS);
+        this.maxRequestsPerBurst = maxRequestsPerBurst;
+        this.burstWindowNanos = TimeUnit.MILLISECONDS.toNanos(burstWindowMS);
+    }
+
+    /**
+     * Blocks until a request can be made, then counts it as made. Every call must be followed by a call to release once
+     * IB has responded to the request.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void acquire() throws InterruptedException {
+        openRequests.acquire();
+        try {
+            waitForWindow();
+        } catch (InterruptedException e) {
+            openRequests.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Marks a request as no longer open.
+     */
+    public void release() {
+        openRequests.release();
+    }
+
+    /**
+     * Gets the number of requests that have been acquired and not yet released.
+     * @return Number of open requests.
+     */
+    public int getOpenRequestCount() {
+        return maxOpenRequests - openRequests.availablePermits();
+    }
+
+    /**
+     * Waits until making a request would not exceed either window, then records the request.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private synchronized void waitForWindow() throws InterruptedException {
+        while(true) {
+            long now = System.nanoTime();
+            while(!requestTimes.isEmpty() && now - requestTimes.peekFirst() >= windowNanos) {
+                requestTimes.pollFirst();
+            }
+
+            long waitNanos = 0;
+            if(requestTimes.size() >= maxRequestsPerWindow) {
+                waitNanos = requestTimes.peekFirst() + windowNanos - now;
+            }
+
+            // The burst window is the most recent part of the window, so count back from the newest request
+            int burstCount = 0;
+            long oldestInBurst = now;
+            Iterator<Long> iterator = requestTimes.descendingIterator();
+            while(iterator.hasNext()) {
+                long requestTime = iterator.next();
+                if(now - requestTime >= burstWindowNanos) {
+                    break;
+                }
+                burstCount++;
+                oldestInBurst = requestTime;
+            }
+            if(burstCount >= maxRequestsPerBurst) {
+                waitNanos = Math.max(waitNanos, oldestInBurst + burstWindowNanos - now);
+            }
+
+            if(waitNanos <= 0) {
+                requestTimes.addLast(now);
+                return;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, waitNanos);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.github.tylerspaeth.broker.ib;
+
+import com.github.tylerspaeth.broker.ib.response.AccountPnL;
+import com.github.tylerspaeth.broker.ib.response.AccountSummary;
+import com.github.tylerspaeth.broker.ib.response.PositionPnL;
+import com.github.tylerspaeth.broker.response.Timestamped;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the latest account values sent by IB for PnL and account summary subscriptions that are kept open. IB keeps
+ * sending updates to these subscriptions until they are cancelled, so values are updated in place from the IB reader
+ * thread and reading them never needs a round trip to TWS.
+ */
+public class IBAccountStateCache {
+
+    // Subscriptions keyed by the arguments they were made with so each is only made once
+    public final ConcurrentHashMap<String, Subscription<AccountPnL>> accountPnLs = new ConcurrentHashMap<>();
+    public final ConcurrentHashMap<String, PositionPnLSubscription> positionPnLs = new ConcurrentHashMap<>();
+    public final ConcurrentHashMap<String, AccountSummarySubscription> accountSummaries = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Integer, Subscription<?>> subscriptionsByReqId = new ConcurrentHashMap<>();
+
+    /**
+     * Track the request ID of a subscription so callbacks for it are routed to this cache.
+     * @param subscription Subscription that the request was made for.
+     */
+    public void register(Subscription<?> subscription) {
+        subscriptionsByReqId.put(subscription.getReqId(), subscription);
+    }
+
+    /**
+     * Stop routing callbacks for a subscription to this cache.
+     * @param subscription Subscription that has been cancelled.
+     */
+    public void unregister(Subscription<?> subscription) {
+        subscriptionsByReqId.remove(subscription.getReqId(), subscription);
+    }
+
+    /**
+     * Update the AccountPnL of a subscription.
+     * @param reqId Request ID of the callback.
+     * @param accountPnL AccountPnL received.
+     * @return true if the request ID belongs to a subscription in this cache.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean updateAccountPnL(int reqId, AccountPnL accountPnL) {
+        if(!(subscriptionsByReqId.get(reqId) instanceof Subscription<?> subscription)) {
+            return false;
+        }
+        ((Subscription<AccountPnL>) subscription).update(accountPnL);
+        return true;
+    }
+
+    /**
+     * Update the PositionPnL of a subscription.
+     * @param reqId Request ID of the callback.
+     * @param positionPnL PositionPnL received.
+     * @return true if the request ID belongs to a subscription in this cache.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean updatePositionPnL(int reqId, PositionPnL positionPnL) {
+        if(!(subscriptionsByReqId.get(reqId) instanceof Subscription<?> subscription)) {
+            return false;
+        }
+        ((Subscription<PositionPnL>) subscription).update(positionPnL);
+        return true;
+    }
+
+    /**
+     * Update a single tag of an account summary subscription.
+     * @param reqId Request ID of the callback.
+     * @param accountSummary AccountSummary received.
+     * @return true if the request ID belongs to a subscription in this cache.
+     */
+    public boolean updateAccountSummary(int reqId, AccountSummary accountSummary) {
+        if(!(subscriptionsByReqId.get(reqId) instanceof AccountSummarySubscription subscription)) {
+            return false;
+        }
+        subscription.updateTag(accountSummary);
+        return true;
+    }
+
+    /**
+     * Mark that IB has sent every tag of an account summary subscription.
+     * @param reqId Request ID of the callback.
+     * @return true if the request ID belongs to a subscription in this cache.
+     */
+    public boolean endAccountSummary(int reqId) {
+        if(!(subscriptionsByReqId.get(reqId) instanceof AccountSummarySubscription subscription)) {
+            return false;
+        }
+        subscription.end();
+        return true;
+    }
+
+    /**
+     * Drop every subscription. IB cancels all subscriptions when the connection closes, so they need to be made
+     * again after reconnecting.
+     */
+    public void clear() {
+        subscriptionsByReqId.clear();
+        accountPnLs.clear();
+        positionPnLs.clear();
+        accountSummaries.clear();
+    }
+
+    /**
+     * A subscription that IB keeps sending the latest value of.
+     * @param <T> Type of the value.
+     */
+    public static class Subscription<T> {
+
+        private final int reqId;
+        private final CompletableFuture<Timestamped<T>> firstValue = new CompletableFuture<>();
+        private volatile Timestamped<T> latest;
+        private volatile long lastReadNanos = System.nanoTime();
+
+        public Subscription(int reqId) {
+            this.reqId = reqId;
+        }
+
+        public int getReqId() {
+            return reqId;
+        }
+
+        /**
+         * Gets the latest value without waiting.
+         * @return Latest value, or null if IB has not sent one yet.
+         */
+        public Timestamped<T> getLatest() {
+            return latest;
+        }
+
+        /**
+         * Gets the latest value, waiting for the first one if IB has not sent it yet.
+         * @return Future that completes with the latest value.
+         */
+        public CompletableFuture<Timestamped<T>> getLatestAsync() {
+            lastReadNanos = System.nanoTime();
+            Timestamped<T> current = latest;
+            return current == null ? firstValue : CompletableFuture.completedFuture(current);
+        }
+
+        /**
+         * Gets when the value was last read through getLatestAsync, or when the subscription was made if it has not been.
+         * @return Value of System.nanoTime at the last read.
+         */
+        public long getLastReadNanos() {
+            return lastReadNanos;
+        }
+
+        /**
+         * Gets the future that completes when IB sends the first value.
+         * @return CompletableFuture
+         */
+        public CompletableFuture<Timestamped<T>> getFirstValue() {
+            return firstValue;
+        }
+
+        protected void update(T value) {
+            Timestamped<T> timestamped = new Timestamped<>(value, new Timestamp(System.currentTimeMillis()));
+            latest = timestamped;
+            firstValue.complete(timestamped);
+        }
+    }
+
+    /**
+     * A PnL subscription for a single position, which is only needed while the position is held.
+     */
+    public static class PositionPnLSubscription extends Subscription<PositionPnL> {
+
+        private final int conId;
+
+        public PositionPnLSubscription(int reqId, int conId) {
+            super(reqId);
+            this.conId = conId;
+        }
+
+        public int getConId() {
+            return conId;
+        }
+    }
+
+    /**
+     * An account summary subscription. IB sends each tag separately, so they are collected until IB has sent all of
+     * them before the first value is published. After that, each changed tag publishes a new value.
+     */
+    public static class AccountSummarySubscription extends Subscription<List<AccountSummary>> {
+
+        private final ConcurrentHashMap<String, AccountSummary> summariesByAccountAndTag = new ConcurrentHashMap<>();
+        private volatile boolean ended;
+
+        public AccountSummarySubscription(int reqId) {
+            super(reqId);
+        }
+
+        private void updateTag(AccountSummary accountSummary) {
+            summariesByAccountAndTag.put(accountSummary.accountID() + "|" + accountSummary.tag(), accountSummary);
+            if(ended) {
+                update(List.copyOf(summariesByAccountAndTag.values()));
+            }
+        }
+
+        private void end() {
+            ended = true;
+            update(List.copyOf(summariesByAccountAndTag.values()));
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.github.tylerspaeth.broker.ib;
 
 import com.github.tylerspaeth.broker.ib.response.OrderResponse;
-import com.github.tylerspaeth.common.MultiReaderQueue;
+import com.github.tylerspaeth.common.BroadcastRingBuffer;
+import com.github.tylerspaeth.common.KeyedSerialExecutor;
+import com.github.tylerspaeth.common.metrics.MetricsRegistry;
 import com.github.tylerspaeth.broker.ib.response.RealtimeBar;
 import com.ib.client.EClientSocket;
 import com.ib.client.EJavaSignal;
@@ -10,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
@@ -29,10 +32,20 @@ public class IBConnection {
     private final ScheduledExecutorService scheduler;
 
     public final IBRequestRepository ibRequestRepository = new IBRequestRepository();
+    public final IBAccountStateCache accountStateCache = new IBAccountStateCache();
+    public final HistoricalDataPacer historicalDataPacer = new HistoricalDataPacer();
     public final AtomicInteger nextValidId = new AtomicInteger();
-    public final ConcurrentHashMap<IBDataFeedKey, MultiReaderQueue<RealtimeBar>> datafeeds = new ConcurrentHashMap<>();
-    public final ConcurrentHashMap<Integer, MultiReaderQueue<RealtimeBar>> datafeedReqIdMap = new ConcurrentHashMap<>();
+    public final ConcurrentHashMap<IBDataFeedKey, BroadcastRingBuffer<RealtimeBar>> datafeeds = new ConcurrentHashMap<>();
+    public final ConcurrentHashMap<Integer, BroadcastRingBuffer<RealtimeBar>> datafeedReqIdMap = new ConcurrentHashMap<>();
+    public final ConcurrentHashMap<Integer, List<DataFeedListenerRegistration>> datafeedListeners = new ConcurrentHashMap<>();
+    public final ConcurrentHashMap<IBDataFeedKey, IBTickFeed> tickFeeds = new ConcurrentHashMap<>();
+    public final ConcurrentHashMap<Integer, IBTickFeed> tickFeedReqIdMap = new ConcurrentHashMap<>(); // Trades, bid/ask, and depth reqIds to their feed
     public final ConcurrentHashMap<Integer, OrderResponse> orderStateMap = new ConcurrentHashMap<>();
+    public final ConcurrentHashMap<String, OrderResponse> executionOrderMap = new ConcurrentHashMap<>(); // execId to the OrderResponse it belongs to
+
+    // Work that is handed off so the IB-Reader thread only has to decode and enqueue
+    public final KeyedSerialExecutor<Integer> orderResponseExecutor = new KeyedSerialExecutor<>("ib-order-response", ORDER_RESPONSE_THREADS);
+    public final KeyedSerialExecutor<DataFeedListenerRegistration> dataFeedListenerExecutor = new KeyedSerialExecutor<>("ib-datafeed-listener", Runtime.getRuntime().availableProcessors());
 
     // Synchronization
     private final AtomicBoolean readerStarted = new AtomicBoolean(false);
@@ -42,6 +55,7 @@ public class IBConnection {
 
     public static final int RECONNECT_DELAY_MS = 5000;
     private static final int MAX_HANDSHAKE_TIMEOUT_DURATION_MS = 5000;
+    private static final int ORDER_RESPONSE_THREADS = 4;
 
     public IBConnection() {
         this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
@@ -52,6 +66,12 @@ public class IBConnection {
         this.wrapper = new IBWrapper(this);
         this.signal = new EJavaSignal();
         this.client = new EClientSocket(wrapper, signal);
+
+        MetricsRegistry metricsRegistry = MetricsRegistry.getInstance();
+        metricsRegistry.gauge("ib_executor_queue_depth", orderResponseExecutor::getQueueDepth, "executor", "ib-order-response");
+        metricsRegistry.gauge("ib_executor_max_lag_nanos", orderResponseExecutor::getMaxLagNanos, "executor", "ib-order-response");
+        metricsRegistry.gauge("ib_executor_queue_depth", dataFeedListenerExecutor::getQueueDepth, "executor", "ib-datafeed-listener");
+        metricsRegistry.gauge("ib_executor_max_lag_nanos", dataFeedListenerExecutor::getMaxLagNanos, "executor", "ib-datafeed-listener");
     }
 
     // Package-private for testing
@@ -77,6 +97,7 @@ public class IBConnection {
     public void disconnect() {
         manualDisconnect.set(true);
         synchronizedDisconnect();
+        accountStateCache.clear();
     }
 
     /**
@@ -87,6 +108,15 @@ public class IBConnection {
         scheduler.schedule(this::connectIfNeeded, delayMS, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Schedules work to be run repeatedly on the connection's scheduler.
+     * @param task Work to run.
+     * @param periodMS How long to wait between runs.
+     */
+    public void scheduleAtFixedRate(Runnable task, long periodMS) {
+        scheduler.scheduleAtFixedRate(task, periodMS, periodMS, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * Attempts the TWS connection if it is needed.
      */
@@ -198,6 +228,7 @@ public class IBConnection {
      */
     public void onConnectionClosed() {
         LOGGER.info("IB Disconnected");
+        accountStateCache.clear();
         if(manualDisconnect.get()) {
             return;
         }
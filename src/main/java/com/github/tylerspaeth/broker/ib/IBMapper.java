@@ -11,12 +11,24 @@ import com.ib.client.*;
 
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
 
 /**
  * Maps IB specific objects / formats into the standard formats used in this application. Also, can do the same in reverse.
  */
 public class IBMapper {
 
+    private static final String BAR_DATE_FORMAT = "yyyyMMdd";
+
+    private static final Set<String> VALID_BAR_SIZES = Set.of(
+            "1 secs", "5 secs", "10 secs", "15 secs", "30 secs",
+            "1 min", "2 mins", "3 mins", "5 mins", "10 mins", "15 mins", "20 mins", "30 mins",
+            "1 hour", "2 hours", "3 hours", "4 hours", "8 hours",
+            "1 day", "1 week", "1 month");
+
     /**
      * Maps the IB secType to an AssetTypeEnum value
      * @param secType The SecType value IB uses
@@ -83,6 +95,46 @@ public class IBMapper {
         return candlestick;
     }
 
+    /**
+     * Maps an IB historical Bar to a Candlestick object. Bars must have been requested with their times as epoch seconds,
+     * which IB does for every bar size except daily and larger bars, whose times are sent as yyyyMMdd dates.
+     * @param bar Bar from IB.
+     * @return Candlestick
+     */
+    public static Candlestick mapBarToCandlestick(Bar bar) {
+        Candlestick candlestick = new Candlestick();
+        candlestick.setOpen((float)bar.open());
+        candlestick.setHigh((float)bar.high());
+        candlestick.setLow((float)bar.low());
+        candlestick.setClose((float)bar.close());
+        candlestick.setVolume(bar.volume() != null ? bar.volume().value().floatValue() : 0);
+        String time = bar.time().trim();
+        Instant instant = time.length() == BAR_DATE_FORMAT.length()
+                ? LocalDate.parse(time, DateTimeFormatter.ofPattern(BAR_DATE_FORMAT)).atStartOfDay(ZoneOffset.UTC).toInstant()
+                : Instant.ofEpochSecond(Long.parseLong(time));
+        candlestick.setTimestamp(Timestamp.from(instant));
+        return candlestick;
+    }
+
+    /**
+     * Maps an interval to the bar size setting IB uses for historical data requests.
+     * @param timeInterval How many of the interval unit each bar is.
+     * @param intervalUnit IntervalUnitEnum
+     * @return Bar size setting, or null if IB does not support bars of that size.
+     */
+    public static String mapIntervalToBarSize(int timeInterval, IntervalUnitEnum intervalUnit) {
+        String barSize = switch (intervalUnit) {
+            case SECOND -> timeInterval + " secs";
+            case MINUTE -> timeInterval == 1 ? "1 min" : timeInterval + " mins";
+            case HOUR -> timeInterval == 1 ? "1 hour" : timeInterval + " hours";
+            case DAY -> timeInterval + " day";
+            case WEEK -> timeInterval + " week";
+            case MONTH -> timeInterval + " month";
+            case TICK, YEAR -> null;
+        };
+        return barSize != null && VALID_BAR_SIZES.contains(barSize) ? barSize : null;
+    }
+
     /**
      * Map IB OrderStatus to OrderStatusEnum value.
      * @param orderStatus IB OrderStatus value.
@@ -5,15 +5,18 @@ import com.github.tylerspaeth.broker.response.OrderStatus;
 import com.github.tylerspaeth.common.data.entity.Order;
 import com.github.tylerspaeth.common.data.entity.OrderEvent;
 import com.github.tylerspaeth.common.data.entity.Trade;
+import com.github.tylerspaeth.common.enums.OrderStatusEnum;
 import com.github.tylerspaeth.common.enums.SideEnum;
 import com.ib.client.CommissionAndFeesReport;
 import com.ib.client.Execution;
 
 import java.sql.Timestamp;
-import java.util.Optional;
+import java.util.*;
 
 /**
- * Projects changes on an OrderResponse object to an Order object.
+ * Projects changes on an OrderResponse object to an Order object. The executions, commissions, and statuses of an
+ * OrderResponse are only ever appended to, so each update only looks at the ones added since the previous update and
+ * matches them to the existing Trades and OrderEvents by execId and timestamp.
  */
 public class IBOrderResponseProjector implements IIBOrderResponseListener {
 
@@ -22,9 +25,30 @@ public class IBOrderResponseProjector implements IIBOrderResponseListener {
     private final Order order;
     private final IOrderListener orderListener;
 
+    private final List<Trade> trades;
+    private final List<OrderEvent> orderEvents;
+    private final Map<String, Trade> tradesByExecId = new HashMap<>();
+    private final Map<String, Float> unmatchedFeesByExecId = new HashMap<>(); // Commissions that arrived before their execution
+    private final Map<Timestamp, Set<OrderStatusEnum>> statusesByTimestamp = new HashMap<>();
+    private OrderEvent mostRecentOrderEvent;
+
+    // Number of items of each OrderResponse list that have already been projected
+    private int projectedExecutions = 0;
+    private int projectedCommissions = 0;
+    private int projectedStatuses = 0;
+
     public IBOrderResponseProjector(Order order, IOrderListener orderListener) {
         this.order = order;
         this.orderListener = orderListener;
+
+        trades = order.getTrades();
+        for (Trade trade : trades) {
+            tradesByExecId.put(trade.getExternalTradeID(), trade);
+        }
+        orderEvents = order.getOrderEvents();
+        for (OrderEvent orderEvent : orderEvents) {
+            indexOrderEvent(orderEvent);
+        }
     }
 
     /**
@@ -37,55 +61,68 @@ public class IBOrderResponseProjector implements IIBOrderResponseListener {
             if (order.getExternalOrderID() == null) {
                 order.setExternalOrderID(String.valueOf(orderResponse.order.permId()));
             }
-            for (Execution execution : orderResponse.executions) {
-                Optional<Trade> matchedTrade = order.getTrades().stream().filter(trade -> trade.getExternalTradeID().equals(String.valueOf(execution.execId()))).findFirst();
-
-                // If this Execution has not been added as a trade, do so.
-                if (matchedTrade.isEmpty()) {
-                    Trade trade = new Trade();
-                    trade.setSide(SideEnum.valueOf(execution.side()));
-                    trade.setTimestamp(Timestamp.valueOf(execution.time()));
-                    trade.setExternalTradeID(execution.execId());
-                    trade.setFillPrice((float) execution.price());
-                    trade.setFillQuantity(execution.cumQty().value().floatValue());
-                    trade.setOrder(order);
-                    order.getTrades().add(trade);
-                    matchedTrade = Optional.of(trade);
+
+            List<Trade> newTrades = new ArrayList<>();
+            List<Trade> changedTrades = new ArrayList<>();
+            List<OrderEvent> newOrderEvents = new ArrayList<>();
+
+            // Add a Trade for each new Execution that has not been added already
+            List<Execution> executions = orderResponse.executions;
+            for (; projectedExecutions < executions.size(); projectedExecutions++) {
+                Execution execution = executions.get(projectedExecutions);
+                if (tradesByExecId.containsKey(execution.execId())) {
+                    continue;
                 }
 
-                // If the Trade has not yet had fees assigned, try to find them and update.
-                if (matchedTrade.get().getFees() == null) {
-                    Optional<CommissionAndFeesReport> matchedComm = orderResponse.commissions.stream().filter(commissionAndFeesReport -> commissionAndFeesReport.execId().equals(execution.execId())).findFirst();
-                    if (matchedComm.isPresent()) {
-                        matchedTrade.get().setFees((float) matchedComm.get().commissionAndFees());
+                Trade trade = new Trade();
+                trade.setSide(SideEnum.valueOf(execution.side()));
+                trade.setTimestamp(Timestamp.valueOf(execution.time()));
+                trade.setExternalTradeID(execution.execId());
+                trade.setFillPrice((float) execution.price());
+                trade.setFillQuantity(execution.cumQty().value().floatValue());
+                trade.setFees(unmatchedFeesByExecId.remove(execution.execId()));
+                trade.setOrder(order);
+                trades.add(trade);
+                tradesByExecId.put(trade.getExternalTradeID(), trade);
+                newTrades.add(trade);
+            }
+
+            // Assign fees to Trades that have not had them assigned yet
+            List<CommissionAndFeesReport> commissions = orderResponse.commissions;
+            for (; projectedCommissions < commissions.size(); projectedCommissions++) {
+                CommissionAndFeesReport commission = commissions.get(projectedCommissions);
+                Trade trade = tradesByExecId.get(commission.execId());
+                if (trade == null) {
+                    unmatchedFeesByExecId.putIfAbsent(commission.execId(), (float) commission.commissionAndFees());
+                } else if (trade.getFees() == null) {
+                    trade.setFees((float) commission.commissionAndFees());
+                    if (!newTrades.contains(trade)) {
+                        changedTrades.add(trade);
                     }
                 }
             }
 
             // Map any needed order statuses
-            for (OrderStatus status : orderResponse.statuses) {
-                boolean alreadyAdded = order.getOrderEvents().stream().anyMatch(orderEvent -> orderEvent.getTimestamp().equals(status.timestamp()) && orderEvent.getNewStatus().equals(IBMapper.mapOrderStatus(status.orderStatus())));
-
-                if (!alreadyAdded) {
-                    OrderEvent orderEvent = new OrderEvent();
-                    orderEvent.setNewStatus(IBMapper.mapOrderStatus(status.orderStatus()));
-                    orderEvent.setTimestamp(status.timestamp());
-                    order.getOrderEvents().add(orderEvent);
-                    orderEvent.setOrder(order);
+            List<OrderStatus> statuses = orderResponse.statuses;
+            for (; projectedStatuses < statuses.size(); projectedStatuses++) {
+                OrderStatus status = statuses.get(projectedStatuses);
+                OrderStatusEnum newStatus = IBMapper.mapOrderStatus(status.orderStatus());
+                if (statusesByTimestamp.containsKey(status.timestamp()) && statusesByTimestamp.get(status.timestamp()).contains(newStatus)) {
+                    continue;
                 }
+
+                OrderEvent orderEvent = new OrderEvent();
+                orderEvent.setNewStatus(newStatus);
+                orderEvent.setTimestamp(status.timestamp());
+                orderEvents.add(orderEvent);
+                orderEvent.setOrder(order);
+                indexOrderEvent(orderEvent);
+                newOrderEvents.add(orderEvent);
             }
 
             // Set the order status to the most recent status
-            if (!order.getOrderEvents().isEmpty()) {
-                OrderEvent mostRecent = order.getOrderEvents().getFirst();
-
-                for (OrderEvent orderEvent : order.getOrderEvents()) {
-                    if (orderEvent.getTimestamp().after(mostRecent.getTimestamp())) {
-                        mostRecent = orderEvent;
-                    }
-                }
-
-                order.setStatus(mostRecent.getNewStatus());
+            if (mostRecentOrderEvent != null) {
+                order.setStatus(mostRecentOrderEvent.getNewStatus());
             }
 
             // Finalize the order if we are not receiving more executions
@@ -93,7 +130,20 @@ public class IBOrderResponseProjector implements IIBOrderResponseListener {
                 order.setFinalized(true);
             }
 
-            orderListener.update(order);
+            orderListener.update(order, newTrades, changedTrades, newOrderEvents);
+        }
+    }
+
+    /**
+     * Track an OrderEvent of the Order so that it is not added again and so the most recent one is known. OrderEvents
+     * are indexed in the order they were received, so of the events that share a timestamp the last one indexed is the
+     * most recent.
+     * @param orderEvent OrderEvent that belongs to the Order.
+     */
+    private void indexOrderEvent(OrderEvent orderEvent) {
+        statusesByTimestamp.computeIfAbsent(orderEvent.getTimestamp(), _ -> EnumSet.noneOf(OrderStatusEnum.class)).add(orderEvent.getNewStatus());
+        if (mostRecentOrderEvent == null || !orderEvent.getTimestamp().before(mostRecentOrderEvent.getTimestamp())) {
+            mostRecentOrderEvent = orderEvent;
         }
     }
 }
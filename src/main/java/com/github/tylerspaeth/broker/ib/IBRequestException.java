@@ -0,0 +1,24 @@
+package com.github.tylerspaeth.broker.ib;
+
+/**
+ * Used to fail a pending request when IB responds to it with an error instead of data.
+ */
+public class IBRequestException extends Exception {
+
+    private final int reqId;
+    private final int errorCode;
+
+    public IBRequestException(int reqId, int errorCode, String errorMsg) {
+        super("IB request " + reqId + " failed with error " + errorCode + ": " + errorMsg);
+        this.reqId = reqId;
+        this.errorCode = errorCode;
+    }
+
+    public int getReqId() {
+        return reqId;
+    }
+
+    public int getErrorCode() {
+        return errorCode;
+    }
+}
@@ -4,35 +4,75 @@ import com.github.tylerspaeth.common.BuildableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Used for storing pending requests that are waiting for callbacks from IB.
+ * Used for storing pending requests that are waiting for callbacks from IB. Requests are registered from the threads
+ * making them and completed from the IB reader thread. Requests that are not completed within their timeout are
+ * removed and completed with a TimeoutException so nothing is left behind when IB never responds.
  */
 public class IBRequestRepository {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(IBRequestRepository.class);
 
-    private final Map<String, BuildableFuture<Object>> pendingRequests = new HashMap<>();
+    private final ConcurrentHashMap<String, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    // Metrics
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder timedOutCount = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
 
     // Map keys for requests that can only have a single request at a time
     public static final String POSITION_REQ_MAP_KEY = "PositionRequest";
 
+    public static final long DEFAULT_TIMEOUT_MS = 5000;
+
+    public IBRequestRepository() {
+        scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "ib-request-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        // Most requests complete long before they expire, so their cancelled expiry tasks should not be kept around
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Register a request ID that will be completed later. It will time out after the default timeout.
+     * @param reqId IB request ID
+     * @return CompletableFuture for the request ID
+     * @param <T> The type to be returned from the request
+     */
+    public <T> BuildableFuture<T> registerPendingRequest(String reqId) {
+        return registerPendingRequest(reqId, DEFAULT_TIMEOUT_MS);
+    }
+
     /**
      * Register a request ID that will be completed later.
      * @param reqId IB request ID
+     * @param timeoutMS How long to wait for the request to be completed before it is removed and completed with a
+     *                  TimeoutException.
      * @return CompletableFuture for the request ID
      * @param <T> The type to be returned from the request
      */
     @SuppressWarnings("unchecked")
-    public <T> BuildableFuture<T> registerPendingRequest(String reqId) {
-        if(pendingRequests.containsKey(reqId)) {
+    public <T> BuildableFuture<T> registerPendingRequest(String reqId, long timeoutMS) {
+        BuildableFuture<T> future = new BuildableFuture<>();
+        PendingRequest pendingRequest = new PendingRequest((BuildableFuture<Object>) future, System.nanoTime());
+        if(pendingRequests.putIfAbsent(reqId, pendingRequest) != null) {
             LOGGER.warn("Already a pending request for reqId {}", reqId);
             return null;
         }
-        BuildableFuture<T> future = new BuildableFuture<>();
-        pendingRequests.put(reqId, (BuildableFuture<Object>) future);
+        pendingRequest.expiry = scheduler.schedule(() -> expirePendingRequest(reqId, pendingRequest, timeoutMS), timeoutMS, TimeUnit.MILLISECONDS);
         return future;
     }
 
@@ -42,9 +82,11 @@ public class IBRequestRepository {
      * @param <T> The type to be returned from the request
      */
     public <T> void removePendingRequest(String reqId) {
-        BuildableFuture<Object> future = pendingRequests.remove(reqId);
-        if(future != null) {
-            future.complete();
+        PendingRequest pendingRequest = pendingRequests.remove(reqId);
+        if(pendingRequest != null) {
+            finish(pendingRequest);
+            completedCount.increment();
+            pendingRequest.future.complete();
         }
     }
 
@@ -54,9 +96,11 @@ public class IBRequestRepository {
      * @param throwable Exception that occurred
      */
     public void removePendingRequestWithException(String reqId, Throwable throwable) {
-        BuildableFuture<Object> future = pendingRequests.remove(reqId);
-        if(future != null) {
-            future.completeExceptionally(throwable);
+        PendingRequest pendingRequest = pendingRequests.remove(reqId);
+        if(pendingRequest != null) {
+            finish(pendingRequest);
+            failedCount.increment();
+            pendingRequest.future.completeExceptionally(throwable);
         }
     }
 
@@ -68,9 +112,9 @@ public class IBRequestRepository {
      */
     @SuppressWarnings("unchecked")
     public <T> T getFutureValue(String reqId) {
-        BuildableFuture<T> future = (BuildableFuture<T>) pendingRequests.get(reqId);
-        if(future != null) {
-            return future.getValue();
+        PendingRequest pendingRequest = pendingRequests.get(reqId);
+        if(pendingRequest != null) {
+            return (T) pendingRequest.future.getValue();
         }
         return null;
     }
@@ -81,12 +125,104 @@ public class IBRequestRepository {
      * @param value Value to store in the future
      * @param <T> Type of value to be stored in the future
      */
-    @SuppressWarnings("unchecked")
     public <T> void setFutureValue(String reqId, T value) {
-        BuildableFuture<T> future = (BuildableFuture<T>) pendingRequests.get(reqId);
-        if(future != null) {
-            future.setValue(value);
+        PendingRequest pendingRequest = pendingRequests.get(reqId);
+        if(pendingRequest != null) {
+            pendingRequest.future.setValue(value);
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Gets the number of requests that are waiting for IB to respond.
+     * @return Number of pending requests.
+     */
+    public int getInFlightCount() {
+        return pendingRequests.size();
+    }
+
+    /**
+     * Gets the number of requests that IB has completed successfully.
+     * @return Number of completed requests.
+     */
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    /**
+     * Gets the number of requests that IB responded to with an error.
+     * @return Number of failed requests.
+     */
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    /**
+     * Gets the number of requests that were abandoned because IB did not respond in time.
+     * @return Number of timed out requests.
+     */
+    public long getTimedOutCount() {
+        return timedOutCount.sum();
+    }
+
+    /**
+     * Gets the average time between a request being registered and being completed or failing. Timed out requests
+     * are not included.
+     * @return Average latency in nanoseconds, 0 if no requests have finished.
+     */
+    public long getAverageLatencyNanos() {
+        long finished = completedCount.sum() + failedCount.sum();
+        return finished == 0 ? 0 : totalLatencyNanos.sum() / finished;
+    }
+
+    /**
+     * Gets the longest time between a request being registered and being completed or failing.
+     * @return Maximum latency in nanoseconds.
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    /**
+     * Cancel the expiry of a request that has been removed and record how long it took.
+     * @param pendingRequest PendingRequest that was removed.
+     */
+    private void finish(PendingRequest pendingRequest) {
+        ScheduledFuture<?> expiry = pendingRequest.expiry;
+        if(expiry != null) {
+            expiry.cancel(false);
+        }
+        long latency = System.nanoTime() - pendingRequest.registeredNanos;
+        totalLatencyNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * Remove a request that was not completed in time.
+     * @param reqId IB request ID
+     * @param pendingRequest PendingRequest that was registered under the ID.
+     * @param timeoutMS Timeout the request was registered with.
+     */
+    private void expirePendingRequest(String reqId, PendingRequest pendingRequest, long timeoutMS) {
+        // Only remove the exact request that expired in case the ID has since been reused
+        if(pendingRequests.remove(reqId, pendingRequest)) {
+            timedOutCount.increment();
+            LOGGER.warn("Request {} timed out after {} ms.", reqId, timeoutMS);
+            pendingRequest.future.completeExceptionally(new TimeoutException("Request " + reqId + " timed out after " + timeoutMS + " ms."));
+        }
+    }
+
+    /**
+     * A request that is waiting for IB to respond.
+     */
+    private static class PendingRequest {
+
+        private final BuildableFuture<Object> future;
+        private final long registeredNanos;
+        private volatile ScheduledFuture<?> expiry;
+
+        private PendingRequest(BuildableFuture<Object> future, long registeredNanos) {
+            this.future = future;
+            this.registeredNanos = registeredNanos;
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.github.tylerspaeth.broker.ib;
 
 import com.github.tylerspaeth.broker.ib.response.*;
+import com.github.tylerspaeth.broker.response.MarketDepth;
+import com.github.tylerspaeth.broker.response.Quote;
+import com.github.tylerspaeth.broker.response.Timestamped;
+import com.github.tylerspaeth.broker.service.IDataFeedListener;
 import com.github.tylerspaeth.common.BuildableFuture;
-import com.github.tylerspaeth.common.MultiReaderQueue;
+import com.github.tylerspaeth.common.BroadcastRingBuffer;
+import com.github.tylerspaeth.common.KeyedSerialExecutor;
 import com.github.tylerspaeth.common.data.dao.SymbolDAO;
 import com.github.tylerspaeth.common.data.entity.Symbol;
 import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
@@ -16,7 +21,14 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
 
 /**
  * A synchronous wrapper around the IB TWS-API functionality.
@@ -32,10 +44,14 @@ public class IBSyncWrapper {
     private final SymbolDAO symbolDAO;
 
     private static final int REQ_TIMEOUT_MS = 5000;
+    private static final int HISTORICAL_REQ_TIMEOUT_MS = 60000; // IB can take much longer to respond to historical data requests
+    private static final int EPOCH_DATE_FORMAT = 2; // Intraday bar times are sent as epoch seconds
+    private static final long POSITION_PNL_IDLE_TTL_MS = TimeUnit.MINUTES.toMillis(10); // Position PnL subscriptions that are not read for this long are cancelled
 
     private IBSyncWrapper(IBConnection ibConnection, SymbolDAO symbolDAO) {
         this.ibConnection = ibConnection;
         this.symbolDAO = symbolDAO;
+        ibConnection.scheduleAtFixedRate(() -> evictPositionPnLSubscriptions(null, POSITION_PNL_IDLE_TTL_MS), POSITION_PNL_IDLE_TTL_MS);
     }
 
     /**
@@ -86,20 +102,25 @@ public class IBSyncWrapper {
      * @throws Exception if something fails while making the request
      */
     public List<AccountSummary> getAccountSummary(String group, List<AccountSummaryTag> accountSummaryTags) throws Exception {
+        return getAccountSummaryAsync(group, accountSummaryTags).get(REQ_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get account information without blocking. The future is completed on the IB reader thread, so any work done
+     * after it should be done asynchronously.
+     * @param group The group of accounts to search for
+     * @param accountSummaryTags The tags for the information to receive
+     * @return Future that completes with a List of AccountSummary objects, or null if the request could not be made
+     */
+    public CompletableFuture<List<AccountSummary>> getAccountSummaryAsync(String group, List<AccountSummaryTag> accountSummaryTags) {
         int reqId = ibConnection.nextValidId.getAndIncrement();
-        BuildableFuture<List<AccountSummary>> future = ibConnection.ibRequestRepository.registerPendingRequest(String.valueOf(reqId));
+        BuildableFuture<List<AccountSummary>> future = ibConnection.ibRequestRepository.registerPendingRequest(String.valueOf(reqId), REQ_TIMEOUT_MS);
         if(future == null) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
         List<String> tags = accountSummaryTags.stream().map(Enum::name).toList();
         ibConnection.client.reqAccountSummary(reqId, group, String.join(",", tags));
-        List<AccountSummary> response;
-        try {
-            response = future.get(REQ_TIMEOUT_MS, TimeUnit.MILLISECONDS);
-        } finally {
-            ibConnection.client.cancelAccountSummary(reqId);
-        }
-        return response;
+        return future.getFuture().whenComplete((_, _) -> ibConnection.client.cancelAccountSummary(reqId));
     }
 
     /**
@@ -108,19 +129,32 @@ public class IBSyncWrapper {
      * @throws Exception if something fails while making the request
      */
     public List<Position> getPositions() throws Exception {
+        return getPositionsAsync().get(REQ_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets all the positions for the active account without blocking. The future is completed on the IB reader
+     * thread, so any work done after it should be done asynchronously. Position PnL subscriptions for contracts that
+     * are no longer held are cancelled once the positions are received.
+     * @return Future that completes with a List of Positions, or null if the request could not be made
+     */
+    public CompletableFuture<List<Position>> getPositionsAsync() {
         String reqId = IBRequestRepository.POSITION_REQ_MAP_KEY;
-        BuildableFuture<List<Position>> future = ibConnection.ibRequestRepository.registerPendingRequest(reqId);
+        BuildableFuture<List<Position>> future = ibConnection.ibRequestRepository.registerPendingRequest(reqId, REQ_TIMEOUT_MS);
         if(future == null) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
         ibConnection.client.reqPositions();
-        List<Position> response;
-        try {
-            response = future.get(REQ_TIMEOUT_MS, TimeUnit.MILLISECONDS);
-        } finally {
+        return future.getFuture().whenComplete((positions, _) -> {
             ibConnection.client.cancelPositions();
-        }
-        return response;
+            if(positions != null) {
+                Set<Integer> heldConIds = positions.stream()
+                        .filter(position -> !position.position().isZero())
+                        .map(position -> position.contract().conid())
+                        .collect(Collectors.toSet());
+                evictPositionPnLSubscriptions(heldConIds, POSITION_PNL_IDLE_TTL_MS);
+            }
+        });
     }
 
     /**
@@ -130,19 +164,17 @@ public class IBSyncWrapper {
      * @throws Exception if something fails while making the request
      */
     public AccountPnL getAccountPnL(String accountId, String modelCode) throws Exception {
-        int reqId = ibConnection.nextValidId.getAndIncrement();
-        BuildableFuture<AccountPnL> future = ibConnection.ibRequestRepository.registerPendingRequest(String.valueOf(reqId));
-        if(future == null) {
-            return null;
-        }
-        ibConnection.client.reqPnL(reqId, accountId, modelCode);
-        AccountPnL response;
-        try {
-            response = future.get(REQ_TIMEOUT_MS, TimeUnit.MILLISECONDS);
-        } finally {
-            ibConnection.client.cancelPnL(reqId);
-        }
-        return response;
+        return getAccountPnLAsync(accountId, modelCode).get(REQ_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get PnL information across the entire account without blocking. This reads from the same subscription as
+     * streamAccountPnL, so the subscription is only made on the first call.
+     * @param accountId ID of the account
+     * @return Future that completes with the PnL information for the account
+     */
+    public CompletableFuture<AccountPnL> getAccountPnLAsync(String accountId, String modelCode) {
+        return streamAccountPnL(accountId, modelCode).thenApply(Timestamped::value);
     }
 
     /**
@@ -153,19 +185,61 @@ public class IBSyncWrapper {
      * @throws Exception if something fails while making the request
      */
     public PositionPnL getPositionPnL(String accountId, String modelCode, int conId) throws Exception {
-        int reqId = ibConnection.nextValidId.getAndIncrement();
-        BuildableFuture<PositionPnL> future = ibConnection.ibRequestRepository.registerPendingRequest(String.valueOf(reqId));
-        if(future == null) {
-            return null;
-        }
-        ibConnection.client.reqPnLSingle(reqId, accountId, modelCode, conId);
-        PositionPnL response;
-        try {
-            response = future.get(REQ_TIMEOUT_MS, TimeUnit.MILLISECONDS);
-        } finally {
-            ibConnection.client.cancelPnLSingle(reqId);
-        }
-        return response;
+        return getPositionPnLAsync(accountId, modelCode, conId).get(REQ_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get PnL information for a specific position without blocking. This reads from the same subscription as
+     * streamPositionPnL, so the subscription is only made on the first call for each position.
+     * @param accountId the accountID
+     * @param conId the contractID
+     * @return Future that completes with the PnL information for the position
+     */
+    public CompletableFuture<PositionPnL> getPositionPnLAsync(String accountId, String modelCode, int conId) {
+        return streamPositionPnL(accountId, modelCode, conId).thenApply(Timestamped::value);
+    }
+
+    /**
+     * Get account information from a subscription that is kept open. The subscription is made on the first call, and
+     * later calls return the latest values IB has sent without making a request.
+     * @param group The group of accounts to search for
+     * @param accountSummaryTags The tags for the information to receive
+     * @return Future that completes with the latest List of AccountSummary objects and when they were received
+     */
+    public CompletableFuture<Timestamped<List<AccountSummary>>> streamAccountSummary(String group, List<AccountSummaryTag> accountSummaryTags) {
+        String tags = String.join(",", accountSummaryTags.stream().map(Enum::name).toList());
+        return getOrSubscribe(ibConnection.accountStateCache.accountSummaries, group + "|" + tags,
+                IBAccountStateCache.AccountSummarySubscription::new,
+                reqId -> ibConnection.client.reqAccountSummary(reqId, group, tags),
+                reqId -> ibConnection.client.cancelAccountSummary(reqId));
+    }
+
+    /**
+     * Get PnL information across the entire account from a subscription that is kept open. The subscription is made
+     * on the first call, and later calls return the latest values IB has sent without making a request.
+     * @param accountId ID of the account
+     * @return Future that completes with the latest PnL information for the account and when it was received
+     */
+    public CompletableFuture<Timestamped<AccountPnL>> streamAccountPnL(String accountId, String modelCode) {
+        return getOrSubscribe(ibConnection.accountStateCache.accountPnLs, accountId + "|" + modelCode,
+                IBAccountStateCache.Subscription::new,
+                reqId -> ibConnection.client.reqPnL(reqId, accountId, modelCode),
+                reqId -> ibConnection.client.cancelPnL(reqId));
+    }
+
+    /**
+     * Get PnL information for a specific position from a subscription that is kept open. The subscription is made on
+     * the first call, and later calls return the latest values IB has sent without making a request. The subscription
+     * is cancelled once the position is no longer held or it has not been read for a while.
+     * @param accountId the accountID
+     * @param conId the contractID
+     * @return Future that completes with the latest PnL information for the position and when it was received
+     */
+    public CompletableFuture<Timestamped<PositionPnL>> streamPositionPnL(String accountId, String modelCode, int conId) {
+        return getOrSubscribe(ibConnection.accountStateCache.positionPnLs, accountId + "|" + modelCode + "|" + conId,
+                reqId -> new IBAccountStateCache.PositionPnLSubscription(reqId, conId),
+                reqId -> ibConnection.client.reqPnLSingle(reqId, accountId, modelCode, conId),
+                reqId -> ibConnection.client.cancelPnLSingle(reqId));
     }
 
     /**
@@ -178,7 +252,7 @@ public class IBSyncWrapper {
      */
     public ContractDescription[] getMatchingSymbols(String lookupValue) throws Exception {
         int reqId = ibConnection.nextValidId.getAndIncrement();
-        BuildableFuture<ContractDescription[]> future = ibConnection.ibRequestRepository.registerPendingRequest(String.valueOf(reqId));
+        BuildableFuture<ContractDescription[]> future = ibConnection.ibRequestRepository.registerPendingRequest(String.valueOf(reqId), REQ_TIMEOUT_MS);
         if(future == null) {
             return null;
         }
@@ -195,13 +269,48 @@ public class IBSyncWrapper {
      * @throws Exception if something fails while making the request
      */
     public List<ContractDetails> getContractDetails(Contract contract) throws Exception {
+        return getContractDetailsAsync(contract).get(REQ_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets complete details for a contract in the IB database without blocking. The future is completed on the IB
+     * reader thread, so any work done after it should be done asynchronously.
+     * @param contract Base contract to search for additional details for.
+     * @return Future that completes with a List of ContractDetails, or null if the request could not be made
+     */
+    public CompletableFuture<List<ContractDetails>> getContractDetailsAsync(Contract contract) {
         int reqId = ibConnection.nextValidId.getAndIncrement();
-        BuildableFuture<List<ContractDetails>> future = ibConnection.ibRequestRepository.registerPendingRequest(String.valueOf(reqId));
+        BuildableFuture<List<ContractDetails>> future = ibConnection.ibRequestRepository.registerPendingRequest(String.valueOf(reqId), REQ_TIMEOUT_MS);
         if(future == null) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
         ibConnection.client.reqContractDetails(reqId, contract);
-        return future.get(REQ_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        return future.getFuture();
+    }
+
+    /**
+     * Requests historical bars without waiting for them to be received. Blocks until the request can be made within
+     * IB's pacing limits. The future is completed on the IB reader thread, so any work done after it should be done
+     * asynchronously.
+     * @param contract Contract to get bars for.
+     * @param endDateTime End of the requested period in UTC, formatted as yyyyMMdd-HH:mm:ss.
+     * @param durationStr How far back from the end to request bars for (ex. "1800 S", "1 D").
+     * @param barSizeSetting Size of each bar (ex. "1 min", "1 hour").
+     * @param whatToShow Type of data the bars are built from (ex. "TRADES", "MIDPOINT").
+     * @return Future that completes with the List of Bars in the period, or null if the request could not be made
+     * @throws InterruptedException if interrupted while waiting to make the request
+     */
+    public CompletableFuture<List<Bar>> getHistoricalDataAsync(Contract contract, String endDateTime, String durationStr, String barSizeSetting, String whatToShow) throws InterruptedException {
+        ibConnection.historicalDataPacer.acquire();
+        int reqId = ibConnection.nextValidId.getAndIncrement();
+        BuildableFuture<List<Bar>> future = ibConnection.ibRequestRepository.registerPendingRequest(String.valueOf(reqId), HISTORICAL_REQ_TIMEOUT_MS);
+        if(future == null) {
+            ibConnection.historicalDataPacer.release();
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<List<Bar>> result = future.getFuture().whenComplete((_, _) -> ibConnection.historicalDataPacer.release());
+        ibConnection.client.reqHistoricalData(reqId, contract, endDateTime, durationStr, barSizeSetting, whatToShow, 0, EPOCH_DATE_FORMAT, false, null);
+        return result;
     }
 
     /**
@@ -210,35 +319,10 @@ public class IBSyncWrapper {
      * @param dataFeedKey Key defining the subscription.
      */
     public void subscribeToDataFeed(long threadID, IBDataFeedKey dataFeedKey) {
-
-        IBDataFeedKey dataFeedKeyCopy = dataFeedKey.copy();
-
-        MultiReaderQueue<RealtimeBar> queue = ibConnection.datafeeds.get(dataFeedKeyCopy);
-
-        if (queue == null) {
-
-            // Create the new queue
-            int reqId = ibConnection.nextValidId.getAndIncrement();
-            dataFeedKeyCopy.setReqId(reqId);
-            MultiReaderQueue<RealtimeBar> newQueue = new MultiReaderQueue<>();
-            ibConnection.datafeeds.put(dataFeedKeyCopy, newQueue);
-            ibConnection.datafeedReqIdMap.put(reqId, newQueue);
-            queue = newQueue;
-
-            Symbol symbol = symbolDAO.getSymbolByCriteria(dataFeedKeyCopy.getTicker(), dataFeedKeyCopy.getExchange(), IBMapper.mapSecTypeToAssetType(Types.SecType.valueOf(dataFeedKeyCopy.getSecType())));
-
-            if(symbol == null || symbol.getIbConID() == null) {
-                LOGGER.error("Unable to subscribe to datafeed without a conid. Symbol: {} ", symbol);
-                return;
-            }
-
-            // Make IB request
-            Contract contract = new Contract();
-            contract.conid(symbol.getIbConID());
-            ibConnection.client.reqRealTimeBars(reqId, contract, 5, "MIDPOINT", false, null);
+        BroadcastRingBuffer<RealtimeBar> queue = getOrRequestDataFeed(dataFeedKey);
+        if(queue != null) {
+            queue.subscribe(threadID);
         }
-
-        queue.subscribe(threadID);
     }
 
     /**
@@ -250,14 +334,19 @@ public class IBSyncWrapper {
      * @return List of all OHLCV data that has not been read yet.
      */
     public List<RealtimeBar> readFromDataFeed(long threadID, IBDataFeedKey dataFeedKey, int intervalDuration, IntervalUnitEnum intervalUnit) {
-        MultiReaderQueue<RealtimeBar> queue = ibConnection.datafeeds.get(dataFeedKey);
+        BroadcastRingBuffer<RealtimeBar> queue = ibConnection.datafeeds.get(dataFeedKey);
 
         if(queue == null) {
             LOGGER.warn("Unable to find queue for {}", dataFeedKey);
             return new ArrayList<>();
         }
 
-        if((intervalDuration * intervalUnit.secondsPer) % 5 != 0) {
+        if(intervalUnit.secondsPer == null) {
+            LOGGER.error("{} intervals must be read with readTickBars.", intervalUnit);
+            return new ArrayList<>();
+        }
+
+        if((intervalDuration * intervalUnit.secondsPer) % RealtimeBarAggregator.REALTIME_BAR_SECONDS != 0) {
             LOGGER.error("Invalid intervalDuration and intervalUnit provided.");
             return new ArrayList<>();
         }
@@ -268,26 +357,13 @@ public class IBSyncWrapper {
         }
 
         // Build the list of candles to return, combining existing candles if need be
-        int numToCondense = intervalDuration * intervalUnit.secondsPer / 5;
+        int numToCondense = intervalDuration * intervalUnit.secondsPer / RealtimeBarAggregator.REALTIME_BAR_SECONDS;
         List<RealtimeBar> itemsToReturn = new ArrayList<>();
         List<RealtimeBar> itemsToCondense;
         do {
             itemsToCondense = queue.read(threadID, numToCondense);
             if(!itemsToCondense.isEmpty()) {
-                // Aggregate data from all the bars that are being combined into one
-                long date = itemsToCondense.getFirst().date();
-                double open = itemsToCondense.getFirst().open();
-                double high = itemsToCondense.getFirst().high();
-                double low = itemsToCondense.getFirst().low();
-                double close = itemsToCondense.getLast().close();
-                Decimal volume = itemsToCondense.getFirst().volume();
-                for(int i = 1; i < itemsToCondense.size(); i++) {
-                    RealtimeBar item = itemsToCondense.get(i);
-                    high = Math.max(high, item.high());
-                    low = Math.min(low, item.low());
-                    volume = volume.add(item.volume());
-                }
-                itemsToReturn.add(new RealtimeBar(date, open, high, low, close, volume));
+                itemsToReturn.add(RealtimeBarAggregator.condense(itemsToCondense));
             }
         } while(!itemsToCondense.isEmpty());
 
@@ -300,25 +376,347 @@ public class IBSyncWrapper {
      * @param dataFeedKey Defines the datafeed subscription
      */
     public void unsubscribeFromDataFeed(long threadID, IBDataFeedKey dataFeedKey) {
-        MultiReaderQueue<RealtimeBar> queue = ibConnection.datafeeds.get(dataFeedKey);
+        BroadcastRingBuffer<RealtimeBar> queue = ibConnection.datafeeds.get(dataFeedKey);
 
         if(queue != null) {
             queue.unsubscribe(threadID);
+            cancelDataFeedIfUnused(dataFeedKey);
+        }
+    }
+
+    /**
+     * Registers a listener that is pushed each bar of the data feed as soon as it completes. The data feed is requested
+     * from IB if it is not already active, and stays active until every reader and listener has been removed.
+     * @param threadID long ID of the thread that this request originates from.
+     * @param dataFeedKey Defines the datafeed subscription
+     * @param symbol Symbol that is passed to the listener.
+     * @param intervalDuration used in determining the granularity of the bars
+     * @param intervalUnit used in determining the granularity of the bars
+     * @param listener IDataFeedListener to notify.
+     */
+    public void addDataFeedListener(long threadID, IBDataFeedKey dataFeedKey, Symbol symbol, int intervalDuration, IntervalUnitEnum intervalUnit, IDataFeedListener listener) {
+        if(intervalUnit.secondsPer == null) {
+            LOGGER.error("Listeners are not supported for {} intervals.", intervalUnit);
+            return;
+        }
+
+        int intervalSeconds = intervalDuration * intervalUnit.secondsPer;
+        if(intervalSeconds % RealtimeBarAggregator.REALTIME_BAR_SECONDS != 0) {
+            LOGGER.error("Invalid intervalDuration and intervalUnit provided.");
+            return;
+        }
+
+        if(getOrRequestDataFeed(dataFeedKey) == null) {
+            return;
+        }
+
+        IBDataFeedKey storedKey = findStoredDataFeedKey(dataFeedKey);
+        ibConnection.datafeedListeners.computeIfAbsent(Objects.requireNonNull(storedKey).getReqId(), _ -> new CopyOnWriteArrayList<>())
+                .add(new DataFeedListenerRegistration(threadID, symbol, listener, new RealtimeBarAggregator(intervalSeconds)));
+        LOGGER.info("Thread {} added a listener to {}.", threadID, dataFeedKey);
+    }
+
+    /**
+     * Removes a listener that was registered on a data feed.
+     * @param threadID long ID of the thread that this request originates from.
+     * @param dataFeedKey Defines the datafeed subscription
+     * @param listener IDataFeedListener to remove.
+     */
+    public void removeDataFeedListener(long threadID, IBDataFeedKey dataFeedKey, IDataFeedListener listener) {
+        IBDataFeedKey storedKey = findStoredDataFeedKey(dataFeedKey);
+        if(storedKey == null) {
+            LOGGER.warn("Unable to find data feed for {}", dataFeedKey);
+            return;
+        }
+
+        List<DataFeedListenerRegistration> listeners = ibConnection.datafeedListeners.get(storedKey.getReqId());
+        if(listeners == null || !listeners.removeIf(registration -> registration.threadID() == threadID && registration.listener() == listener)) {
+            LOGGER.warn("Thread {} does not have the listener on {}.", threadID, dataFeedKey);
+            return;
+        }
+        cancelDataFeedIfUnused(dataFeedKey);
+    }
 
-            // If there are no more reader reading from the queue, cancel the IB request and delete the data feed
-            if(queue.readerCount() == 0) {
+    /**
+     * Creates a subscription to the tick-by-tick trades and best bid and ask of a contract, requesting them from IB if
+     * they are not already active.
+     * @param threadID long ID of the thread that this request originates from.
+     * @param dataFeedKey Key defining the subscription.
+     * @param includeDepth Whether to also request the order book of the contract.
+     */
+    public void subscribeToTickFeed(long threadID, IBDataFeedKey dataFeedKey, boolean includeDepth) {
+        IBTickFeed tickFeed = getOrRequestTickFeed(dataFeedKey);
+        if(tickFeed == null) {
+            return;
+        }
 
-                IBDataFeedKey storedKey = null;
-                for(var pairs : ibConnection.datafeeds.entrySet()) {
-                    if(pairs.getKey().equals(dataFeedKey)) {
-                        storedKey = pairs.getKey();
-                    }
+        if(includeDepth) {
+            synchronized (tickFeed) {
+                if(tickFeed.getDepth() == null) {
+                    int reqId = ibConnection.nextValidId.getAndIncrement();
+                    tickFeed.setDepth(reqId);
+                    ibConnection.tickFeedReqIdMap.put(reqId, tickFeed);
+                    ibConnection.client.reqMktDepth(reqId, buildDataFeedContract(dataFeedKey), IBTickFeed.DEPTH_ROWS, false, null);
                 }
-                ibConnection.client.cancelRealTimeBars(Objects.requireNonNull(storedKey).getReqId());
-                ibConnection.datafeeds.remove(dataFeedKey);
-                ibConnection.datafeedReqIdMap.remove(storedKey.getReqId());
             }
         }
+
+        tickFeed.getTrades().subscribe(threadID);
+    }
+
+    /**
+     * Builds bars out of the trades received since the tick feed was last read. Each bar spans a fixed number of trades.
+     * @param threadID long ID of the thread that this request originates from.
+     * @param dataFeedKey Defines the tick feed subscription
+     * @param ticksPerBar Number of trades in each bar.
+     * @return List of bars that have not been read yet. Trades that do not fill a whole bar are left for the next read.
+     */
+    public List<RealtimeBar> readTickBars(long threadID, IBDataFeedKey dataFeedKey, int ticksPerBar) {
+        IBTickFeed tickFeed = ibConnection.tickFeeds.get(dataFeedKey);
+
+        if(tickFeed == null) {
+            LOGGER.warn("Unable to find tick feed for {}", dataFeedKey);
+            return new ArrayList<>();
+        }
+
+        if(ticksPerBar <= 0) {
+            LOGGER.error("Invalid ticksPerBar provided.");
+            return new ArrayList<>();
+        }
+
+        long[] times = new long[ticksPerBar];
+        double[] prices = new double[ticksPerBar];
+        double[] sizes = new double[ticksPerBar];
+        List<RealtimeBar> bars = new ArrayList<>();
+        while(tickFeed.getTrades().read(threadID, ticksPerBar, times, prices, sizes)) {
+            bars.add(TickBarAggregator.condense(times, prices, sizes, ticksPerBar));
+        }
+        return bars;
+    }
+
+    /**
+     * Gets the latest best bid and ask of a tick feed.
+     * @param dataFeedKey Defines the tick feed subscription
+     * @return Quote, or null if there is no tick feed or IB has not sent a quote yet.
+     */
+    public Quote getTopOfBook(IBDataFeedKey dataFeedKey) {
+        IBTickFeed tickFeed = ibConnection.tickFeeds.get(dataFeedKey);
+        return tickFeed == null ? null : tickFeed.getTopOfBook().read();
+    }
+
+    /**
+     * Gets the order book of a tick feed.
+     * @param dataFeedKey Defines the tick feed subscription
+     * @return MarketDepth, or null if there is no tick feed or it was not subscribed to with depth.
+     */
+    public MarketDepth getMarketDepth(IBDataFeedKey dataFeedKey) {
+        IBTickFeed tickFeed = ibConnection.tickFeeds.get(dataFeedKey);
+        if(tickFeed == null || tickFeed.getDepth() == null) {
+            return null;
+        }
+        return tickFeed.getDepth().read();
+    }
+
+    /**
+     * Unsubscribes this subscriber from the tick feed, cancelling the IB requests if there are no subscribers left.
+     * @param threadID long ID of the thread that this request originates from.
+     * @param dataFeedKey Defines the tick feed subscription
+     */
+    public void unsubscribeFromTickFeed(long threadID, IBDataFeedKey dataFeedKey) {
+        IBTickFeed tickFeed = ibConnection.tickFeeds.get(dataFeedKey);
+        if(tickFeed == null) {
+            return;
+        }
+
+        tickFeed.getTrades().unsubscribe(threadID);
+        if(tickFeed.getTrades().readerCount() != 0) {
+            return;
+        }
+
+        ibConnection.client.cancelTickByTickData(tickFeed.getTradesReqId());
+        ibConnection.client.cancelTickByTickData(tickFeed.getBidAskReqId());
+        ibConnection.tickFeedReqIdMap.remove(tickFeed.getTradesReqId());
+        ibConnection.tickFeedReqIdMap.remove(tickFeed.getBidAskReqId());
+        synchronized (tickFeed) {
+            if(tickFeed.getDepthReqId() != null) {
+                ibConnection.client.cancelMktDepth(tickFeed.getDepthReqId(), false);
+                ibConnection.tickFeedReqIdMap.remove(tickFeed.getDepthReqId());
+            }
+        }
+        ibConnection.tickFeeds.remove(dataFeedKey);
+    }
+
+    /**
+     * Gets the latest value of an account subscription, making the subscription if it does not exist yet. If IB does
+     * not send a first value in time the subscription is cancelled so the next call tries again.
+     * @param subscriptions Map of the existing subscriptions of this type.
+     * @param key Key of the subscription in the map.
+     * @param subscriptionFactory Creates the subscription for a request ID.
+     * @param request Makes the IB request for a request ID.
+     * @param cancel Cancels the IB request for a request ID.
+     * @return Future that completes with the latest value.
+     * @param <T> Type of the value.
+     * @param <S> Type of the subscription.
+     */
+    private <T, S extends IBAccountStateCache.Subscription<T>> CompletableFuture<Timestamped<T>> getOrSubscribe(
+            ConcurrentHashMap<String, S> subscriptions, String key, IntFunction<S> subscriptionFactory,
+            IntConsumer request, IntConsumer cancel) {
+        boolean[] created = new boolean[1];
+        S subscription = subscriptions.computeIfAbsent(key, _ -> {
+            created[0] = true;
+            return subscriptionFactory.apply(ibConnection.nextValidId.getAndIncrement());
+        });
+
+        if(created[0]) {
+            int reqId = subscription.getReqId();
+            ibConnection.accountStateCache.register(subscription);
+            request.accept(reqId);
+            subscription.getFirstValue().orTimeout(REQ_TIMEOUT_MS, TimeUnit.MILLISECONDS).whenComplete((_, e) -> {
+                if(e != null && subscriptions.remove(key, subscription)) {
+                    LOGGER.warn("No response for subscription {}, cancelling it.", key);
+                    ibConnection.accountStateCache.unregister(subscription);
+                    cancel.accept(reqId);
+                }
+            });
+        }
+
+        return subscription.getLatestAsync();
+    }
+
+    /**
+     * Cancel the position PnL subscriptions that are no longer needed, which are those for contracts that are not held
+     * and those that have not been read within the idle TTL.
+     * @param heldConIds conIds of the positions that are held, or null to only cancel idle subscriptions.
+     * @param idleTtlMS How long a subscription can go without being read before it is cancelled.
+     */
+    void evictPositionPnLSubscriptions(Set<Integer> heldConIds, long idleTtlMS) {
+        long now = System.nanoTime();
+        ibConnection.accountStateCache.positionPnLs.forEach((key, subscription) -> {
+            boolean positionClosed = heldConIds != null && !heldConIds.contains(subscription.getConId());
+            boolean idle = now - subscription.getLastReadNanos() >= TimeUnit.MILLISECONDS.toNanos(idleTtlMS);
+            if((positionClosed || idle) && ibConnection.accountStateCache.positionPnLs.remove(key, subscription)) {
+                LOGGER.info("Cancelling PnL subscription {} since the position is {}.", key, positionClosed ? "no longer held" : "not being read");
+                ibConnection.accountStateCache.unregister(subscription);
+                ibConnection.client.cancelPnLSingle(subscription.getReqId());
+            }
+        });
+    }
+
+    /**
+     * Gets the queue for a data feed, requesting the data feed from IB if it does not already exist.
+     * @param dataFeedKey Defines the datafeed subscription
+     * @return The queue that the data feed writes to, or null if the data feed could not be requested.
+     */
+    private BroadcastRingBuffer<RealtimeBar> getOrRequestDataFeed(IBDataFeedKey dataFeedKey) {
+        IBDataFeedKey dataFeedKeyCopy = dataFeedKey.copy();
+
+        BroadcastRingBuffer<RealtimeBar> queue = ibConnection.datafeeds.get(dataFeedKeyCopy);
+
+        if (queue == null) {
+
+            // Create the new queue
+            int reqId = ibConnection.nextValidId.getAndIncrement();
+            dataFeedKeyCopy.setReqId(reqId);
+            BroadcastRingBuffer<RealtimeBar> newQueue = new BroadcastRingBuffer<>();
+            ibConnection.datafeeds.put(dataFeedKeyCopy, newQueue);
+            ibConnection.datafeedReqIdMap.put(reqId, newQueue);
+            queue = newQueue;
+
+            Contract contract = buildDataFeedContract(dataFeedKeyCopy);
+            if(contract == null) {
+                return null;
+            }
+
+            // Make IB request
+            ibConnection.client.reqRealTimeBars(reqId, contract, 5, "MIDPOINT", false, null);
+        }
+
+        return queue;
+    }
+
+    /**
+     * Gets the tick feed for a key, requesting the trades and best bid and ask from IB if it does not already exist.
+     * @param dataFeedKey Defines the tick feed subscription
+     * @return IBTickFeed, or null if the tick feed could not be requested.
+     */
+    private IBTickFeed getOrRequestTickFeed(IBDataFeedKey dataFeedKey) {
+        IBTickFeed tickFeed = ibConnection.tickFeeds.get(dataFeedKey);
+        if(tickFeed != null) {
+            return tickFeed;
+        }
+
+        Contract contract = buildDataFeedContract(dataFeedKey);
+        if(contract == null) {
+            return null;
+        }
+
+        boolean[] created = new boolean[1];
+        tickFeed = ibConnection.tickFeeds.computeIfAbsent(dataFeedKey.copy(), _ -> {
+            created[0] = true;
+            return new IBTickFeed(ibConnection.nextValidId.getAndIncrement(), ibConnection.nextValidId.getAndIncrement());
+        });
+
+        if(created[0]) {
+            ibConnection.tickFeedReqIdMap.put(tickFeed.getTradesReqId(), tickFeed);
+            ibConnection.tickFeedReqIdMap.put(tickFeed.getBidAskReqId(), tickFeed);
+            ibConnection.client.reqTickByTickData(tickFeed.getTradesReqId(), contract, "AllLast", 0, false);
+            ibConnection.client.reqTickByTickData(tickFeed.getBidAskReqId(), contract, "BidAsk", 0, true);
+        }
+        return tickFeed;
+    }
+
+    /**
+     * Builds the Contract to request a data feed with from the conid of its Symbol.
+     * @param dataFeedKey Defines the datafeed subscription
+     * @return Contract, or null if the Symbol does not have a conid.
+     */
+    private Contract buildDataFeedContract(IBDataFeedKey dataFeedKey) {
+        Symbol symbol = symbolDAO.getSymbolByCriteria(dataFeedKey.getTicker(), dataFeedKey.getExchange(), IBMapper.mapSecTypeToAssetType(Types.SecType.valueOf(dataFeedKey.getSecType())));
+
+        if(symbol == null || symbol.getIbConID() == null) {
+            LOGGER.error("Unable to subscribe to datafeed without a conid. Symbol: {} ", symbol);
+            return null;
+        }
+
+        Contract contract = new Contract();
+        contract.conid(symbol.getIbConID());
+        return contract;
+    }
+
+    /**
+     * Cancels the IB request and deletes the data feed if there are no more readers or listeners on it.
+     * @param dataFeedKey Defines the datafeed subscription
+     */
+    private void cancelDataFeedIfUnused(IBDataFeedKey dataFeedKey) {
+        BroadcastRingBuffer<RealtimeBar> queue = ibConnection.datafeeds.get(dataFeedKey);
+        IBDataFeedKey storedKey = findStoredDataFeedKey(dataFeedKey);
+        if(queue == null || storedKey == null || queue.readerCount() != 0) {
+            return;
+        }
+
+        List<DataFeedListenerRegistration> listeners = ibConnection.datafeedListeners.get(storedKey.getReqId());
+        if(listeners != null && !listeners.isEmpty()) {
+            return;
+        }
+
+        ibConnection.client.cancelRealTimeBars(storedKey.getReqId());
+        ibConnection.datafeeds.remove(dataFeedKey);
+        ibConnection.datafeedReqIdMap.remove(storedKey.getReqId());
+        ibConnection.datafeedListeners.remove(storedKey.getReqId());
+    }
+
+    /**
+     * Finds the key that a data feed is stored under, which holds the reqId of the data feed.
+     * @param dataFeedKey Key that is equal to the stored key.
+     * @return The stored IBDataFeedKey, or null if there is no matching data feed.
+     */
+    private IBDataFeedKey findStoredDataFeedKey(IBDataFeedKey dataFeedKey) {
+        for(var pairs : ibConnection.datafeeds.entrySet()) {
+            if(pairs.getKey().equals(dataFeedKey)) {
+                return pairs.getKey();
+            }
+        }
+        return null;
     }
 
     /**
@@ -335,6 +733,14 @@ public class IBSyncWrapper {
         return state;
     }
 
+    /**
+     * Gets the executor that OrderResponse updates are handled on so the IB reader thread is not held up by them.
+     * @return KeyedSerialExecutor keyed by order ID.
+     */
+    public KeyedSerialExecutor<Integer> getOrderResponseExecutor() {
+        return ibConnection.orderResponseExecutor;
+    }
+
     /**
      * Cancels an order.
      * @param orderID The id of the order to cancel.
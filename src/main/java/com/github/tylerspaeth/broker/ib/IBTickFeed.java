@@ -0,0 +1,58 @@
+package com.github.tylerspaeth.broker.ib;
+
+import com.github.tylerspaeth.common.TickRingBuffer;
+
+/**
+ * The tick-by-tick data of a single contract. Trades are written to a TickRingBuffer for readers to build tick bars
+ * from, while the best bid and ask and the optional order book only keep their latest state.
+ */
+public class IBTickFeed {
+
+    public static final int DEPTH_ROWS = 10;
+
+    private final int tradesReqId;
+    private final int bidAskReqId;
+    private final TickRingBuffer trades = new TickRingBuffer();
+    private final TopOfBook topOfBook = new TopOfBook();
+
+    private volatile Integer depthReqId;
+    private volatile MarketDepthBook depth;
+
+    public IBTickFeed(int tradesReqId, int bidAskReqId) {
+        this.tradesReqId = tradesReqId;
+        this.bidAskReqId = bidAskReqId;
+    }
+
+    public int getTradesReqId() {
+        return tradesReqId;
+    }
+
+    public int getBidAskReqId() {
+        return bidAskReqId;
+    }
+
+    public TickRingBuffer getTrades() {
+        return trades;
+    }
+
+    public TopOfBook getTopOfBook() {
+        return topOfBook;
+    }
+
+    public Integer getDepthReqId() {
+        return depthReqId;
+    }
+
+    public MarketDepthBook getDepth() {
+        return depth;
+    }
+
+    /**
+     * Start tracking the order book of this feed.
+     * @param depthReqId Request ID the order book was requested with.
+     */
+    public void setDepth(int depthReqId) {
+        this.depth = new MarketDepthBook(DEPTH_ROWS);
+        this.depthReqId = depthReqId;
+    }
+}
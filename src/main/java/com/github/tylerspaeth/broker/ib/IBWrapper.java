@@ -6,13 +6,19 @@ import com.github.tylerspaeth.broker.ib.response.OrderResponse;
 import com.github.tylerspaeth.broker.ib.response.Position;
 import com.github.tylerspaeth.broker.ib.response.PositionPnL;
 import com.github.tylerspaeth.broker.ib.response.RealtimeBar;
-import com.github.tylerspaeth.common.MultiReaderQueue;
+import com.github.tylerspaeth.common.BroadcastRingBuffer;
+import com.github.tylerspaeth.common.jfr.IBCallbackEvent;
+import com.github.tylerspaeth.common.metrics.Counter;
+import com.github.tylerspaeth.common.metrics.MetricsRegistry;
 import com.ib.client.*;
 import com.ib.client.protobuf.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -21,12 +27,59 @@ public class IBWrapper implements EWrapper {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(IBWrapper.class);
 
+    // Errors that mean IB will not send anything else for the request they are for
+    private static final Set<Integer> REQUEST_ERROR_CODES = Set.of(162, 200, 321, 366);
+    private static final int HISTORICAL_DATA_ERROR_CODE = 162;
+    private static final String HISTORICAL_DATA_NO_DATA_MSG = "returned no data";
+    private static final Set<OrderStatus> FINAL_ORDER_STATUSES = EnumSet.of(OrderStatus.Filled, OrderStatus.Cancelled, OrderStatus.ApiCancelled, OrderStatus.Inactive);
+
+    // Callbacks that carry data, and the ends of the requests that are waited on, are counted so their rates can be watched
+    private static final Counter ORDER_STATUS_CALLBACKS = callbackCounter("orderStatus");
+    private static final Counter EXEC_DETAILS_CALLBACKS = callbackCounter("execDetails");
+    private static final Counter EXEC_DETAILS_END_CALLBACKS = callbackCounter("execDetailsEnd");
+    private static final Counter COMMISSION_AND_FEES_REPORT_CALLBACKS = callbackCounter("commissionAndFeesReport");
+    private static final Counter CONTRACT_DETAILS_CALLBACKS = callbackCounter("contractDetails");
+    private static final Counter HISTORICAL_DATA_CALLBACKS = callbackCounter("historicalData");
+    private static final Counter HISTORICAL_DATA_END_CALLBACKS = callbackCounter("historicalDataEnd");
+    private static final Counter REALTIME_BAR_CALLBACKS = callbackCounter("realtimeBar");
+    private static final Counter TICK_BY_TICK_ALL_LAST_CALLBACKS = callbackCounter("tickByTickAllLast");
+    private static final Counter TICK_BY_TICK_BID_ASK_CALLBACKS = callbackCounter("tickByTickBidAsk");
+    private static final Counter UPDATE_MKT_DEPTH_CALLBACKS = callbackCounter("updateMktDepth");
+    private static final Counter PNL_CALLBACKS = callbackCounter("pnl");
+    private static final Counter PNL_SINGLE_CALLBACKS = callbackCounter("pnlSingle");
+    private static final Counter POSITION_CALLBACKS = callbackCounter("position");
+    private static final Counter ACCOUNT_SUMMARY_CALLBACKS = callbackCounter("accountSummary");
+    private static final Counter ACCOUNT_SUMMARY_END_CALLBACKS = callbackCounter("accountSummaryEnd");
+    private static final Counter ERROR_CALLBACKS = callbackCounter("error");
+
     private final IBConnection ibConnection;
 
     public IBWrapper(IBConnection ibConnection) {
         this.ibConnection = ibConnection;
     }
 
+    private static Counter callbackCounter(String callback) {
+        return MetricsRegistry.getInstance().counter("ib_callbacks_total", "callback", callback);
+    }
+
+    /**
+     * Counts a callback and handles it within an IBCallbackEvent.
+     * @param counter Counter for the callback.
+     * @param callback Name of the callback.
+     * @param reqId ID of the request the callback was for, or -1 if it was not for a request.
+     * @param handler Handles the callback.
+     */
+    private static void instrument(Counter counter, String callback, int reqId, Runnable handler) {
+        counter.increment();
+        IBCallbackEvent event = new IBCallbackEvent();
+        event.begin();
+        try {
+            handler.run();
+        } finally {
+            event.end(callback, reqId);
+        }
+    }
+
     @Override
     public void tickPrice(int i, int i1, double v, TickAttrib tickAttrib) {
         LOGGER.warn("{} has not been setup.", Thread.currentThread().getStackTrace()[1].getMethodName());
@@ -62,17 +115,73 @@ public class IBWrapper implements EWrapper {
                             double avgFillPrice, long permId, int parentId,
                             double lastFillPrice, int clientId,
                             String whyHeld, double mktCapPrice) {
+        instrument(ORDER_STATUS_CALLBACKS, "orderStatus", orderId, () -> {
+            OrderResponse state = ibConnection.orderStateMap.get(orderId);
+            if (state == null) return;
 
-        OrderResponse state = ibConnection.orderStateMap.get(orderId);
-        if (state == null) return;
+            int filledInt = filled != null ? filled.value().intValue() : 0;
+            int remainingInt = remaining != null ? remaining.value().intValue() : 0;
 
-        int filledInt = filled != null ? filled.value().intValue() : 0;
-        int remainingInt = remaining != null ? remaining.value().intValue() : 0;
+            state.updateFromOrderStatus(filledInt, remainingInt, lastFillPrice, OrderStatus.valueOf(status));
 
-        state.updateFromOrderStatus(filledInt, remainingInt, lastFillPrice, OrderStatus.valueOf(status));
+            if (isFinished(state)) {
+                removeOrderState(orderId, state);
+            }
+        });
+    }
+
+    /**
+     * Checks if an order will not receive any more updates. Execution details only end in reply to reqExecutions, so an
+     * order is also finished once it is in a final status with nothing left to fill, every fill has been reported as an
+     * execution and every execution has its commission report.
+     * @param state OrderResponse of the order.
+     * @return true if the order is finished.
+     */
+    private boolean isFinished(OrderResponse state) {
+        OrderStatus orderStatus = state.statuses.getLast().orderStatus();
+        if(!FINAL_ORDER_STATUSES.contains(orderStatus)) {
+            return false;
+        }
+        if(state.getExecDetailsEnded()) {
+            return true;
+        }
+        // A cancelled or inactive order will not fill any further even if it has quantity remaining
+        if(state.remaining != 0 && orderStatus == OrderStatus.Filled) {
+            return false;
+        }
 
-        if (List.of(OrderStatus.Filled, OrderStatus.Cancelled, OrderStatus.ApiCancelled, OrderStatus.Inactive).contains(state.statuses.getLast().orderStatus()) && state.getExecDetailsEnded()) {
-            ibConnection.orderStateMap.remove(orderId);
+        BigDecimal executedShares = BigDecimal.ZERO;
+        Set<String> execIds = new HashSet<>();
+        synchronized (state.executions) {
+            for(Execution execution : state.executions) {
+                if(Decimal.isValid(execution.shares())) {
+                    executedShares = executedShares.add(execution.shares().value());
+                }
+                execIds.add(execution.execId());
+            }
+        }
+        if(executedShares.compareTo(BigDecimal.valueOf(state.cumulativeFilled)) < 0) {
+            return false;
+        }
+        synchronized (state.commissions) {
+            for(CommissionAndFeesReport commission : state.commissions) {
+                execIds.remove(commission.execId());
+            }
+        }
+        return execIds.isEmpty();
+    }
+
+    /**
+     * Stops tracking a finished order, including the executions that were indexed for it.
+     * @param orderId ID of the order.
+     * @param state OrderResponse of the order.
+     */
+    private void removeOrderState(int orderId, OrderResponse state) {
+        ibConnection.orderStateMap.remove(orderId);
+        synchronized (state.executions) {
+            for(Execution execution : state.executions) {
+                ibConnection.executionOrderMap.remove(execution.execId(), state);
+            }
         }
     }
 
@@ -113,12 +222,14 @@ public class IBWrapper implements EWrapper {
 
     @Override
     public void contractDetails(int reqId, ContractDetails contractDetails) {
-        List<ContractDetails> existingValue = ibConnection.ibRequestRepository.getFutureValue(String.valueOf(reqId));
-        if(existingValue == null) {
-            existingValue = new ArrayList<>();
-            ibConnection.ibRequestRepository.setFutureValue(String.valueOf(reqId), existingValue);
-        }
-        existingValue.add(contractDetails);
+        instrument(CONTRACT_DETAILS_CALLBACKS, "contractDetails", reqId, () -> {
+            List<ContractDetails> existingValue = ibConnection.ibRequestRepository.getFutureValue(String.valueOf(reqId));
+            if(existingValue == null) {
+                existingValue = new ArrayList<>();
+                ibConnection.ibRequestRepository.setFutureValue(String.valueOf(reqId), existingValue);
+            }
+            existingValue.add(contractDetails);
+        });
     }
 
     @Override
@@ -138,29 +249,45 @@ public class IBWrapper implements EWrapper {
 
     @Override
     public void execDetails(int reqId, Contract contract, Execution execution) {
-        OrderResponse state = ibConnection.orderStateMap.get(execution.orderId());
-        if(state != null) {
-            state.addExecution(execution);
-        }
+        instrument(EXEC_DETAILS_CALLBACKS, "execDetails", reqId, () -> {
+            OrderResponse state = ibConnection.orderStateMap.get(execution.orderId());
+            if(state != null) {
+                ibConnection.executionOrderMap.put(execution.execId(), state);
+                state.addExecution(execution);
+                if (isFinished(state)) {
+                    removeOrderState(execution.orderId(), state);
+                }
+            }
+        });
     }
 
     @Override
     public void execDetailsEnd(int reqId) {
-        // execDetailsEnd oddly uses reqId, but the orderId equals reqId for orders
-        OrderResponse state = ibConnection.orderStateMap.get(reqId);
-        if (state != null) {
-            state.setExecDetailsEnded(true);
-        }
+        instrument(EXEC_DETAILS_END_CALLBACKS, "execDetailsEnd", reqId, () -> {
+            // execDetailsEnd oddly uses reqId, but the orderId equals reqId for orders
+            OrderResponse state = ibConnection.orderStateMap.get(reqId);
+            if (state != null) {
+                state.setExecDetailsEnded(true);
+                if (isFinished(state)) {
+                    removeOrderState(reqId, state);
+                }
+            }
+        });
     }
 
     @Override
-    public void updateMktDepth(int i, int i1, int i2, int i3, double v, Decimal decimal) {
-        LOGGER.warn("{} has not been setup.", Thread.currentThread().getStackTrace()[1].getMethodName());
+    public void updateMktDepth(int reqId, int position, int operation, int side, double price, Decimal size) {
+        instrument(UPDATE_MKT_DEPTH_CALLBACKS, "updateMktDepth", reqId, () -> {
+            IBTickFeed tickFeed = ibConnection.tickFeedReqIdMap.get(reqId);
+            if(tickFeed != null && tickFeed.getDepth() != null) {
+                tickFeed.getDepth().update(position, operation, side, price, size.value().doubleValue());
+            }
+        });
     }
 
     @Override
-    public void updateMktDepthL2(int i, int i1, String s, int i2, int i3, double v, Decimal decimal, boolean b) {
-        LOGGER.warn("{} has not been setup.", Thread.currentThread().getStackTrace()[1].getMethodName());
+    public void updateMktDepthL2(int reqId, int position, String _marketMaker, int operation, int side, double price, Decimal size, boolean _isSmartDepth) {
+        updateMktDepth(reqId, position, operation, side, price, size);
     }
 
     @Override
@@ -179,8 +306,15 @@ public class IBWrapper implements EWrapper {
     }
 
     @Override
-    public void historicalData(int i, Bar bar) {
-        LOGGER.warn("{} has not been setup.", Thread.currentThread().getStackTrace()[1].getMethodName());
+    public void historicalData(int reqId, Bar bar) {
+        instrument(HISTORICAL_DATA_CALLBACKS, "historicalData", reqId, () -> {
+            List<Bar> existingValue = ibConnection.ibRequestRepository.getFutureValue(String.valueOf(reqId));
+            if(existingValue == null) {
+                existingValue = new ArrayList<>();
+                ibConnection.ibRequestRepository.setFutureValue(String.valueOf(reqId), existingValue);
+            }
+            existingValue.add(bar);
+        });
     }
 
     @Override
@@ -200,8 +334,19 @@ public class IBWrapper implements EWrapper {
 
     @Override
     public void realtimeBar(int reqId, long date, double open, double high, double low, double close, Decimal volume, Decimal _vwap, int _count) {
-        MultiReaderQueue<RealtimeBar> queue = ibConnection.datafeedReqIdMap.get(reqId);
-        queue.write(new RealtimeBar(date, open, high, low, close, volume));
+        instrument(REALTIME_BAR_CALLBACKS, "realtimeBar", reqId, () -> {
+            BroadcastRingBuffer<RealtimeBar> queue = ibConnection.datafeedReqIdMap.get(reqId);
+            RealtimeBar realtimeBar = new RealtimeBar(date, open, high, low, close, volume);
+            queue.write(realtimeBar);
+
+            // Push to listeners right away rather than waiting for them to read
+            List<DataFeedListenerRegistration> listeners = ibConnection.datafeedListeners.get(reqId);
+            if(listeners != null) {
+                for(DataFeedListenerRegistration listener : listeners) {
+                    ibConnection.dataFeedListenerExecutor.execute(listener, () -> listener.onRealtimeBar(realtimeBar));
+                }
+            }
+        });
     }
 
     @Override
@@ -231,22 +376,28 @@ public class IBWrapper implements EWrapper {
 
     @Override
     public void commissionAndFeesReport(CommissionAndFeesReport commissionAndFeesReport) {
-        for(OrderResponse state : ibConnection.orderStateMap.values()) {
-            if(state.executions.stream().anyMatch(exec -> exec.execId().equals(commissionAndFeesReport.execId()))) {
+        instrument(COMMISSION_AND_FEES_REPORT_CALLBACKS, "commissionAndFeesReport", -1, () -> {
+            OrderResponse state = ibConnection.executionOrderMap.get(commissionAndFeesReport.execId());
+            if(state != null) {
                 state.addCommission(commissionAndFeesReport);
-                break;
+                // The commission report is usually the last thing received for an order
+                if (isFinished(state)) {
+                    removeOrderState(state.orderID, state);
+                }
             }
-        }
+        });
     }
 
     @Override
     public void position(String accountId, Contract contract, Decimal position, double avgCost) {
-        List<Position> existingValue = ibConnection.ibRequestRepository.getFutureValue(IBRequestRepository.POSITION_REQ_MAP_KEY);
-        if(existingValue == null) {
-            existingValue = new ArrayList<>();
-            ibConnection.ibRequestRepository.setFutureValue(IBRequestRepository.POSITION_REQ_MAP_KEY, existingValue);
-        }
-        existingValue.add(new Position(contract, position, avgCost));
+        instrument(POSITION_CALLBACKS, "position", -1, () -> {
+            List<Position> existingValue = ibConnection.ibRequestRepository.getFutureValue(IBRequestRepository.POSITION_REQ_MAP_KEY);
+            if(existingValue == null) {
+                existingValue = new ArrayList<>();
+                ibConnection.ibRequestRepository.setFutureValue(IBRequestRepository.POSITION_REQ_MAP_KEY, existingValue);
+            }
+            existingValue.add(new Position(contract, position, avgCost));
+        });
     }
 
     @Override
@@ -256,17 +407,27 @@ public class IBWrapper implements EWrapper {
 
     @Override
     public void accountSummary(int reqId, String accountId, String tag, String value, String currency) {
-        List<AccountSummary> existingValue = ibConnection.ibRequestRepository.getFutureValue(String.valueOf(reqId));
-        if(existingValue == null) {
-            existingValue = new ArrayList<>();
-            ibConnection.ibRequestRepository.setFutureValue(String.valueOf(reqId), existingValue);
-        }
-        existingValue.add(new AccountSummary(accountId,tag,value,currency));
+        instrument(ACCOUNT_SUMMARY_CALLBACKS, "accountSummary", reqId, () -> {
+            if(ibConnection.accountStateCache.updateAccountSummary(reqId, new AccountSummary(accountId, tag, value, currency))) {
+                return;
+            }
+            List<AccountSummary> existingValue = ibConnection.ibRequestRepository.getFutureValue(String.valueOf(reqId));
+            if(existingValue == null) {
+                existingValue = new ArrayList<>();
+                ibConnection.ibRequestRepository.setFutureValue(String.valueOf(reqId), existingValue);
+            }
+            existingValue.add(new AccountSummary(accountId,tag,value,currency));
+        });
     }
 
     @Override
     public void accountSummaryEnd(int reqId) {
-        ibConnection.ibRequestRepository.removePendingRequest(String.valueOf(reqId));
+        instrument(ACCOUNT_SUMMARY_END_CALLBACKS, "accountSummaryEnd", reqId, () -> {
+            if(ibConnection.accountStateCache.endAccountSummary(reqId)) {
+                return;
+            }
+            ibConnection.ibRequestRepository.removePendingRequest(String.valueOf(reqId));
+        });
     }
 
     @Override
@@ -311,7 +472,18 @@ public class IBWrapper implements EWrapper {
 
     @Override
     public void error(int reqId, long errorTime, int errorCode, String errorMsg, String advancedOrderRejectionReason) {
-        LOGGER.error("IB Error. reqId: {}, errorCode: {}, errorMsg: {}, advancedOrderRejectionReason: {}.", reqId, errorCode, errorMsg, advancedOrderRejectionReason);
+        instrument(ERROR_CALLBACKS, "error", reqId, () -> {
+            LOGGER.error("IB Error. reqId: {}, errorCode: {}, errorMsg: {}, advancedOrderRejectionReason: {}.", reqId, errorCode, errorMsg, advancedOrderRejectionReason);
+
+            if(errorCode == HISTORICAL_DATA_ERROR_CODE && errorMsg != null && errorMsg.contains(HISTORICAL_DATA_NO_DATA_MSG)) {
+                // Not really a failure, there were just no bars in the requested period
+                ibConnection.ibRequestRepository.setFutureValue(String.valueOf(reqId), new ArrayList<Bar>());
+                ibConnection.ibRequestRepository.removePendingRequest(String.valueOf(reqId));
+            }
+            else if(REQUEST_ERROR_CODES.contains(errorCode)) {
+                ibConnection.ibRequestRepository.removePendingRequestWithException(String.valueOf(reqId), new IBRequestException(reqId, errorCode, errorMsg));
+            }
+        });
     }
 
     @Override
@@ -371,8 +543,14 @@ public class IBWrapper implements EWrapper {
     }
 
     @Override
-    public void historicalDataEnd(int i, String s, String s1) {
-        LOGGER.warn("{} has not been setup.", Thread.currentThread().getStackTrace()[1].getMethodName());
+    public void historicalDataEnd(int reqId, String startDateStr, String endDateStr) {
+        instrument(HISTORICAL_DATA_END_CALLBACKS, "historicalDataEnd", reqId, () -> {
+            // Requests for periods without any bars still complete with a list
+            if(ibConnection.ibRequestRepository.getFutureValue(String.valueOf(reqId)) == null) {
+                ibConnection.ibRequestRepository.setFutureValue(String.valueOf(reqId), new ArrayList<Bar>());
+            }
+            ibConnection.ibRequestRepository.removePendingRequest(String.valueOf(reqId));
+        });
     }
 
     @Override
@@ -447,14 +625,24 @@ public class IBWrapper implements EWrapper {
 
     @Override
     public void pnl(int reqId, double dailyPnL, double unrealizedPnL, double realizedPnL) {
-        ibConnection.ibRequestRepository.setFutureValue(String.valueOf(reqId), new AccountPnL(dailyPnL, unrealizedPnL, realizedPnL));
-        ibConnection.ibRequestRepository.removePendingRequest(String.valueOf(reqId));
+        instrument(PNL_CALLBACKS, "pnl", reqId, () -> {
+            AccountPnL accountPnL = new AccountPnL(dailyPnL, unrealizedPnL, realizedPnL);
+            // Updates can still arrive for a subscription that has just been cancelled
+            if(!ibConnection.accountStateCache.updateAccountPnL(reqId, accountPnL)) {
+                LOGGER.debug("Ignoring PnL for cancelled subscription {}.", reqId);
+            }
+        });
     }
 
     @Override
     public void pnlSingle(int reqId, Decimal position, double dailyPnL, double unrealizedPnL, double realizedPnL, double value) {
-        ibConnection.ibRequestRepository.setFutureValue(String.valueOf(reqId), new PositionPnL(position, dailyPnL, unrealizedPnL, realizedPnL, value));
-        ibConnection.ibRequestRepository.removePendingRequest(String.valueOf(reqId));
+        instrument(PNL_SINGLE_CALLBACKS, "pnlSingle", reqId, () -> {
+            PositionPnL positionPnL = new PositionPnL(position, dailyPnL, unrealizedPnL, realizedPnL, value);
+            // Updates can still arrive for a subscription that has just been cancelled
+            if(!ibConnection.accountStateCache.updatePositionPnL(reqId, positionPnL)) {
+                LOGGER.debug("Ignoring position PnL for cancelled subscription {}.", reqId);
+            }
+        });
     }
 
     @Override
@@ -473,13 +661,23 @@ public class IBWrapper implements EWrapper {
     }
 
     @Override
-    public void tickByTickAllLast(int i, int i1, long l, double v, Decimal decimal, TickAttribLast tickAttribLast, String s, String s1) {
-        LOGGER.warn("{} has not been setup.", Thread.currentThread().getStackTrace()[1].getMethodName());
+    public void tickByTickAllLast(int reqId, int _tickType, long time, double price, Decimal size, TickAttribLast _tickAttribLast, String _exchange, String _specialConditions) {
+        instrument(TICK_BY_TICK_ALL_LAST_CALLBACKS, "tickByTickAllLast", reqId, () -> {
+            IBTickFeed tickFeed = ibConnection.tickFeedReqIdMap.get(reqId);
+            if(tickFeed != null) {
+                tickFeed.getTrades().write(time, price, size.value().doubleValue());
+            }
+        });
     }
 
     @Override
-    public void tickByTickBidAsk(int i, long l, double v, double v1, Decimal decimal, Decimal decimal1, TickAttribBidAsk tickAttribBidAsk) {
-        LOGGER.warn("{} has not been setup.", Thread.currentThread().getStackTrace()[1].getMethodName());
+    public void tickByTickBidAsk(int reqId, long time, double bidPrice, double askPrice, Decimal bidSize, Decimal askSize, TickAttribBidAsk _tickAttribBidAsk) {
+        instrument(TICK_BY_TICK_BID_ASK_CALLBACKS, "tickByTickBidAsk", reqId, () -> {
+            IBTickFeed tickFeed = ibConnection.tickFeedReqIdMap.get(reqId);
+            if(tickFeed != null) {
+                tickFeed.getTopOfBook().update(time, bidPrice, bidSize.value().doubleValue(), askPrice, askSize.value().doubleValue());
+            }
+        });
     }
 
     @Override
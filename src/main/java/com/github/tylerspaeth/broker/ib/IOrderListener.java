@@ -1,6 +1,10 @@
 package com.github.tylerspaeth.broker.ib;
 
 import com.github.tylerspaeth.common.data.entity.Order;
+import com.github.tylerspaeth.common.data.entity.OrderEvent;
+import com.github.tylerspaeth.common.data.entity.Trade;
+
+import java.util.List;
 
 /**
  * Listener for activity on Orders.
@@ -10,7 +14,10 @@ public interface IOrderListener {
     /**
      * Called when there is an update to the Order.
      * @param order Order that has been updated.
+     * @param newTrades Trades that were added to the Order since the last update.
+     * @param changedTrades Trades that already existed and were changed since the last update.
+     * @param newOrderEvents OrderEvents that were added to the Order since the last update.
      * @return The provided Order, possibly changed.
      */
-    Order update(Order order);
+    Order update(Order order, List<Trade> newTrades, List<Trade> changedTrades, List<OrderEvent> newOrderEvents);
 }
@@ -0,0 +1,95 @@
+package com.github.tylerspaeth.broker.ib;
+
+import com.github.tylerspaeth.broker.response.MarketDepth;
+
+import java.util.Arrays;
+
+/**
+ * The order book of a data feed, built from the insert, update, and delete operations that IB sends for each level.
+ */
+public class MarketDepthBook {
+
+    // Values IB uses in updateMktDepth
+    private static final int OPERATION_INSERT = 0;
+    private static final int OPERATION_UPDATE = 1;
+    private static final int OPERATION_DELETE = 2;
+    private static final int SIDE_ASK = 0;
+
+    private final double[] bidPrices;
+    private final double[] bidSizes;
+    private final double[] askPrices;
+    private final double[] askSizes;
+    private int bidLevels;
+    private int askLevels;
+
+    /**
+     * @param numRows Number of levels of each side that IB was asked for.
+     */
+    public MarketDepthBook(int numRows) {
+        bidPrices = new double[numRows];
+        bidSizes = new double[numRows];
+        askPrices = new double[numRows];
+        askSizes = new double[numRows];
+    }
+
+    /**
+     * Apply an update from IB.
+     * @param position Level of the book being changed.
+     * @param operation 0 to insert, 1 to update, 2 to delete.
+     * @param side 0 for the ask side, 1 for the bid side.
+     * @param price Price of the level.
+     * @param size Size of the level.
+     */
+    public synchronized void update(int position, int operation, int side, double price, double size) {
+        if(side == SIDE_ASK) {
+            askLevels = apply(askPrices, askSizes, askLevels, position, operation, price, size);
+        } else {
+            bidLevels = apply(bidPrices, bidSizes, bidLevels, position, operation, price, size);
+        }
+    }
+
+    /**
+     * Gets a copy of the current order book.
+     * @return MarketDepth
+     */
+    public synchronized MarketDepth read() {
+        return new MarketDepth(Arrays.copyOf(bidPrices, bidLevels), Arrays.copyOf(bidSizes, bidLevels),
+                Arrays.copyOf(askPrices, askLevels), Arrays.copyOf(askSizes, askLevels));
+    }
+
+    /**
+     * Apply an operation to one side of the book.
+     * @return Number of levels on the side after the operation.
+     */
+    private static int apply(double[] prices, double[] sizes, int levels, int position, int operation, double price, double size) {
+        if(position < 0 || position >= prices.length) {
+            return levels;
+        }
+        switch (operation) {
+            case OPERATION_INSERT -> {
+                int toShift = Math.min(levels, prices.length - 1) - position;
+                if(toShift > 0) {
+                    System.arraycopy(prices, position, prices, position + 1, toShift);
+                    System.arraycopy(sizes, position, sizes, position + 1, toShift);
+                }
+                prices[position] = price;
+                sizes[position] = size;
+                return Math.min(Math.max(levels, position) + 1, prices.length);
+            }
+            case OPERATION_UPDATE -> {
+                prices[position] = price;
+                sizes[position] = size;
+                return Math.max(levels, position + 1);
+            }
+            case OPERATION_DELETE -> {
+                if(position >= levels) {
+                    return levels;
+                }
+                System.arraycopy(prices, position + 1, prices, position, levels - position - 1);
+                System.arraycopy(sizes, position + 1, sizes, position, levels - position - 1);
+                return levels - 1;
+            }
+        }
+        return levels;
+    }
+}
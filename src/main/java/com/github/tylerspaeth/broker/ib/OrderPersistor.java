@@ -2,6 +2,10 @@ package com.github.tylerspaeth.broker.ib;
 
 import com.github.tylerspaeth.common.data.dao.OrderDAO;
 import com.github.tylerspaeth.common.data.entity.Order;
+import com.github.tylerspaeth.common.data.entity.OrderEvent;
+import com.github.tylerspaeth.common.data.entity.Trade;
+
+import java.util.List;
 
 /**
  * Used for persisting Order changes to database.
@@ -15,8 +19,8 @@ public class OrderPersistor implements IOrderListener {
     }
 
     @Override
-    public Order update(Order order) {
-        return orderDAO.update(order);
+    public Order update(Order order, List<Trade> newTrades, List<Trade> changedTrades, List<OrderEvent> newOrderEvents) {
+        return orderDAO.update(order, newTrades, changedTrades, newOrderEvents);
     }
 
 }
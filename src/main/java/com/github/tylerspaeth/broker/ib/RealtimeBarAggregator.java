@@ -0,0 +1,74 @@
+package com.github.tylerspaeth.broker.ib;
+
+import com.github.tylerspaeth.broker.ib.response.RealtimeBar;
+import com.ib.client.Decimal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Combines 5 second RealtimeBars into bars of a larger interval as they arrive. Bars are aligned so that each combined
+ * bar starts on a multiple of the interval.
+ */
+public class RealtimeBarAggregator {
+
+    public static final int REALTIME_BAR_SECONDS = 5;
+
+    private final int intervalSeconds;
+    private final int numToCondense;
+    private final List<RealtimeBar> pendingBars;
+
+    /**
+     * @param intervalSeconds Length of the combined bars. Must be a multiple of 5.
+     */
+    public RealtimeBarAggregator(int intervalSeconds) {
+        if(intervalSeconds <= 0 || intervalSeconds % REALTIME_BAR_SECONDS != 0) {
+            throw new IllegalArgumentException("intervalSeconds must be a positive multiple of " + REALTIME_BAR_SECONDS + ".");
+        }
+        this.intervalSeconds = intervalSeconds;
+        this.numToCondense = intervalSeconds / REALTIME_BAR_SECONDS;
+        this.pendingBars = new ArrayList<>(numToCondense);
+    }
+
+    /**
+     * Add the next RealtimeBar.
+     * @param realtimeBar RealtimeBar that was just received.
+     * @return The combined RealtimeBar if this completed one, otherwise null.
+     */
+    public RealtimeBar add(RealtimeBar realtimeBar) {
+        // Skip bars until one lines up with the start of an interval
+        if(pendingBars.isEmpty() && realtimeBar.date() % intervalSeconds != 0) {
+            return null;
+        }
+
+        pendingBars.add(realtimeBar);
+        if(pendingBars.size() < numToCondense) {
+            return null;
+        }
+
+        RealtimeBar condensed = condense(pendingBars);
+        pendingBars.clear();
+        return condensed;
+    }
+
+    /**
+     * Combine consecutive RealtimeBars into one.
+     * @param realtimeBars RealtimeBars in order. Must not be empty.
+     * @return RealtimeBar spanning all the provided bars.
+     */
+    public static RealtimeBar condense(List<RealtimeBar> realtimeBars) {
+        long date = realtimeBars.getFirst().date();
+        double open = realtimeBars.getFirst().open();
+        double high = realtimeBars.getFirst().high();
+        double low = realtimeBars.getFirst().low();
+        double close = realtimeBars.getLast().close();
+        Decimal volume = realtimeBars.getFirst().volume();
+        for(int i = 1; i < realtimeBars.size(); i++) {
+            RealtimeBar item = realtimeBars.get(i);
+            high = Math.max(high, item.high());
+            low = Math.min(low, item.low());
+            volume = volume.add(item.volume());
+        }
+        return new RealtimeBar(date, open, high, low, close, volume);
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.tylerspaeth.broker.ib;
+
+import com.github.tylerspaeth.broker.ib.response.RealtimeBar;
+import com.ib.client.Decimal;
+
+/**
+ * Combines trade ticks into bars that each span a fixed number of trades.
+ */
+public class TickBarAggregator {
+
+    private TickBarAggregator() {}
+
+    /**
+     * Combine consecutive trade ticks into one bar.
+     * @param times Times of the ticks in seconds since the epoch.
+     * @param prices Prices of the ticks.
+     * @param sizes Sizes of the ticks.
+     * @param count Number of ticks to combine, starting at index 0. Must be positive.
+     * @return RealtimeBar spanning the ticks, dated at the first tick.
+     */
+    public static RealtimeBar condense(long[] times, double[] prices, double[] sizes, int count) {
+        double high = prices[0];
+        double low = prices[0];
+        double volume = 0;
+        for(int i = 0; i < count; i++) {
+            high = Math.max(high, prices[i]);
+            low = Math.min(low, prices[i]);
+            volume += sizes[i];
+        }
+        return new RealtimeBar(times[0], prices[0], high, low, prices[count - 1], Decimal.get(volume));
+    }
+}
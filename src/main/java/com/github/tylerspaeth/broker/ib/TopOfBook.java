@@ -0,0 +1,58 @@
+package com.github.tylerspaeth.broker.ib;
+
+import com.github.tylerspaeth.broker.response.Quote;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The latest best bid and ask of a data feed, held in primitive fields so each update from IB does not allocate. There
+ * is a single writer, the IB reader thread, and readers retry until they read all the fields of a single update.
+ */
+public class TopOfBook {
+
+    private final AtomicLong version = new AtomicLong(); // Odd while an update is being written
+    private long time;
+    private double bidPrice;
+    private double bidSize;
+    private double askPrice;
+    private double askSize;
+
+    /**
+     * Replace the quote. Must only be called from one thread at a time.
+     * @param time Time of the quote in seconds since the epoch.
+     */
+    public void update(long time, double bidPrice, double bidSize, double askPrice, double askSize) {
+        long current = version.get();
+        version.set(current + 1);
+        VarHandle.storeStoreFence();
+        this.time = time;
+        this.bidPrice = bidPrice;
+        this.bidSize = bidSize;
+        this.askPrice = askPrice;
+        this.askSize = askSize;
+        version.set(current + 2);
+    }
+
+    /**
+     * Gets the latest quote.
+     * @return Quote, or null if there has not been an update yet.
+     */
+    public Quote read() {
+        while(true) {
+            long before = version.get();
+            if(before == 0) {
+                return null;
+            }
+            if((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            Quote quote = new Quote(time, bidPrice, bidSize, askPrice, askSize);
+            VarHandle.loadLoadFence();
+            if(version.get() == before) {
+                return quote;
+            }
+        }
+    }
+}
@@ -21,9 +21,10 @@ public class OrderResponse {
     public final Contract contract;
     public final Order order;
 
-    public final List<com.github.tylerspaeth.broker.response.OrderStatus> statuses = new ArrayList<>();
+    public final List<com.github.tylerspaeth.broker.response.OrderStatus> statuses = Collections.synchronizedList(new ArrayList<>());
 
     public volatile int cumulativeFilled = 0;
+    public volatile int remaining = -1; // Quantity left to fill from the most recent status, -1 until a status is received
     private volatile boolean execDetailsEnded = false;
 
     public final List<Execution> executions = Collections.synchronizedList(new ArrayList<>());
@@ -39,6 +40,7 @@ public class OrderResponse {
     public synchronized void updateFromOrderStatus(int filled, int remaining, double lastFillPrice, com.ib.client.OrderStatus newStatus) {
         statuses.add(new com.github.tylerspaeth.broker.response.OrderStatus(newStatus, Timestamp.from(Instant.now())));
         cumulativeFilled = filled;
+        this.remaining = remaining;
         if(orderResponseListener != null) {
             orderResponseListener.update(this);
         }
@@ -7,6 +7,7 @@ import com.github.tylerspaeth.broker.response.AccountPnL;
 import com.github.tylerspaeth.broker.response.AccountSummary;
 import com.github.tylerspaeth.broker.response.Position;
 import com.github.tylerspaeth.broker.response.PositionPnL;
+import com.github.tylerspaeth.broker.response.Timestamped;
 import com.github.tylerspaeth.common.data.dao.SymbolDAO;
 import com.github.tylerspaeth.common.data.entity.Symbol;
 import com.ib.client.Contract;
@@ -17,6 +18,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -24,7 +26,7 @@ public class IBAccountService implements IAccountService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(IBAccountService.class);
 
-    private String accountID;
+    private volatile String accountID;
 
     private final IBSyncWrapper wrapper;
     private final SymbolDAO symbolDAO;
@@ -36,35 +38,14 @@ public class IBAccountService implements IAccountService {
 
     @Override
     public AccountSummary getAccountSummary() {
-        try {
-            List<AccountSummaryTag> tags = getSummaryTags();
-            List<com.github.tylerspaeth.broker.ib.response.AccountSummary> summary = wrapper.getAccountSummary("All", tags);
-            return extractAccountSummary(summary);
-        } catch(Exception e) {
-            LOGGER.error("Failed to getAccountSummary", e);
-            return null;
-        }
+        Timestamped<AccountSummary> latest = getLatestAccountSummary();
+        return latest == null ? null : latest.value();
     }
 
     @Override
     public List<Position> getPositions() {
         try {
-            List<Position> newPositions = new ArrayList<>();
-            List<com.github.tylerspaeth.broker.ib.response.Position> oldPositions = wrapper.getPositions();
-            if(oldPositions == null) {
-                return List.of();
-            }
-            for(com.github.tylerspaeth.broker.ib.response.Position position : oldPositions) {
-                Contract contract = position.contract();
-
-                Symbol mappedSymbol = symbolDAO.getSymbolByCriteria(contract.symbol(), contract.exchange(), IBMapper.mapSecTypeToAssetType(contract.secType()));
-                if(mappedSymbol == null) {
-                    LOGGER.warn("Failed to find Symbol (Ticker:{}, Exchange:{}, SecType:{}", contract.symbol(), contract.exchange(), contract.secType());
-                }
-
-                newPositions.add(new Position(mappedSymbol, position.position().value().doubleValue(), position.avgCost()));
-            }
-            return newPositions;
+            return mapPositions(wrapper.getPositions());
         } catch(Exception e) {
             LOGGER.error("Failed to getPositions", e);
             return List.of();
@@ -73,41 +54,148 @@ public class IBAccountService implements IAccountService {
 
     @Override
     public AccountPnL getAccountPnL() {
+        Timestamped<AccountPnL> latest = getLatestAccountPnL();
+        return latest == null ? null : latest.value();
+    }
+
+    @Override
+    public PositionPnL getPositionPnL(Position position) {
+        Timestamped<PositionPnL> latest = getLatestPositionPnL(position);
+        return latest == null ? null : latest.value();
+    }
+
+    @Override
+    public Timestamped<AccountSummary> getLatestAccountSummary() {
         try {
-            if(accountID == null) {
-                var newAccountID = getAccountID();
-                if(newAccountID == null) {
-                    throw new Exception("Failed to load accountID");
-                }
-                accountID = newAccountID;
-            }
-            return IBMapper.mapAccountPnL(wrapper.getAccountPnL(accountID, ""));
+            return streamAccountSummary().get();
         } catch(Exception e) {
-            LOGGER.error("Failed to getAccountPnL", e);
+            LOGGER.error("Failed to getAccountSummary", e);
             return null;
         }
     }
 
     @Override
-    public PositionPnL getPositionPnL(Position position) {
+    public Timestamped<AccountPnL> getLatestAccountPnL() {
         try {
-            if(accountID == null) {
-                var newAccountID = getAccountID();
-                if(newAccountID == null) {
-                    throw new Exception("Failed to load accountID");
-                }
-                accountID = newAccountID;
-            }
-
-            Integer conId = position.symbol().getIbConID() == null ? getConIdFromSymbol(position.symbol()) : position.symbol().getIbConID();
+            return streamAccountPnL().get();
+        } catch(Exception e) {
+            LOGGER.error("Failed to getAccountPnL", e);
+            return null;
+        }
+    }
 
-            return IBMapper.mapPositionPnL(wrapper.getPositionPnL(accountID, "", conId));
+    @Override
+    public Timestamped<PositionPnL> getLatestPositionPnL(Position position) {
+        try {
+            return streamPositionPnL(position).get();
         } catch(Exception e) {
             LOGGER.error("Failed to getPositionPnL", e);
             return null;
         }
     }
 
+    @Override
+    public CompletableFuture<AccountSummary> getAccountSummaryAsync() {
+        return streamAccountSummary()
+                .thenApply(Timestamped::value)
+                .exceptionally(e -> {
+                    LOGGER.error("Failed to getAccountSummary", e);
+                    return null;
+                });
+    }
+
+    @Override
+    public CompletableFuture<List<Position>> getPositionsAsync() {
+        // Mapping looks up Symbols in the database, so it is kept off of the IB reader thread
+        return wrapper.getPositionsAsync()
+                .thenApplyAsync(this::mapPositions)
+                .exceptionally(e -> {
+                    LOGGER.error("Failed to getPositions", e);
+                    return List.of();
+                });
+    }
+
+    @Override
+    public CompletableFuture<AccountPnL> getAccountPnLAsync() {
+        return streamAccountPnL()
+                .thenApply(Timestamped::value)
+                .exceptionally(e -> {
+                    LOGGER.error("Failed to getAccountPnL", e);
+                    return null;
+                });
+    }
+
+    @Override
+    public CompletableFuture<PositionPnL> getPositionPnLAsync(Position position) {
+        return streamPositionPnL(position)
+                .thenApply(Timestamped::value)
+                .exceptionally(e -> {
+                    LOGGER.error("Failed to getPositionPnL", e);
+                    return null;
+                });
+    }
+
+    @Override
+    public CompletableFuture<List<PositionPnL>> getPositionPnLsAsync(List<Position> positions) {
+        List<CompletableFuture<PositionPnL>> futures = positions.stream().map(this::getPositionPnLAsync).toList();
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(_ -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * Gets the latest AccountSummary from the subscription that is kept open for it.
+     * @return Future that completes with the latest AccountSummary and when it was received.
+     */
+    private CompletableFuture<Timestamped<AccountSummary>> streamAccountSummary() {
+        return wrapper.streamAccountSummary("All", getSummaryTags())
+                .thenApply(latest -> new Timestamped<>(extractAccountSummary(latest.value()), latest.asOf()));
+    }
+
+    /**
+     * Gets the latest AccountPnL from the subscription that is kept open for it.
+     * @return Future that completes with the latest AccountPnL and when it was received.
+     */
+    private CompletableFuture<Timestamped<AccountPnL>> streamAccountPnL() {
+        return getAccountIDAsync()
+                .thenCompose(loadedAccountID -> wrapper.streamAccountPnL(loadedAccountID, ""))
+                .thenApply(latest -> new Timestamped<>(IBMapper.mapAccountPnL(latest.value()), latest.asOf()));
+    }
+
+    /**
+     * Gets the latest PositionPnL of a Position from the subscription that is kept open for it.
+     * @param position The position to search for.
+     * @return Future that completes with the latest PositionPnL and when it was received.
+     */
+    private CompletableFuture<Timestamped<PositionPnL>> streamPositionPnL(Position position) {
+        return getAccountIDAsync()
+                .thenCompose(loadedAccountID -> getConIdAsync(position.symbol())
+                        .thenCompose(conId -> wrapper.streamPositionPnL(loadedAccountID, "", conId)))
+                .thenApply(latest -> new Timestamped<>(IBMapper.mapPositionPnL(latest.value()), latest.asOf()));
+    }
+
+    /**
+     * Map IB Positions to Positions with their Symbols.
+     * @param oldPositions List of IB Positions, or null if they could not be retrieved.
+     * @return List of Positions
+     */
+    private List<Position> mapPositions(List<com.github.tylerspaeth.broker.ib.response.Position> oldPositions) {
+        List<Position> newPositions = new ArrayList<>();
+        if(oldPositions == null) {
+            return List.of();
+        }
+        for(com.github.tylerspaeth.broker.ib.response.Position position : oldPositions) {
+            Contract contract = position.contract();
+
+            Symbol mappedSymbol = symbolDAO.getSymbolByCriteria(contract.symbol(), contract.exchange(), IBMapper.mapSecTypeToAssetType(contract.secType()));
+            if(mappedSymbol == null) {
+                LOGGER.warn("Failed to find Symbol (Ticker:{}, Exchange:{}, SecType:{}", contract.symbol(), contract.exchange(), contract.secType());
+            }
+
+            newPositions.add(new Position(mappedSymbol, position.position().value().doubleValue(), position.avgCost()));
+        }
+        return newPositions;
+    }
+
     /**
      * Gets a list of AccountSummaryTags that are used to build an AccountSummary object
      * @return List of AccountSummaryTag
@@ -181,36 +269,56 @@ public class IBAccountService implements IAccountService {
     }
 
     /**
-     * Attempts to get the accountID of the active account.
-     * @return AccountID string
+     * Gets the accountID of the active account, only making a request if it has not already been loaded.
+     * @return Future that completes with the AccountID string
      */
-    private String getAccountID() {
-        // TODO implement an intentional way of doing this rather than doing a workaround
-        try {
-            return wrapper.getAccountSummary("", List.of(AccountSummaryTag.AccountType)).getFirst().accountID();
-        } catch(Exception e) {
-            LOGGER.error("Failed to loadAccountID", e);
-            return null;
+    private CompletableFuture<String> getAccountIDAsync() {
+        if(accountID != null) {
+            return CompletableFuture.completedFuture(accountID);
+        }
+        return wrapper.getAccountSummaryAsync("", List.of(AccountSummaryTag.AccountType)).thenApply(summaries -> {
+            if(summaries == null || summaries.isEmpty()) {
+                throw new IllegalStateException("Failed to load accountID");
+            }
+            accountID = summaries.getFirst().accountID();
+            return accountID;
+        });
+    }
+
+    /**
+     * Gets the conId of a Symbol, only making a request if the Symbol does not already have one.
+     * @param symbol Symbol to search off of
+     * @return Future that completes with the conId
+     */
+    private CompletableFuture<Integer> getConIdAsync(Symbol symbol) {
+        if(symbol.getIbConID() != null) {
+            return CompletableFuture.completedFuture(symbol.getIbConID());
         }
+        return wrapper.getContractDetailsAsync(buildContract(symbol)).thenApply(this::extractConId);
     }
 
     /**
-     * Gets the conId on the Contract corresponding to the symbol.
+     * Builds the Contract used to look up a Symbol.
      * @param symbol Symbol to search off of
-     * @return conId if one can be found
-     * @throws Exception If a single contract is not found for the provided symbol
+     * @return Contract
      */
-    private Integer getConIdFromSymbol(Symbol symbol) throws Exception {
+    private Contract buildContract(Symbol symbol) {
         Contract contract = new Contract();
         contract.symbol(symbol.getTicker());
         contract.exchange(symbol.getExchange().getName());
         contract.secType(IBMapper.mapAssetTypeToSecType(symbol.getAssetType()));
         contract.currency("USD");
+        return contract;
+    }
 
-        List<ContractDetails> details = wrapper.getContractDetails(contract);
-
-        if(details.size() != 1) {
-            LOGGER.error("Failed to get an individual contract from symbol. Expected 1, got {}.", details.size());
+    /**
+     * Gets the conId out of the ContractDetails found for a Symbol.
+     * @param details List of ContractDetails
+     * @return conId
+     */
+    private Integer extractConId(List<ContractDetails> details) {
+        if(details == null || details.size() != 1) {
+            LOGGER.error("Failed to get an individual contract from symbol. Expected 1, got {}.", details == null ? 0 : details.size());
             throw new RuntimeException("Failed to get an individual contract.");
         }
 
@@ -2,6 +2,9 @@ package com.github.tylerspaeth.broker.ib.service;
 
 import com.github.tylerspaeth.broker.ib.IBDataFeedKey;
 import com.github.tylerspaeth.broker.ib.response.ContractDetails;
+import com.github.tylerspaeth.broker.response.MarketDepth;
+import com.github.tylerspaeth.broker.response.Quote;
+import com.github.tylerspaeth.broker.service.IDataFeedListener;
 import com.github.tylerspaeth.broker.service.IDataFeedService;
 import com.github.tylerspaeth.broker.ib.IBMapper;
 import com.github.tylerspaeth.broker.ib.IBSyncWrapper;
@@ -34,7 +37,9 @@ public class IBDataFeedService implements IDataFeedService {
     @Override
     public List<Candlestick> readFromDataFeed(long threadID, Symbol symbol, int intervalDuration, IntervalUnitEnum intervalUnit) {
         IBDataFeedKey dataFeedKey = getDataFeedKeyFromSymbol(symbol);
-        List<RealtimeBar> realtimeBars = wrapper.readFromDataFeed(threadID, dataFeedKey, intervalDuration, intervalUnit);
+        List<RealtimeBar> realtimeBars = intervalUnit == IntervalUnitEnum.TICK
+                ? wrapper.readTickBars(threadID, dataFeedKey, intervalDuration)
+                : wrapper.readFromDataFeed(threadID, dataFeedKey, intervalDuration, intervalUnit);
         return realtimeBars.stream().map(IBMapper::mapRealTimeBarToCandlestick).collect(Collectors.toList());
     }
 
@@ -43,6 +48,36 @@ public class IBDataFeedService implements IDataFeedService {
         wrapper.unsubscribeFromDataFeed(threadID, getDataFeedKeyFromSymbol(symbol));
     }
 
+    @Override
+    public void addDataFeedListener(long threadID, Symbol symbol, int intervalDuration, IntervalUnitEnum intervalUnit, IDataFeedListener listener) {
+        wrapper.addDataFeedListener(threadID, getDataFeedKeyFromSymbol(symbol), symbol, intervalDuration, intervalUnit, listener);
+    }
+
+    @Override
+    public void removeDataFeedListener(long threadID, Symbol symbol, IDataFeedListener listener) {
+        wrapper.removeDataFeedListener(threadID, getDataFeedKeyFromSymbol(symbol), listener);
+    }
+
+    @Override
+    public void subscribeToTickDataFeed(long threadID, Symbol symbol, boolean includeDepth) {
+        wrapper.subscribeToTickFeed(threadID, getDataFeedKeyFromSymbol(symbol), includeDepth);
+    }
+
+    @Override
+    public void unsubscribeFromTickDataFeed(long threadID, Symbol symbol) {
+        wrapper.unsubscribeFromTickFeed(threadID, getDataFeedKeyFromSymbol(symbol));
+    }
+
+    @Override
+    public Quote getTopOfBook(Symbol symbol) {
+        return wrapper.getTopOfBook(getDataFeedKeyFromSymbol(symbol));
+    }
+
+    @Override
+    public MarketDepth getMarketDepth(Symbol symbol) {
+        return wrapper.getMarketDepth(getDataFeedKeyFromSymbol(symbol));
+    }
+
     @Override
     public List<ContractDetails> getContractDetailsForSymbol(Symbol symbol) {
         Contract contract = new Contract();
@@ -1,6 +1,7 @@
 package com.github.tylerspaeth.broker.ib.service;
 
 import com.github.tylerspaeth.broker.ib.IBMapper;
+import com.github.tylerspaeth.broker.ib.AsyncOrderResponseListener;
 import com.github.tylerspaeth.broker.ib.IBOrderResponseProjector;
 import com.github.tylerspaeth.broker.ib.OrderPersistor;
 import com.github.tylerspaeth.broker.ib.response.OrderResponse;
@@ -41,7 +42,7 @@ public class IBOrderService implements IOrderService {
         com.ib.client.Order ibOrder = new com.ib.client.Order();
         IBMapper.mapOrderToIBOrder(order, ibOrder);
         OrderResponse orderResponse = wrapper.placeOrder(contract, ibOrder);
-        orderResponse.setOrderResponseListener(new IBOrderResponseProjector(order, new OrderPersistor()));
+        orderResponse.setOrderResponseListener(new AsyncOrderResponseListener(wrapper.getOrderResponseExecutor(), new IBOrderResponseProjector(order, new OrderPersistor())));
         return order;
     }
 
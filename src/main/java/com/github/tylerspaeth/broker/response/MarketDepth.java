@@ -0,0 +1,6 @@
+package com.github.tylerspaeth.broker.response;
+
+/**
+ * The levels of the order book of a Symbol. Index 0 of each side is the best price.
+ */
+public record MarketDepth(double[] bidPrices, double[] bidSizes, double[] askPrices, double[] askSizes) {}
@@ -0,0 +1,7 @@
+package com.github.tylerspaeth.broker.response;
+
+/**
+ * The best bid and ask of a Symbol.
+ * @param time Time the quote was received from the broker in seconds since the epoch.
+ */
+public record Quote(long time, double bidPrice, double bidSize, double askPrice, double askSize) {}
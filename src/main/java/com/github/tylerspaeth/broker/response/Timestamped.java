@@ -0,0 +1,20 @@
+package com.github.tylerspaeth.broker.response;
+
+import java.sql.Timestamp;
+
+/**
+ * A value along with the time it was received from the broker.
+ * @param value The value.
+ * @param asOf When the value was received.
+ * @param <T> Type of the value.
+ */
+public record Timestamped<T>(T value, Timestamp asOf) {
+
+    /**
+     * Gets how long ago the value was received.
+     * @return Age of the value in milliseconds.
+     */
+    public long ageMillis() {
+        return System.currentTimeMillis() - asOf.getTime();
+    }
+}
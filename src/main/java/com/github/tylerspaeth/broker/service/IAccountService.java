@@ -4,8 +4,10 @@ import com.github.tylerspaeth.broker.response.AccountPnL;
 import com.github.tylerspaeth.broker.response.AccountSummary;
 import com.github.tylerspaeth.broker.response.Position;
 import com.github.tylerspaeth.broker.response.PositionPnL;
+import com.github.tylerspaeth.broker.response.Timestamped;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Account related functionality
@@ -37,4 +39,60 @@ public interface IAccountService {
      */
     PositionPnL getPositionPnL(Position position);
 
+    /**
+     * Gets the latest account summary details for the active account along with when they were received. Values are
+     * kept up to date by the broker, so this only waits on the first call.
+     * @return Timestamped AccountSummary, or null if it could not be retrieved.
+     */
+    Timestamped<AccountSummary> getLatestAccountSummary();
+
+    /**
+     * Gets the latest account profit and loss numbers along with when they were received. Values are kept up to date
+     * by the broker, so this only waits on the first call.
+     * @return Timestamped AccountPnL, or null if it could not be retrieved.
+     */
+    Timestamped<AccountPnL> getLatestAccountPnL();
+
+    /**
+     * Gets the latest profit and loss numbers for the provided position along with when they were received. Values
+     * are kept up to date by the broker, so this only waits on the first call for each position.
+     * @param position The position to search for.
+     * @return Timestamped PositionPnL, or null if it could not be retrieved.
+     */
+    Timestamped<PositionPnL> getLatestPositionPnL(Position position);
+
+    /**
+     * Gets the account summary details for the active account without blocking.
+     * @return Future that completes with the AccountSummary, or null if it could not be retrieved.
+     */
+    CompletableFuture<AccountSummary> getAccountSummaryAsync();
+
+    /**
+     * Gets all the open positions the active account has without blocking.
+     * @return Future that completes with the List of Positions.
+     */
+    CompletableFuture<List<Position>> getPositionsAsync();
+
+    /**
+     * Gets the account profit and loss numbers without blocking.
+     * @return Future that completes with the AccountPnL, or null if it could not be retrieved.
+     */
+    CompletableFuture<AccountPnL> getAccountPnLAsync();
+
+    /**
+     * Gets the profit and loss numbers for the provided position without blocking.
+     * @param position The position to search for.
+     * @return Future that completes with the PositionPnL, or null if it could not be retrieved.
+     */
+    CompletableFuture<PositionPnL> getPositionPnLAsync(Position position);
+
+    /**
+     * Gets the profit and loss numbers for many positions at once. The requests for each position are all made
+     * before any of them are waited on.
+     * @param positions The positions to search for.
+     * @return Future that completes with a PositionPnL for each position in the same order. Positions that could not
+     * be retrieved are null.
+     */
+    CompletableFuture<List<PositionPnL>> getPositionPnLsAsync(List<Position> positions);
+
 }
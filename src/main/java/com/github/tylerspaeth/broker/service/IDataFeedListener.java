@@ -0,0 +1,20 @@
+package com.github.tylerspaeth.broker.service;
+
+import com.github.tylerspaeth.common.data.entity.Candlestick;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+
+/**
+ * Listener that is pushed each Candlestick of a data feed as soon as it completes, instead of having to poll for it.
+ */
+@FunctionalInterface
+public interface IDataFeedListener {
+
+    /**
+     * Called when a Candlestick at the listener's granularity has completed. This is called from the thread that
+     * receives data from the broker, so it should return quickly and must not block.
+     * @param symbol Symbol the Candlestick is for.
+     * @param candlestick Completed Candlestick.
+     */
+    void onCandlestick(Symbol symbol, Candlestick candlestick);
+
+}
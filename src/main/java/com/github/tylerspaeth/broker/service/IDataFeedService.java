@@ -1,6 +1,8 @@
 package com.github.tylerspaeth.broker.service;
 
 import com.github.tylerspaeth.broker.ib.response.ContractDetails;
+import com.github.tylerspaeth.broker.response.MarketDepth;
+import com.github.tylerspaeth.broker.response.Quote;
 import com.github.tylerspaeth.common.data.entity.Candlestick;
 import com.github.tylerspaeth.common.data.entity.Symbol;
 import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
@@ -20,7 +22,8 @@ public interface IDataFeedService {
     void subscribeToDataFeed(long threadID, Symbol symbol);
 
     /**
-     * Gets unread Candlesticks from the data feed of the provided Symbol. Must be subscribed before reading.
+     * Gets unread Candlesticks from the data feed of the provided Symbol. Must be subscribed before reading. TICK
+     * intervals read from the tick data feed, with each Candlestick spanning intervalDuration trades.
      * @param threadID long ID of the thread that this request originates from.
      * @param symbol Symbol to get data for.
      * @param intervalDuration Used for determining the granularity of the Candlesticks.
@@ -36,6 +39,56 @@ public interface IDataFeedService {
      */
     void unsubscribeFromDataFeed(long threadID, Symbol symbol);
 
+    /**
+     * Registers a listener that is pushed each Candlestick of the data feed for the provided Symbol as soon as it
+     * completes, instead of the data feed being polled. Each listener is called on a background thread with its
+     * Candlesticks in order.
+     * @param threadID long ID of the thread that this request originates from.
+     * @param symbol Symbol to get data for.
+     * @param intervalDuration Used for determining the granularity of the Candlesticks.
+     * @param intervalUnit Used for determine the granularity of the Candlesticks.
+     * @param listener IDataFeedListener to notify.
+     */
+    void addDataFeedListener(long threadID, Symbol symbol, int intervalDuration, IntervalUnitEnum intervalUnit, IDataFeedListener listener);
+
+    /**
+     * Removes a listener from the data feed for the provided Symbol.
+     * @param threadID long ID of the thread that this request originates from.
+     * @param symbol Symbol the listener was added for.
+     * @param listener IDataFeedListener to remove.
+     */
+    void removeDataFeedListener(long threadID, Symbol symbol, IDataFeedListener listener);
+
+    /**
+     * Subscribes to the tick-by-tick trades and best bid and ask of the provided Symbol. Trades are read as tick bars by
+     * calling readFromDataFeed with IntervalUnitEnum.TICK.
+     * @param threadID long ID of the thread that this request originates from.
+     * @param symbol Symbol to get data for.
+     * @param includeDepth Whether to also get the order book of the Symbol.
+     */
+    void subscribeToTickDataFeed(long threadID, Symbol symbol, boolean includeDepth);
+
+    /**
+     * Unsubscribe from the tick-by-tick data feed for the provided Symbol.
+     * @param threadID long ID of the thread that this request originates from.
+     * @param symbol Symbol to get data for.
+     */
+    void unsubscribeFromTickDataFeed(long threadID, Symbol symbol);
+
+    /**
+     * Gets the latest best bid and ask of the provided Symbol. A tick data feed must be subscribed to for the Symbol.
+     * @param symbol Symbol to get data for.
+     * @return Quote, or null if there is none yet.
+     */
+    Quote getTopOfBook(Symbol symbol);
+
+    /**
+     * Gets the order book of the provided Symbol. A tick data feed must be subscribed to with depth for the Symbol.
+     * @param symbol Symbol to get data for.
+     * @return MarketDepth, or null if there is none.
+     */
+    MarketDepth getMarketDepth(Symbol symbol);
+
     /**
      * Get the Contract details for the provided Symbol. This will only be supported by IB implementations.
      * @param symbol Symbol to find contract details for.
@@ -0,0 +1,284 @@
+package com.github.tylerspaeth.common;
+
+import com.github.tylerspaeth.common.enums.OverflowPolicyEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed size buffer with a single writer and any number of readers. Each item is written once, and every reader keeps
+ * its own sequence number of the next item it will read, so writing does not depend on the number of readers and
+ * counting the unread items of a reader is constant time. Readers must be subscribed before they can start reading and
+ * only see items written after they subscribed. A thread can only have one active subscription to a buffer.
+ * <p>
+ * Items must only be written from one thread at a time. Readers that fall more than the capacity of the buffer behind
+ * the writer are handled according to the buffer's OverflowPolicyEnum.
+ * @param <T> The object the buffer is being used for. These should be immutable since they are shared between readers.
+ */
+public class BroadcastRingBuffer<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BroadcastRingBuffer.class);
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final AtomicReferenceArray<T> items;
+    private final AtomicLongArray itemSequences; // Sequence number of the item in each slot, or -1 while it is being written
+    private final int mask;
+    private final OverflowPolicyEnum overflowPolicy;
+
+    private volatile long writeSequence; // Sequence number of the next item to be written
+    private final ConcurrentHashMap<Long, Reader> readers = new ConcurrentHashMap<>();
+
+    public BroadcastRingBuffer() {
+        this(DEFAULT_CAPACITY, OverflowPolicyEnum.SKIP_TO_OLDEST);
+    }
+
+    /**
+     * @param capacity Number of items held for readers. Must be a power of 2.
+     * @param overflowPolicy OverflowPolicyEnum to apply to readers that fall too far behind.
+     */
+    public BroadcastRingBuffer(int capacity, OverflowPolicyEnum overflowPolicy) {
+        if(capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of 2.");
+        }
+        this.items = new AtomicReferenceArray<>(capacity);
+        this.itemSequences = new AtomicLongArray(capacity);
+        for(int i = 0; i < capacity; i++) {
+            itemSequences.set(i, -1);
+        }
+        this.mask = capacity - 1;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Writes to the buffer for all readers to read.
+     * @param t The object to put at the end of the buffer.
+     */
+    public void write(T t) {
+        long sequence = writeSequence;
+        int slot = (int) (sequence & mask);
+        // Readers check the slot's sequence before and after reading the item so they can tell if it changed underneath them
+        itemSequences.set(slot, -1);
+        items.set(slot, t);
+        itemSequences.set(slot, sequence);
+        writeSequence = sequence + 1;
+    }
+
+    /**
+     * Reads from the buffer.
+     * @param threadID long ID of the thread that this request originates from.
+     * @return The next object in the buffer that the reader has yet to read, null if there is none.
+     */
+    public T read(long threadID) {
+        List<T> result = read(threadID, 1);
+        return result.isEmpty() ? null : result.getFirst();
+    }
+
+    /**
+     * Reads a fixed number of items from the buffer.
+     * @param threadID long ID of the thread that this request originates from.
+     * @param desiredCount The number of objects to be read from the buffer.
+     * @return List with desiredCount objects if there are at least that many unread objects in the buffer.
+     * If there are not enough, then an empty list will be returned.
+     */
+    public List<T> read(long threadID, int desiredCount) {
+        Reader reader = readers.get(threadID);
+        if(reader == null) {
+            return new ArrayList<>();
+        }
+
+        while(true) {
+            long nextSequence = reader.nextSequence;
+            long available = writeSequence - nextSequence;
+            if(available > items.length()) {
+                if(!handleOverflow(threadID, reader)) {
+                    return new ArrayList<>();
+                }
+                continue;
+            }
+            if(available < desiredCount) {
+                return new ArrayList<>();
+            }
+
+            List<T> result = copy(nextSequence, desiredCount);
+            if(result == null) {
+                continue;
+            }
+            reader.nextSequence = nextSequence + desiredCount;
+            return result;
+        }
+    }
+
+    /**
+     * Gets all the unread objects in the buffer for this reader.
+     * @param threadID long ID of the thread that this request originates from.
+     * @return List of all unread objects.
+     */
+    public List<T> dump(long threadID) {
+        Reader reader = readers.get(threadID);
+        if(reader == null) {
+            return new ArrayList<>();
+        }
+
+        while(true) {
+            long nextSequence = reader.nextSequence;
+            long available = writeSequence - nextSequence;
+            if(available > items.length()) {
+                if(!handleOverflow(threadID, reader)) {
+                    return new ArrayList<>();
+                }
+                continue;
+            }
+
+            List<T> result = copy(nextSequence, (int) available);
+            if(result == null) {
+                continue;
+            }
+            reader.nextSequence = nextSequence + available;
+            return result;
+        }
+    }
+
+    /**
+     * Look at the next unread element in the buffer without reading it.
+     * @param threadID long ID of the thread that this request originates from.
+     * @return Next unread element in the buffer, null if there is none.
+     */
+    public T peek(long threadID) {
+        Reader reader = readers.get(threadID);
+        if(reader == null) {
+            return null;
+        }
+
+        while(true) {
+            long nextSequence = reader.nextSequence;
+            long available = writeSequence - nextSequence;
+            if(available > items.length()) {
+                if(!handleOverflow(threadID, reader)) {
+                    return null;
+                }
+                continue;
+            }
+            if(available == 0) {
+                return null;
+            }
+
+            List<T> result = copy(nextSequence, 1);
+            if(result != null) {
+                return result.getFirst();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of items a reader has yet to read, including any that have already been overwritten.
+     * @param threadID long ID of the thread that this request originates from.
+     * @return Number of unread items, 0 if the thread is not subscribed.
+     */
+    public long unreadCount(long threadID) {
+        Reader reader = readers.get(threadID);
+        return reader == null ? 0 : writeSequence - reader.nextSequence;
+    }
+
+    /**
+     * Subscribes a new reader to this buffer.
+     * @param threadID long ID of the thread that this request originates from.
+     */
+    public void subscribe(long threadID) {
+        if(readers.put(threadID, new Reader(writeSequence)) == null) {
+            LOGGER.info("New subscription: {}.", threadID);
+        }
+        else {
+            LOGGER.warn("Thread {} is already subscribed.", threadID);
+        }
+    }
+
+    /**
+     * Unsubscribes a reader from this buffer.
+     * @param threadID long ID of the thread that this request originates from.
+     */
+    public void unsubscribe(long threadID) {
+        if(readers.remove(threadID) != null) {
+            LOGGER.info("{} unsubscribed.", threadID);
+        }
+        else {
+            LOGGER.warn("Thread {} is not subscribed.", threadID);
+        }
+    }
+
+    /**
+     * Gets the number of actively subscribed readers
+     * @return number of actively subscribed readers
+     */
+    public int readerCount() {
+        return readers.size();
+    }
+
+    /**
+     * Copy a run of items out of the buffer.
+     * @param fromSequence Sequence number of the first item.
+     * @param count Number of items.
+     * @return List of the items, or null if the writer reused any of their slots before they were copied.
+     */
+    private List<T> copy(long fromSequence, int count) {
+        List<T> result = new ArrayList<>(count);
+        for(long sequence = fromSequence; sequence < fromSequence + count; sequence++) {
+            int slot = (int) (sequence & mask);
+            if(itemSequences.get(slot) != sequence) {
+                return null;
+            }
+            T item = items.get(slot);
+            if(itemSequences.get(slot) != sequence) {
+                return null;
+            }
+            result.add(item);
+        }
+        return result;
+    }
+
+    /**
+     * Apply the overflow policy to a reader that the writer has lapped.
+     * @param threadID long ID of the reader's thread.
+     * @param reader Reader that fell behind.
+     * @return true if the reader can continue reading, false if it was removed.
+     */
+    private boolean handleOverflow(long threadID, Reader reader) {
+        long currentWriteSequence = writeSequence;
+        long lostItems = currentWriteSequence - reader.nextSequence - items.length();
+        switch (overflowPolicy) {
+            case SKIP_TO_OLDEST -> {
+                LOGGER.warn("Reader {} fell behind and skipped {} items.", threadID, lostItems);
+                reader.nextSequence = currentWriteSequence - items.length();
+                return true;
+            }
+            case SKIP_TO_LATEST -> {
+                LOGGER.warn("Reader {} fell behind and skipped {} items.", threadID, currentWriteSequence - reader.nextSequence);
+                reader.nextSequence = currentWriteSequence;
+                return true;
+            }
+            case UNSUBSCRIBE -> {
+                LOGGER.warn("Reader {} fell behind by {} items and was unsubscribed.", threadID, lostItems);
+                readers.remove(threadID, reader);
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Position of a single reader. Only the reader's own thread moves it.
+     */
+    private static class Reader {
+
+        private volatile long nextSequence;
+
+        private Reader(long nextSequence) {
+            this.nextSequence = nextSequence;
+        }
+    }
+}
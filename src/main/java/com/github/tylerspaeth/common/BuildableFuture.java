@@ -51,4 +51,12 @@ public class BuildableFuture<T> {
         return future.get(timeout, timeUnit);
     }
 
+    /**
+     * Gets the underlying CompletableFuture so the result can be composed with other futures rather than waited on.
+     * @return CompletableFuture that completes along with this future.
+     */
+    public CompletableFuture<T> getFuture() {
+        return future;
+    }
+
 }
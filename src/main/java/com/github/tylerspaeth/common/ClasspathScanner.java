@@ -1,15 +1,33 @@
 package com.github.tylerspaeth.common;
 
 import org.reflections.Reflections;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Utility class for finding things on the classpath.
  */
 public class ClasspathScanner {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClasspathScanner.class);
+
     private static final String PREFIX = "com.github.tylerspaeth";
 
     /**
@@ -23,4 +41,101 @@ public class ClasspathScanner {
         return reflections.getTypesAnnotatedWith(annotationType).stream().toList();
     }
 
+    /**
+     * Finds all Classes that are Annotated with a given Annotation, using indexes generated at compile time where they
+     * exist. Each classpath root with a copy of the index is trusted to list all of its annotated classes, and only the
+     * roots without one are scanned.
+     * @param annotationType The class of the annotation we are looking for.
+     * @param indexResource Path of the index resource.
+     * @return List of all classes that are annotated with the given annotation.
+     * @param <T> The annotation we are looking for.
+     */
+    public static <T extends Annotation> List<Class<?>> getClassesWithAnnotation(Class<T> annotationType, String indexResource) {
+        return getClassesWithAnnotation(annotationType, indexResource, ClasspathScanner.class.getClassLoader());
+    }
+
+    static <T extends Annotation> List<Class<?>> getClassesWithAnnotation(Class<T> annotationType, String indexResource, ClassLoader classLoader) {
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        List<URL> loadedIndexes = new ArrayList<>();
+        for(URL index : findIndexes(indexResource, classLoader)) {
+            try {
+                List<Class<?>> indexedClasses = loadIndex(index, classLoader);
+                LOGGER.info("Loaded {} classes from index {}", indexedClasses.size(), index);
+                classes.addAll(indexedClasses);
+                loadedIndexes.add(index);
+            } catch (IOException e) {
+                LOGGER.error("Failed to read index {}", index, e);
+            }
+        }
+
+        List<URL> unindexedRoots = getUnindexedRoots(loadedIndexes, indexResource, ClasspathHelper.forPackage(PREFIX, classLoader));
+        if(!unindexedRoots.isEmpty()) {
+            LOGGER.warn("No index {} found in {}, scanning them for classes annotated with {} instead.", indexResource, unindexedRoots, annotationType.getSimpleName());
+            Reflections reflections = new Reflections(new ConfigurationBuilder()
+                    .setUrls(unindexedRoots)
+                    .setClassLoaders(new ClassLoader[]{classLoader})
+                    .filterInputsBy(new FilterBuilder().includePackage(PREFIX)));
+            classes.addAll(reflections.getTypesAnnotatedWith(annotationType));
+        }
+
+        // Indexes can be stale and the scan also returns subclasses of annotated classes
+        return classes.stream().filter(annotatedClass -> annotatedClass.isAnnotationPresent(annotationType)).toList();
+    }
+
+    /**
+     * Gets the classpath roots that do not contain a copy of the index.
+     * @param indexes URLs of the copies of the index that were loaded.
+     * @param indexResource Path of the index resource.
+     * @param roots Classpath roots that contain classes under the package prefix.
+     * @return List of the roots without an index.
+     */
+    static List<URL> getUnindexedRoots(List<URL> indexes, String indexResource, Collection<URL> roots) {
+        Set<String> indexedRoots = new HashSet<>();
+        for(URL index : indexes) {
+            String url = index.toExternalForm();
+            indexedRoots.add(url.substring(0, url.length() - indexResource.length()));
+        }
+        return roots.stream().filter(root -> !indexedRoots.contains(root.toExternalForm())).toList();
+    }
+
+    /**
+     * Finds every copy of an index on the classpath.
+     * @param indexResource Path of the index resource.
+     * @param classLoader ClassLoader to search.
+     * @return List of index URLs, empty if there are none or they can not be searched for.
+     */
+    private static List<URL> findIndexes(String indexResource, ClassLoader classLoader) {
+        try {
+            return Collections.list(classLoader.getResources(indexResource));
+        } catch (IOException e) {
+            LOGGER.error("Failed to find index {} on the classpath", indexResource, e);
+            return List.of();
+        }
+    }
+
+    /**
+     * Loads the classes listed in a single copy of an index. Each line of an index is the binary name of a class, and
+     * classes that can not be loaded are skipped.
+     * @param index URL of the index.
+     * @param classLoader ClassLoader to load the classes with.
+     * @return List of the indexed classes.
+     * @throws IOException If the index can not be read.
+     */
+    static List<Class<?>> loadIndex(URL index, ClassLoader classLoader) throws IOException {
+        Set<String> classNames = new LinkedHashSet<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+            reader.lines().map(String::strip).filter(line -> !line.isEmpty()).forEach(classNames::add);
+        }
+
+        List<Class<?>> classes = new ArrayList<>(classNames.size());
+        for(String className : classNames) {
+            try {
+                classes.add(Class.forName(className, false, classLoader));
+            } catch (ClassNotFoundException e) {
+                LOGGER.error("Unable to load indexed class {} from {}", className, index, e);
+            }
+        }
+        return classes;
+    }
+
 }
@@ -0,0 +1,130 @@
+package com.github.tylerspaeth.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs tasks on a pool of threads while keeping the tasks of each key in the order they were submitted. Tasks with
+ * different keys run in parallel, but at most one task of a key runs at a time. Threads are only held by keys that have
+ * pending tasks, so any number of keys can be used.
+ * @param <K> Type of the keys that tasks are serialized by.
+ */
+public class KeyedSerialExecutor<K> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KeyedSerialExecutor.class);
+
+    private final ExecutorService executor;
+
+    // A key is only in the map while one of the threads is draining its tasks
+    private final ConcurrentHashMap<K, ArrayDeque<QueuedTask>> queues = new ConcurrentHashMap<>();
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicLong lastLagNanos = new AtomicLong();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+
+    /**
+     * @param name Prefix for the names of the threads.
+     * @param numThreads Number of threads that tasks are run on.
+     */
+    public KeyedSerialExecutor(String name, int numThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(numThreads, r -> {
+            Thread t = new Thread(r, name + "-" + threadCount.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Queue a task to run after every task previously submitted with the same key.
+     * @param key Key to serialize the task by.
+     * @param task Task to run.
+     */
+    public void execute(K key, Runnable task) {
+        QueuedTask queuedTask = new QueuedTask(task, System.nanoTime());
+        queueDepth.incrementAndGet();
+
+        boolean[] startDraining = new boolean[1];
+        queues.compute(key, (_, tasks) -> {
+            if(tasks == null) {
+                tasks = new ArrayDeque<>();
+                startDraining[0] = true;
+            }
+            tasks.add(queuedTask);
+            return tasks;
+        });
+
+        if(startDraining[0]) {
+            executor.execute(() -> drain(key));
+        }
+    }
+
+    /**
+     * Gets the number of tasks that have been submitted but not started.
+     * @return Number of waiting tasks.
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Gets how long the most recently started task waited between being submitted and starting.
+     * @return Lag in nanoseconds.
+     */
+    public long getLastLagNanos() {
+        return lastLagNanos.get();
+    }
+
+    /**
+     * Gets the longest that any task has waited between being submitted and starting.
+     * @return Lag in nanoseconds.
+     */
+    public long getMaxLagNanos() {
+        return maxLagNanos.get();
+    }
+
+    /**
+     * Stop accepting tasks. Tasks that are already queued still run.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Run the tasks of a key one at a time until there are none left.
+     * @param key Key to run the tasks of.
+     */
+    private void drain(K key) {
+        while(true) {
+            QueuedTask[] next = new QueuedTask[1];
+            queues.computeIfPresent(key, (_, tasks) -> {
+                next[0] = tasks.poll();
+                // Removing the key while holding its lock means the next submitted task will start a new drain
+                return next[0] == null ? null : tasks;
+            });
+            if(next[0] == null) {
+                return;
+            }
+
+            queueDepth.decrementAndGet();
+            long lag = System.nanoTime() - next[0].submittedNanos();
+            lastLagNanos.set(lag);
+            maxLagNanos.accumulateAndGet(lag, Math::max);
+
+            try {
+                next[0].task().run();
+            } catch (Exception e) {
+                LOGGER.error("Task for key {} failed.", key, e);
+            }
+        }
+    }
+
+    private record QueuedTask(Runnable task, long submittedNanos) {}
+}
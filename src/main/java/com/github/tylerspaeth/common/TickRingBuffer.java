@@ -0,0 +1,222 @@
+package com.github.tylerspaeth.common;
+
+import com.github.tylerspaeth.common.enums.OverflowPolicyEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size buffer of ticks with a single writer and any number of readers. It works the same way as
+ * BroadcastRingBuffer, but each tick is stored across primitive arrays instead of as an object so that writing a tick
+ * does not allocate. Readers copy ticks into arrays they own and reuse.
+ * <p>
+ * Ticks must only be written from one thread at a time. Readers that fall more than the capacity of the buffer behind
+ * the writer are handled according to the buffer's OverflowPolicyEnum.
+ */
+public class TickRingBuffer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TickRingBuffer.class);
+
+    public static final int DEFAULT_CAPACITY = 65536;
+
+    private final long[] times;
+    private final double[] prices;
+    private final double[] sizes;
+    private final AtomicLongArray tickSequences; // Sequence number of the tick in each slot, or -1 while it is being written
+    private final int mask;
+    private final OverflowPolicyEnum overflowPolicy;
+
+    private volatile long writeSequence; // Sequence number of the next tick to be written
+    private final ConcurrentHashMap<Long, Reader> readers = new ConcurrentHashMap<>();
+
+    public TickRingBuffer() {
+        this(DEFAULT_CAPACITY, OverflowPolicyEnum.SKIP_TO_OLDEST);
+    }
+
+    /**
+     * @param capacity Number of ticks held for readers. Must be a power of 2.
+     * @param overflowPolicy OverflowPolicyEnum to apply to readers that fall too far behind.
+     */
+    public TickRingBuffer(int capacity, OverflowPolicyEnum overflowPolicy) {
+        if(capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of 2.");
+        }
+        this.times = new long[capacity];
+        this.prices = new double[capacity];
+        this.sizes = new double[capacity];
+        this.tickSequences = new AtomicLongArray(capacity);
+        for(int i = 0; i < capacity; i++) {
+            tickSequences.set(i, -1);
+        }
+        this.mask = capacity - 1;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Writes a tick to the buffer for all readers to read.
+     * @param time Time of the tick.
+     * @param price Price of the tick.
+     * @param size Size of the tick.
+     */
+    public void write(long time, double price, double size) {
+        long sequence = writeSequence;
+        int slot = (int) (sequence & mask);
+        // Readers check the slot's sequence before and after reading the tick so they can tell if it changed underneath them
+        tickSequences.set(slot, -1);
+        VarHandle.storeStoreFence();
+        times[slot] = time;
+        prices[slot] = price;
+        sizes[slot] = size;
+        tickSequences.set(slot, sequence);
+        writeSequence = sequence + 1;
+    }
+
+    /**
+     * Reads a fixed number of ticks from the buffer into the provided arrays, starting at index 0.
+     * @param threadID long ID of the thread that this request originates from.
+     * @param desiredCount The number of ticks to be read from the buffer. The arrays must be at least this long.
+     * @param timesOut Array to copy the times of the ticks into.
+     * @param pricesOut Array to copy the prices of the ticks into.
+     * @param sizesOut Array to copy the sizes of the ticks into.
+     * @return true if there were at least desiredCount unread ticks and they were read, otherwise false and nothing is
+     * read.
+     */
+    public boolean read(long threadID, int desiredCount, long[] timesOut, double[] pricesOut, double[] sizesOut) {
+        Reader reader = readers.get(threadID);
+        if(reader == null) {
+            return false;
+        }
+
+        while(true) {
+            long nextSequence = reader.nextSequence;
+            long available = writeSequence - nextSequence;
+            if(available > times.length) {
+                if(!handleOverflow(threadID, reader)) {
+                    return false;
+                }
+                continue;
+            }
+            if(available < desiredCount) {
+                return false;
+            }
+
+            if(!copy(nextSequence, desiredCount, timesOut, pricesOut, sizesOut)) {
+                continue;
+            }
+            reader.nextSequence = nextSequence + desiredCount;
+            return true;
+        }
+    }
+
+    /**
+     * Gets the number of ticks a reader has yet to read, including any that have already been overwritten.
+     * @param threadID long ID of the thread that this request originates from.
+     * @return Number of unread ticks, 0 if the thread is not subscribed.
+     */
+    public long unreadCount(long threadID) {
+        Reader reader = readers.get(threadID);
+        return reader == null ? 0 : writeSequence - reader.nextSequence;
+    }
+
+    /**
+     * Subscribes a new reader to this buffer.
+     * @param threadID long ID of the thread that this request originates from.
+     */
+    public void subscribe(long threadID) {
+        if(readers.put(threadID, new Reader(writeSequence)) == null) {
+            LOGGER.info("New subscription: {}.", threadID);
+        }
+        else {
+            LOGGER.warn("Thread {} is already subscribed.", threadID);
+        }
+    }
+
+    /**
+     * Unsubscribes a reader from this buffer.
+     * @param threadID long ID of the thread that this request originates from.
+     */
+    public void unsubscribe(long threadID) {
+        if(readers.remove(threadID) != null) {
+            LOGGER.info("{} unsubscribed.", threadID);
+        }
+        else {
+            LOGGER.warn("Thread {} is not subscribed.", threadID);
+        }
+    }
+
+    /**
+     * Gets the number of actively subscribed readers
+     * @return number of actively subscribed readers
+     */
+    public int readerCount() {
+        return readers.size();
+    }
+
+    /**
+     * Copy a run of ticks out of the buffer.
+     * @param fromSequence Sequence number of the first tick.
+     * @param count Number of ticks.
+     * @return true if the ticks were copied, false if the writer reused any of their slots before they were copied.
+     */
+    private boolean copy(long fromSequence, int count, long[] timesOut, double[] pricesOut, double[] sizesOut) {
+        for(int i = 0; i < count; i++) {
+            long sequence = fromSequence + i;
+            int slot = (int) (sequence & mask);
+            if(tickSequences.get(slot) != sequence) {
+                return false;
+            }
+            timesOut[i] = times[slot];
+            pricesOut[i] = prices[slot];
+            sizesOut[i] = sizes[slot];
+            VarHandle.loadLoadFence();
+            if(tickSequences.get(slot) != sequence) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Apply the overflow policy to a reader that the writer has lapped.
+     * @param threadID long ID of the reader's thread.
+     * @param reader Reader that fell behind.
+     * @return true if the reader can continue reading, false if it was removed.
+     */
+    private boolean handleOverflow(long threadID, Reader reader) {
+        long currentWriteSequence = writeSequence;
+        long lostTicks = currentWriteSequence - reader.nextSequence - times.length;
+        switch (overflowPolicy) {
+            case SKIP_TO_OLDEST -> {
+                LOGGER.warn("Reader {} fell behind and skipped {} ticks.", threadID, lostTicks);
+                reader.nextSequence = currentWriteSequence - times.length;
+                return true;
+            }
+            case SKIP_TO_LATEST -> {
+                LOGGER.warn("Reader {} fell behind and skipped {} ticks.", threadID, currentWriteSequence - reader.nextSequence);
+                reader.nextSequence = currentWriteSequence;
+                return true;
+            }
+            case UNSUBSCRIBE -> {
+                LOGGER.warn("Reader {} fell behind by {} ticks and was unsubscribed.", threadID, lostTicks);
+                readers.remove(threadID, reader);
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Position of a single reader. Only the reader's own thread moves it.
+     */
+    private static class Reader {
+
+        private volatile long nextSequence;
+
+        private Reader(long nextSequence) {
+            this.nextSequence = nextSequence;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.tylerspaeth.common;
+
+import java.sql.Timestamp;
+
+/**
+ * Converts between Timestamps and microseconds since the epoch, which is how Candlestick times are held in primitive
+ * arrays. Timestamps are kept to microsecond precision since that is all the database stores.
+ */
+public final class TimestampMicros {
+
+    private TimestampMicros() {}
+
+    /**
+     * Converts a Timestamp to microseconds since the epoch, dropping anything finer than a microsecond.
+     * @param timestamp Timestamp to convert.
+     * @return Microseconds since the epoch.
+     */
+    public static long toMicros(Timestamp timestamp) {
+        return Math.floorDiv(timestamp.getTime(), 1000) * 1_000_000 + timestamp.getNanos() / 1000;
+    }
+
+    /**
+     * Converts microseconds since the epoch to a Timestamp.
+     * @param micros Microseconds since the epoch.
+     * @return Timestamp
+     */
+    public static Timestamp toTimestamp(long micros) {
+        Timestamp timestamp = new Timestamp(Math.floorDiv(micros, 1_000_000) * 1000);
+        timestamp.setNanos((int) Math.floorMod(micros, 1_000_000) * 1000);
+        return timestamp;
+    }
+}
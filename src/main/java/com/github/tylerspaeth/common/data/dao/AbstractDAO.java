@@ -1,22 +1,32 @@
 package com.github.tylerspaeth.common.data.dao;
 
+import com.github.tylerspaeth.common.metrics.MetricsRegistry;
+import com.github.tylerspaeth.common.metrics.ResourceUsage;
+import com.github.tylerspaeth.common.metrics.Timer;
 import com.github.tylerspaeth.config.DatasourceConfig;
 import jakarta.persistence.EntityManager;
 import org.hibernate.Hibernate;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 public abstract class AbstractDAO<T> {
 
+    private final Map<String, Timer> callTimers = new ConcurrentHashMap<>();
+
     /**
      * Persists a new object to the database.
      * @param t Object to persist.
      */
     public void insert(T t) {
+        long startNanos = System.nanoTime();
         try (EntityManager em = DatasourceConfig.entityManagerFactory.createEntityManager()) {
             em.getTransaction().begin();
             em.persist(t);
             em.getTransaction().commit();
+        } finally {
+            recordCall("insert", startNanos);
         }
     }
 
@@ -26,11 +36,14 @@ public abstract class AbstractDAO<T> {
      * @return Most recent version of this object.
      */
     public T update(T t) {
+        long startNanos = System.nanoTime();
         try (EntityManager em = DatasourceConfig.entityManagerFactory.createEntityManager()) {
             em.getTransaction().begin();
             T managed = em.merge(t);
             em.getTransaction().commit();
             return managed;
+        } finally {
+            recordCall("update", startNanos);
         }
     }
 
@@ -44,13 +57,35 @@ public abstract class AbstractDAO<T> {
         R result = association.apply(entity);
 
         if(!Hibernate.isInitialized(result)) {
+            long startNanos = System.nanoTime();
             try (EntityManager em = DatasourceConfig.entityManagerFactory.createEntityManager()) {
                 T attached = em.merge(entity);
                 result = association.apply(attached);
                 Hibernate.initialize(result);
+            } finally {
+                recordCall("lazyLoad", startNanos);
             }
         }
         return result;
     }
 
+    /**
+     * Records the duration of a database call made by this DAO. The count of the Timer is the number of calls. The call is
+     * also counted against the strategy the current thread is doing work for, if there is one.
+     * @param method Name of the DAO method that made the call.
+     * @param startNanos Value of System.nanoTime when the call started.
+     */
+    protected final void recordCall(String method, long startNanos) {
+        callTimers.computeIfAbsent(method, _ -> {
+            Class<?> daoClass = getClass();
+            String dao = daoClass.isAnonymousClass() ? daoClass.getSuperclass().getSimpleName() : daoClass.getSimpleName();
+            return MetricsRegistry.getInstance().timer("dao_call_seconds", "dao", dao, "method", method);
+        }).recordSince(startNanos);
+
+        ResourceUsage resourceUsage = ResourceUsage.current();
+        if(resourceUsage != null) {
+            resourceUsage.recordDaoOperation();
+        }
+    }
+
 }
@@ -0,0 +1,203 @@
+package com.github.tylerspaeth.common.data.dao;
+
+import com.github.tylerspaeth.common.data.entity.BacktestJob;
+import com.github.tylerspaeth.common.data.entity.BacktestJob_;
+import com.github.tylerspaeth.common.data.entity.BacktestResult;
+import com.github.tylerspaeth.common.data.entity.ParameterOptimization_;
+import com.github.tylerspaeth.common.enums.BacktestJobStatusEnum;
+import com.github.tylerspaeth.config.DatasourceConfig;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+public class BacktestJobDAO extends AbstractDAO<BacktestJob> {
+
+    private static final String LOCK_TIMEOUT_HINT = "jakarta.persistence.lock.timeout";
+    private static final int SKIP_LOCKED = -2; // Lock timeout that Hibernate turns into SKIP LOCKED
+
+    /**
+     * Persists a batch of new BacktestJobs in a single transaction.
+     * @param backtestJobs BacktestJobs to persist.
+     */
+    public void insertAll(List<BacktestJob> backtestJobs) {
+        long startNanos = System.nanoTime();
+        try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            for(BacktestJob backtestJob : backtestJobs) {
+                entityManager.persist(backtestJob);
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            recordCall("insertAll", startNanos);
+        }
+    }
+
+    /**
+     * Lease the oldest BacktestJob that is pending or whose lease has expired. The row is locked with SELECT ... FOR
+     * UPDATE SKIP LOCKED so that workers leasing at the same time each get a different job without waiting on each
+     * other. Jobs that have already been attempted the maximum number of times are marked as failed instead.
+     * @param workerID ID of the worker leasing the job.
+     * @param leaseDuration How long the worker has to finish or renew the lease before another worker can take it.
+     * @param maxAttempts Number of times a job can be leased before it is failed.
+     * @return Leased BacktestJob, or null if there are none available.
+     */
+    public BacktestJob leaseNextJob(String workerID, Duration leaseDuration, int maxAttempts) {
+        long startNanos = System.nanoTime();
+        try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<BacktestJob> cq = cb.createQuery(BacktestJob.class);
+            Root<BacktestJob> root = cq.from(BacktestJob.class);
+
+            Instant now = Instant.now();
+            cq.select(root).where(cb.or(
+                    cb.equal(root.get(BacktestJob_.status), BacktestJobStatusEnum.PENDING),
+                    cb.and(cb.equal(root.get(BacktestJob_.status), BacktestJobStatusEnum.LEASED), cb.lessThan(root.get(BacktestJob_.leaseExpiry), Timestamp.from(now)))))
+                    .orderBy(cb.asc(root.get(BacktestJob_.backtestJobID)));
+
+            while(true) {
+                List<BacktestJob> backtestJobs = entityManager.createQuery(cq)
+                        .setMaxResults(1)
+                        .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                        .setHint(LOCK_TIMEOUT_HINT, SKIP_LOCKED)
+                        .getResultList();
+                if(backtestJobs.isEmpty()) {
+                    entityManager.getTransaction().commit();
+                    return null;
+                }
+
+                BacktestJob backtestJob = backtestJobs.getFirst();
+                if(backtestJob.getAttempts() >= maxAttempts) {
+                    // A worker died while running this job too many times for it to be worth retrying
+                    backtestJob.setStatus(BacktestJobStatusEnum.FAILED);
+                    backtestJob.setLeaseExpiry(null);
+                    backtestJob.setFinishedAt(Timestamp.from(now));
+                    entityManager.flush();
+                    continue;
+                }
+
+                backtestJob.setStatus(BacktestJobStatusEnum.LEASED);
+                backtestJob.setWorkerID(workerID);
+                backtestJob.setLeaseExpiry(Timestamp.from(now.plus(leaseDuration)));
+                backtestJob.setAttempts(backtestJob.getAttempts() + 1);
+                entityManager.getTransaction().commit();
+                return backtestJob;
+            }
+        } finally {
+            recordCall("leaseNextJob", startNanos);
+        }
+    }
+
+    /**
+     * Extend the lease on a BacktestJob that is still being run.
+     * @param backtestJobID ID of the BacktestJob.
+     * @param workerID ID of the worker holding the lease.
+     * @param leaseDuration How long from now the lease should last.
+     * @return true if the lease was renewed, false if the worker no longer holds it.
+     */
+    public boolean renewLease(Integer backtestJobID, String workerID, Duration leaseDuration) {
+        long startNanos = System.nanoTime();
+        try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaUpdate<BacktestJob> cu = cb.createCriteriaUpdate(BacktestJob.class);
+            Root<BacktestJob> root = cu.from(BacktestJob.class);
+            cu.set(root.get(BacktestJob_.leaseExpiry), Timestamp.from(Instant.now().plus(leaseDuration)))
+                    .where(leaseHeldPredicate(cb, root, backtestJobID, workerID));
+            int updated = entityManager.createQuery(cu).executeUpdate();
+            entityManager.getTransaction().commit();
+            return updated == 1;
+        } finally {
+            recordCall("renewLease", startNanos);
+        }
+    }
+
+    /**
+     * Mark a leased BacktestJob as completed or failed.
+     * @param backtestJobID ID of the BacktestJob.
+     * @param workerID ID of the worker holding the lease.
+     * @param status COMPLETED or FAILED.
+     * @param backtestResultID ID of the BacktestResult the job produced, or null if there is none.
+     * @return true if the job was updated, false if the worker no longer holds the lease.
+     */
+    public boolean finishJob(Integer backtestJobID, String workerID, BacktestJobStatusEnum status, Integer backtestResultID) {
+        long startNanos = System.nanoTime();
+        try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaUpdate<BacktestJob> cu = cb.createCriteriaUpdate(BacktestJob.class);
+            Root<BacktestJob> root = cu.from(BacktestJob.class);
+            cu.set(root.get(BacktestJob_.status), status)
+                    .set(root.get(BacktestJob_.leaseExpiry), cb.nullLiteral(Timestamp.class))
+                    .set(root.get(BacktestJob_.finishedAt), Timestamp.from(Instant.now()));
+            if(backtestResultID != null) {
+                cu.set(root.get(BacktestJob_.backtestResult), entityManager.getReference(BacktestResult.class, backtestResultID));
+            }
+            cu.where(leaseHeldPredicate(cb, root, backtestJobID, workerID));
+            int updated = entityManager.createQuery(cu).executeUpdate();
+            entityManager.getTransaction().commit();
+            return updated == 1;
+        } finally {
+            recordCall("finishJob", startNanos);
+        }
+    }
+
+    /**
+     * Give a leased BacktestJob back to the queue so another worker can run it straight away.
+     * @param backtestJobID ID of the BacktestJob.
+     * @param workerID ID of the worker holding the lease.
+     */
+    public void releaseJob(Integer backtestJobID, String workerID) {
+        long startNanos = System.nanoTime();
+        try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaUpdate<BacktestJob> cu = cb.createCriteriaUpdate(BacktestJob.class);
+            Root<BacktestJob> root = cu.from(BacktestJob.class);
+            cu.set(root.get(BacktestJob_.status), BacktestJobStatusEnum.PENDING)
+                    .set(root.get(BacktestJob_.workerID), cb.nullLiteral(String.class))
+                    .set(root.get(BacktestJob_.leaseExpiry), cb.nullLiteral(Timestamp.class))
+                    .where(leaseHeldPredicate(cb, root, backtestJobID, workerID));
+            entityManager.createQuery(cu).executeUpdate();
+            entityManager.getTransaction().commit();
+        } finally {
+            recordCall("releaseJob", startNanos);
+        }
+    }
+
+    /**
+     * Count the BacktestJobs of a ParameterOptimization that are still pending or being run.
+     * @param parameterOptimizationID ID of a ParameterOptimization.
+     * @return Number of unfinished BacktestJobs.
+     */
+    public long countUnfinishedJobs(Integer parameterOptimizationID) {
+        long startNanos = System.nanoTime();
+        try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+            Root<BacktestJob> root = cq.from(BacktestJob.class);
+
+            cq.select(cb.count(root)).where(
+                    cb.equal(root.get(BacktestJob_.parameterOptimization).get(ParameterOptimization_.parameterOptimizationID), parameterOptimizationID),
+                    root.get(BacktestJob_.status).in(BacktestJobStatusEnum.PENDING, BacktestJobStatusEnum.LEASED));
+            return entityManager.createQuery(cq).getSingleResult();
+        } finally {
+            recordCall("countUnfinishedJobs", startNanos);
+        }
+    }
+
+    private Predicate leaseHeldPredicate(CriteriaBuilder cb, Root<BacktestJob> root, Integer backtestJobID, String workerID) {
+        return cb.and(cb.equal(root.get(BacktestJob_.backtestJobID), backtestJobID),
+                cb.equal(root.get(BacktestJob_.workerID), workerID),
+                cb.equal(root.get(BacktestJob_.status), BacktestJobStatusEnum.LEASED));
+    }
+}
@@ -2,13 +2,16 @@ package com.github.tylerspaeth.common.data.dao;
 
 import com.github.tylerspaeth.common.data.entity.BacktestResult;
 import com.github.tylerspaeth.common.data.entity.BacktestResult_;
+import com.github.tylerspaeth.common.data.entity.ParameterOptimization_;
 import com.github.tylerspaeth.common.data.entity.StrategyParameterSet_;
 import com.github.tylerspaeth.config.DatasourceConfig;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
 import jakarta.persistence.criteria.Root;
 
+import java.sql.Timestamp;
 import java.util.List;
 
 public class BacktestResultDAO extends AbstractDAO<BacktestResult> {
@@ -19,6 +22,7 @@ public class BacktestResultDAO extends AbstractDAO<BacktestResult> {
      * @return List of BacktestResults
      */
     public List<BacktestResult> getBacktestResultsByStrategyParameterSetID(Integer strategyParameterSetID) {
+        long startNanos = System.nanoTime();
         try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
             CriteriaQuery<BacktestResult> cq = cb.createQuery(BacktestResult.class);
@@ -26,6 +30,55 @@ public class BacktestResultDAO extends AbstractDAO<BacktestResult> {
 
             cq.select(root).where(cb.equal(root.get(BacktestResult_.strategyParameterSet).get(StrategyParameterSet_.strategyParameterSetID), strategyParameterSetID));
             return entityManager.createQuery(cq).getResultList();
+        } finally {
+            recordCall("getBacktestResultsByStrategyParameterSetID", startNanos);
+        }
+    }
+
+    /**
+     * Get the BacktestResults that were run as part of the provided ParameterOptimization.
+     * @param parameterOptimizationID ID of a ParameterOptimization
+     * @return List of BacktestResults
+     */
+    public List<BacktestResult> getBacktestResultsByParameterOptimizationID(Integer parameterOptimizationID) {
+        long startNanos = System.nanoTime();
+        try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<BacktestResult> cq = cb.createQuery(BacktestResult.class);
+            Root<BacktestResult> root = cq.from(BacktestResult.class);
+
+            cq.select(root).where(cb.equal(root.get(BacktestResult_.parameterOptimization).get(ParameterOptimization_.parameterOptimizationID), parameterOptimizationID));
+            return entityManager.createQuery(cq).getResultList();
+        } finally {
+            recordCall("getBacktestResultsByParameterOptimizationID", startNanos);
+        }
+    }
+
+    /**
+     * Mark every BacktestResult of a StrategyParameterSet within a ParameterOptimization as pruned, so that results
+     * left behind by backtests that did not finish are never selected as the best.
+     * @param parameterOptimizationID ID of a ParameterOptimization
+     * @param strategyParameterSetID ID of a StrategyParameterSet
+     * @param prunedAt Time the BacktestResults were pruned.
+     * @return Number of BacktestResults that were pruned.
+     */
+    public int pruneBacktestResults(Integer parameterOptimizationID, Integer strategyParameterSetID, Timestamp prunedAt) {
+        long startNanos = System.nanoTime();
+        try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaUpdate<BacktestResult> cu = cb.createCriteriaUpdate(BacktestResult.class);
+            Root<BacktestResult> root = cu.from(BacktestResult.class);
+            cu.set(root.get(BacktestResult_.pruned), true)
+                    .set(root.get(BacktestResult_.prunedAt), prunedAt)
+                    .where(cb.equal(root.get(BacktestResult_.parameterOptimization).get(ParameterOptimization_.parameterOptimizationID), parameterOptimizationID),
+                            cb.equal(root.get(BacktestResult_.strategyParameterSet).get(StrategyParameterSet_.strategyParameterSetID), strategyParameterSetID),
+                            cb.isFalse(root.get(BacktestResult_.pruned)));
+            int updated = entityManager.createQuery(cu).executeUpdate();
+            entityManager.getTransaction().commit();
+            return updated;
+        } finally {
+            recordCall("pruneBacktestResults", startNanos);
         }
     }
 
@@ -0,0 +1,169 @@
+package com.github.tylerspaeth.common.data.dao;
+
+import com.github.tylerspaeth.common.TimestampMicros;
+
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Streams the Candlesticks of a HistoricalDataset in timestamp order one page at a time. Each page is queried after the
+ * last timestamp of the one before it, and the next page is queried in the background while the current one is being
+ * read, so at most two pages are held in memory no matter how large the dataset is.
+ */
+public class CandlestickCursor implements Iterator<CandlestickCursor.CandlestickValues>, AutoCloseable {
+
+    private final PageLoader pageLoader;
+    private final int pageSize;
+    private final Executor executor;
+
+    private Page currentPage;
+    private int currentIndex;
+    private CompletableFuture<Page> nextPage;
+    private boolean closed;
+
+    CandlestickCursor(PageLoader pageLoader, Timestamp startTime, int pageSize, Executor executor) {
+        if(pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be greater than 0.");
+        }
+        this.pageLoader = pageLoader;
+        this.pageSize = pageSize;
+        this.executor = executor;
+        this.currentPage = Page.EMPTY;
+        this.nextPage = prefetch(startTime);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while(currentIndex >= currentPage.size()) {
+            if(closed || nextPage == null) {
+                return false;
+            }
+
+            try {
+                currentPage = nextPage.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new IllegalStateException("Interrupted while waiting for the next page of Candlesticks.", e);
+            } catch (ExecutionException e) {
+                // Failing rather than ending early so that a partial read is never mistaken for the end of the data
+                close();
+                throw new IllegalStateException("Failed to load the next page of Candlesticks.", e.getCause());
+            }
+            currentIndex = 0;
+
+            // A short page is the end of the data, otherwise start loading the page after it right away
+            nextPage = currentPage.size() < pageSize ? null : prefetch(currentPage.lastTimestamp());
+        }
+        return true;
+    }
+
+    @Override
+    public CandlestickValues next() {
+        if(!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int i = currentIndex++;
+        return new CandlestickValues(currentPage.timestampMicros[i], currentPage.opens[i], currentPage.highs[i],
+                                     currentPage.lows[i], currentPage.closes[i], currentPage.volumes[i]);
+    }
+
+    /**
+     * Stop reading. Any page that is being loaded in the background is discarded.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if(nextPage != null) {
+            nextPage.cancel(false);
+            nextPage = null;
+        }
+        currentPage = Page.EMPTY;
+        currentIndex = 0;
+    }
+
+    private CompletableFuture<Page> prefetch(Timestamp after) {
+        return CompletableFuture.supplyAsync(() -> pageLoader.load(after, pageSize), executor);
+    }
+
+    /**
+     * Values of a single Candlestick without any of the overhead of an entity.
+     * @param timestampMicros Microseconds since the epoch.
+     * @param open Open price.
+     * @param high High price.
+     * @param low Low price.
+     * @param close Close price.
+     * @param volume Volume.
+     */
+    public record CandlestickValues(long timestampMicros, float open, float high, float low, float close, float volume) {
+
+        public Timestamp timestamp() {
+            return TimestampMicros.toTimestamp(timestampMicros);
+        }
+    }
+
+    /**
+     * Queries a page of Candlesticks.
+     */
+    @FunctionalInterface
+    interface PageLoader {
+
+        /**
+         * Load the Candlesticks after a time.
+         * @param after Time the Candlesticks must be after, exclusive.
+         * @param pageSize Maximum number of Candlesticks to load.
+         * @return Page ordered by timestamp.
+         */
+        Page load(Timestamp after, int pageSize);
+    }
+
+    /**
+     * A page of Candlesticks held as primitive arrays.
+     */
+    static class Page {
+
+        static final Page EMPTY = new Page(0);
+
+        final long[] timestampMicros;
+        final float[] opens;
+        final float[] highs;
+        final float[] lows;
+        final float[] closes;
+        final float[] volumes;
+        private int size;
+
+        Page(int capacity) {
+            timestampMicros = new long[capacity];
+            opens = new float[capacity];
+            highs = new float[capacity];
+            lows = new float[capacity];
+            closes = new float[capacity];
+            volumes = new float[capacity];
+        }
+
+        /**
+         * Append the values of a Candlestick. There must be remaining capacity.
+         */
+        void add(Timestamp timestamp, float open, float high, float low, float close, float volume) {
+            timestampMicros[size] = TimestampMicros.toMicros(timestamp);
+            opens[size] = open;
+            highs[size] = high;
+            lows[size] = low;
+            closes[size] = close;
+            volumes[size] = volume;
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        Timestamp lastTimestamp() {
+            return TimestampMicros.toTimestamp(timestampMicros[size - 1]);
+        }
+    }
+}
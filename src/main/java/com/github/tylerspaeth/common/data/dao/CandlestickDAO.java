@@ -7,14 +7,139 @@ import com.github.tylerspaeth.config.DatasourceConfig;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.Timestamp;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
 
 public class CandlestickDAO extends AbstractDAO<Candlestick> {
 
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "candlestick-prefetch");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Stream the Candlesticks of a HistoricalDataset within a time range. Rows are read with plain JDBC straight into
+     * primitive arrays instead of entities, and each page is found with a seek on the (HistoricalDatasetID, Timestamp)
+     * index from the last timestamp of the page before it. The returned cursor must be closed.
+     * @param historicalDataset HistoricalDataset
+     * @param startTime The time to return data after.
+     * @param endTime The time to return data before, or null to return data up to the end of the dataset.
+     * @param pageSize Number of Candlesticks to query at a time.
+     * @return CandlestickCursor positioned before the first Candlestick.
+     */
+    public CandlestickCursor streamCandlesticksFromHistoricalDataset(HistoricalDataset historicalDataset, Timestamp startTime, Timestamp endTime, int pageSize) {
+        Integer historicalDatasetID = historicalDataset.getHistoricalDatasetID();
+        String sql = "SELECT Timestamp, Open, High, Low, Close, Volume FROM candlesticks WHERE HistoricalDatasetID = ? AND Timestamp > ?"
+                + (endTime != null ? " AND Timestamp < ?" : "")
+                + " ORDER BY Timestamp LIMIT ?";
+
+        return new CandlestickCursor((after, numCandles) -> {
+            long startNanos = System.nanoTime();
+            try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+                return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                        int parameterIndex = 1;
+                        statement.setInt(parameterIndex++, historicalDatasetID);
+                        statement.setTimestamp(parameterIndex++, after);
+                        if(endTime != null) {
+                            statement.setTimestamp(parameterIndex++, endTime);
+                        }
+                        statement.setInt(parameterIndex, numCandles);
+                        statement.setFetchSize(numCandles);
+
+                        CandlestickCursor.Page page = new CandlestickCursor.Page(numCandles);
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            while(resultSet.next()) {
+                                page.add(resultSet.getTimestamp(1), resultSet.getFloat(2), resultSet.getFloat(3),
+                                         resultSet.getFloat(4), resultSet.getFloat(5), resultSet.getFloat(6));
+                            }
+                        }
+                        return page;
+                    }
+                });
+            } finally {
+                recordCall("streamCandlesticksFromHistoricalDataset", startNanos);
+            }
+        }, startTime, pageSize, PREFETCH_EXECUTOR);
+    }
+
+    /**
+     * Create a cursor whose pages are loaded by a function instead of queried from the database, so that DAOs holding
+     * Candlesticks in memory can serve streaming reads. Pages are loaded on the reading thread.
+     * @param pageLoader Loads at most the given number of Candlesticks after a time, ordered by timestamp.
+     * @param startTime The time to return data after.
+     * @param pageSize Number of Candlesticks to load at a time.
+     * @return CandlestickCursor positioned before the first Candlestick.
+     */
+    protected static CandlestickCursor createCursor(BiFunction<Timestamp, Integer, List<Candlestick>> pageLoader, Timestamp startTime, int pageSize) {
+        return new CandlestickCursor((after, numCandles) -> {
+            List<Candlestick> candlesticks = pageLoader.apply(after, numCandles);
+            CandlestickCursor.Page page = new CandlestickCursor.Page(numCandles);
+            for(Candlestick candlestick : candlesticks) {
+                page.add(candlestick.getTimestamp(), candlestick.getOpen(), candlestick.getHigh(), candlestick.getLow(),
+                         candlestick.getClose(), candlestick.getVolume());
+            }
+            return page;
+        }, startTime, pageSize, Runnable::run);
+    }
+
+    /**
+     * Insert Candlesticks at the end of a HistoricalDataset. The rows are written with a single JDBC batch rather than
+     * persisted as entities, and the end and last updated time of the dataset are moved in the same transaction so that
+     * the end of the dataset always matches the Candlesticks that have been committed.
+     * @param historicalDataset HistoricalDataset the Candlesticks belong to. Must already be persisted.
+     * @param candlesticks Candlesticks in timestamp order, all after the current end of the dataset.
+     * @param lastUpdated Time to record as the last update of the dataset.
+     */
+    public void appendCandlesticks(HistoricalDataset historicalDataset, List<Candlestick> candlesticks, Timestamp lastUpdated) {
+        if(candlesticks.isEmpty()) {
+            return;
+        }
+        Integer historicalDatasetID = historicalDataset.getHistoricalDatasetID();
+
+        long startNanos = System.nanoTime();
+        try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            entityManager.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO candlesticks (HistoricalDatasetID, Timestamp, Open, High, Low, Close, Volume) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                    for(Candlestick candlestick : candlesticks) {
+                        statement.setInt(1, historicalDatasetID);
+                        statement.setTimestamp(2, candlestick.getTimestamp());
+                        statement.setFloat(3, candlestick.getOpen());
+                        statement.setFloat(4, candlestick.getHigh());
+                        statement.setFloat(5, candlestick.getLow());
+                        statement.setFloat(6, candlestick.getClose());
+                        statement.setFloat(7, candlestick.getVolume());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "UPDATE historicaldataset SET DatasetEnd = ?, LastUpdated = ? WHERE HistoricalDatasetID = ?")) {
+                    statement.setTimestamp(1, candlesticks.getLast().getTimestamp());
+                    statement.setTimestamp(2, lastUpdated);
+                    statement.setInt(3, historicalDatasetID);
+                    statement.executeUpdate();
+                }
+            });
+            entityManager.getTransaction().commit();
+        } finally {
+            recordCall("appendCandlesticks", startNanos);
+        }
+    }
+
     /**
      * Get a segment of the Candlesticks that belong to the provided HistoricalDataset.
      * @param historicalDataset HistoricalDataset
@@ -23,6 +148,19 @@ public class CandlestickDAO extends AbstractDAO<Candlestick> {
      * @return List of Candlesticks.
      */
     public List<Candlestick> getPaginatedCandlesticksFromHistoricalDataset(HistoricalDataset historicalDataset, Timestamp startTime, int numCandles) {
+        return getPaginatedCandlesticksFromHistoricalDataset(historicalDataset, startTime, null, numCandles);
+    }
+
+    /**
+     * Get a segment of the Candlesticks that belong to the provided HistoricalDataset within a time range.
+     * @param historicalDataset HistoricalDataset
+     * @param startTime The time to return data after.
+     * @param endTime The time to return data before, or null to return data up to the end of the dataset.
+     * @param numCandles Maximum number of Candlesticks to return.
+     * @return List of Candlesticks.
+     */
+    public List<Candlestick> getPaginatedCandlesticksFromHistoricalDataset(HistoricalDataset historicalDataset, Timestamp startTime, Timestamp endTime, int numCandles) {
+        long startNanos = System.nanoTime();
         try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
             CriteriaQuery<Candlestick> cq = cb.createQuery(Candlestick.class);
@@ -30,9 +168,48 @@ public class CandlestickDAO extends AbstractDAO<Candlestick> {
 
             Predicate predicate = cb.equal(root.get(Candlestick_.historicalDataset), historicalDataset);
             predicate = cb.and(predicate, cb.greaterThan(root.get(Candlestick_.timestamp), startTime));
+            if(endTime != null) {
+                predicate = cb.and(predicate, cb.lessThan(root.get(Candlestick_.timestamp), endTime));
+            }
 
             cq.select(root).where(predicate).orderBy(cb.asc(root.get(Candlestick_.timestamp)));
             return entityManager.createQuery(cq).setMaxResults(numCandles).setHint("org.hibernate.readOnly", true).getResultList();
+        } finally {
+            recordCall("getPaginatedCandlesticksFromHistoricalDataset", startNanos);
+        }
+    }
+
+    /**
+     * Get the first Candlestick of a HistoricalDataset within a time range whose timestamp is a whole multiple of a number
+     * of seconds since the epoch. This seeks directly to the start of the range on the (HistoricalDatasetID, Timestamp)
+     * index and checks the alignment in the database so that only one query is needed.
+     * @param historicalDataset HistoricalDataset
+     * @param startTime The time to return data after.
+     * @param endTime The time to return data before, or null to search up to the end of the dataset.
+     * @param alignmentSeconds Number of seconds the timestamp must be a multiple of.
+     * @return The first aligned Candlestick, or null if there is none.
+     */
+    public Candlestick getFirstAlignedCandlestick(HistoricalDataset historicalDataset, Timestamp startTime, Timestamp endTime, long alignmentSeconds) {
+        long startNanos = System.nanoTime();
+        try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Candlestick> cq = cb.createQuery(Candlestick.class);
+            Root<Candlestick> root = cq.from(Candlestick.class);
+
+            Predicate predicate = cb.equal(root.get(Candlestick_.historicalDataset), historicalDataset);
+            predicate = cb.and(predicate, cb.greaterThan(root.get(Candlestick_.timestamp), startTime));
+            if(endTime != null) {
+                predicate = cb.and(predicate, cb.lessThan(root.get(Candlestick_.timestamp), endTime));
+            }
+            Expression<Long> epochSeconds = cb.function("UNIX_TIMESTAMP", Long.class, root.get(Candlestick_.timestamp));
+            predicate = cb.and(predicate, cb.equal(cb.mod(cb.function("FLOOR", Integer.class, epochSeconds), (int) alignmentSeconds), 0));
+
+            cq.select(root).where(predicate).orderBy(cb.asc(root.get(Candlestick_.timestamp)));
+            List<Candlestick> candlestick = entityManager.createQuery(cq).setMaxResults(1).setHint("org.hibernate.readOnly", true).getResultList();
+
+            return candlestick.isEmpty() ? null : candlestick.getFirst();
+        } finally {
+            recordCall("getFirstAlignedCandlestick", startNanos);
         }
     }
 
@@ -43,6 +220,7 @@ public class CandlestickDAO extends AbstractDAO<Candlestick> {
      * @return The last candlestick with a timestamp before the provided timestamp.
      */
     public Candlestick getLastCandlestickBeforeTimestamp(HistoricalDataset historicalDataset, Timestamp beforeThisDate) {
+        long startNanos = System.nanoTime();
         try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
             CriteriaQuery<Candlestick> cq = cb.createQuery(Candlestick.class);
@@ -55,6 +233,8 @@ public class CandlestickDAO extends AbstractDAO<Candlestick> {
             List<Candlestick> candlestick = entityManager.createQuery(cq).setMaxResults(1).getResultList();
 
             return candlestick.isEmpty() ? null : candlestick.getFirst();
+        } finally {
+            recordCall("getLastCandlestickBeforeTimestamp", startNanos);
         }
     }
 
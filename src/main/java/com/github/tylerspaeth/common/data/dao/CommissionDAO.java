@@ -18,6 +18,7 @@ public class CommissionDAO extends AbstractDAO<Commission> {
      * @return Commission or null.
      */
     public Commission findDefaultCommissionForAssetType(AssetTypeEnum assetType) {
+        long startNanos = System.nanoTime();
         try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
             CriteriaQuery<Commission> cq = cb.createQuery(Commission.class);
@@ -28,6 +29,8 @@ public class CommissionDAO extends AbstractDAO<Commission> {
 
             cq.select(root).where(predicate);
             return entityManager.createQuery(cq).getSingleResultOrNull();
+        } finally {
+            recordCall("findDefaultCommissionForAssetType", startNanos);
         }
     }
 
@@ -16,12 +16,29 @@ public class HistoricalDatasetDAO extends AbstractDAO<HistoricalDataset> {
      * @return List of HistoricalDatasets
      */
     public List<HistoricalDataset> getAllHistoricalDatasets() {
+        long startNanos = System.nanoTime();
         try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
             CriteriaQuery<HistoricalDataset> cq = cb.createQuery(HistoricalDataset.class);
             Root<HistoricalDataset> root = cq.from(HistoricalDataset.class);
             cq.select(root);
             return entityManager.createQuery(cq).getResultList();
+        } finally {
+            recordCall("getAllHistoricalDatasets", startNanos);
+        }
+    }
+
+    /**
+     * Gets the HistoricalDataset with the matching ID if one exists.
+     * @param historicalDatasetID ID of the HistoricalDataset.
+     * @return HistoricalDataset or null.
+     */
+    public HistoricalDataset getHistoricalDatasetByID(Integer historicalDatasetID) {
+        long startNanos = System.nanoTime();
+        try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            return entityManager.find(HistoricalDataset.class, historicalDatasetID);
+        } finally {
+            recordCall("getHistoricalDatasetByID", startNanos);
         }
     }
 
@@ -1,15 +1,23 @@
 package com.github.tylerspaeth.common.data.dao;
 
+import com.github.tylerspaeth.common.data.entity.BacktestResult_;
 import com.github.tylerspaeth.common.data.entity.Order;
+import com.github.tylerspaeth.common.data.entity.OrderEvent;
 import com.github.tylerspaeth.common.data.entity.Order_;
+import com.github.tylerspaeth.common.data.entity.Trade;
+import com.github.tylerspaeth.common.data.entity.Trade_;
 import com.github.tylerspaeth.common.data.entity.User;
 import com.github.tylerspaeth.config.DatasourceConfig;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 
+import java.util.Collection;
 import java.util.List;
 
 public class OrderDAO extends AbstractDAO<Order> {
@@ -20,6 +28,7 @@ public class OrderDAO extends AbstractDAO<Order> {
      * @return List of all non-finalized orders.
      */
     public List<Order> getOpenOrdersForUser(User user) {
+        long startNanos = System.nanoTime();
         try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
             CriteriaQuery<Order> cq = cb.createQuery(Order.class);
@@ -30,11 +39,120 @@ public class OrderDAO extends AbstractDAO<Order> {
 
             cq.select(root).where(predicate);
             return entityManager.createQuery(cq).getResultList();
+        } finally {
+            recordCall("getOpenOrdersForUser", startNanos);
         }
     }
 
+    /**
+     * Gets the Orders with the given IDs.
+     * @param orderIDs IDs of the Orders.
+     * @return List of the Orders that exist.
+     */
+    public List<Order> getOrdersByIDs(Collection<Integer> orderIDs) {
+        if(orderIDs.isEmpty()) {
+            return List.of();
+        }
+        long startNanos = System.nanoTime();
+        try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Order> cq = cb.createQuery(Order.class);
+            Root<Order> root = cq.from(Order.class);
+
+            cq.select(root).where(root.get(Order_.orderID).in(orderIDs));
+            return entityManager.createQuery(cq).getResultList();
+        } finally {
+            recordCall("getOrdersByIDs", startNanos);
+        }
+    }
+
+    /**
+     * Gets the highest ID of the Orders placed under a BacktestResult.
+     * @param backtestResultID ID of the BacktestResult.
+     * @return Highest OrderID, or null if there are no Orders.
+     */
+    public Integer getMaxOrderIDForBacktestResult(Integer backtestResultID) {
+        long startNanos = System.nanoTime();
+        try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Integer> cq = cb.createQuery(Integer.class);
+            Root<Order> root = cq.from(Order.class);
+
+            cq.select(cb.max(root.get(Order_.orderID)))
+                    .where(cb.equal(root.get(Order_.backtestResult).get(BacktestResult_.backtestResultID), backtestResultID));
+            return entityManager.createQuery(cq).getSingleResult();
+        } finally {
+            recordCall("getMaxOrderIDForBacktestResult", startNanos);
+        }
+    }
+
+    /**
+     * Deletes the Orders and Trades made under a BacktestResult after a checkpoint so the backtest can be resumed from
+     * it. IDs are assigned in increasing order, so everything with a higher ID than the checkpoint saw was made after it.
+     * @param backtestResultID ID of the BacktestResult.
+     * @param maxOrderID Highest OrderID at the checkpoint, or null if there were no Orders.
+     * @param maxTradeID Highest TradeID at the checkpoint, or null if there were no Trades.
+     */
+    public void deleteBacktestOrdersAfterCheckpoint(Integer backtestResultID, Integer maxOrderID, Integer maxTradeID) {
+        long startNanos = System.nanoTime();
+        try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            deleteBacktestOrdersAfterCheckpoint(entityManager, backtestResultID, maxOrderID, maxTradeID);
+        } finally {
+            recordCall("deleteBacktestOrdersAfterCheckpoint", startNanos);
+        }
+    }
+
+    /**
+     * Deletes the Orders and Trades made under a BacktestResult after a checkpoint in a single transaction of the given
+     * EntityManager.
+     * @param entityManager EntityManager to delete with.
+     * @param backtestResultID ID of the BacktestResult.
+     * @param maxOrderID Highest OrderID at the checkpoint, or null if there were no Orders.
+     * @param maxTradeID Highest TradeID at the checkpoint, or null if there were no Trades.
+     */
+    void deleteBacktestOrdersAfterCheckpoint(EntityManager entityManager, Integer backtestResultID, Integer maxOrderID, Integer maxTradeID) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        entityManager.getTransaction().begin();
+
+        // Trades are deleted first since they reference the Orders
+        CriteriaDelete<Trade> tradeDelete = cb.createCriteriaDelete(Trade.class);
+        Root<Trade> tradeRoot = tradeDelete.from(Trade.class);
+        Subquery<Integer> backtestOrderIDs = tradeDelete.subquery(Integer.class);
+        Root<Order> backtestOrderRoot = backtestOrderIDs.from(Order.class);
+        backtestOrderIDs.select(backtestOrderRoot.get(Order_.orderID))
+                .where(cb.equal(backtestOrderRoot.get(Order_.backtestResult).get(BacktestResult_.backtestResultID), backtestResultID));
+        Predicate tradePredicate = tradeRoot.get(Trade_.order).get(Order_.orderID).in(backtestOrderIDs);
+        if(maxTradeID != null) {
+            tradePredicate = cb.and(tradePredicate, cb.greaterThan(tradeRoot.get(Trade_.tradeID), maxTradeID));
+        }
+        entityManager.createQuery(tradeDelete.where(tradePredicate)).executeUpdate();
+
+        // Links between the Orders being deleted are removed so they can be deleted in any order
+        CriteriaUpdate<Order> orderUnlink = cb.createCriteriaUpdate(Order.class);
+        Root<Order> unlinkRoot = orderUnlink.from(Order.class);
+        orderUnlink.set(unlinkRoot.get(Order_.parentOrder), cb.nullLiteral(Order.class))
+                .where(newOrdersPredicate(cb, unlinkRoot, backtestResultID, maxOrderID));
+        entityManager.createQuery(orderUnlink).executeUpdate();
+
+        CriteriaDelete<Order> orderDelete = cb.createCriteriaDelete(Order.class);
+        Root<Order> orderRoot = orderDelete.from(Order.class);
+        orderDelete.where(newOrdersPredicate(cb, orderRoot, backtestResultID, maxOrderID));
+        entityManager.createQuery(orderDelete).executeUpdate();
+
+        entityManager.getTransaction().commit();
+    }
+
+    private Predicate newOrdersPredicate(CriteriaBuilder cb, Root<Order> root, Integer backtestResultID, Integer maxOrderID) {
+        Predicate predicate = cb.equal(root.get(Order_.backtestResult).get(BacktestResult_.backtestResultID), backtestResultID);
+        if(maxOrderID != null) {
+            predicate = cb.and(predicate, cb.greaterThan(root.get(Order_.orderID), maxOrderID));
+        }
+        return predicate;
+    }
+
     @Override
     public Order update(Order order) {
+        long startNanos = System.nanoTime();
         try (EntityManager em = DatasourceConfig.entityManagerFactory.createEntityManager()) {
             em.getTransaction().begin();
             Order managed = em.merge(order);
@@ -46,6 +164,57 @@ public class OrderDAO extends AbstractDAO<Order> {
             // Update the version so that the existing order can be reused
             order.setVersion(managed.getVersion());
             return managed;
+        } finally {
+            recordCall("update", startNanos);
+        }
+    }
+
+    /**
+     * Persists the changes made to an Order while it is being worked without merging all of its Trades and
+     * OrderEvents. Only the provided new Trades and OrderEvents are inserted and only the provided changed Trades are
+     * updated. An Order that has not been persisted yet is inserted along with its OrderEvents.
+     * @param order Order that was updated.
+     * @param newTrades Trades that have not been persisted yet.
+     * @param changedTrades Trades that have been persisted and since changed.
+     * @param newOrderEvents OrderEvents that have not been persisted yet.
+     * @return Most recent version of the Order.
+     */
+    public Order update(Order order, List<Trade> newTrades, List<Trade> changedTrades, List<OrderEvent> newOrderEvents) {
+        long startNanos = System.nanoTime();
+        try (EntityManager em = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            em.getTransaction().begin();
+
+            Order managed;
+            if (order.getOrderID() == null) {
+                em.persist(order);
+                managed = order;
+            } else {
+                // Only the fields that change as an order is worked are copied over
+                managed = em.find(Order.class, order.getOrderID());
+                managed.setExternalOrderID(order.getExternalOrderID());
+                managed.setStatus(order.getStatus());
+                managed.setFinalized(order.isFinalized());
+            }
+
+            // Persisting the provided instances assigns their IDs so they can be updated later. OrderEvents that were
+            // already cascaded from a new Order are managed, so persisting them again does nothing.
+            for (OrderEvent orderEvent : newOrderEvents) {
+                em.persist(orderEvent);
+            }
+            for (Trade trade : newTrades) {
+                em.persist(trade);
+            }
+            for (Trade trade : changedTrades) {
+                em.merge(trade);
+            }
+
+            em.getTransaction().commit();
+
+            // Update the version so that the existing order can be reused
+            order.setVersion(managed.getVersion());
+            return managed;
+        } finally {
+            recordCall("update", startNanos);
         }
     }
 
@@ -17,6 +17,7 @@ public class StrategyDAO extends AbstractDAO<Strategy> {
      * @return List of Strategy
      */
     public List<Strategy> getAllActiveStrategies() {
+        long startNanos = System.nanoTime();
         try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
             CriteriaQuery<Strategy> cq = cb.createQuery(Strategy.class);
@@ -24,6 +25,8 @@ public class StrategyDAO extends AbstractDAO<Strategy> {
 
             cq.select(root).where(cb.isTrue(root.get(Strategy_.active)));
             return entityManager.createQuery(cq).getResultList();
+        } finally {
+            recordCall("getAllActiveStrategies", startNanos);
         }
     }
 
@@ -32,6 +35,7 @@ public class StrategyDAO extends AbstractDAO<Strategy> {
      * @return List of Strategy
      */
     public List<Strategy> getAllStrategies() {
+        long startNanos = System.nanoTime();
         try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
             CriteriaQuery<Strategy> cq = cb.createQuery(Strategy.class);
@@ -39,6 +43,8 @@ public class StrategyDAO extends AbstractDAO<Strategy> {
 
             cq.select(root);
             return entityManager.createQuery(cq).getResultList();
+        } finally {
+            recordCall("getAllStrategies", startNanos);
         }
     }
 
@@ -48,6 +54,7 @@ public class StrategyDAO extends AbstractDAO<Strategy> {
      * @return List of Strategy objects order by version ascending.
      */
     public List<Strategy> getStrategiesByName(String name) {
+        long startNanos = System.nanoTime();
         try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
             CriteriaQuery<Strategy> cq = cb.createQuery(Strategy.class);
@@ -56,6 +63,8 @@ public class StrategyDAO extends AbstractDAO<Strategy> {
             cq.select(root).where(cb.equal(root.get(Strategy_.name), name)).orderBy(cb.asc(root.get(Strategy_.version)));
 
             return entityManager.createQuery(cq).getResultList();
+        } finally {
+            recordCall("getStrategiesByName", startNanos);
         }
     }
 
@@ -65,6 +74,7 @@ public class StrategyDAO extends AbstractDAO<Strategy> {
      * @return Strategy or null.
      */
     public Strategy findByStrategyID(Integer strategyID) {
+        long startNanos = System.nanoTime();
         try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
             CriteriaQuery<Strategy> cq = cb.createQuery(Strategy.class);
@@ -72,6 +82,8 @@ public class StrategyDAO extends AbstractDAO<Strategy> {
 
             cq.select(root).where(cb.equal(root.get(Strategy_.strategyID), strategyID));
             return entityManager.createQuery(cq).getSingleResultOrNull();
+        } finally {
+            recordCall("findByStrategyID", startNanos);
         }
     }
 }
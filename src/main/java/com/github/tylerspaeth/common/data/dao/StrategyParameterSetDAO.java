@@ -1,6 +1,40 @@
 package com.github.tylerspaeth.common.data.dao;
 
 import com.github.tylerspaeth.common.data.entity.StrategyParameterSet;
+import com.github.tylerspaeth.common.data.entity.StrategyParameterSet_;
+import com.github.tylerspaeth.common.data.entity.Strategy_;
+import com.github.tylerspaeth.config.DatasourceConfig;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+import java.util.List;
 
 public class StrategyParameterSetDAO extends AbstractDAO<StrategyParameterSet> {
+
+    /**
+     * Gets all the StrategyParameterSets of a strategy in a single query. The Strategy and StrategyParameters of each
+     * set are fetched with it so that strategies can be created for every set without additional queries.
+     * @param strategyID ID of the Strategy.
+     * @return List of StrategyParameterSets ordered by ID.
+     */
+    public List<StrategyParameterSet> getStrategyParameterSetsWithParameters(Integer strategyID) {
+        long startNanos = System.nanoTime();
+        try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<StrategyParameterSet> cq = cb.createQuery(StrategyParameterSet.class);
+            Root<StrategyParameterSet> root = cq.from(StrategyParameterSet.class);
+
+            root.fetch(StrategyParameterSet_.strategy);
+            root.fetch(StrategyParameterSet_.strategyParameters);
+
+            cq.select(root)
+                    .where(cb.equal(root.get(StrategyParameterSet_.strategy).get(Strategy_.strategyID), strategyID))
+                    .orderBy(cb.asc(root.get(StrategyParameterSet_.strategyParameterSetID)));
+            return entityManager.createQuery(cq).getResultList();
+        } finally {
+            recordCall("getStrategyParameterSetsWithParameters", startNanos);
+        }
+    }
 }
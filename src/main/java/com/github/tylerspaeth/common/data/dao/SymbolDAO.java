@@ -19,6 +19,7 @@ public class SymbolDAO extends AbstractDAO<Symbol> {
      */
     public List<Symbol> getAllSymbols() {
 
+        long startNanos = System.nanoTime();
         try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
 
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
@@ -26,6 +27,8 @@ public class SymbolDAO extends AbstractDAO<Symbol> {
             Root<Symbol> root = cq.from(Symbol.class);
             cq.select(root);
             return entityManager.createQuery(cq).getResultList();
+        } finally {
+            recordCall("getAllSymbols", startNanos);
         }
 
     }
@@ -39,6 +42,7 @@ public class SymbolDAO extends AbstractDAO<Symbol> {
      */
     public Symbol getSymbolByCriteria(String ticker, String exchangeName, AssetTypeEnum assetType) {
 
+        long startNanos = System.nanoTime();
         try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
 
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
@@ -53,6 +57,8 @@ public class SymbolDAO extends AbstractDAO<Symbol> {
             cq.select(root).where(predicate);
 
             return entityManager.createQuery(cq).getSingleResultOrNull();
+        } finally {
+            recordCall("getSymbolByCriteria", startNanos);
         }
     }
 
@@ -67,6 +73,7 @@ public class SymbolDAO extends AbstractDAO<Symbol> {
             return symbol;
         }
 
+        long startNanos = System.nanoTime();
         try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
 
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
@@ -81,6 +88,8 @@ public class SymbolDAO extends AbstractDAO<Symbol> {
             cq.select(root).where(predicate);
 
             return entityManager.createQuery(cq).getSingleResultOrNull();
+        } finally {
+            recordCall("getPersistedVersionOfSymbol", startNanos);
         }
     }
 
@@ -90,6 +99,7 @@ public class SymbolDAO extends AbstractDAO<Symbol> {
      * @return Symbol
      */
     public Symbol getSymbolByTicker(String tickerSymbol) {
+        long startNanos = System.nanoTime();
         try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
 
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
@@ -99,6 +109,8 @@ public class SymbolDAO extends AbstractDAO<Symbol> {
             cq.select(root).where(cb.equal(root.get(Symbol_.ticker), tickerSymbol));
 
             return entityManager.createQuery(cq).getSingleResultOrNull();
+        } finally {
+            recordCall("getSymbolByTicker", startNanos);
         }
     }
 
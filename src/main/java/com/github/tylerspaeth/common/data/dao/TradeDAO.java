@@ -1,6 +1,57 @@
 package com.github.tylerspaeth.common.data.dao;
 
-import com.github.tylerspaeth.common.data.entity.Trade;
+import com.github.tylerspaeth.common.data.entity.*;
+import com.github.tylerspaeth.config.DatasourceConfig;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+import java.util.List;
 
 public class TradeDAO extends AbstractDAO<Trade> {
+
+    /**
+     * Get all the Trades that have been made under a BacktestResult ordered by when they occurred. The Order and Symbol
+     * of each Trade are fetched with it so that statistics can be calculated without additional queries.
+     * @param backtestResultID ID of the BacktestResult.
+     * @return List of Trades ordered by timestamp.
+     */
+    public List<Trade> getTradesForBacktestResult(Integer backtestResultID) {
+        long startNanos = System.nanoTime();
+        try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Trade> cq = cb.createQuery(Trade.class);
+            Root<Trade> root = cq.from(Trade.class);
+
+            root.fetch(Trade_.order).fetch(Order_.symbol);
+
+            cq.select(root)
+                    .where(cb.equal(root.get(Trade_.order).get(Order_.backtestResult).get(BacktestResult_.backtestResultID), backtestResultID))
+                    .orderBy(cb.asc(root.get(Trade_.timestamp)));
+            return entityManager.createQuery(cq).getResultList();
+        } finally {
+            recordCall("getTradesForBacktestResult", startNanos);
+        }
+    }
+
+    /**
+     * Gets the highest ID of the Trades made under a BacktestResult.
+     * @param backtestResultID ID of the BacktestResult.
+     * @return Highest TradeID, or null if there are no Trades.
+     */
+    public Integer getMaxTradeIDForBacktestResult(Integer backtestResultID) {
+        long startNanos = System.nanoTime();
+        try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Integer> cq = cb.createQuery(Integer.class);
+            Root<Trade> root = cq.from(Trade.class);
+
+            cq.select(cb.max(root.get(Trade_.tradeID)))
+                    .where(cb.equal(root.get(Trade_.order).get(Order_.backtestResult).get(BacktestResult_.backtestResultID), backtestResultID));
+            return entityManager.createQuery(cq).getSingleResult();
+        } finally {
+            recordCall("getMaxTradeIDForBacktestResult", startNanos);
+        }
+    }
 }
@@ -19,6 +19,7 @@ public class UserDAO extends AbstractDAO<User> {
      * @return List of Users
      */
     public List<User> findUsersByAccountType(AccountTypeEnum accountType)  {
+        long startNanos = System.nanoTime();
         try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
             CriteriaQuery<User> cq = cb.createQuery(User.class);
@@ -26,6 +27,8 @@ public class UserDAO extends AbstractDAO<User> {
 
             cq.select(root).where(cb.equal(root.get(User_.accountType), accountType));
             return entityManager.createQuery(cq).getResultList();
+        } finally {
+            recordCall("findUsersByAccountType", startNanos);
         }
     }
 
@@ -35,6 +38,7 @@ public class UserDAO extends AbstractDAO<User> {
      * @return User or null.
      */
     public User findUserByExternalAccountID(String externalAccountID) {
+        long startNanos = System.nanoTime();
         try (EntityManager entityManager = DatasourceConfig.entityManagerFactory.createEntityManager()) {
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
             CriteriaQuery<User> cq = cb.createQuery(User.class);
@@ -42,6 +46,8 @@ public class UserDAO extends AbstractDAO<User> {
 
             cq.select(root).where(cb.equal(root.get(User_.externalAccountID), externalAccountID));
             return entityManager.createQuery(cq).getSingleResultOrNull();
+        } finally {
+            recordCall("findUserByExternalAccountID", startNanos);
         }
     }
 
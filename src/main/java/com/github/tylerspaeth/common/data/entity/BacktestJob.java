@@ -0,0 +1,183 @@
+package com.github.tylerspaeth.common.data.entity;
+
+import com.github.tylerspaeth.common.data.dao.BacktestJobDAO;
+import com.github.tylerspaeth.common.enums.BacktestJobStatusEnum;
+import jakarta.persistence.*;
+
+import java.sql.Timestamp;
+
+/**
+ * Backtest waiting in the shared work queue to be run by a backtest worker.
+ */
+@Entity
+@Table(name = "backtestjobs")
+public class BacktestJob {
+
+    private static final BacktestJobDAO backtestJobDAO = new BacktestJobDAO();
+
+    @Id
+    @Column(name = "BacktestJobID")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer backtestJobID;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "StrategyParameterSetID", referencedColumnName = "StrategyParameterSetID", nullable = false)
+    private StrategyParameterSet strategyParameterSet;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "UserID", referencedColumnName = "UserID", nullable = false)
+    private User user;
+
+    @Column(name = "StartingBalance")
+    private Float startingBalance;
+
+    @Column(name = "DataStart")
+    private Timestamp dataStart;
+
+    @Column(name = "DataEnd")
+    private Timestamp dataEnd;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ParameterOptimizationID", referencedColumnName = "ParameterOptimizationID")
+    private ParameterOptimization parameterOptimization;
+
+    @Column(name = "Status")
+    @Enumerated(EnumType.STRING)
+    private BacktestJobStatusEnum status;
+
+    @Column(name = "WorkerID")
+    private String workerID;
+
+    @Column(name = "LeaseExpiry")
+    private Timestamp leaseExpiry;
+
+    @Column(name = "Attempts")
+    private int attempts;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "BacktestResultID", referencedColumnName = "BacktestResultID")
+    private BacktestResult backtestResult;
+
+    @Column(name = "CreatedAt")
+    private Timestamp createdAt;
+
+    @Column(name = "FinishedAt")
+    private Timestamp finishedAt;
+
+    public Integer getBacktestJobID() {
+        return backtestJobID;
+    }
+
+    public StrategyParameterSet getStrategyParameterSet() {
+        strategyParameterSet = backtestJobDAO.lazyLoad(this, e -> e.strategyParameterSet);
+        return strategyParameterSet;
+    }
+
+    public void setStrategyParameterSet(StrategyParameterSet strategyParameterSet) {
+        this.strategyParameterSet = strategyParameterSet;
+    }
+
+    public User getUser() {
+        user = backtestJobDAO.lazyLoad(this, e -> e.user);
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Float getStartingBalance() {
+        return startingBalance;
+    }
+
+    public void setStartingBalance(Float startingBalance) {
+        this.startingBalance = startingBalance;
+    }
+
+    public Timestamp getDataStart() {
+        return dataStart;
+    }
+
+    public void setDataStart(Timestamp dataStart) {
+        this.dataStart = dataStart;
+    }
+
+    public Timestamp getDataEnd() {
+        return dataEnd;
+    }
+
+    public void setDataEnd(Timestamp dataEnd) {
+        this.dataEnd = dataEnd;
+    }
+
+    public ParameterOptimization getParameterOptimization() {
+        parameterOptimization = backtestJobDAO.lazyLoad(this, e -> e.parameterOptimization);
+        return parameterOptimization;
+    }
+
+    public void setParameterOptimization(ParameterOptimization parameterOptimization) {
+        this.parameterOptimization = parameterOptimization;
+    }
+
+    public BacktestJobStatusEnum getStatus() {
+        return status;
+    }
+
+    public void setStatus(BacktestJobStatusEnum status) {
+        this.status = status;
+    }
+
+    public String getWorkerID() {
+        return workerID;
+    }
+
+    public void setWorkerID(String workerID) {
+        this.workerID = workerID;
+    }
+
+    public Timestamp getLeaseExpiry() {
+        return leaseExpiry;
+    }
+
+    public void setLeaseExpiry(Timestamp leaseExpiry) {
+        this.leaseExpiry = leaseExpiry;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public BacktestResult getBacktestResult() {
+        backtestResult = backtestJobDAO.lazyLoad(this, e -> e.backtestResult);
+        return backtestResult;
+    }
+
+    public void setBacktestResult(BacktestResult backtestResult) {
+        this.backtestResult = backtestResult;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Timestamp createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Timestamp getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Timestamp finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    @Override
+    public String toString() {
+        return backtestJobID + " - " + status;
+    }
+}
@@ -37,6 +37,21 @@ public class BacktestResult {
     @JoinColumn(name = "ParameterOptimizationID", referencedColumnName = "ParameterOptimizationID")
     private ParameterOptimization parameterOptimization;
 
+    @Column(name = "Pruned")
+    private boolean pruned;
+
+    @Column(name = "PrunedAt")
+    private Timestamp prunedAt;
+
+    @Column(name = "PrunedMetricValue")
+    private Float prunedMetricValue;
+
+    @Column(name = "DataStart")
+    private Timestamp dataStart;
+
+    @Column(name = "DataEnd")
+    private Timestamp dataEnd;
+
     public Integer getBacktestResultID() {
         return backtestResultID;
     }
@@ -87,6 +102,46 @@ public class BacktestResult {
         this.parameterOptimization = parameterOptimization;
     }
 
+    public boolean isPruned() {
+        return pruned;
+    }
+
+    public void setPruned(boolean pruned) {
+        this.pruned = pruned;
+    }
+
+    public Timestamp getPrunedAt() {
+        return prunedAt;
+    }
+
+    public void setPrunedAt(Timestamp prunedAt) {
+        this.prunedAt = prunedAt;
+    }
+
+    public Float getPrunedMetricValue() {
+        return prunedMetricValue;
+    }
+
+    public void setPrunedMetricValue(Float prunedMetricValue) {
+        this.prunedMetricValue = prunedMetricValue;
+    }
+
+    public Timestamp getDataStart() {
+        return dataStart;
+    }
+
+    public void setDataStart(Timestamp dataStart) {
+        this.dataStart = dataStart;
+    }
+
+    public Timestamp getDataEnd() {
+        return dataEnd;
+    }
+
+    public void setDataEnd(Timestamp dataEnd) {
+        this.dataEnd = dataEnd;
+    }
+
     @Override
     public String toString() {
         return backtestResultID + " - " + startTime.toString();
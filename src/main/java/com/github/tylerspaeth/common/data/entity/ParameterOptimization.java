@@ -1,6 +1,7 @@
 package com.github.tylerspaeth.common.data.entity;
 
 import com.github.tylerspaeth.common.data.dao.ParameterOptimizationDAO;
+import com.github.tylerspaeth.common.enums.OptimizationMetricEnum;
 import jakarta.persistence.*;
 
 import java.sql.Timestamp;
@@ -23,6 +24,14 @@ public class ParameterOptimization {
     @Column(name = "EndTime")
     private Timestamp endTime;
 
+    @Column(name = "Metric")
+    @Enumerated(EnumType.STRING)
+    private OptimizationMetricEnum metric;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "OutOfSampleBacktestResultID", referencedColumnName = "BacktestResultID")
+    private BacktestResult outOfSampleBacktestResult;
+
     @OneToMany(mappedBy = "parameterOptimization", fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     private List<BacktestResult> backtestResults;
 
@@ -46,6 +55,23 @@ public class ParameterOptimization {
         this.endTime = endTime;
     }
 
+    public OptimizationMetricEnum getMetric() {
+        return metric;
+    }
+
+    public void setMetric(OptimizationMetricEnum metric) {
+        this.metric = metric;
+    }
+
+    public BacktestResult getOutOfSampleBacktestResult() {
+        outOfSampleBacktestResult = parameterOptimizationDAO.lazyLoad(this, e -> e.outOfSampleBacktestResult);
+        return outOfSampleBacktestResult;
+    }
+
+    public void setOutOfSampleBacktestResult(BacktestResult outOfSampleBacktestResult) {
+        this.outOfSampleBacktestResult = outOfSampleBacktestResult;
+    }
+
     public List<BacktestResult> getBacktestResults() {
         backtestResults = parameterOptimizationDAO.lazyLoad(this, e -> e.backtestResults);
         return backtestResults;
@@ -0,0 +1,11 @@
+package com.github.tylerspaeth.common.enums;
+
+/**
+ * Statuses that a BacktestJob in the work queue can be in.
+ */
+public enum BacktestJobStatusEnum {
+    PENDING, // Waiting for a worker, or given up by a worker that stopped
+    LEASED, // Being run by the worker holding the lease
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,21 @@
+package com.github.tylerspaeth.common.enums;
+
+/**
+ * Metrics that parameter sets can be ranked by during a parameter optimization.
+ */
+public enum OptimizationMetricEnum {
+
+    PNL("P/L"),
+    PNL_PER_POSITION("P/L Per Position");
+
+    public final String name;
+
+    OptimizationMetricEnum(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
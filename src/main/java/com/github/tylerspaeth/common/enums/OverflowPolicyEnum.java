@@ -0,0 +1,23 @@
+package com.github.tylerspaeth.common.enums;
+
+/**
+ * What happens to a reader of a BroadcastRingBuffer that falls so far behind that the writer overwrites items it has
+ * not read yet.
+ */
+public enum OverflowPolicyEnum {
+
+    SKIP_TO_OLDEST("Skip To Oldest"), // Lose the overwritten items and continue from the oldest item still in the buffer
+    SKIP_TO_LATEST("Skip To Latest"), // Lose every unread item and continue from the next item written
+    UNSUBSCRIBE("Unsubscribe"); // Remove the reader so that it stops receiving items
+
+    public final String name;
+
+    OverflowPolicyEnum(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
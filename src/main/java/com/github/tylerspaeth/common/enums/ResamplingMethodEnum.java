@@ -0,0 +1,21 @@
+package com.github.tylerspaeth.common.enums;
+
+/**
+ * Ways that a sequence of trades can be resampled during a Monte Carlo simulation.
+ */
+public enum ResamplingMethodEnum {
+
+    BOOTSTRAP("Bootstrap"), // Draw trades with replacement, so the final PnL varies between paths
+    SHUFFLE("Shuffle"); // Reorder the trades, so only the path to the final PnL varies
+
+    public final String name;
+
+    ResamplingMethodEnum(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
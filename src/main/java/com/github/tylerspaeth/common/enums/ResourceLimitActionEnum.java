@@ -0,0 +1,21 @@
+package com.github.tylerspaeth.common.enums;
+
+/**
+ * What happens to a strategy once it uses more resources than its StrategyResourceLimits allow.
+ */
+public enum ResourceLimitActionEnum {
+
+    THROTTLE("Throttle"), // Delay each engine request the strategy makes from then on
+    STOP("Stop"); // Stop the strategy
+
+    public final String name;
+
+    ResourceLimitActionEnum(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.tylerspaeth.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded when the backtester loads a page of Candlesticks for a data feed, either from the database or from a
+ * preloaded dataset.
+ */
+@Name("algonexus.CandlePageLoad")
+@Label("Candle Page Load")
+@Category({"Algonexus", "Backtester"})
+@Description("Page of Candlesticks loaded for a backtester data feed")
+@StackTrace(false)
+public class CandlePageLoadEvent extends jdk.jfr.Event {
+
+    @Label("Symbol ID")
+    public int symbolID;
+
+    @Label("Thread ID")
+    @Description("ID of the thread that owns the data feed")
+    public long threadID;
+
+    @Label("Historical Dataset ID")
+    public int historicalDatasetID;
+
+    @Label("Candles Requested")
+    public int requested;
+
+    @Label("Candles Loaded")
+    public int loaded;
+
+    @Label("Preloaded")
+    @Description("Whether the page was read from memory instead of the database")
+    public boolean preloaded;
+}
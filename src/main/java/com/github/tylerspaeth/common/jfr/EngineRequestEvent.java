@@ -0,0 +1,35 @@
+package com.github.tylerspaeth.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Recorded when an engine request finishes, covering the time from when it started running until its response was
+ * available. Only requests slower than the threshold are recorded by default, since a backtest makes one request per
+ * bar.
+ */
+@Name("algonexus.EngineRequest")
+@Label("Engine Request")
+@Category({"Algonexus", "Engine"})
+@Description("Execution of a request submitted to the EngineCoordinator")
+@StackTrace(false)
+@Threshold("1 ms")
+public class EngineRequestEvent extends jdk.jfr.Event {
+
+    @Label("Request")
+    public String request;
+
+    @Label("Symbol")
+    public String symbol;
+
+    @Label("Thread ID")
+    @Description("ID of the thread that submitted the request")
+    public long threadID;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,42 @@
+package com.github.tylerspaeth.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Recorded when an IB callback is handled on the IB-Reader thread. Only callbacks slower than the threshold are
+ * recorded by default since market data callbacks can arrive thousands of times a second, and a slow callback holds
+ * up every message behind it.
+ */
+@Name("algonexus.IBCallback")
+@Label("IB Callback")
+@Category({"Algonexus", "IB"})
+@Description("Handling of a callback from the IB API")
+@StackTrace(false)
+@Threshold("1 ms")
+public class IBCallbackEvent extends jdk.jfr.Event {
+
+    @Label("Callback")
+    public String callback;
+
+    @Label("Request ID")
+    public int reqId;
+
+    /**
+     * Ends the event and commits it if it is enabled and slower than the threshold.
+     * @param callback Name of the callback that was handled.
+     * @param reqId ID of the request the callback was for, or -1 if it was not for a request.
+     */
+    public void end(String callback, int reqId) {
+        end();
+        if(shouldCommit()) {
+            this.callback = callback;
+            this.reqId = reqId;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.tylerspaeth.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded when the backtester fills an order, covering the check of the order against the price and persisting the
+ * fill.
+ */
+@Name("algonexus.OrderFill")
+@Label("Order Fill")
+@Category({"Algonexus", "Backtester"})
+@Description("Order filled by the backtester")
+@StackTrace(false)
+public class OrderFillEvent extends jdk.jfr.Event {
+
+    @Label("Symbol ID")
+    public int symbolID;
+
+    @Label("Thread ID")
+    @Description("ID of the thread that owns the data feed")
+    public long threadID;
+
+    @Label("Order ID")
+    public int orderID;
+
+    @Label("Order Type")
+    public String orderType;
+
+    @Label("Side")
+    public String side;
+
+    @Label("Quantity")
+    public float quantity;
+}
@@ -0,0 +1,31 @@
+package com.github.tylerspaeth.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded when a strategy stops running, covering the whole time it ran.
+ */
+@Name("algonexus.StrategyRun")
+@Label("Strategy Run")
+@Category({"Algonexus", "Strategy"})
+@Description("A strategy running from start to stop")
+@StackTrace(false)
+public class StrategyRunEvent extends jdk.jfr.Event {
+
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Parameter Set")
+    public String parameterSet;
+
+    @Label("Thread ID")
+    @Description("ID of the thread the strategy ran on")
+    public long threadID;
+
+    @Label("Backtest")
+    public boolean backtest;
+}
@@ -0,0 +1,37 @@
+package com.github.tylerspaeth.common.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count that only goes up. Increments are spread across cells so that threads incrementing the same Counter do not
+ * contend with each other.
+ */
+public class Counter {
+
+    private final LongAdder count = new LongAdder();
+
+    Counter() {}
+
+    /**
+     * Add one to the count.
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Add to the count.
+     * @param amount Amount to add. Must not be negative.
+     */
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    /**
+     * Get the current count.
+     * @return Count
+     */
+    public long get() {
+        return count.sum();
+    }
+}
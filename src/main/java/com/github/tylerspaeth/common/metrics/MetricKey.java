@@ -0,0 +1,64 @@
+package com.github.tylerspaeth.common.metrics;
+
+import java.util.List;
+
+/**
+ * Name of a metric along with its labels.
+ * @param name Name of the metric, such as engine_request_execution_seconds.
+ * @param labels Alternating label names and values.
+ */
+public record MetricKey(String name, List<String> labels) implements Comparable<MetricKey> {
+
+    public MetricKey {
+        if(labels.size() % 2 != 0) {
+            throw new IllegalArgumentException("Labels of " + name + " must be pairs of names and values.");
+        }
+        labels = List.copyOf(labels);
+    }
+
+    /**
+     * Get the labels formatted the way Prometheus expects them, such as {request="PlaceOrderRequest"}.
+     * @return Formatted labels or an empty String if there are none.
+     */
+    public String formatLabels() {
+        return formatLabels(null, null);
+    }
+
+    /**
+     * Get the labels formatted the way Prometheus expects them with an extra label at the end.
+     * @param extraName Name of the extra label, or null for no extra label.
+     * @param extraValue Value of the extra label.
+     * @return Formatted labels or an empty String if there are none.
+     */
+    public String formatLabels(String extraName, String extraValue) {
+        if(labels.isEmpty() && extraName == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder("{");
+        for(int i = 0; i < labels.size(); i += 2) {
+            appendLabel(builder, labels.get(i), labels.get(i + 1));
+        }
+        if(extraName != null) {
+            appendLabel(builder, extraName, extraValue);
+        }
+        builder.setLength(builder.length() - 1);
+        return builder.append('}').toString();
+    }
+
+    private static void appendLabel(StringBuilder builder, String name, String value) {
+        builder.append(name).append("=\"")
+                .append(value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                .append("\",");
+    }
+
+    @Override
+    public int compareTo(MetricKey other) {
+        int comparison = name.compareTo(other.name);
+        return comparison != 0 ? comparison : String.join(",", labels).compareTo(String.join(",", other.labels));
+    }
+
+    @Override
+    public String toString() {
+        return name + formatLabels();
+    }
+}
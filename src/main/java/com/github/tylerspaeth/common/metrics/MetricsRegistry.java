@@ -0,0 +1,86 @@
+package com.github.tylerspaeth.common.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds the Counters, Timers and gauges that the engine, DAOs, strategies and IB callbacks record to. Looking a metric
+ * up builds its key, so code on a hot path should look its metrics up once and keep them.
+ */
+public class MetricsRegistry {
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final Map<MetricKey, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<MetricKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<MetricKey, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    MetricsRegistry() {}
+
+    /**
+     * Get the MetricsRegistry that the application records to.
+     * @return MetricsRegistry
+     */
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get a Counter, creating it if it does not exist yet.
+     * @param name Name of the Counter. Prometheus convention is for this to end with _total.
+     * @param labels Alternating label names and values.
+     * @return Counter
+     */
+    public Counter counter(String name, String... labels) {
+        return counters.computeIfAbsent(new MetricKey(name, List.of(labels)), _ -> new Counter());
+    }
+
+    /**
+     * Get a Timer, creating it if it does not exist yet.
+     * @param name Name of the Timer. Prometheus convention is for this to end with _seconds.
+     * @param labels Alternating label names and values.
+     * @return Timer
+     */
+    public Timer timer(String name, String... labels) {
+        return timers.computeIfAbsent(new MetricKey(name, List.of(labels)), _ -> new Timer());
+    }
+
+    /**
+     * Register a gauge whose value is read whenever the metrics are viewed or exported. Registering a gauge with the
+     * same name and labels replaces the previous one.
+     * @param name Name of the gauge.
+     * @param value Supplies the current value.
+     * @param labels Alternating label names and values.
+     */
+    public void gauge(String name, LongSupplier value, String... labels) {
+        gauges.put(new MetricKey(name, List.of(labels)), value);
+    }
+
+    /**
+     * Get every Counter, sorted by name and then labels.
+     * @return SortedMap of keys to Counters.
+     */
+    public SortedMap<MetricKey, Counter> getCounters() {
+        return new TreeMap<>(counters);
+    }
+
+    /**
+     * Get every Timer, sorted by name and then labels.
+     * @return SortedMap of keys to Timers.
+     */
+    public SortedMap<MetricKey, Timer> getTimers() {
+        return new TreeMap<>(timers);
+    }
+
+    /**
+     * Get every gauge, sorted by name and then labels.
+     * @return SortedMap of keys to the suppliers of their values.
+     */
+    public SortedMap<MetricKey, LongSupplier> getGauges() {
+        return new TreeMap<>(gauges);
+    }
+}
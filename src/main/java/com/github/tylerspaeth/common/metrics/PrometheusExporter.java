@@ -0,0 +1,160 @@
+package com.github.tylerspaeth.common.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Exports the metrics of a MetricsRegistry in the Prometheus text format, either by rewriting a file on a schedule for
+ * the node exporter textfile collector or by serving them over HTTP for Prometheus to scrape.
+ */
+public class PrometheusExporter implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrometheusExporter.class);
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final MetricsRegistry metricsRegistry;
+
+    private ScheduledExecutorService fileExportExecutor;
+    private HttpServer httpServer;
+
+    public PrometheusExporter(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    /**
+     * Formats every metric in the Prometheus text format. Timers are exported as summaries in seconds.
+     * @return Metrics in the Prometheus text format.
+     */
+    public String scrape() {
+        StringBuilder builder = new StringBuilder();
+
+        String lastName = null;
+        for(Map.Entry<MetricKey, Counter> entry : metricsRegistry.getCounters().entrySet()) {
+            lastName = appendType(builder, entry.getKey(), lastName, "counter");
+            builder.append(entry.getKey()).append(' ').append(entry.getValue().get()).append('\n');
+        }
+
+        lastName = null;
+        for(Map.Entry<MetricKey, LongSupplier> entry : metricsRegistry.getGauges().entrySet()) {
+            lastName = appendType(builder, entry.getKey(), lastName, "gauge");
+            builder.append(entry.getKey()).append(' ').append(entry.getValue().getAsLong()).append('\n');
+        }
+
+        lastName = null;
+        for(Map.Entry<MetricKey, Timer> entry : metricsRegistry.getTimers().entrySet()) {
+            MetricKey key = entry.getKey();
+            Timer.Snapshot snapshot = entry.getValue().snapshot();
+            lastName = appendType(builder, key, lastName, "summary");
+            builder.append(key.name()).append(key.formatLabels("quantile", "0.5")).append(' ').append(snapshot.p50Nanos() / NANOS_PER_SECOND).append('\n');
+            builder.append(key.name()).append(key.formatLabels("quantile", "0.99")).append(' ').append(snapshot.p99Nanos() / NANOS_PER_SECOND).append('\n');
+            builder.append(key.name()).append("_sum").append(key.formatLabels()).append(' ').append(snapshot.sumNanos() / NANOS_PER_SECOND).append('\n');
+            builder.append(key.name()).append("_count").append(key.formatLabels()).append(' ').append(snapshot.count()).append('\n');
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Writes the TYPE line for a metric if it is the first series with its name. Series are sorted by name, so every
+     * series of a metric follows the TYPE line.
+     * @return Name of the metric.
+     */
+    private static String appendType(StringBuilder builder, MetricKey key, String lastName, String type) {
+        if(!key.name().equals(lastName)) {
+            builder.append("# TYPE ").append(key.name()).append(' ').append(type).append('\n');
+        }
+        return key.name();
+    }
+
+    /**
+     * Writes the metrics to a file. The file is replaced rather than rewritten in place so readers never see it half
+     * written.
+     * @param path File to write to.
+     * @throws IOException If the file can not be written.
+     */
+    public void writeTo(Path path) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.writeString(temporary, scrape(), StandardCharsets.UTF_8);
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Starts rewriting a file with the metrics on a schedule.
+     * @param path File to write to.
+     * @param periodSeconds Seconds between writes.
+     */
+    public synchronized void startFileExport(Path path, long periodSeconds) {
+        if(fileExportExecutor != null) {
+            LOGGER.warn("Metrics are already being exported to a file.");
+            return;
+        }
+        fileExportExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-file-export");
+            t.setDaemon(true);
+            return t;
+        });
+        fileExportExecutor.scheduleAtFixedRate(() -> {
+            try {
+                writeTo(path);
+            } catch (IOException e) {
+                LOGGER.error("Failed to export metrics to {}", path, e);
+            }
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        LOGGER.info("Exporting metrics to {} every {} seconds.", path, periodSeconds);
+    }
+
+    /**
+     * Starts serving the metrics at /metrics. The server only listens on the loopback address.
+     * @param port Port to listen on.
+     * @throws IOException If the server can not be started.
+     */
+    public synchronized void startHttpServer(int port) throws IOException {
+        if(httpServer != null) {
+            LOGGER.warn("Metrics are already being served.");
+            return;
+        }
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        httpServer.createContext("/metrics", exchange -> {
+            byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        httpServer.start();
+        LOGGER.info("Serving metrics at http://{}:{}/metrics", httpServer.getAddress().getHostString(), httpServer.getAddress().getPort());
+    }
+
+    /**
+     * Stops exporting metrics.
+     */
+    @Override
+    public synchronized void close() {
+        if(fileExportExecutor != null) {
+            fileExportExecutor.shutdownNow();
+            fileExportExecutor = null;
+        }
+        if(httpServer != null) {
+            httpServer.stop(0);
+            httpServer = null;
+        }
+    }
+}
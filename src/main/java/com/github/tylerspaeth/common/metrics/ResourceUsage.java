@@ -0,0 +1,132 @@
+package com.github.tylerspaeth.common.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resources used on behalf of a single strategy. CPU time and allocated bytes are read from the JVM for the thread the
+ * strategy runs on, while engine requests and DAO operations are counted as they happen. DAO operations are counted
+ * against the ResourceUsage bound to the thread that makes them, which is the strategy thread and the engine thread
+ * while it executes a request for the strategy.
+ */
+public class ResourceUsage {
+
+    private static final ThreadLocal<ResourceUsage> CURRENT = new ThreadLocal<>();
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final LongAdder engineRequests = new LongAdder();
+    private final LongAdder daoOperations = new LongAdder();
+
+    private volatile long threadID = -1;
+    // Once the thread finishes the JVM no longer reports on it, so the final values are kept
+    private volatile long finalCpuTimeNanos = -1;
+    private volatile long finalAllocatedBytes = -1;
+
+    /**
+     * Starts measuring the current thread and binds this ResourceUsage to it. Should be called by the thread the
+     * strategy runs on before it does anything else.
+     */
+    public void start() {
+        threadID = Thread.currentThread().threadId();
+        finalCpuTimeNanos = -1;
+        finalAllocatedBytes = -1;
+        CURRENT.set(this);
+    }
+
+    /**
+     * Stops measuring the current thread and unbinds this ResourceUsage from it. Should be called by the thread the
+     * strategy runs on once it has finished.
+     */
+    public void finish() {
+        finalCpuTimeNanos = readCpuTimeNanos();
+        finalAllocatedBytes = readAllocatedBytes();
+        CURRENT.remove();
+    }
+
+    /**
+     * Counts an engine request made by the strategy.
+     */
+    public void recordEngineRequest() {
+        engineRequests.increment();
+    }
+
+    /**
+     * Counts a DAO operation made on behalf of the strategy.
+     */
+    public void recordDaoOperation() {
+        daoOperations.increment();
+    }
+
+    /**
+     * Get the CPU time used by the thread of the strategy.
+     * @return CPU time in nanoseconds, or 0 if it has not started or CPU time measurement is not supported.
+     */
+    public long getCpuTimeNanos() {
+        long cpuTimeNanos = finalCpuTimeNanos;
+        return cpuTimeNanos >= 0 ? cpuTimeNanos : readCpuTimeNanos();
+    }
+
+    /**
+     * Get the bytes allocated by the thread of the strategy.
+     * @return Allocated bytes, or 0 if it has not started or allocation measurement is not supported.
+     */
+    public long getAllocatedBytes() {
+        long allocatedBytes = finalAllocatedBytes;
+        return allocatedBytes >= 0 ? allocatedBytes : readAllocatedBytes();
+    }
+
+    /**
+     * Get the number of engine requests made by the strategy.
+     * @return Number of engine requests.
+     */
+    public long getEngineRequests() {
+        return engineRequests.sum();
+    }
+
+    /**
+     * Get the number of DAO operations made on behalf of the strategy.
+     * @return Number of DAO operations.
+     */
+    public long getDaoOperations() {
+        return daoOperations.sum();
+    }
+
+    private long readCpuTimeNanos() {
+        long id = threadID;
+        if(id < 0 || !THREAD_MX_BEAN.isThreadCpuTimeSupported()) {
+            return 0;
+        }
+        return Math.max(0, THREAD_MX_BEAN.getThreadCpuTime(id));
+    }
+
+    private long readAllocatedBytes() {
+        long id = threadID;
+        if(id < 0 || !THREAD_MX_BEAN.isThreadAllocatedMemorySupported()) {
+            return 0;
+        }
+        return Math.max(0, THREAD_MX_BEAN.getThreadAllocatedBytes(id));
+    }
+
+    /**
+     * Get the ResourceUsage bound to the current thread.
+     * @return ResourceUsage, or null if the current thread is not doing work for a strategy.
+     */
+    public static ResourceUsage current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind a ResourceUsage to the current thread so that work done by the thread is counted against it.
+     * @param resourceUsage ResourceUsage to bind, or null to unbind the current one.
+     * @return The ResourceUsage that was bound before, so that it can be restored.
+     */
+    public static ResourceUsage bind(ResourceUsage resourceUsage) {
+        ResourceUsage previous = CURRENT.get();
+        if(resourceUsage == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(resourceUsage);
+        }
+        return previous;
+    }
+}
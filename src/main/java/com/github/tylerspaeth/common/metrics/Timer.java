@@ -0,0 +1,65 @@
+package com.github.tylerspaeth.common.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of durations in nanoseconds. Durations are recorded into an HdrHistogram Recorder, which never blocks
+ * the recording thread, and are moved into the total distribution whenever a Snapshot is taken.
+ */
+public class Timer {
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final LongAdder totalNanos = new LongAdder();
+
+    // Only accessed while holding the lock of this Timer
+    private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+    private Histogram interval;
+
+    Timer() {}
+
+    /**
+     * Record a duration.
+     * @param nanos Duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        if(nanos < 0) {
+            return;
+        }
+        recorder.recordValue(nanos);
+        totalNanos.add(nanos);
+    }
+
+    /**
+     * Record the time that has passed since a call to System.nanoTime.
+     * @param startNanos Value of System.nanoTime when the timed work started.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Get the distribution of everything recorded so far.
+     * @return Snapshot
+     */
+    public synchronized Snapshot snapshot() {
+        interval = recorder.getIntervalHistogram(interval);
+        total.add(interval);
+        return new Snapshot(total.getTotalCount(), totalNanos.sum(), total.getValueAtPercentile(50),
+                total.getValueAtPercentile(99), total.getMaxValue());
+    }
+
+    /**
+     * Distribution of a Timer at a point in time. Durations are in nanoseconds.
+     * @param count Number of durations recorded.
+     * @param sumNanos Sum of the durations recorded.
+     * @param p50Nanos Median duration.
+     * @param p99Nanos 99th percentile duration.
+     * @param maxNanos Longest duration.
+     */
+    public record Snapshot(long count, long sumNanos, long p50Nanos, long p99Nanos, long maxNanos) {}
+}
@@ -5,6 +5,9 @@ import jakarta.persistence.Persistence;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class DatasourceConfig {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DatasourceConfig.class);
@@ -12,7 +15,7 @@ public class DatasourceConfig {
     public static final EntityManagerFactory entityManagerFactory;
 
     static {
-        entityManagerFactory = Persistence.createEntityManagerFactory("persistenceUnit");
+        entityManagerFactory = Persistence.createEntityManagerFactory("persistenceUnit", getPropertyOverrides());
     }
 
     /**
@@ -22,4 +25,22 @@ public class DatasourceConfig {
         LOGGER.info("Database Validation Successful");
     }
 
+    /**
+     * Gets the persistence unit properties that have been overridden with system properties, such as
+     * -Djakarta.persistence.jdbc.url, so that a different database can be used without editing persistence.xml.
+     * @return Map of property names to values.
+     */
+    private static Map<String, String> getPropertyOverrides() {
+        Map<String, String> overrides = new HashMap<>();
+        for(String name : System.getProperties().stringPropertyNames()) {
+            if(name.startsWith("jakarta.persistence.") || name.startsWith("hibernate.")) {
+                overrides.put(name, System.getProperty(name));
+            }
+        }
+        if(!overrides.isEmpty()) {
+            LOGGER.info("Overriding persistence properties {}", overrides.keySet());
+        }
+        return overrides;
+    }
+
 }
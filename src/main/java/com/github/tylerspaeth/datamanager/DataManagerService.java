@@ -11,6 +11,9 @@ import java.sql.Timestamp;
 import java.text.MessageFormat;
 import java.text.SimpleDateFormat;
 import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service class for data management.
@@ -20,6 +23,9 @@ public class DataManagerService {
     private static final Logger LOGGER = LoggerFactory.getLogger(DataManagerService.class);
 
     private final HistoricalDatasetDAO historicalDatasetDAO;
+    private final HistoricalDataBackfillService historicalDataBackfillService;
+
+    private final Set<Integer> datasetsBeingExtended = ConcurrentHashMap.newKeySet();
 
     private static final String CSV_DELIMITER = ",";
     private static final int MIN_COLUMN_COUNT = 6;
@@ -39,8 +45,9 @@ public class DataManagerService {
 
     private static final String EXPORT_FORMAT = "Date,Open,Close,High,Low,Volume\n";
 
-    public DataManagerService(HistoricalDatasetDAO historicalDatasetDAO) {
+    public DataManagerService(HistoricalDatasetDAO historicalDatasetDAO, HistoricalDataBackfillService historicalDataBackfillService) {
         this.historicalDatasetDAO = historicalDatasetDAO;
+        this.historicalDataBackfillService = historicalDataBackfillService;
     }
 
     /**
@@ -148,6 +155,43 @@ public class DataManagerService {
         return true;
     }
 
+    /**
+     * Extends a HistoricalDataset with bars from IB, resuming from the DatasetEnd that was last persisted. Only one
+     * extension of a dataset can run at a time.
+     * @param historicalDataset The HistoricalDataset to extend.
+     * @return Future that completes with the number of Candlesticks added, or null if the extension could not be started.
+     */
+    public CompletableFuture<Integer> extendDatasetFromIB(HistoricalDataset historicalDataset) {
+
+        if(historicalDataset == null || historicalDataset.getHistoricalDatasetID() == null) {
+            LOGGER.error("Unable to extend a dataset that has not been persisted: {}", historicalDataset);
+            return null;
+        }
+
+        Integer historicalDatasetID = historicalDataset.getHistoricalDatasetID();
+        if(!datasetsBeingExtended.add(historicalDatasetID)) {
+            LOGGER.warn("Dataset {} is already being extended.", historicalDataset);
+            return null;
+        }
+
+        CompletableFuture<Integer> result = null;
+        try {
+            // The dataset passed in may be stale if it was loaded before an earlier extension moved its end
+            HistoricalDataset persistedDataset = historicalDatasetDAO.getHistoricalDatasetByID(historicalDatasetID);
+            if(persistedDataset == null) {
+                LOGGER.error("Dataset {} no longer exists.", historicalDataset);
+                return null;
+            }
+            result = historicalDataBackfillService.backfill(persistedDataset);
+        } finally {
+            if(result == null) {
+                datasetsBeingExtended.remove(historicalDatasetID);
+            }
+        }
+
+        return result.whenComplete((_, _) -> datasetsBeingExtended.remove(historicalDatasetID));
+    }
+
     // TODO utilize this in the ui
     /**
      * Exports the given HistoricalDataset into the provided csvFile
@@ -0,0 +1,199 @@
+package com.github.tylerspaeth.datamanager;
+
+import com.github.tylerspaeth.broker.ib.IBMapper;
+import com.github.tylerspaeth.broker.ib.IBSyncWrapper;
+import com.github.tylerspaeth.common.data.dao.CandlestickDAO;
+import com.github.tylerspaeth.common.data.entity.Candlestick;
+import com.github.tylerspaeth.common.data.entity.HistoricalDataset;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.common.enums.AssetTypeEnum;
+import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
+import com.ib.client.Bar;
+import com.ib.client.Contract;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Service class for extending HistoricalDatasets with historical bars from IB.
+ */
+public class HistoricalDataBackfillService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HistoricalDataBackfillService.class);
+
+    // Pages are requested concurrently but written one at a time in order so the dataset never has gaps
+    private static final ExecutorService WRITE_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "historical-backfill-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final DateTimeFormatter IB_END_DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm:ss").withZone(ZoneOffset.UTC);
+    private static final long SECONDS_PER_DAY = 86400;
+
+    private final IBSyncWrapper ibSyncWrapper;
+    private final CandlestickDAO candlestickDAO;
+
+    public HistoricalDataBackfillService(IBSyncWrapper ibSyncWrapper, CandlestickDAO candlestickDAO) {
+        this.ibSyncWrapper = ibSyncWrapper;
+        this.candlestickDAO = candlestickDAO;
+    }
+
+    /**
+     * Extends a HistoricalDataset with bars from IB from the end of the dataset up to the current time. The period is
+     * split into pages which are requested concurrently within IB's pacing limits, and each page is written as soon as
+     * it and every page before it have been received. The end of the dataset is moved along with every page that is
+     * written, so a backfill that fails part way can be resumed by running it again.
+     * @param historicalDataset The persisted HistoricalDataset to extend.
+     * @return Future that completes with the number of Candlesticks added, or null if the backfill could not be started.
+     */
+    public CompletableFuture<Integer> backfill(HistoricalDataset historicalDataset) {
+
+        if(historicalDataset == null) {
+            LOGGER.error("Unable to backfill a null dataset.");
+            return null;
+        }
+
+        if(historicalDataset.getDatasetEnd() == null) {
+            LOGGER.error("Unable to backfill dataset {} without a dataset end to resume from.", historicalDataset);
+            return null;
+        }
+
+        String barSize = IBMapper.mapIntervalToBarSize(historicalDataset.getTimeInterval(), historicalDataset.getIntervalUnit());
+        if(barSize == null) {
+            LOGGER.error("IB does not provide bars of {} {}.", historicalDataset.getTimeInterval(), historicalDataset.getIntervalUnit());
+            return null;
+        }
+
+        Symbol symbol = historicalDataset.getSymbol();
+        if(symbol == null || symbol.getIbConID() == null) {
+            LOGGER.error("Unable to backfill dataset {} without a conid. Symbol: {}", historicalDataset, symbol);
+            return null;
+        }
+        Contract contract = new Contract();
+        contract.conid(symbol.getIbConID());
+        String whatToShow = symbol.getAssetType() == AssetTypeEnum.FOREX ? "MIDPOINT" : "TRADES";
+
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        new Thread(() -> requestPages(historicalDataset, contract, barSize, whatToShow, result),
+                historicalDataset.getDatasetName() + "-Backfill-Thread").start();
+        return result;
+    }
+
+    /**
+     * Requests every page from the end of the dataset up to now, chaining the write of each page after the write of
+     * the page before it.
+     * @param historicalDataset HistoricalDataset being extended.
+     * @param contract Contract to request bars for.
+     * @param barSize IB bar size setting.
+     * @param whatToShow Type of data the bars are built from.
+     * @param result Future to complete once every page has been written or the backfill has failed.
+     */
+    private void requestPages(HistoricalDataset historicalDataset, Contract contract, String barSize, String whatToShow, CompletableFuture<Integer> result) {
+        Instant now = Instant.now();
+        long pageSeconds = getPageSeconds(historicalDataset.getTimeInterval(), historicalDataset.getIntervalUnit());
+        long barSeconds = getBarSeconds(historicalDataset.getTimeInterval(), historicalDataset.getIntervalUnit());
+        String duration = pageSeconds < SECONDS_PER_DAY ? pageSeconds + " S" : pageSeconds / SECONDS_PER_DAY + " D";
+
+        CompletableFuture<Integer> written = CompletableFuture.completedFuture(0);
+        Instant pageStart = historicalDataset.getDatasetEnd().toInstant();
+        try {
+            // Stop requesting once a page has failed since nothing after it will be written
+            while(pageStart.isBefore(now) && !written.isCompletedExceptionally()) {
+                Instant pageEnd = pageStart.plusSeconds(pageSeconds).isBefore(now) ? pageStart.plusSeconds(pageSeconds) : now;
+                CompletableFuture<List<Bar>> page = ibSyncWrapper.getHistoricalDataAsync(contract, IB_END_DATE_TIME_FORMAT.format(pageEnd), duration, barSize, whatToShow);
+                written = written.thenCombineAsync(page, (count, bars) -> count + writePage(historicalDataset, bars, pageEnd, now, barSeconds), WRITE_EXECUTOR);
+                pageStart = pageEnd;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            written = written.thenCompose(_ -> CompletableFuture.failedFuture(e));
+        }
+
+        written.whenComplete((count, ex) -> {
+            if(ex != null) {
+                LOGGER.error("Backfill of {} stopped at {}.", historicalDataset, historicalDataset.getDatasetEnd(), ex);
+                result.completeExceptionally(ex);
+            }
+            else {
+                LOGGER.info("Backfill of {} finished with {} candlesticks added.", historicalDataset, count);
+                result.complete(count);
+            }
+        });
+    }
+
+    /**
+     * Writes the bars of a page that are after the current end of the dataset.
+     * @param historicalDataset HistoricalDataset being extended.
+     * @param bars Bars received for the page.
+     * @param pageEnd End of the page. Bars at or after this belong to the next page.
+     * @param now Time the backfill started. Bars that had not closed by then are left for the next backfill.
+     * @param barSeconds Length of each bar in seconds.
+     * @return Number of Candlesticks written.
+     */
+    private int writePage(HistoricalDataset historicalDataset, List<Bar> bars, Instant pageEnd, Instant now, long barSeconds) {
+        if(bars == null) {
+            throw new IllegalStateException("Historical data request for " + historicalDataset + " ending " + pageEnd + " could not be made.");
+        }
+
+        // Pages can overlap since IB counts durations of days in trading days, so anything already written is skipped
+        Timestamp datasetEnd = historicalDataset.getDatasetEnd();
+        List<Candlestick> candlesticks = new ArrayList<>(bars.size());
+        for(Bar bar : bars) {
+            Candlestick candlestick = IBMapper.mapBarToCandlestick(bar);
+            Instant time = candlestick.getTimestamp().toInstant();
+            if(candlestick.getTimestamp().after(datasetEnd) && time.isBefore(pageEnd) && !time.plusSeconds(barSeconds).isAfter(now)) {
+                candlesticks.add(candlestick);
+            }
+        }
+        if(candlesticks.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp lastUpdated = Timestamp.from(Instant.now());
+        candlestickDAO.appendCandlesticks(historicalDataset, candlesticks, lastUpdated);
+        historicalDataset.setDatasetEnd(candlesticks.getLast().getTimestamp());
+        historicalDataset.setLastUpdated(lastUpdated);
+        return candlesticks.size();
+    }
+
+    /**
+     * Gets the longest period that IB will return bars of a given size for in a single request.
+     * @param timeInterval How many of the interval unit each bar is.
+     * @param intervalUnit IntervalUnitEnum
+     * @return Length of each page in seconds.
+     */
+    private static long getPageSeconds(int timeInterval, IntervalUnitEnum intervalUnit) {
+        return switch (intervalUnit) {
+            case SECOND -> timeInterval < 5 ? 1800 : timeInterval < 10 ? 3600 : timeInterval < 30 ? 14400 : 28800;
+            case MINUTE -> timeInterval < 3 ? SECONDS_PER_DAY : 7 * SECONDS_PER_DAY;
+            case HOUR -> 30 * SECONDS_PER_DAY;
+            default -> 365 * SECONDS_PER_DAY;
+        };
+    }
+
+    /**
+     * Gets the length of a bar in calendar time, which is not what IntervalUnitEnum.secondsPer holds for days and
+     * larger.
+     * @param timeInterval How many of the interval unit each bar is.
+     * @param intervalUnit IntervalUnitEnum
+     * @return Length of each bar in seconds.
+     */
+    private static long getBarSeconds(int timeInterval, IntervalUnitEnum intervalUnit) {
+        return switch (intervalUnit) {
+            case DAY -> timeInterval * SECONDS_PER_DAY;
+            case WEEK -> timeInterval * 7 * SECONDS_PER_DAY;
+            case MONTH -> timeInterval * 31 * SECONDS_PER_DAY;
+            default -> (long) timeInterval * intervalUnit.secondsPer;
+        };
+    }
+}
@@ -8,6 +8,7 @@ import com.github.tylerspaeth.broker.ib.service.IBOrderService;
 import com.github.tylerspaeth.broker.service.IAccountService;
 import com.github.tylerspaeth.broker.service.IDataFeedService;
 import com.github.tylerspaeth.broker.service.IOrderService;
+import com.github.tylerspaeth.common.metrics.MetricsRegistry;
 import com.github.tylerspaeth.engine.request.AbstractEngineRequest;
 import com.github.tylerspaeth.engine.request.StrategyRunRequest;
 import org.slf4j.Logger;
@@ -57,6 +58,10 @@ public class EngineCoordinator {
         activeDataFeedService = ibDataFeedService;
         activeOrderService = ibOrderService;
         usingBacktester = false;
+
+        MetricsRegistry metricsRegistry = MetricsRegistry.getInstance();
+        metricsRegistry.gauge("engine_request_queue_size", requestQueue::size);
+        metricsRegistry.gauge("engine_strategy_request_queue_size", strategyRequestQueue::size);
     }
 
     /**
@@ -68,12 +73,24 @@ public class EngineCoordinator {
      * @throws ExecutionException ExecutionException
      */
     public <T> T submitRequest(AbstractEngineRequest<T> request) throws InterruptedException, ExecutionException {
+        return submitRequestAsync(request).get();
+    }
+
+    /**
+     * Submits a request without waiting for it to return.
+     * @param request Request to be executed by the engine.
+     * @return CompletableFuture that completes with the results of the request.
+     * @param <T> Type to be returned by the request.
+     * @throws InterruptedException If interrupted while waiting for space on a request queue.
+     */
+    public <T> CompletableFuture<T> submitRequestAsync(AbstractEngineRequest<T> request) throws InterruptedException {
 
         if(request == null) {
             LOGGER.warn("Request is null, nothing to process.");
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
+        request.markSubmitted();
         request.setServices(activeAccountService, activeDataFeedService, activeOrderService);
 
         // Strategy run requests go onto their own queues since they will be run on their own threads and
@@ -81,7 +98,7 @@ public class EngineCoordinator {
         // TODO look into whether this can be bypassed with live trading since it may be okay not to limit the requests since strategies should be far less memory intensive
         if(request instanceof StrategyRunRequest) {
             strategyRequestQueue.put((StrategyRunRequest) request);
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
         // When the backtester is enabled, requests are processed on the same thread.
@@ -93,7 +110,7 @@ public class EngineCoordinator {
             requestQueue.put(request);
         }
 
-        return request.get();
+        return request.getFuture();
     }
 
     /**
@@ -166,6 +183,22 @@ public class EngineCoordinator {
         usingBacktester = true;
     }
 
+    /**
+     * Get the BacktesterDataFeedService so that backtest progress can be followed regardless of which services are active.
+     * @return BacktesterDataFeedService
+     */
+    public BacktesterDataFeedService getBacktesterDataFeedService() {
+        return backtesterDataFeedService;
+    }
+
+    /**
+     * Get the BacktesterOrderService so that backtesting strategies can place orders without submitting requests.
+     * @return BacktesterOrderService
+     */
+    public BacktesterOrderService getBacktesterOrderService() {
+        return backtesterOrderService;
+    }
+
     /**
      * Enable use of the IB services.
      */
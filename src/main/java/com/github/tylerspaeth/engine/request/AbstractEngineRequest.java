@@ -3,6 +3,12 @@ package com.github.tylerspaeth.engine.request;
 import com.github.tylerspaeth.broker.service.IAccountService;
 import com.github.tylerspaeth.broker.service.IDataFeedService;
 import com.github.tylerspaeth.broker.service.IOrderService;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.common.jfr.EngineRequestEvent;
+import com.github.tylerspaeth.common.metrics.Counter;
+import com.github.tylerspaeth.common.metrics.MetricsRegistry;
+import com.github.tylerspaeth.common.metrics.ResourceUsage;
+import com.github.tylerspaeth.common.metrics.Timer;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -13,28 +19,111 @@ import java.util.concurrent.ExecutionException;
  */
 public abstract class AbstractEngineRequest<T> implements Runnable {
 
+    // Looked up once per request type rather than on every request
+    private static final ClassValue<RequestMetrics> REQUEST_METRICS = new ClassValue<>() {
+        @Override
+        protected RequestMetrics computeValue(Class<?> requestClass) {
+            MetricsRegistry metricsRegistry = MetricsRegistry.getInstance();
+            String request = requestClass.isAnonymousClass() ? requestClass.getName() : requestClass.getSimpleName();
+            return new RequestMetrics(metricsRegistry.timer("engine_request_queue_wait_seconds", "request", request),
+                    metricsRegistry.timer("engine_request_execution_seconds", "request", request),
+                    metricsRegistry.counter("engine_request_failures_total", "request", request));
+        }
+    };
+
     protected IAccountService accountService;
     protected IDataFeedService dataFeedService;
     protected IOrderService orderService;
 
     private final CompletableFuture<T> future = new CompletableFuture<>();
 
+    private volatile long submittedNanos = 0;
+
+    // Requests are constructed on the thread that submits them
+    private final long submittingThreadID = Thread.currentThread().threadId();
+    private final ResourceUsage resourceUsage = ResourceUsage.current();
+
     /**
      * Makes the request to the appropriate service.
      * @return Response from the service.
      */
     protected abstract T execute();
 
+    /**
+     * Makes the request to the appropriate service without waiting for it to respond. Requests that can be answered
+     * without blocking should override this so the engine thread is free while the broker responds.
+     * @return Future that completes with the response from the service.
+     */
+    protected CompletableFuture<T> executeAsync() {
+        return CompletableFuture.completedFuture(execute());
+    }
+
+    /**
+     * Get the Symbol the request is for so it can be included in the events recorded for the request. Requests for a
+     * Symbol should override this.
+     * @return Symbol the request is for, or null if it is not for a Symbol.
+     */
+    protected Symbol getSymbol() {
+        return null;
+    }
+
     @Override
     public void run() {
+        RequestMetrics metrics = REQUEST_METRICS.get(getClass());
+        long startNanos = System.nanoTime();
+        if(submittedNanos != 0) {
+            metrics.queueWait().record(startNanos - submittedNanos);
+        }
+        EngineRequestEvent event = new EngineRequestEvent();
+        event.begin();
+
+        // Work done while executing is counted against the strategy that submitted the request
+        ResourceUsage previousResourceUsage = ResourceUsage.bind(resourceUsage);
         try {
-            T result = execute();
-            future.complete(result);
+            executeAsync().whenComplete((result, e) -> {
+                metrics.execution().recordSince(startNanos);
+                commitEvent(event, e != null);
+                if(e != null) {
+                    metrics.failures().increment();
+                    future.completeExceptionally(e);
+                } else {
+                    future.complete(result);
+                }
+            });
         } catch (Exception e) {
+            metrics.execution().recordSince(startNanos);
+            commitEvent(event, true);
+            metrics.failures().increment();
             future.completeExceptionally(e);
+        } finally {
+            ResourceUsage.bind(previousResourceUsage);
         }
     }
 
+    /**
+     * Commits the event for the request if it is enabled and slower than its threshold. The fields are only filled in
+     * when the event is committed so that fast requests do not pay for them.
+     */
+    private void commitEvent(EngineRequestEvent event, boolean failed) {
+        event.end();
+        if(event.shouldCommit()) {
+            Symbol symbol = getSymbol();
+            event.request = getClass().getSimpleName();
+            event.symbol = symbol != null ? symbol.getTicker() : null;
+            event.threadID = submittingThreadID;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    /**
+     * Marks the time the request was submitted so the time it waits before running can be measured. Should be called
+     * by the EngineCoordinator.
+     */
+    public void markSubmitted() {
+        submittedNanos = System.nanoTime();
+    }
+
     /**
      * Wrapper around the get method of the underlying CompletableFuture.
      * @return Response for request.
@@ -45,6 +134,14 @@ public abstract class AbstractEngineRequest<T> implements Runnable {
         return future.get();
     }
 
+    /**
+     * Gets the underlying CompletableFuture so the response can be handled without blocking.
+     * @return CompletableFuture that completes with the response for the request.
+     */
+    public CompletableFuture<T> getFuture() {
+        return future;
+    }
+
     /**
      * Sets the services for the request to use. Should be called by the EngineCoordinator.
      * @param accountService IAccountService
@@ -56,4 +153,6 @@ public abstract class AbstractEngineRequest<T> implements Runnable {
         this.dataFeedService = dataFeedService;
         this.orderService = orderService;
     }
+
+    private record RequestMetrics(Timer queueWait, Timer execution, Counter failures) {}
 }
@@ -2,8 +2,9 @@ package com.github.tylerspaeth.engine.request;
 
 import com.github.tylerspaeth.strategy.AbstractStrategy;
 
-import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Request to run a strategy. This request should be limited by checking if it can be run before executing it.
@@ -12,7 +13,8 @@ public class StrategyRunRequest extends AbstractEngineRequest<Void> {
 
     private static final int MAX_CONCURRENT_STRATEGIES = 4;
 
-    private static final Set<AbstractStrategy> runningStrategies = new HashSet<>();
+    // Read by the UI to show the resources used by each running strategy
+    private static final Set<AbstractStrategy> runningStrategies = ConcurrentHashMap.newKeySet();
 
     private final AbstractStrategy strategy;
 
@@ -41,4 +43,12 @@ public class StrategyRunRequest extends AbstractEngineRequest<Void> {
         }
         return !runningStrategies.contains(strategy);
     }
+
+    /**
+     * Get the strategies that are currently running.
+     * @return List of AbstractStrategy.
+     */
+    public static List<AbstractStrategy> getRunningStrategies() {
+        return runningStrategies.stream().filter(AbstractStrategy::isRunning).toList();
+    }
 }
@@ -3,9 +3,16 @@ package com.github.tylerspaeth.engine.request.account;
 import com.github.tylerspaeth.broker.response.AccountPnL;
 import com.github.tylerspaeth.engine.request.AbstractEngineRequest;
 
+import java.util.concurrent.CompletableFuture;
+
 public class AccountPnLRequest extends AbstractEngineRequest<AccountPnL> {
     @Override
     protected AccountPnL execute() {
         return accountService.getAccountPnL();
     }
+
+    @Override
+    protected CompletableFuture<AccountPnL> executeAsync() {
+        return accountService.getAccountPnLAsync();
+    }
 }
@@ -3,9 +3,16 @@ package com.github.tylerspaeth.engine.request.account;
 import com.github.tylerspaeth.broker.response.AccountSummary;
 import com.github.tylerspaeth.engine.request.AbstractEngineRequest;
 
+import java.util.concurrent.CompletableFuture;
+
 public class AccountSummaryRequest extends AbstractEngineRequest<AccountSummary> {
     @Override
     protected AccountSummary execute() {
         return accountService.getAccountSummary();
     }
+
+    @Override
+    protected CompletableFuture<AccountSummary> executeAsync() {
+        return accountService.getAccountSummaryAsync();
+    }
 }
@@ -4,6 +4,8 @@ import com.github.tylerspaeth.broker.response.Position;
 import com.github.tylerspaeth.broker.response.PositionPnL;
 import com.github.tylerspaeth.engine.request.AbstractEngineRequest;
 
+import java.util.concurrent.CompletableFuture;
+
 public class PositionPnLRequest extends AbstractEngineRequest<PositionPnL> {
 
     private final Position position;
@@ -16,4 +18,9 @@ public class PositionPnLRequest extends AbstractEngineRequest<PositionPnL> {
     protected PositionPnL execute() {
         return accountService.getPositionPnL(position);
     }
+
+    @Override
+    protected CompletableFuture<PositionPnL> executeAsync() {
+        return accountService.getPositionPnLAsync(position);
+    }
 }
@@ -0,0 +1,31 @@
+package com.github.tylerspaeth.engine.request.account;
+
+import com.github.tylerspaeth.broker.response.Position;
+import com.github.tylerspaeth.broker.response.PositionPnL;
+import com.github.tylerspaeth.engine.request.AbstractEngineRequest;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Gets the PositionPnL of several Positions at once. The requests are all made before waiting for any of them, so this
+ * takes about as long as the slowest single request.
+ */
+public class PositionPnLsRequest extends AbstractEngineRequest<List<PositionPnL>> {
+
+    private final List<Position> positions;
+
+    public PositionPnLsRequest(List<Position> positions) {
+        this.positions = positions;
+    }
+
+    @Override
+    protected List<PositionPnL> execute() {
+        return positions.stream().map(accountService::getPositionPnL).toList();
+    }
+
+    @Override
+    protected CompletableFuture<List<PositionPnL>> executeAsync() {
+        return accountService.getPositionPnLsAsync(positions);
+    }
+}
@@ -4,10 +4,16 @@ import com.github.tylerspaeth.broker.response.Position;
 import com.github.tylerspaeth.engine.request.AbstractEngineRequest;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class PositionsRequest extends AbstractEngineRequest<List<Position>> {
     @Override
     protected List<Position> execute() {
         return accountService.getPositions();
     }
+
+    @Override
+    protected CompletableFuture<List<Position>> executeAsync() {
+        return accountService.getPositionsAsync();
+    }
 }
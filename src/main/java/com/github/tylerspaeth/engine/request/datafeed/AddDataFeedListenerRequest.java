@@ -0,0 +1,34 @@
+package com.github.tylerspaeth.engine.request.datafeed;
+
+import com.github.tylerspaeth.broker.service.IDataFeedListener;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
+import com.github.tylerspaeth.engine.request.AbstractEngineRequest;
+
+public class AddDataFeedListenerRequest extends AbstractEngineRequest<Void> {
+
+    private final long threadID;
+    private final Symbol symbol;
+    private final int intervalDuration;
+    private final IntervalUnitEnum intervalUnit;
+    private final IDataFeedListener listener;
+
+    public AddDataFeedListenerRequest(Symbol symbol, int intervalDuration, IntervalUnitEnum intervalUnit, IDataFeedListener listener) {
+        this.symbol = symbol;
+        this.intervalDuration = intervalDuration;
+        this.intervalUnit = intervalUnit;
+        this.listener = listener;
+        this.threadID = Thread.currentThread().threadId();
+    }
+
+    @Override
+    protected Void execute() {
+        dataFeedService.addDataFeedListener(threadID, symbol, intervalDuration, intervalUnit, listener);
+        return null;
+    }
+
+    @Override
+    protected Symbol getSymbol() {
+        return symbol;
+    }
+}
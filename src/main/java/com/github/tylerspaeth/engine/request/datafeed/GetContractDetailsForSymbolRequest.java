@@ -18,4 +18,9 @@ public class GetContractDetailsForSymbolRequest extends AbstractEngineRequest<Li
     protected List<ContractDetails> execute() {
         return dataFeedService.getContractDetailsForSymbol(symbol);
     }
+
+    @Override
+    protected Symbol getSymbol() {
+        return symbol;
+    }
 }
@@ -0,0 +1,24 @@
+package com.github.tylerspaeth.engine.request.datafeed;
+
+import com.github.tylerspaeth.broker.response.MarketDepth;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.engine.request.AbstractEngineRequest;
+
+public class GetMarketDepthRequest extends AbstractEngineRequest<MarketDepth> {
+
+    private final Symbol symbol;
+
+    public GetMarketDepthRequest(Symbol symbol) {
+        this.symbol = symbol;
+    }
+
+    @Override
+    protected MarketDepth execute() {
+        return dataFeedService.getMarketDepth(symbol);
+    }
+
+    @Override
+    protected Symbol getSymbol() {
+        return symbol;
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.tylerspaeth.engine.request.datafeed;
+
+import com.github.tylerspaeth.broker.response.Quote;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.engine.request.AbstractEngineRequest;
+
+public class GetTopOfBookRequest extends AbstractEngineRequest<Quote> {
+
+    private final Symbol symbol;
+
+    public GetTopOfBookRequest(Symbol symbol) {
+        this.symbol = symbol;
+    }
+
+    @Override
+    protected Quote execute() {
+        return dataFeedService.getTopOfBook(symbol);
+    }
+
+    @Override
+    protected Symbol getSymbol() {
+        return symbol;
+    }
+}
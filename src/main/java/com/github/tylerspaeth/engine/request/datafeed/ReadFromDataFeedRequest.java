@@ -25,4 +25,9 @@ public class ReadFromDataFeedRequest extends AbstractEngineRequest<List<Candlest
     protected List<Candlestick> execute() {
         return dataFeedService.readFromDataFeed(threadID, symbol, intervalDuration, intervalUnit);
     }
+
+    @Override
+    protected Symbol getSymbol() {
+        return symbol;
+    }
 }
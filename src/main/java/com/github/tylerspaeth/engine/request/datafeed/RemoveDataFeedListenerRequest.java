@@ -0,0 +1,29 @@
+package com.github.tylerspaeth.engine.request.datafeed;
+
+import com.github.tylerspaeth.broker.service.IDataFeedListener;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.engine.request.AbstractEngineRequest;
+
+public class RemoveDataFeedListenerRequest extends AbstractEngineRequest<Void> {
+
+    private final long threadID;
+    private final Symbol symbol;
+    private final IDataFeedListener listener;
+
+    public RemoveDataFeedListenerRequest(Symbol symbol, IDataFeedListener listener) {
+        this.symbol = symbol;
+        this.listener = listener;
+        this.threadID = Thread.currentThread().threadId();
+    }
+
+    @Override
+    protected Void execute() {
+        dataFeedService.removeDataFeedListener(threadID, symbol, listener);
+        return null;
+    }
+
+    @Override
+    protected Symbol getSymbol() {
+        return symbol;
+    }
+}
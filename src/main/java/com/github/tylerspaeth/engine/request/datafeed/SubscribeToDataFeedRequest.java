@@ -18,4 +18,9 @@ public class SubscribeToDataFeedRequest extends AbstractEngineRequest<Void> {
         dataFeedService.subscribeToDataFeed(threadID, symbol);
         return null;
     }
+
+    @Override
+    protected Symbol getSymbol() {
+        return symbol;
+    }
 }
@@ -0,0 +1,28 @@
+package com.github.tylerspaeth.engine.request.datafeed;
+
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.engine.request.AbstractEngineRequest;
+
+public class SubscribeToTickDataFeedRequest extends AbstractEngineRequest<Void> {
+
+    private final long threadID;
+    private final Symbol symbol;
+    private final boolean includeDepth;
+
+    public SubscribeToTickDataFeedRequest(Symbol symbol, boolean includeDepth) {
+        this.symbol = symbol;
+        this.includeDepth = includeDepth;
+        threadID = Thread.currentThread().threadId();
+    }
+
+    @Override
+    protected Void execute() {
+        dataFeedService.subscribeToTickDataFeed(threadID, symbol, includeDepth);
+        return null;
+    }
+
+    @Override
+    protected Symbol getSymbol() {
+        return symbol;
+    }
+}
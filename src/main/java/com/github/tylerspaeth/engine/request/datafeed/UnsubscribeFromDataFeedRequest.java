@@ -18,4 +18,9 @@ public class UnsubscribeFromDataFeedRequest extends AbstractEngineRequest<Void>
         dataFeedService.unsubscribeFromDataFeed(threadID, symbol);
         return null;
     }
+
+    @Override
+    protected Symbol getSymbol() {
+        return symbol;
+    }
 }
@@ -0,0 +1,26 @@
+package com.github.tylerspaeth.engine.request.datafeed;
+
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.engine.request.AbstractEngineRequest;
+
+public class UnsubscribeFromTickDataFeedRequest extends AbstractEngineRequest<Void> {
+
+    private final long threadID;
+    private final Symbol symbol;
+
+    public UnsubscribeFromTickDataFeedRequest(Symbol symbol) {
+        this.symbol = symbol;
+        this.threadID = Thread.currentThread().threadId();
+    }
+
+    @Override
+    protected Void execute() {
+        dataFeedService.unsubscribeFromTickDataFeed(threadID, symbol);
+        return null;
+    }
+
+    @Override
+    protected Symbol getSymbol() {
+        return symbol;
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.tylerspaeth.engine.request.order;
 
 import com.github.tylerspaeth.common.data.entity.Order;
+import com.github.tylerspaeth.common.data.entity.Symbol;
 import com.github.tylerspaeth.engine.request.AbstractEngineRequest;
 
 public class CancelOrderRequest extends AbstractEngineRequest<Void> {
@@ -18,4 +19,9 @@ public class CancelOrderRequest extends AbstractEngineRequest<Void> {
         orderService.cancelOrder(threadID, order);
         return null;
     }
+
+    @Override
+    protected Symbol getSymbol() {
+        return order.getSymbol();
+    }
 }
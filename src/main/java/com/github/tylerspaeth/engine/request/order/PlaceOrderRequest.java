@@ -1,6 +1,7 @@
 package com.github.tylerspaeth.engine.request.order;
 
 import com.github.tylerspaeth.common.data.entity.Order;
+import com.github.tylerspaeth.common.data.entity.Symbol;
 import com.github.tylerspaeth.engine.request.AbstractEngineRequest;
 
 public class PlaceOrderRequest extends AbstractEngineRequest<Order> {
@@ -17,4 +18,9 @@ public class PlaceOrderRequest extends AbstractEngineRequest<Order> {
     protected Order execute() {
         return orderService.placeOrder(threadID, order);
     }
+
+    @Override
+    protected Symbol getSymbol() {
+        return order.getSymbol();
+    }
 }
@@ -0,0 +1,280 @@
+package com.github.tylerspaeth.optimization;
+
+import com.github.tylerspaeth.broker.backtester.BacktestTimeRange;
+import com.github.tylerspaeth.common.data.dao.BacktestJobDAO;
+import com.github.tylerspaeth.common.data.dao.BacktestResultDAO;
+import com.github.tylerspaeth.common.data.dao.ParameterOptimizationDAO;
+import com.github.tylerspaeth.common.data.entity.BacktestJob;
+import com.github.tylerspaeth.common.data.entity.BacktestResult;
+import com.github.tylerspaeth.common.data.entity.ParameterOptimization;
+import com.github.tylerspaeth.common.enums.BacktestJobStatusEnum;
+import com.github.tylerspaeth.engine.EngineCoordinator;
+import com.github.tylerspaeth.engine.request.StrategyRunRequest;
+import com.github.tylerspaeth.strategy.AbstractStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs backtests from the shared work queue in the database so that a sweep can be spread over many processes and
+ * machines. Each job is leased before it is run, and the lease is renewed while the backtest is running so that a job
+ * left behind by a worker that died is picked up by another worker once its lease expires. The BacktestResults of runs
+ * that were given up on are pruned so that a backtest that did not cover all the data is never selected as the best.
+ */
+public class BacktestWorker implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BacktestWorker.class);
+
+    private static final String CONCURRENCY_PROPERTY = "algonexus.worker.concurrency";
+    private static final String LEASE_SECONDS_PROPERTY = "algonexus.worker.leaseSeconds";
+    private static final int DEFAULT_CONCURRENCY = 4; // The number of strategies a StrategyRunRequest lets run at once
+    private static final long DEFAULT_LEASE_SECONDS = 120;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long POLL_INTERVAL_MILLIS = 1000; // Time between checks of the queue while it is empty
+
+    private final EngineCoordinator engineCoordinator;
+    private final BacktestJobDAO backtestJobDAO;
+    private final BacktestResultDAO backtestResultDAO;
+    private final ParameterOptimizationDAO parameterOptimizationDAO;
+    private final String workerID;
+    private final Duration leaseDuration;
+    private final Semaphore slots;
+
+    private final Map<Integer, AbstractStrategy> activeJobs = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService leaseRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Backtest-Worker-Lease-Thread");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean running = false;
+    private volatile Thread workerThread;
+
+    public BacktestWorker(EngineCoordinator engineCoordinator, BacktestJobDAO backtestJobDAO, BacktestResultDAO backtestResultDAO,
+                          ParameterOptimizationDAO parameterOptimizationDAO, String workerID, int concurrency, Duration leaseDuration) {
+        this.engineCoordinator = engineCoordinator;
+        this.backtestJobDAO = backtestJobDAO;
+        this.backtestResultDAO = backtestResultDAO;
+        this.parameterOptimizationDAO = parameterOptimizationDAO;
+        this.workerID = workerID;
+        this.leaseDuration = leaseDuration;
+        this.slots = new Semaphore(concurrency);
+    }
+
+    /**
+     * Create a worker configured by the algonexus.worker.concurrency and algonexus.worker.leaseSeconds system properties.
+     * @param engineCoordinator EngineCoordinator that the backtests should run through. It must be using the backtester.
+     * @return BacktestWorker
+     */
+    public static BacktestWorker fromSystemProperties(EngineCoordinator engineCoordinator) {
+        int concurrency = Math.max(1, Integer.getInteger(CONCURRENCY_PROPERTY, DEFAULT_CONCURRENCY));
+        long leaseSeconds = Math.max(1, Long.getLong(LEASE_SECONDS_PROPERTY, DEFAULT_LEASE_SECONDS));
+        return new BacktestWorker(engineCoordinator, new BacktestJobDAO(), new BacktestResultDAO(), new ParameterOptimizationDAO(), createWorkerID(), concurrency, Duration.ofSeconds(leaseSeconds));
+    }
+
+    /**
+     * Leases and runs jobs until stopped. Should be called from a dedicated thread.
+     */
+    @Override
+    public void run() {
+        workerThread = Thread.currentThread();
+        running = true;
+        long renewMillis = Math.max(1, leaseDuration.toMillis() / 3);
+        leaseRenewer.scheduleAtFixedRate(this::renewLeases, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+        LOGGER.info("Backtest worker {} started.", workerID);
+
+        while(running) {
+            try {
+                slots.acquire();
+                BacktestJob backtestJob = null;
+                try {
+                    backtestJob = backtestJobDAO.leaseNextJob(workerID, leaseDuration, MAX_ATTEMPTS);
+                } catch (Exception e) {
+                    LOGGER.error("Backtest worker {} failed to lease a job.", workerID, e);
+                }
+                if(backtestJob == null) {
+                    slots.release();
+                    Thread.sleep(POLL_INTERVAL_MILLIS);
+                    continue;
+                }
+                startJob(backtestJob);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+
+        leaseRenewer.shutdownNow();
+        releaseActiveJobs();
+        LOGGER.info("Backtest worker {} stopped.", workerID);
+    }
+
+    /**
+     * Stops leasing new jobs. Jobs that are still running are stopped and given back to the queue.
+     */
+    public void stop() {
+        running = false;
+        Thread thread = workerThread;
+        if(thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Get the ID this worker leases jobs under.
+     * @return Worker ID.
+     */
+    public String getWorkerID() {
+        return workerID;
+    }
+
+    /**
+     * Start the backtest for a leased job. The slot the job holds is released once the backtest finishes.
+     * @param backtestJob Leased BacktestJob.
+     */
+    private void startJob(BacktestJob backtestJob) {
+        Integer backtestJobID = backtestJob.getBacktestJobID();
+        boolean registered = false;
+        try {
+            BacktestTimeRange timeRange = backtestJob.getDataStart() != null ? new BacktestTimeRange(backtestJob.getDataStart(), backtestJob.getDataEnd()) : null;
+            ParameterOptimization parameterOptimization = backtestJob.getParameterOptimization();
+            if(backtestJob.getAttempts() > 1 && parameterOptimization != null) {
+                // An earlier attempt may have left a partial BacktestResult behind if its worker died while running it
+                int pruned = backtestResultDAO.pruneBacktestResults(parameterOptimization.getParameterOptimizationID(),
+                        backtestJob.getStrategyParameterSet().getStrategyParameterSetID(), Timestamp.from(Instant.now()));
+                LOGGER.info("Backtest worker {} pruned {} BacktestResults left by earlier attempts at BacktestJob {}.", workerID, pruned, backtestJobID);
+            }
+            AbstractStrategy strategy = ParameterOptimizationService.createBacktestStrategy(engineCoordinator, backtestJob.getUser(), backtestJob.getStrategyParameterSet(),
+                    backtestJob.getStartingBalance(), timeRange, parameterOptimization);
+            activeJobs.put(backtestJobID, strategy);
+            registered = true;
+            strategy.getCompletionFuture().whenComplete((backtestResult, throwable) -> finishJob(backtestJobID, parameterOptimization, backtestResult, throwable));
+            engineCoordinator.submitRequest(new StrategyRunRequest(strategy));
+            LOGGER.info("Backtest worker {} started BacktestJob {}.", workerID, backtestJobID);
+        } catch (Exception e) {
+            // Unless the strategy has already finished the job, it will never run and the job has to be finished here
+            if(registered && activeJobs.remove(backtestJobID) == null) {
+                return;
+            }
+            if(e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                backtestJobDAO.releaseJob(backtestJobID, workerID);
+            } else {
+                LOGGER.error("Backtest worker {} failed to start BacktestJob {}.", workerID, backtestJobID, e);
+                backtestJobDAO.finishJob(backtestJobID, workerID, BacktestJobStatusEnum.FAILED, null);
+            }
+            slots.release();
+        }
+    }
+
+    /**
+     * Record the outcome of a job once its backtest has finished, and finish its ParameterOptimization if it was the
+     * last job of it.
+     */
+    private void finishJob(Integer backtestJobID, ParameterOptimization parameterOptimization, BacktestResult backtestResult, Throwable throwable) {
+        try {
+            if(activeJobs.remove(backtestJobID) == null) {
+                // The job was given back to the queue while stopping
+                pruneAbandonedResult(backtestResult);
+                return;
+            }
+            BacktestJobStatusEnum status = throwable == null && backtestResult != null ? BacktestJobStatusEnum.COMPLETED : BacktestJobStatusEnum.FAILED;
+            Integer backtestResultID = backtestResult != null ? backtestResult.getBacktestResultID() : null;
+            if(!backtestJobDAO.finishJob(backtestJobID, workerID, status, backtestResultID)) {
+                LOGGER.warn("Backtest worker {} lost the lease on BacktestJob {} before it finished.", workerID, backtestJobID);
+                pruneAbandonedResult(backtestResult);
+                return;
+            }
+            LOGGER.info("Backtest worker {} finished BacktestJob {} with status {}.", workerID, backtestJobID, status);
+
+            if(parameterOptimization != null && backtestJobDAO.countUnfinishedJobs(parameterOptimization.getParameterOptimizationID()) == 0) {
+                parameterOptimization.setEndTime(Timestamp.from(Instant.now()));
+                parameterOptimizationDAO.update(parameterOptimization);
+                LOGGER.info("ParameterOptimization {} finished.", parameterOptimization.getParameterOptimizationID());
+            }
+        } catch (Exception e) {
+            LOGGER.error("Backtest worker {} failed to finish BacktestJob {}.", workerID, backtestJobID, e);
+        } finally {
+            slots.release();
+        }
+    }
+
+    /**
+     * Prune the BacktestResult of a job that this worker gave up on, since the job is run again from the start by
+     * whichever worker leases it next.
+     * @param backtestResult BacktestResult of the abandoned run, or null if it did not produce one.
+     */
+    private void pruneAbandonedResult(BacktestResult backtestResult) {
+        if(backtestResult == null || backtestResult.getBacktestResultID() == null) {
+            return;
+        }
+        backtestResult.setPruned(true);
+        backtestResult.setPrunedAt(Timestamp.from(Instant.now()));
+        backtestResultDAO.update(backtestResult);
+        LOGGER.info("Backtest worker {} pruned abandoned BacktestResult {}.", workerID, backtestResult.getBacktestResultID());
+    }
+
+    /**
+     * Renew the leases of the jobs that are running. A job whose lease has been lost is being run by another worker, so
+     * its backtest is stopped.
+     */
+    private void renewLeases() {
+        for(Map.Entry<Integer, AbstractStrategy> activeJob : activeJobs.entrySet()) {
+            try {
+                if(!backtestJobDAO.renewLease(activeJob.getKey(), workerID, leaseDuration)) {
+                    LOGGER.warn("Backtest worker {} lost the lease on BacktestJob {}, stopping it.", workerID, activeJob.getKey());
+                    if(activeJob.getValue().isRunning()) {
+                        activeJob.getValue().stop();
+                    }
+                }
+            } catch (Exception e) {
+                LOGGER.error("Backtest worker {} failed to renew the lease on BacktestJob {}.", workerID, activeJob.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * Give every running job back to the queue and stop its backtest.
+     */
+    private void releaseActiveJobs() {
+        for(Integer backtestJobID : activeJobs.keySet()) {
+            AbstractStrategy strategy = activeJobs.remove(backtestJobID);
+            if(strategy == null) {
+                continue;
+            }
+            try {
+                backtestJobDAO.releaseJob(backtestJobID, workerID);
+            } catch (Exception e) {
+                LOGGER.error("Backtest worker {} failed to release BacktestJob {}.", workerID, backtestJobID, e);
+            }
+            if(strategy.isRunning()) {
+                strategy.stop();
+            }
+        }
+    }
+
+    /**
+     * Create an ID that is unique to this process across every machine sharing the queue.
+     * @return Worker ID made of the host name and process ID.
+     */
+    private static String createWorkerID() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
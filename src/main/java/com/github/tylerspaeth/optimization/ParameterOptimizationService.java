@@ -0,0 +1,218 @@
+package com.github.tylerspaeth.optimization;
+
+import com.github.tylerspaeth.broker.backtester.BacktestTimeRange;
+import com.github.tylerspaeth.broker.backtester.BacktesterDataFeedService;
+import com.github.tylerspaeth.common.data.dao.BacktestJobDAO;
+import com.github.tylerspaeth.common.data.dao.BacktestResultDAO;
+import com.github.tylerspaeth.common.data.dao.ParameterOptimizationDAO;
+import com.github.tylerspaeth.common.data.dao.TradeDAO;
+import com.github.tylerspaeth.common.data.entity.BacktestJob;
+import com.github.tylerspaeth.common.data.entity.BacktestResult;
+import com.github.tylerspaeth.common.data.entity.ParameterOptimization;
+import com.github.tylerspaeth.common.data.entity.StrategyParameterSet;
+import com.github.tylerspaeth.common.data.entity.User;
+import com.github.tylerspaeth.common.enums.BacktestJobStatusEnum;
+import com.github.tylerspaeth.common.enums.OptimizationMetricEnum;
+import com.github.tylerspaeth.engine.EngineCoordinator;
+import com.github.tylerspaeth.engine.request.StrategyRunRequest;
+import com.github.tylerspaeth.statistics.StatisticsUtils;
+import com.github.tylerspaeth.strategy.AbstractStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Service for running many parameter sets of a strategy as backtests under a single ParameterOptimization.
+ */
+public class ParameterOptimizationService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParameterOptimizationService.class);
+
+    private final ParameterOptimizationDAO parameterOptimizationDAO;
+    private final BacktestResultDAO backtestResultDAO;
+    private final TradeDAO tradeDAO;
+    private final BacktestJobDAO backtestJobDAO;
+
+    public ParameterOptimizationService(ParameterOptimizationDAO parameterOptimizationDAO, BacktestResultDAO backtestResultDAO, TradeDAO tradeDAO,
+                                        BacktestJobDAO backtestJobDAO) {
+        this.parameterOptimizationDAO = parameterOptimizationDAO;
+        this.backtestResultDAO = backtestResultDAO;
+        this.tradeDAO = tradeDAO;
+        this.backtestJobDAO = backtestJobDAO;
+    }
+
+    /**
+     * Run a backtest for every provided parameter set, stopping the ones that fall behind according to the pruning
+     * schedule. Pruned backtests keep the orders they placed and are marked with where they were stopped and their
+     * metric at that point.
+     * @param engineCoordinator EngineCoordinator that the backtests should run through. It must be using the backtester.
+     * @param user User that initiated the optimization.
+     * @param strategyParameterSets StrategyParameterSets to test, all for the same strategy.
+     * @param startingBalance Starting account balance for every backtest.
+     * @param metric OptimizationMetricEnum that the parameter sets are ranked by.
+     * @param pruningSchedule PruningSchedule to follow.
+     * @return Future that completes with the ParameterOptimization once every backtest has finished or been pruned.
+     */
+    public CompletableFuture<ParameterOptimization> runOptimization(EngineCoordinator engineCoordinator, User user, List<StrategyParameterSet> strategyParameterSets,
+                                                                    Float startingBalance, OptimizationMetricEnum metric, PruningSchedule pruningSchedule) {
+        return runOptimization(engineCoordinator, user, strategyParameterSets, startingBalance, metric, pruningSchedule, null);
+    }
+
+    /**
+     * Run a backtest for every provided parameter set over a range of time, stopping the ones that fall behind according
+     * to the pruning schedule. Rungs of the pruning schedule are fractions of the time range rather than the whole dataset.
+     * @param engineCoordinator EngineCoordinator that the backtests should run through. It must be using the backtester.
+     * @param user User that initiated the optimization.
+     * @param strategyParameterSets StrategyParameterSets to test, all for the same strategy.
+     * @param startingBalance Starting account balance for every backtest.
+     * @param metric OptimizationMetricEnum that the parameter sets are ranked by.
+     * @param pruningSchedule PruningSchedule to follow.
+     * @param timeRange BacktestTimeRange the backtests are limited to, or null to use all the data.
+     * @return Future that completes with the ParameterOptimization once every backtest has finished or been pruned.
+     */
+    public CompletableFuture<ParameterOptimization> runOptimization(EngineCoordinator engineCoordinator, User user, List<StrategyParameterSet> strategyParameterSets,
+                                                                    Float startingBalance, OptimizationMetricEnum metric, PruningSchedule pruningSchedule,
+                                                                    BacktestTimeRange timeRange) {
+        ParameterOptimization parameterOptimization = new ParameterOptimization();
+        parameterOptimization.setStartTime(Timestamp.from(Instant.now()));
+        parameterOptimization.setMetric(metric);
+        ParameterOptimization persistedParameterOptimization = parameterOptimizationDAO.update(parameterOptimization);
+
+        List<AbstractStrategy> candidates = new ArrayList<>();
+        for(StrategyParameterSet strategyParameterSet : strategyParameterSets) {
+            try {
+                candidates.add(createBacktestStrategy(engineCoordinator, user, strategyParameterSet, startingBalance, timeRange, persistedParameterOptimization));
+            } catch (Exception e) {
+                LOGGER.error("Failed to create a strategy for StrategyParameterSet {} in ParameterOptimization {}.", strategyParameterSet, persistedParameterOptimization.getParameterOptimizationID(), e);
+            }
+        }
+
+        BacktesterDataFeedService backtesterDataFeedService = engineCoordinator.getBacktesterDataFeedService();
+        SuccessiveHalvingPruner pruner = new SuccessiveHalvingPruner(tradeDAO, candidates, metric, pruningSchedule);
+        backtesterDataFeedService.addProgressListener(pruner);
+
+        // A candidate that is never run would never complete its future, so it is failed instead to let the optimization finish
+        Iterator<AbstractStrategy> unsubmitted = candidates.iterator();
+        while(unsubmitted.hasNext()) {
+            AbstractStrategy candidate = unsubmitted.next();
+            try {
+                engineCoordinator.submitRequest(new StrategyRunRequest(candidate));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.error("Interrupted while submitting ParameterOptimization {}.", persistedParameterOptimization.getParameterOptimizationID(), e);
+                candidate.getCompletionFuture().completeExceptionally(e);
+                unsubmitted.forEachRemaining(remaining -> remaining.getCompletionFuture().completeExceptionally(e));
+            } catch (ExecutionException | RuntimeException e) {
+                LOGGER.error("Failed to submit a candidate of ParameterOptimization {}.", persistedParameterOptimization.getParameterOptimizationID(), e);
+                candidate.getCompletionFuture().completeExceptionally(e);
+            }
+        }
+
+        return CompletableFuture.allOf(candidates.stream().map(AbstractStrategy::getCompletionFuture).toArray(CompletableFuture[]::new))
+                .handle((_, throwable) -> {
+                    backtesterDataFeedService.removeProgressListener(pruner);
+                    if(throwable != null) {
+                        LOGGER.error("ParameterOptimization {} finished with failures.", persistedParameterOptimization.getParameterOptimizationID(), throwable);
+                    }
+                    persistedParameterOptimization.setEndTime(Timestamp.from(Instant.now()));
+                    LOGGER.info("ParameterOptimization {} finished.", persistedParameterOptimization.getParameterOptimizationID());
+                    return parameterOptimizationDAO.update(persistedParameterOptimization);
+                });
+    }
+
+    /**
+     * Add a backtest for every provided parameter set to the shared work queue under a new ParameterOptimization, to be
+     * run by BacktestWorkers in any number of processes. Queued backtests are not pruned since their progress is not
+     * visible to this process. The last worker to finish a backtest sets the end time of the ParameterOptimization.
+     * @param user User that initiated the optimization.
+     * @param strategyParameterSets StrategyParameterSets to test, all for the same strategy.
+     * @param startingBalance Starting account balance for every backtest.
+     * @param metric OptimizationMetricEnum that the parameter sets are ranked by.
+     * @param timeRange BacktestTimeRange the backtests are limited to, or null to use all the data.
+     * @return ParameterOptimization the backtests were queued under.
+     */
+    public ParameterOptimization queueOptimization(User user, List<StrategyParameterSet> strategyParameterSets, Float startingBalance,
+                                                   OptimizationMetricEnum metric, BacktestTimeRange timeRange) {
+        Timestamp now = Timestamp.from(Instant.now());
+        ParameterOptimization parameterOptimization = new ParameterOptimization();
+        parameterOptimization.setStartTime(now);
+        parameterOptimization.setMetric(metric);
+        ParameterOptimization persistedParameterOptimization = parameterOptimizationDAO.update(parameterOptimization);
+
+        List<BacktestJob> backtestJobs = new ArrayList<>();
+        for(StrategyParameterSet strategyParameterSet : strategyParameterSets) {
+            BacktestJob backtestJob = new BacktestJob();
+            backtestJob.setStrategyParameterSet(strategyParameterSet);
+            backtestJob.setUser(user);
+            backtestJob.setStartingBalance(startingBalance);
+            backtestJob.setParameterOptimization(persistedParameterOptimization);
+            backtestJob.setStatus(BacktestJobStatusEnum.PENDING);
+            backtestJob.setCreatedAt(now);
+            if(timeRange != null) {
+                backtestJob.setDataStart(timeRange.start());
+                backtestJob.setDataEnd(timeRange.end());
+            }
+            backtestJobs.add(backtestJob);
+        }
+        backtestJobDAO.insertAll(backtestJobs);
+        LOGGER.info("Queued {} backtests for ParameterOptimization {}.", backtestJobs.size(), persistedParameterOptimization.getParameterOptimizationID());
+        return persistedParameterOptimization;
+    }
+
+    /**
+     * Find the best BacktestResult of a finished ParameterOptimization. Pruned BacktestResults are never selected
+     * since they did not run over all the data.
+     * @param parameterOptimization Finished ParameterOptimization.
+     * @return BacktestResult with the largest value of the ParameterOptimization's metric, or null if there are none.
+     */
+    public BacktestResult selectBestBacktestResult(ParameterOptimization parameterOptimization) {
+        BacktestResult bestBacktestResult = null;
+        float bestValue = -Float.MAX_VALUE;
+        for(BacktestResult backtestResult : backtestResultDAO.getBacktestResultsByParameterOptimizationID(parameterOptimization.getParameterOptimizationID())) {
+            if(backtestResult.isPruned()) {
+                continue;
+            }
+            float value = StatisticsUtils.calculateOptimizationMetric(tradeDAO.getTradesForBacktestResult(backtestResult.getBacktestResultID()), parameterOptimization.getMetric());
+            if(bestBacktestResult == null || value > bestValue) {
+                bestBacktestResult = backtestResult;
+                bestValue = value;
+            }
+        }
+        return bestBacktestResult;
+    }
+
+    /**
+     * Create a strategy that will run a backtest with a new BacktestResult.
+     * @param engineCoordinator EngineCoordinator that the backtest should run through.
+     * @param user User that initiated the backtest.
+     * @param strategyParameterSet StrategyParameterSet to run the backtest with.
+     * @param startingBalance Starting account balance.
+     * @param timeRange BacktestTimeRange the backtest is limited to, or null to use all the data.
+     * @param parameterOptimization ParameterOptimization the backtest is a part of, or null if it is not part of one.
+     * @return AbstractStrategy ready to be run.
+     * @throws ReflectiveOperationException If the strategy class can not be constructed.
+     */
+    static AbstractStrategy createBacktestStrategy(EngineCoordinator engineCoordinator, User user, StrategyParameterSet strategyParameterSet, Float startingBalance,
+                                                   BacktestTimeRange timeRange, ParameterOptimization parameterOptimization) throws ReflectiveOperationException {
+        Constructor<? extends AbstractStrategy> strategyClassConstructor = AbstractStrategy.getConstructorForClass(strategyParameterSet.getStrategy().getStrategyID(), true);
+        BacktestResult backtestResult = new BacktestResult();
+        backtestResult.setStartingBalance(startingBalance);
+        backtestResult.setStrategyParameterSet(strategyParameterSet);
+        backtestResult.setParameterOptimization(parameterOptimization);
+        if(timeRange != null) {
+            backtestResult.setDataStart(timeRange.start());
+            backtestResult.setDataEnd(timeRange.end());
+        }
+        AbstractStrategy strategy = strategyClassConstructor.newInstance(strategyParameterSet, user, backtestResult);
+        strategy.setEngineCoordinator(engineCoordinator);
+        return strategy;
+    }
+}
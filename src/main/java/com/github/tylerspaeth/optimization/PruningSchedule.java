@@ -0,0 +1,59 @@
+package com.github.tylerspaeth.optimization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes when the candidates of a parameter optimization are compared and how many of them are stopped at each
+ * comparison.
+ * @param rungs Fractions of the dataset, in increasing order, at which candidates are compared.
+ * @param pruneFraction Fraction of the candidates at a rung that are stopped, from 0 to 1.
+ * @param minCandidatesPerRung Number of candidates that must have reached a rung before any are stopped at it.
+ */
+public record PruningSchedule(List<Float> rungs, float pruneFraction, int minCandidatesPerRung) {
+
+    private static final int DEFAULT_MIN_CANDIDATES_PER_RUNG = 3;
+
+    public PruningSchedule {
+        if(pruneFraction < 0 || pruneFraction >= 1) {
+            throw new IllegalArgumentException("pruneFraction must be at least 0 and less than 1.");
+        }
+        for(int i = 0; i < rungs.size(); i++) {
+            if(rungs.get(i) <= 0 || rungs.get(i) > 1 || (i > 0 && rungs.get(i) <= rungs.get(i - 1))) {
+                throw new IllegalArgumentException("rungs must be increasing fractions between 0 and 1.");
+            }
+        }
+        rungs = List.copyOf(rungs);
+    }
+
+    /**
+     * Creates a successive halving style schedule. The first rung is at firstRungFraction of the dataset and every rung
+     * after it is further along by the factor needed to keep the same amount of work per rung as candidates are stopped.
+     * For example a firstRungFraction of 0.1 and a pruneFraction of 0.5 gives rungs at 10%, 20%, 40% and 80%.
+     * @param firstRungFraction Fraction of the dataset every candidate runs before the first comparison.
+     * @param pruneFraction Fraction of the candidates at a rung that are stopped.
+     * @return PruningSchedule
+     */
+    public static PruningSchedule successiveHalving(float firstRungFraction, float pruneFraction) {
+        if(firstRungFraction <= 0 || firstRungFraction > 1) {
+            throw new IllegalArgumentException("firstRungFraction must be greater than 0 and at most 1.");
+        }
+
+        List<Float> rungs = new ArrayList<>();
+        if(pruneFraction > 0) {
+            float growthFactor = 1 / (1 - pruneFraction);
+            for(float rung = firstRungFraction; rung < 1; rung *= growthFactor) {
+                rungs.add(rung);
+            }
+        }
+        return new PruningSchedule(rungs, pruneFraction, DEFAULT_MIN_CANDIDATES_PER_RUNG);
+    }
+
+    /**
+     * A schedule that never stops any candidates.
+     * @return PruningSchedule
+     */
+    public static PruningSchedule none() {
+        return new PruningSchedule(List.of(), 0, DEFAULT_MIN_CANDIDATES_PER_RUNG);
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.tylerspaeth.optimization;
+
+import com.github.tylerspaeth.broker.backtester.BacktesterDataFeedKey;
+import com.github.tylerspaeth.broker.backtester.IBacktestProgressListener;
+import com.github.tylerspaeth.common.data.dao.TradeDAO;
+import com.github.tylerspaeth.common.data.entity.BacktestResult;
+import com.github.tylerspaeth.common.enums.OptimizationMetricEnum;
+import com.github.tylerspaeth.statistics.StatisticsUtils;
+import com.github.tylerspaeth.strategy.AbstractStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Follows the progress of the candidates in a parameter optimization and stops the ones that fall behind. Each time a
+ * candidate reaches a rung of the PruningSchedule its metric is compared against every other candidate that has
+ * reached that rung, and it is stopped if it is in the bottom fraction. Candidates do not wait on each other, so this
+ * works with any number of candidates regardless of how many strategies can run at once.
+ */
+class SuccessiveHalvingPruner implements IBacktestProgressListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SuccessiveHalvingPruner.class);
+
+    private final TradeDAO tradeDAO;
+
+    private final List<AbstractStrategy> candidates;
+    private final OptimizationMetricEnum metric;
+    private final PruningSchedule pruningSchedule;
+
+    private final Map<Long, AbstractStrategy> candidatesByThreadID = new ConcurrentHashMap<>();
+    private final Set<Long> ignoredThreadIDs = ConcurrentHashMap.newKeySet();
+    private final Map<AbstractStrategy, Integer> nextRungs = new ConcurrentHashMap<>();
+    private final List<List<Float>> rungResults = new ArrayList<>();
+
+    SuccessiveHalvingPruner(TradeDAO tradeDAO, List<AbstractStrategy> candidates, OptimizationMetricEnum metric, PruningSchedule pruningSchedule) {
+        this.tradeDAO = tradeDAO;
+        this.candidates = List.copyOf(candidates);
+        this.metric = metric;
+        this.pruningSchedule = pruningSchedule;
+        for(int i = 0; i < pruningSchedule.rungs().size(); i++) {
+            rungResults.add(new ArrayList<>());
+        }
+    }
+
+    @Override
+    public void onProgress(BacktesterDataFeedKey mapKey, Timestamp currentTimestamp, float progress) {
+        AbstractStrategy candidate = findCandidate(mapKey.threadID());
+        if(candidate == null) {
+            return;
+        }
+
+        int rung = nextRungs.getOrDefault(candidate, 0);
+        if(rung >= pruningSchedule.rungs().size() || progress < pruningSchedule.rungs().get(rung)) {
+            return;
+        }
+        nextRungs.put(candidate, rung + 1);
+
+        BacktestResult backtestResult = candidate.getBacktestResult();
+        float value = StatisticsUtils.calculateOptimizationMetric(tradeDAO.getTradesForBacktestResult(backtestResult.getBacktestResultID()), metric);
+
+        boolean prune;
+        synchronized (rungResults) {
+            List<Float> results = rungResults.get(rung);
+            results.add(value);
+            prune = shouldPrune(results, value, pruningSchedule);
+        }
+
+        if(prune) {
+            LOGGER.info("Pruning BacktestResult {} at {} with {} of {}.", backtestResult.getBacktestResultID(), currentTimestamp, metric, value);
+            nextRungs.put(candidate, Integer.MAX_VALUE);
+            candidate.updateBacktestResult(result -> {
+                result.setPruned(true);
+                result.setPrunedAt(currentTimestamp);
+                result.setPrunedMetricValue(value);
+            });
+            candidate.stop();
+        }
+    }
+
+    /**
+     * Find the candidate that is running on the given thread.
+     * @param threadID ID of the thread that read from a data feed.
+     * @return AbstractStrategy or null if the thread does not belong to a candidate.
+     */
+    private AbstractStrategy findCandidate(long threadID) {
+        AbstractStrategy candidate = candidatesByThreadID.get(threadID);
+        if(candidate != null || ignoredThreadIDs.contains(threadID)) {
+            return candidate;
+        }
+
+        for(AbstractStrategy strategy : candidates) {
+            Long runningThreadID = strategy.getRunningThreadID();
+            if(runningThreadID != null && runningThreadID == threadID) {
+                candidatesByThreadID.put(threadID, strategy);
+                return strategy;
+            }
+        }
+
+        // Thread IDs are never reused, so a thread that does not belong to a candidate never will
+        ignoredThreadIDs.add(threadID);
+        return null;
+    }
+
+    /**
+     * Determine whether a candidate should be stopped based on the results of every candidate that has reached the same rung.
+     * @param results Metric values of every candidate that has reached the rung, including the one being checked.
+     * @param value Metric value of the candidate being checked.
+     * @param pruningSchedule PruningSchedule being followed.
+     * @return true if the candidate is in the bottom pruneFraction of the results, false otherwise.
+     */
+    static boolean shouldPrune(List<Float> results, float value, PruningSchedule pruningSchedule) {
+        if(results.size() < pruningSchedule.minCandidatesPerRung()) {
+            return false;
+        }
+        long betterResults = results.stream().filter(result -> result > value).count();
+        return betterResults >= Math.ceil(results.size() * (1 - pruningSchedule.pruneFraction()));
+    }
+}
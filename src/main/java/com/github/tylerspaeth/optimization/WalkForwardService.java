@@ -0,0 +1,173 @@
+package com.github.tylerspaeth.optimization;
+
+import com.github.tylerspaeth.broker.backtester.BacktestTimeRange;
+import com.github.tylerspaeth.broker.backtester.BacktesterDataFeedService;
+import com.github.tylerspaeth.common.data.dao.ParameterOptimizationDAO;
+import com.github.tylerspaeth.common.data.entity.*;
+import com.github.tylerspaeth.common.enums.OptimizationMetricEnum;
+import com.github.tylerspaeth.engine.EngineCoordinator;
+import com.github.tylerspaeth.engine.request.StrategyRunRequest;
+import com.github.tylerspaeth.strategy.AbstractStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Service for running walk-forward analysis. The dataset is split into windows, and for each window the parameter sets
+ * are optimized on an in-sample range and the best one is then backtested on the out-of-sample range that follows it.
+ * Each window is a ParameterOptimization whose out-of-sample BacktestResult is linked to it.
+ */
+public class WalkForwardService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WalkForwardService.class);
+
+    // Submitting backtests blocks while the engine's request queue is full, so it is kept off of the common pool
+    private static final ExecutorService WALK_FORWARD_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "walk-forward");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ParameterOptimizationService parameterOptimizationService;
+    private final ParameterOptimizationDAO parameterOptimizationDAO;
+    private final Executor executor;
+
+    public WalkForwardService(ParameterOptimizationService parameterOptimizationService, ParameterOptimizationDAO parameterOptimizationDAO) {
+        this(parameterOptimizationService, parameterOptimizationDAO, WALK_FORWARD_EXECUTOR);
+    }
+
+    /**
+     * For creating a WalkForwardService with the executor provided. This should NOT be used for anything other than testing.
+     */
+    WalkForwardService(ParameterOptimizationService parameterOptimizationService, ParameterOptimizationDAO parameterOptimizationDAO, Executor executor) {
+        this.parameterOptimizationService = parameterOptimizationService;
+        this.parameterOptimizationDAO = parameterOptimizationDAO;
+        this.executor = executor;
+    }
+
+    /**
+     * Run walk-forward analysis across a HistoricalDataset. The dataset is loaded into memory once and shared by every
+     * backtest. Windows are run one after another, with the parameter sets of each window running in parallel as far as
+     * the engine allows.
+     * @param engineCoordinator EngineCoordinator that the backtests should run through. It must be using the backtester.
+     * @param user User that initiated the analysis.
+     * @param strategyParameterSets StrategyParameterSets to optimize, all for the same strategy.
+     * @param historicalDataset HistoricalDataset to walk forward through.
+     * @param inSampleLength Length of the range that the parameter sets are optimized on.
+     * @param outOfSampleLength Length of the range that the best parameter set is evaluated on. Windows step forward by this much.
+     * @param startingBalance Starting account balance for every backtest.
+     * @param metric OptimizationMetricEnum that the parameter sets are ranked by.
+     * @param pruningSchedule PruningSchedule to follow while optimizing each window.
+     * @return Future that completes with the ParameterOptimization of every window once all have been evaluated.
+     */
+    public CompletableFuture<List<ParameterOptimization>> runWalkForward(EngineCoordinator engineCoordinator, User user, List<StrategyParameterSet> strategyParameterSets,
+                                                                         HistoricalDataset historicalDataset, Duration inSampleLength, Duration outOfSampleLength,
+                                                                         Float startingBalance, OptimizationMetricEnum metric, PruningSchedule pruningSchedule) {
+        List<WalkForwardWindow> windows = createWindows(historicalDataset.getDatasetStart(), historicalDataset.getDatasetEnd(), inSampleLength, outOfSampleLength);
+        if(windows.isEmpty()) {
+            LOGGER.error("HistoricalDataset {} is not long enough for a single walk-forward window.", historicalDataset);
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        BacktesterDataFeedService backtesterDataFeedService = engineCoordinator.getBacktesterDataFeedService();
+
+        // Loading the dataset can take a while, so it is done off of the calling thread
+        CompletableFuture<List<ParameterOptimization>> results = CompletableFuture.runAsync(() -> backtesterDataFeedService.preloadHistoricalDataset(historicalDataset), executor)
+                .thenApply(_ -> new ArrayList<>());
+        // Each window only starts once the one before it has finished, so only one window's backtests are queued at a time
+        for(WalkForwardWindow window : windows) {
+            results = results.thenComposeAsync(parameterOptimizations ->
+                    parameterOptimizationService.runOptimization(engineCoordinator, user, strategyParameterSets, startingBalance, metric, pruningSchedule, window.inSample())
+                            .thenComposeAsync(parameterOptimization -> runOutOfSample(engineCoordinator, user, parameterOptimization, window.outOfSample(), startingBalance), executor)
+                            .thenApply(parameterOptimization -> {
+                                parameterOptimizations.add(parameterOptimization);
+                                return parameterOptimizations;
+                            }), executor);
+        }
+
+        return results.whenComplete((_, throwable) -> {
+            backtesterDataFeedService.releaseHistoricalDataset(historicalDataset);
+            if(throwable != null) {
+                LOGGER.error("Walk-forward analysis of HistoricalDataset {} failed.", historicalDataset, throwable);
+            } else {
+                LOGGER.info("Walk-forward analysis of HistoricalDataset {} finished with {} windows.", historicalDataset, windows.size());
+            }
+        });
+    }
+
+    /**
+     * Backtest the best parameter set of an optimized window on its out-of-sample range.
+     * @param engineCoordinator EngineCoordinator that the backtest should run through.
+     * @param user User that initiated the analysis.
+     * @param parameterOptimization Finished ParameterOptimization of the in-sample range.
+     * @param outOfSample BacktestTimeRange to evaluate on.
+     * @param startingBalance Starting account balance.
+     * @return Future that completes with the ParameterOptimization once its out-of-sample BacktestResult is linked.
+     */
+    private CompletableFuture<ParameterOptimization> runOutOfSample(EngineCoordinator engineCoordinator, User user, ParameterOptimization parameterOptimization,
+                                                                    BacktestTimeRange outOfSample, Float startingBalance) {
+        BacktestResult bestBacktestResult = parameterOptimizationService.selectBestBacktestResult(parameterOptimization);
+        if(bestBacktestResult == null) {
+            LOGGER.warn("ParameterOptimization {} has no BacktestResult to evaluate out of sample.", parameterOptimization.getParameterOptimizationID());
+            return CompletableFuture.completedFuture(parameterOptimization);
+        }
+
+        try {
+            AbstractStrategy strategy = ParameterOptimizationService.createBacktestStrategy(engineCoordinator, user, bestBacktestResult.getStrategyParameterSet(), startingBalance, outOfSample, null);
+            engineCoordinator.submitRequest(new StrategyRunRequest(strategy));
+            return strategy.getCompletionFuture().thenApply(outOfSampleBacktestResult -> {
+                parameterOptimization.setOutOfSampleBacktestResult(outOfSampleBacktestResult);
+                return parameterOptimizationDAO.update(parameterOptimization);
+            });
+        } catch (Exception e) {
+            LOGGER.error("Failed to run the out of sample backtest for ParameterOptimization {}.", parameterOptimization.getParameterOptimizationID(), e);
+            return CompletableFuture.completedFuture(parameterOptimization);
+        }
+    }
+
+    /**
+     * Split a range of time into walk-forward windows. Each window's out-of-sample range directly follows its in-sample
+     * range, and each window starts one out-of-sample length after the previous one. Only complete windows are created.
+     * @param start Start of the data.
+     * @param end End of the data.
+     * @param inSampleLength Length of each in-sample range.
+     * @param outOfSampleLength Length of each out-of-sample range.
+     * @return List of WalkForwardWindows in order.
+     */
+    static List<WalkForwardWindow> createWindows(Timestamp start, Timestamp end, Duration inSampleLength, Duration outOfSampleLength) {
+        if(start == null || end == null || inSampleLength.isNegative() || inSampleLength.isZero() || outOfSampleLength.isNegative() || outOfSampleLength.isZero()) {
+            return List.of();
+        }
+
+        List<WalkForwardWindow> windows = new ArrayList<>();
+        Instant windowStart = start.toInstant();
+        Instant dataEnd = end.toInstant();
+        while(true) {
+            Instant inSampleEnd = windowStart.plus(inSampleLength);
+            Instant outOfSampleEnd = inSampleEnd.plus(outOfSampleLength);
+            if(outOfSampleEnd.isAfter(dataEnd)) {
+                break;
+            }
+            windows.add(new WalkForwardWindow(new BacktestTimeRange(Timestamp.from(windowStart), Timestamp.from(inSampleEnd)),
+                                              new BacktestTimeRange(Timestamp.from(inSampleEnd), Timestamp.from(outOfSampleEnd))));
+            windowStart = windowStart.plus(outOfSampleLength);
+        }
+        return windows;
+    }
+
+    /**
+     * A single window of a walk-forward analysis.
+     * @param inSample BacktestTimeRange that parameter sets are optimized on.
+     * @param outOfSample BacktestTimeRange that the best parameter set is evaluated on.
+     */
+    record WalkForwardWindow(BacktestTimeRange inSample, BacktestTimeRange outOfSample) {}
+}
@@ -0,0 +1,176 @@
+package com.github.tylerspaeth.statistics;
+
+import com.github.tylerspaeth.common.enums.ResamplingMethodEnum;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Resamples the trades of a completed backtest into many simulated trade sequences to get the distributions of its
+ * statistics without running the backtest again. Paths are simulated in parallel and each one is seeded from its index,
+ * so the results only depend on the seed and not on how the work was split between threads.
+ */
+public class MonteCarloSimulator {
+
+    private static final int PATHS_PER_TASK = 64;
+    private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Simulate resampled sequences of trades.
+     * @param tradePnLs PnL of each trade in the order they happened, as returned by StatisticsUtils.calculateTradePnLs.
+     * @param startingBalance Account balance before the first trade.
+     * @param numPaths Number of sequences to simulate.
+     * @param resamplingMethod ResamplingMethodEnum to build each sequence with.
+     * @param seed Seed for the random number generator.
+     * @return MonteCarloResult with the distributions of every statistic.
+     */
+    public static MonteCarloResult simulate(double[] tradePnLs, double startingBalance, int numPaths, ResamplingMethodEnum resamplingMethod, long seed) {
+        if(numPaths <= 0) {
+            throw new IllegalArgumentException("numPaths must be greater than 0.");
+        }
+
+        double[] finalPnLs = new double[numPaths];
+        double[] maxDrawdowns = new double[numPaths];
+        double[] sharpeRatios = new double[numPaths];
+
+        // Paths are handed out in groups so that each group can reuse one buffer for its sequences
+        int numTasks = (numPaths + PATHS_PER_TASK - 1) / PATHS_PER_TASK;
+        IntStream.range(0, numTasks).parallel().forEach(task -> {
+            double[] sequence = new double[tradePnLs.length];
+            int lastPath = Math.min(numPaths, (task + 1) * PATHS_PER_TASK);
+            for(int path = task * PATHS_PER_TASK; path < lastPath; path++) {
+                SplittableRandom random = new SplittableRandom(seed + path * SEED_INCREMENT);
+                resample(tradePnLs, sequence, resamplingMethod, random);
+                simulatePath(sequence, startingBalance, path, finalPnLs, maxDrawdowns, sharpeRatios);
+            }
+        });
+
+        return new MonteCarloResult(numPaths, tradePnLs.length, new Distribution(finalPnLs), new Distribution(maxDrawdowns), new Distribution(sharpeRatios));
+    }
+
+    /**
+     * Fill a buffer with a resampled sequence of trades.
+     * @param tradePnLs PnL of each trade.
+     * @param sequence Buffer of the same length to fill.
+     * @param resamplingMethod ResamplingMethodEnum to use.
+     * @param random Random number generator for the path.
+     */
+    private static void resample(double[] tradePnLs, double[] sequence, ResamplingMethodEnum resamplingMethod, SplittableRandom random) {
+        switch (resamplingMethod) {
+            case BOOTSTRAP -> {
+                for(int i = 0; i < sequence.length; i++) {
+                    sequence[i] = tradePnLs[random.nextInt(tradePnLs.length)];
+                }
+            }
+            case SHUFFLE -> {
+                // Fisher-Yates shuffle
+                System.arraycopy(tradePnLs, 0, sequence, 0, tradePnLs.length);
+                for(int i = sequence.length - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    double temp = sequence[i];
+                    sequence[i] = sequence[j];
+                    sequence[j] = temp;
+                }
+            }
+        }
+    }
+
+    /**
+     * Walk the equity curve of a sequence of trades and record its statistics.
+     * @param sequence PnL of each trade in the simulated order.
+     * @param startingBalance Account balance before the first trade.
+     * @param path Index to record the statistics at.
+     * @param finalPnLs Final PnL of each path.
+     * @param maxDrawdowns Largest drop from a peak in equity of each path.
+     * @param sharpeRatios Sharpe ratio of the per trade returns of each path.
+     */
+    private static void simulatePath(double[] sequence, double startingBalance, int path, double[] finalPnLs, double[] maxDrawdowns, double[] sharpeRatios) {
+        double equity = startingBalance;
+        double peakEquity = startingBalance;
+        double maxDrawdown = 0;
+        double returnSum = 0;
+        double returnSumOfSquares = 0;
+        int numReturns = 0;
+
+        for(double tradePnL : sequence) {
+            if(equity > 0) {
+                double tradeReturn = tradePnL / equity;
+                returnSum += tradeReturn;
+                returnSumOfSquares += tradeReturn * tradeReturn;
+                numReturns++;
+            }
+
+            equity += tradePnL;
+            peakEquity = Math.max(peakEquity, equity);
+            maxDrawdown = Math.max(maxDrawdown, peakEquity - equity);
+        }
+
+        finalPnLs[path] = equity - startingBalance;
+        maxDrawdowns[path] = maxDrawdown;
+
+        if(numReturns > 0) {
+            double mean = returnSum / numReturns;
+            double variance = returnSumOfSquares / numReturns - mean * mean;
+            sharpeRatios[path] = variance > 0 ? mean / Math.sqrt(variance) : 0;
+        }
+    }
+
+    /**
+     * Results of a Monte Carlo simulation.
+     * @param numPaths Number of paths that were simulated.
+     * @param numTrades Number of trades in each path.
+     * @param finalPnL Distribution of the PnL at the end of each path.
+     * @param maxDrawdown Distribution of the largest drop from a peak in equity of each path.
+     * @param sharpeRatio Distribution of the Sharpe ratio of the per trade returns of each path. This is not annualized.
+     */
+    public record MonteCarloResult(int numPaths, int numTrades, Distribution finalPnL, Distribution maxDrawdown, Distribution sharpeRatio) {}
+
+    /**
+     * Sorted values of a statistic across every simulated path.
+     */
+    public static class Distribution {
+
+        private final double[] sortedValues;
+
+        Distribution(double[] values) {
+            sortedValues = values.clone();
+            Arrays.parallelSort(sortedValues);
+        }
+
+        /**
+         * Get the value below which a fraction of the paths fall, interpolating between the nearest paths.
+         * @param fraction Fraction from 0 to 1.
+         * @return Value at the percentile.
+         */
+        public double percentile(double fraction) {
+            if(fraction < 0 || fraction > 1) {
+                throw new IllegalArgumentException("fraction must be between 0 and 1.");
+            }
+            double position = fraction * (sortedValues.length - 1);
+            int lower = (int) Math.floor(position);
+            int upper = (int) Math.ceil(position);
+            return sortedValues[lower] + (sortedValues[upper] - sortedValues[lower]) * (position - lower);
+        }
+
+        public double mean() {
+            double sum = 0;
+            for(double value : sortedValues) {
+                sum += value;
+            }
+            return sum / sortedValues.length;
+        }
+
+        public double min() {
+            return sortedValues[0];
+        }
+
+        public double max() {
+            return sortedValues[sortedValues.length - 1];
+        }
+
+        public int size() {
+            return sortedValues.length;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.github.tylerspaeth.statistics;
 import com.github.tylerspaeth.common.data.dao.CandlestickDAO;
 import com.github.tylerspaeth.common.data.entity.*;
 import com.github.tylerspaeth.common.enums.AssetTypeEnum;
+import com.github.tylerspaeth.common.enums.OptimizationMetricEnum;
 import com.github.tylerspaeth.common.enums.SideEnum;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,15 +31,43 @@ public class StatisticsUtils {
      * @return PnL including fees
      */
     public static float calculatePnL(List<Trade> trades) {
+        float pnl = 0;
+        for(double tradePnL : calculateTradePnLs(trades)) {
+            pnl += (float) tradePnL;
+        }
+        return pnl;
+    }
+
+    /**
+     * Calculates the PnL including fees that each trade in a collection of trades contributed. A trade that opens or
+     * increases a position contributes only its fees, and a trade that reduces a position also contributes the PnL it
+     * realized. The values sum to the PnL of the whole collection.
+     * @param trades List<Trade> ordered by timestamp.
+     * @return Array of the PnL of each trade, in the same order as the trades.
+     */
+    public static double[] calculateTradePnLs(List<Trade> trades) {
+        double[] tradePnLs = new double[trades.size()];
+        if(trades.isEmpty()) {
+            return tradePnLs;
+        }
+
+        // Apply the tick value if appropriate
+        float multiplier = 1;
+        try {
+            Symbol symbol = trades.getFirst().getOrder().getSymbol();
+            multiplier = symbol.getTickValue() / symbol.getTickSize();
+            LOGGER.info("PnL calculated using tick size and value.");
+        } catch (NullPointerException _) {}
+
         float currentPositionQuantity = 0;
         float currentPositionAveragePrice = 0;
-        float realizedPnL = 0;
-        float totalFees = 0;
 
-        for(Trade trade : trades) {
+        for(int i = 0; i < trades.size(); i++) {
+            Trade trade = trades.get(i);
 
             float signedFillQuantity = signedQuantity(trade.getFillQuantity(), trade.getSide());
             float fillPrice = trade.getFillPrice();
+            float realizedPnL = 0;
 
             if(currentPositionQuantity == 0) {
                 // Currently no open position
@@ -53,7 +82,7 @@ public class StatisticsUtils {
                 float quantityBeforeClose = currentPositionQuantity;
 
                 float closeQuantity = Math.min(Math.abs(currentPositionQuantity), trade.getFillQuantity());
-                realizedPnL +=  closeQuantity * (trade.getFillPrice() - currentPositionAveragePrice) * Math.signum(currentPositionQuantity);
+                realizedPnL = closeQuantity * (trade.getFillPrice() - currentPositionAveragePrice) * Math.signum(currentPositionQuantity);
 
                 currentPositionQuantity += signedFillQuantity;
 
@@ -62,17 +91,10 @@ public class StatisticsUtils {
                 }
             }
 
-            totalFees += trade.getFees();
+            tradePnLs[i] = realizedPnL * multiplier - trade.getFees();
         }
 
-        // Apply the tick value if appropriate
-        try {
-            Symbol symbol = trades.getFirst().getOrder().getSymbol();
-            realizedPnL = realizedPnL / symbol.getTickSize() * symbol.getTickValue();
-            LOGGER.info("PnL calculated using tick size and value.");
-        } catch (NullPointerException _) {}
-
-        return realizedPnL - totalFees;
+        return tradePnLs;
     }
 
     /**
@@ -117,6 +139,23 @@ public class StatisticsUtils {
         return positionCount;
     }
 
+    /**
+     * Calculates the value of an optimization metric for a collection of trades.
+     * @param trades List<Trade> ordered by timestamp.
+     * @param metric OptimizationMetricEnum to calculate.
+     * @return Value of the metric, where larger values are better. 0 if there are no trades.
+     */
+    public static float calculateOptimizationMetric(List<Trade> trades, OptimizationMetricEnum metric) {
+        if(trades == null || trades.isEmpty()) {
+            return 0;
+        }
+
+        return switch (metric) {
+            case PNL -> calculatePnL(trades);
+            case PNL_PER_POSITION -> calculatePnL(trades) / Math.max(1, calculatePositionsTaken(trades));
+        };
+    }
+
     /**
      * Calculate the Sharpe Ratio for a BacktestResult based on a provided risk-free rate.
      * @param backtestResult Completed BacktestResult to calculate Sharpe Ratio on.
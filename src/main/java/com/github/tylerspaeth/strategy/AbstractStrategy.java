@@ -1,13 +1,24 @@
 package com.github.tylerspaeth.strategy;
 
+import com.github.tylerspaeth.broker.backtester.BacktestCheckpoint;
+import com.github.tylerspaeth.broker.backtester.BacktestCheckpointStore;
+import com.github.tylerspaeth.broker.backtester.BacktestTimeRange;
 import com.github.tylerspaeth.common.data.dao.BacktestResultDAO;
 import com.github.tylerspaeth.common.data.dao.OrderDAO;
+import com.github.tylerspaeth.common.data.dao.TradeDAO;
 import com.github.tylerspaeth.common.data.entity.BacktestResult;
 import com.github.tylerspaeth.common.data.entity.Order;
 import com.github.tylerspaeth.common.data.entity.StrategyParameterSet;
 import com.github.tylerspaeth.common.data.entity.User;
+import com.github.tylerspaeth.common.enums.ResourceLimitActionEnum;
+import com.github.tylerspaeth.common.jfr.StrategyRunEvent;
+import com.github.tylerspaeth.common.metrics.Counter;
+import com.github.tylerspaeth.common.metrics.MetricsRegistry;
+import com.github.tylerspaeth.common.metrics.ResourceUsage;
 import com.github.tylerspaeth.engine.EngineCoordinator;
 import com.github.tylerspaeth.engine.request.AbstractEngineRequest;
+import com.github.tylerspaeth.engine.request.datafeed.ReadFromDataFeedRequest;
+import com.github.tylerspaeth.engine.request.order.PlaceOrderRequest;
 import com.github.tylerspaeth.strategy.annotation.StrategyParameterLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,11 +26,14 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Constructor;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Class that all strategies must inherit from.
@@ -33,8 +47,16 @@ public abstract class AbstractStrategy {
      */
     private static final Map<Integer, Class<? extends AbstractStrategy>> STRATEGY_ENTITY_ID_MAP = new ConcurrentHashMap<>();
 
+    static final int RESOURCE_LIMIT_CHECK_INTERVAL = 64; // Number of engine requests between checks of the resource limits
+    static final long THROTTLE_DELAY_MILLIS = 10; // Delay added to each engine request once a strategy is throttled
+
+    private static final String CHECKPOINT_SECONDS_PROPERTY = "algonexus.backtest.checkpointSeconds";
+    private static final long CHECKPOINT_INTERVAL_NANOS = readCheckpointIntervalNanos(); // Time between backtest checkpoints, 0 if they are disabled
+
     private final OrderDAO orderDAO;
+    private final TradeDAO tradeDAO;
     private final BacktestResultDAO backtestResultDAO;
+    private final BacktestCheckpointStore checkpointStore;
 
     private EngineCoordinator engineCoordinator;
 
@@ -43,9 +65,22 @@ public abstract class AbstractStrategy {
 
     private final AtomicBoolean running = new AtomicBoolean(false);
     private volatile Thread runningThread;
+    private final CompletableFuture<BacktestResult> completion = new CompletableFuture<>();
 
     protected final User user;
 
+    private final Counter barsProcessed = MetricsRegistry.getInstance().counter("strategy_bars_processed_total", "strategy", getClass().getSimpleName());
+    private final Counter ordersPlaced = MetricsRegistry.getInstance().counter("strategy_orders_placed_total", "strategy", getClass().getSimpleName());
+
+    private final ResourceUsage resourceUsage = new ResourceUsage();
+    private volatile StrategyResourceLimits resourceLimits = StrategyResourceLimits.fromSystemProperties();
+    private volatile boolean resourceLimitExceeded = false;
+
+    private long lastCheckpointNanos;
+    private boolean checkpointsSupported = true;
+
+    private BacktestContext backtestContext;
+
     /**
      * The child constructor must require the exact same arguments.
      */
@@ -53,7 +88,9 @@ public abstract class AbstractStrategy {
         this.strategyParameterSet = strategyParameterSet;
         this.backtestResult = null;
         this.orderDAO = new OrderDAO();
+        this.tradeDAO = new TradeDAO();
         this.backtestResultDAO = new BacktestResultDAO();
+        this.checkpointStore = new BacktestCheckpointStore();
         this.user = user;
     }
 
@@ -64,54 +101,131 @@ public abstract class AbstractStrategy {
         this.strategyParameterSet = strategyParameterSet;
         this.backtestResult = new AtomicReference<>(backtestResult);
         this.orderDAO = new OrderDAO();
+        this.tradeDAO = new TradeDAO();
         this.backtestResultDAO = new BacktestResultDAO();
+        this.checkpointStore = new BacktestCheckpointStore();
+        this.user = user;
+    }
+
+    /**
+     * For creating a strategy with its dependencies provided. This should NOT be used for anything other than testing.
+     */
+    AbstractStrategy(StrategyParameterSet strategyParameterSet, User user, BacktestResult backtestResult, OrderDAO orderDAO,
+                     TradeDAO tradeDAO, BacktestResultDAO backtestResultDAO, BacktestCheckpointStore checkpointStore) {
+        this.strategyParameterSet = strategyParameterSet;
+        this.backtestResult = backtestResult != null ? new AtomicReference<>(backtestResult) : null;
+        this.orderDAO = orderDAO;
+        this.tradeDAO = tradeDAO;
+        this.backtestResultDAO = backtestResultDAO;
+        this.checkpointStore = checkpointStore;
         this.user = user;
     }
 
     /**
      * Runs the strategy.
+     * @return The completion future of the strategy, which completes once it has finished running or failed to start.
      */
-    public final void run() {
+    public final CompletableFuture<BacktestResult> run() {
 
         if(engineCoordinator == null) {
             LOGGER.error("Unable to run a strategy without an EngineCoordinator.");
-            return;
+            completion.completeExceptionally(new IllegalStateException("Unable to run a strategy without an EngineCoordinator."));
+            return completion;
         }
 
         if(!running.compareAndSet(false, true)) {
+            // The run that is already in progress completes the same future
             LOGGER.error("Unable to run a strategy that is already running.");
-            return;
+            return completion;
         }
 
-        StrategyParameterLoader.populateParameters(this, strategyParameterSet);
+        try {
+            StrategyParameterLoader.populateParameters(this, strategyParameterSet);
+        } catch (RuntimeException e) {
+            LOGGER.error("Unable to populate the parameters of {} with parameter set {}.", strategyParameterSet.getStrategy(), strategyParameterSet, e);
+            running.set(false);
+            completion.completeExceptionally(e);
+            return completion;
+        }
 
         Thread thread = new Thread(() -> {
+            resourceUsage.start();
+            StrategyRunEvent event = new StrategyRunEvent();
+            event.begin();
+            boolean completed = false;
             try {
                 if (backtestResult != null) {
-                    backtestResult.updateAndGet(result -> {
-                        result.setStartTime(Timestamp.from(Instant.now()));
+                    // A BacktestResult that already has a checkpoint is resumed rather than started over
+                    boolean resuming = checkpointStore.exists(backtestResult.get().getBacktestResultID());
+                    BacktestResult startedResult = backtestResult.updateAndGet(result -> {
+                        if(resuming) {
+                            result.setEndTime(null);
+                        } else {
+                            result.setStartTime(Timestamp.from(Instant.now()));
+                        }
                         return backtestResultDAO.update(result);
                     });
+
+                    // Limit the data this backtest can read if it only covers part of the data
+                    if(startedResult.getDataStart() != null) {
+                        engineCoordinator.getBacktesterDataFeedService().setTimeRange(Thread.currentThread().threadId(), new BacktestTimeRange(startedResult.getDataStart(), startedResult.getDataEnd()));
+                    }
+
+                    if(resuming) {
+                        resumeFromCheckpoint(startedResult.getBacktestResultID());
+                    }
+                    lastCheckpointNanos = System.nanoTime();
+                    backtestContext = new BacktestContext(this, engineCoordinator.getBacktesterDataFeedService(), engineCoordinator.getBacktesterOrderService());
                 }
 
                 onRun();
+                completed = true;
             } catch (Exception e) {
                 LOGGER.error("Failure occurred while running {} with parameter set {}.", strategyParameterSet.getStrategy(), strategyParameterSet, e);
             } finally {
-                if(backtestResult != null) {
-                    backtestResult.updateAndGet(result -> {
-                        result.setEndTime(Timestamp.from(Instant.now()));
-                        return backtestResultDAO.update(result);
-                    });
+                RuntimeException cleanupFailure = null;
+                try {
+                    if(backtestResult != null) {
+                        engineCoordinator.getBacktesterDataFeedService().clearTimeRange(Thread.currentThread().threadId());
+                        // A backtest that failed keeps its checkpoint so that it can be resumed
+                        if(completed) {
+                            checkpointStore.delete(backtestResult.get().getBacktestResultID());
+                        }
+                        backtestResult.updateAndGet(result -> {
+                            result.setEndTime(Timestamp.from(Instant.now()));
+                            return backtestResultDAO.update(result);
+                        });
+                    }
+                    event.end();
+                    if(event.shouldCommit()) {
+                        event.strategy = getClass().getSimpleName();
+                        event.parameterSet = strategyParameterSet.toString();
+                        event.threadID = Thread.currentThread().threadId();
+                        event.backtest = backtestResult != null;
+                        event.commit();
+                    }
+                    resourceUsage.finish();
+                } catch (RuntimeException e) {
+                    LOGGER.error("Failure occurred while finishing {} with parameter set {}.", strategyParameterSet.getStrategy(), strategyParameterSet, e);
+                    cleanupFailure = e;
+                } finally {
+                    // Anything waiting on the strategy must be released even if finishing it failed
+                    running.set(false);
+                    if(cleanupFailure != null) {
+                        completion.completeExceptionally(cleanupFailure);
+                    } else {
+                        completion.complete(backtestResult != null ? backtestResult.get() : null);
+                    }
                 }
-                running.set(false);
                 LOGGER.info("{} finished running with {} parameter set.", strategyParameterSet.getStrategy(), strategyParameterSet);
             }
         }, strategyParameterSet.toString() + "-Thread");
-        thread.start();
+        // Set before starting so that the thread ID is available as soon as the strategy begins reading data
         runningThread = thread;
+        thread.start();
 
         LOGGER.info("{} started running with {} parameter set.", strategyParameterSet.getStrategy(), strategyParameterSet);
+        return completion;
     }
 
     /**
@@ -120,6 +234,23 @@ public abstract class AbstractStrategy {
      */
     protected abstract void onRun();
 
+    /**
+     * Save the state of the strategy so that a backtest can be resumed from a checkpoint. This is called from the
+     * strategy thread between engine requests, so the state will not change while it is being saved. Any Orders the
+     * strategy needs after resuming should be saved by ID. Strategies that return null do not support checkpoints.
+     * @return State of the strategy, or null if checkpoints are not supported.
+     */
+    protected byte[] onCheckpoint() {
+        return null;
+    }
+
+    /**
+     * Restore the state that was saved by onCheckpoint. When a backtest is resumed this is called before onRun, and the
+     * data feeds will continue from the checkpoint once onRun subscribes to them again.
+     * @param state State of the strategy from the checkpoint.
+     */
+    protected void onRestore(byte[] state) {}
+
     /**
      * Stops the strategy from continuing to run.
      */
@@ -155,7 +286,13 @@ public abstract class AbstractStrategy {
         if(engineCoordinator == null) {
             throw new IllegalStateException("Failed to submit request to engine and the EngineCoordinator is null.");
         }
+        beforeEngineRequest();
         T result = engineCoordinator.submitRequest(engineRequest);
+        if(engineRequest instanceof ReadFromDataFeedRequest && result instanceof List<?> bars) {
+            recordBarsProcessed(bars);
+        } else if(engineRequest instanceof PlaceOrderRequest) {
+            recordOrderPlaced((Order) result);
+        }
         if(result instanceof Order resultAsOrder && backtestResult != null) {
             resultAsOrder.setBacktestResult(backtestResult.get());
             orderDAO.update(resultAsOrder);
@@ -163,6 +300,204 @@ public abstract class AbstractStrategy {
         return result;
     }
 
+    /**
+     * Get the BacktestContext for calling the backtester services directly instead of submitting engine requests.
+     * @return BacktestContext, or null if this strategy is not backtesting or has not started running.
+     */
+    protected final BacktestContext getBacktestContext() {
+        return backtestContext;
+    }
+
+    /**
+     * Counts a request against the resources of this strategy, enforces its resource limits and saves a checkpoint if
+     * one is due. Called before every engine request and BacktestContext call.
+     * @throws InterruptedException If interrupted while throttled.
+     */
+    final void beforeEngineRequest() throws InterruptedException {
+        resourceUsage.recordEngineRequest();
+        enforceResourceLimits();
+        if(backtestResult != null && checkpointsSupported && CHECKPOINT_INTERVAL_NANOS > 0 && System.nanoTime() - lastCheckpointNanos >= CHECKPOINT_INTERVAL_NANOS) {
+            saveCheckpoint();
+        }
+    }
+
+    final void recordBarsProcessed(List<?> bars) {
+        if(bars != null) {
+            barsProcessed.add(bars.size());
+        }
+    }
+
+    final void recordOrderPlaced(Order order) {
+        if(order != null) {
+            ordersPlaced.increment();
+        }
+    }
+
+    /**
+     * Checks the resource usage of this strategy against its limits every few requests, and throttles or stops the
+     * strategy once a limit has been exceeded. Should only be called from the strategy thread.
+     * @throws InterruptedException If interrupted while throttled.
+     */
+    private void enforceResourceLimits() throws InterruptedException {
+        StrategyResourceLimits limits = resourceLimits;
+        if(!limits.hasLimits()) {
+            return;
+        }
+
+        if(!resourceLimitExceeded && resourceUsage.getEngineRequests() % RESOURCE_LIMIT_CHECK_INTERVAL == 0) {
+            String exceededLimit = limits.findExceededLimit(resourceUsage);
+            if(exceededLimit != null) {
+                resourceLimitExceeded = true;
+                if(limits.action() == ResourceLimitActionEnum.STOP) {
+                    LOGGER.warn("{} with parameter set {} exceeded its limit of {} and is being stopped.", strategyParameterSet.getStrategy(), strategyParameterSet, exceededLimit);
+                    stop();
+                } else {
+                    LOGGER.warn("{} with parameter set {} exceeded its limit of {} and is being throttled.", strategyParameterSet.getStrategy(), strategyParameterSet, exceededLimit);
+                }
+            }
+        }
+
+        if(resourceLimitExceeded && limits.action() == ResourceLimitActionEnum.THROTTLE) {
+            Thread.sleep(THROTTLE_DELAY_MILLIS);
+        }
+    }
+
+    /**
+     * Save a checkpoint of the backtest. This is called before an engine request is submitted so that the result of the
+     * previous request has already been applied to the strategy and the backtester.
+     */
+    private void saveCheckpoint() {
+        lastCheckpointNanos = System.nanoTime();
+        byte[] strategyState = onCheckpoint();
+        if(strategyState == null) {
+            checkpointsSupported = false;
+            LOGGER.warn("{} does not support checkpoints, so the backtest with parameter set {} will not be checkpointed.", strategyParameterSet.getStrategy(), strategyParameterSet);
+            return;
+        }
+
+        Integer backtestResultID = backtestResult.get().getBacktestResultID();
+        BacktestCheckpoint checkpoint = engineCoordinator.getBacktesterDataFeedService().createCheckpoint(Thread.currentThread().threadId(), backtestResultID,
+                orderDAO.getMaxOrderIDForBacktestResult(backtestResultID), tradeDAO.getMaxTradeIDForBacktestResult(backtestResultID), strategyState);
+        if(checkpointStore.save(checkpoint)) {
+            LOGGER.debug("Saved checkpoint for BacktestResult {}.", backtestResultID);
+        }
+    }
+
+    /**
+     * Resume a backtest from its checkpoint. The Orders and Trades made after the checkpoint are deleted, since the
+     * backtest will make them again, before the backtester and the strategy are restored.
+     * @param backtestResultID ID of the BacktestResult being resumed.
+     * @throws IllegalStateException If the checkpoint can not be loaded.
+     */
+    private void resumeFromCheckpoint(Integer backtestResultID) {
+        BacktestCheckpoint checkpoint = checkpointStore.load(backtestResultID);
+        if(checkpoint == null) {
+            throw new IllegalStateException("Unable to load the checkpoint for BacktestResult " + backtestResultID);
+        }
+        orderDAO.deleteBacktestOrdersAfterCheckpoint(backtestResultID, checkpoint.maxOrderID(), checkpoint.maxTradeID());
+        engineCoordinator.getBacktesterDataFeedService().restoreCheckpoint(Thread.currentThread().threadId(), checkpoint);
+        onRestore(checkpoint.strategyState());
+        LOGGER.info("{} resumed BacktestResult {} from its checkpoint.", strategyParameterSet.getStrategy(), backtestResultID);
+    }
+
+    /**
+     * Read the time between backtest checkpoints from the algonexus.backtest.checkpointSeconds system property.
+     * @return Time between checkpoints in nanoseconds, or 0 if checkpoints are disabled.
+     */
+    private static long readCheckpointIntervalNanos() {
+        String checkpointSeconds = System.getProperty(CHECKPOINT_SECONDS_PROPERTY);
+        if(checkpointSeconds == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(checkpointSeconds.trim())) * 1_000_000_000L;
+        } catch (NumberFormatException e) {
+            LOGGER.error("Invalid value for {}: {}", CHECKPOINT_SECONDS_PROPERTY, checkpointSeconds);
+            return 0;
+        }
+    }
+
+    /**
+     * Get the resources this strategy has used.
+     * @return ResourceUsage
+     */
+    public final ResourceUsage getResourceUsage() {
+        return resourceUsage;
+    }
+
+    /**
+     * Get the limits on the resources this strategy may use. These default to the limits set by system properties.
+     * @return StrategyResourceLimits
+     */
+    public final StrategyResourceLimits getResourceLimits() {
+        return resourceLimits;
+    }
+
+    /**
+     * Set the limits on the resources this strategy may use.
+     * @param resourceLimits StrategyResourceLimits, or null for no limits.
+     */
+    public final void setResourceLimits(StrategyResourceLimits resourceLimits) {
+        this.resourceLimits = resourceLimits != null ? resourceLimits : StrategyResourceLimits.NONE;
+    }
+
+    /**
+     * Checks if this strategy has exceeded its resource limits and been throttled or stopped.
+     * @return true if a limit has been exceeded, false otherwise.
+     */
+    public final boolean isResourceLimitExceeded() {
+        return resourceLimitExceeded;
+    }
+
+    /**
+     * Get the StrategyParameterSet this strategy runs with.
+     * @return StrategyParameterSet
+     */
+    public final StrategyParameterSet getStrategyParameterSet() {
+        return strategyParameterSet;
+    }
+
+    /**
+     * Apply a change to the BacktestResult of this strategy and persist it. Changes must be made through this method
+     * while the strategy is running, otherwise they will be overwritten when the strategy finishes.
+     * @param update Change to make to the BacktestResult.
+     */
+    public final void updateBacktestResult(Consumer<BacktestResult> update) {
+        if(backtestResult == null) {
+            LOGGER.error("Unable to update the BacktestResult of a strategy that is not backtesting.");
+            return;
+        }
+        backtestResult.updateAndGet(result -> {
+            update.accept(result);
+            return backtestResultDAO.update(result);
+        });
+    }
+
+    /**
+     * Get the most recent version of the BacktestResult for this strategy.
+     * @return BacktestResult or null if this strategy is not backtesting.
+     */
+    public final BacktestResult getBacktestResult() {
+        return backtestResult != null ? backtestResult.get() : null;
+    }
+
+    /**
+     * Get a future that completes once the strategy has finished running.
+     * @return CompletableFuture with the final BacktestResult, or null if this strategy is not backtesting.
+     */
+    public final CompletableFuture<BacktestResult> getCompletionFuture() {
+        return completion;
+    }
+
+    /**
+     * Get the ID of the thread that this strategy runs on.
+     * @return Thread ID or null if the strategy has not been run.
+     */
+    public final Long getRunningThreadID() {
+        Thread thread = runningThread;
+        return thread != null ? thread.threadId() : null;
+    }
+
     /**
      * Set the EngineCoordinate for engine requests to be fed to. This can only be called once and must not be null.
      * @param engineCoordinator EngineCoordinator that request will be submitted to.
@@ -0,0 +1,105 @@
+package com.github.tylerspaeth.strategy;
+
+import com.github.tylerspaeth.broker.backtester.BacktesterDataFeedService;
+import com.github.tylerspaeth.broker.backtester.BacktesterOrderService;
+import com.github.tylerspaeth.common.data.entity.BacktestResult;
+import com.github.tylerspaeth.common.data.entity.Candlestick;
+import com.github.tylerspaeth.common.data.entity.Order;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
+
+import java.util.List;
+
+/**
+ * Direct access to the backtester services for a strategy that is backtesting. Backtest requests already run on the
+ * strategy thread, so calling the services here gives the same results bar for bar as submitting engine requests,
+ * without creating a request and future for every call. Orders are given their BacktestResult before they are placed,
+ * so they are persisted once by the backtester instead of again by the strategy. Resource limits and checkpoints are
+ * applied the same as they are for engine requests. Must only be used from the strategy thread.
+ */
+public final class BacktestContext {
+
+    private final AbstractStrategy strategy;
+    private final BacktesterDataFeedService dataFeedService;
+    private final BacktesterOrderService orderService;
+    private final long threadID;
+
+    BacktestContext(AbstractStrategy strategy, BacktesterDataFeedService dataFeedService, BacktesterOrderService orderService) {
+        this.strategy = strategy;
+        this.dataFeedService = dataFeedService;
+        this.orderService = orderService;
+        this.threadID = Thread.currentThread().threadId();
+    }
+
+    /**
+     * Subscribes to the data feed for the provided Symbol.
+     * @param symbol Symbol to get data for.
+     * @throws InterruptedException If interrupted while the strategy is throttled.
+     */
+    public void subscribeToDataFeed(Symbol symbol) throws InterruptedException {
+        strategy.beforeEngineRequest();
+        dataFeedService.subscribeToDataFeed(threadID, symbol);
+    }
+
+    /**
+     * Gets the unread Candlesticks from the data feed of the provided Symbol.
+     * @param symbol Symbol to get data for.
+     * @param intervalDuration Used for determining the granularity of the Candlesticks.
+     * @param intervalUnit Used for determine the granularity of the Candlesticks.
+     * @return List of unread Candlesticks, empty once the end of the data has been reached.
+     * @throws InterruptedException If interrupted while the strategy is throttled.
+     */
+    public List<Candlestick> readFromDataFeed(Symbol symbol, int intervalDuration, IntervalUnitEnum intervalUnit) throws InterruptedException {
+        strategy.beforeEngineRequest();
+        List<Candlestick> candlesticks = dataFeedService.readFromDataFeed(threadID, symbol, intervalDuration, intervalUnit);
+        strategy.recordBarsProcessed(candlesticks);
+        return candlesticks;
+    }
+
+    /**
+     * Unsubscribe from the data feed for the provided Symbol.
+     * @param symbol Symbol to stop getting data for.
+     * @throws InterruptedException If interrupted while the strategy is throttled.
+     */
+    public void unsubscribeFromDataFeed(Symbol symbol) throws InterruptedException {
+        strategy.beforeEngineRequest();
+        dataFeedService.unsubscribeFromDataFeed(threadID, symbol);
+    }
+
+    /**
+     * Places an Order against the data feed of its Symbol.
+     * @param order Order to place.
+     * @return The placed Order, or null if it could not be placed.
+     * @throws InterruptedException If interrupted while the strategy is throttled.
+     */
+    public Order placeOrder(Order order) throws InterruptedException {
+        strategy.beforeEngineRequest();
+        BacktestResult backtestResult = strategy.getBacktestResult();
+        if(order != null && order.getOrderID() == null) {
+            order.setBacktestResult(backtestResult);
+        }
+        Order placedOrder = orderService.placeOrder(threadID, order);
+        strategy.recordOrderPlaced(placedOrder);
+        return placedOrder;
+    }
+
+    /**
+     * Cancels an Order that was placed by this strategy.
+     * @param order Order to cancel.
+     * @throws InterruptedException If interrupted while the strategy is throttled.
+     */
+    public void cancelOrder(Order order) throws InterruptedException {
+        strategy.beforeEngineRequest();
+        orderService.cancelOrder(threadID, order);
+    }
+
+    /**
+     * Get the open Orders of the user running the strategy.
+     * @return List of open Orders.
+     * @throws InterruptedException If interrupted while the strategy is throttled.
+     */
+    public List<Order> getOpenOrders() throws InterruptedException {
+        strategy.beforeEngineRequest();
+        return orderService.getOpenOrders(strategy.user);
+    }
+}
@@ -5,6 +5,7 @@ import com.github.tylerspaeth.common.data.dao.StrategyDAO;
 import com.github.tylerspaeth.common.data.entity.StrategyParameterSet;
 import com.github.tylerspaeth.strategy.annotation.Strategy;
 import com.github.tylerspaeth.strategy.annotation.StrategyParameter;
+import com.github.tylerspaeth.strategy.annotation.StrategyParameterLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,6 +23,8 @@ public class StrategyRegistry {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(StrategyRegistry.class);
 
+    private static final String STRATEGY_INDEX = "META-INF/algonexus/strategies"; // Written by the strategy-index-processor at compile time
+
     private final StrategyDAO strategyDAO;
 
     public StrategyRegistry(StrategyDAO strategyDAO) {
@@ -36,7 +39,7 @@ public class StrategyRegistry {
 
         deactivateAllStrategies();
 
-        List<Class<?>> strategyClasses = ClasspathScanner.getClassesWithAnnotation(Strategy.class);
+        List<Class<?>> strategyClasses = ClasspathScanner.getClassesWithAnnotation(Strategy.class, STRATEGY_INDEX);
         for (Class<?> strategyClass : strategyClasses) {
 
             if(!AbstractStrategy.class.isAssignableFrom(strategyClass)) {
@@ -44,6 +47,9 @@ public class StrategyRegistry {
                 throw new RuntimeException("Failed to initialize strategy registry. Class found with Strategy annotation that does not extend AbstractStrategy. " + strategyClass);
             }
 
+            // Resolve the parameter fields once so that strategies created during a sweep do not each reflect over them
+            StrategyParameterLoader.prepare(strategyClass.asSubclass(AbstractStrategy.class));
+
             try {
                 Method setStrategyEntityID = getSetStrategyEntityIDMethod(strategyClass);
 
@@ -0,0 +1,106 @@
+package com.github.tylerspaeth.strategy;
+
+import com.github.tylerspaeth.common.enums.ResourceLimitActionEnum;
+import com.github.tylerspaeth.common.metrics.ResourceUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Budget of resources that a strategy may use over a single run. Any of the limits can be null for no limit.
+ * @param maxCpuTimeNanos Maximum CPU time of the strategy thread in nanoseconds.
+ * @param maxAllocatedBytes Maximum bytes allocated by the strategy thread.
+ * @param maxEngineRequests Maximum number of engine requests.
+ * @param maxDaoOperations Maximum number of DAO operations made on behalf of the strategy.
+ * @param action What happens once any limit is exceeded.
+ */
+public record StrategyResourceLimits(Long maxCpuTimeNanos, Long maxAllocatedBytes, Long maxEngineRequests, Long maxDaoOperations,
+                                     ResourceLimitActionEnum action) {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StrategyResourceLimits.class);
+
+    public static final StrategyResourceLimits NONE = new StrategyResourceLimits(null, null, null, null, ResourceLimitActionEnum.THROTTLE);
+
+    private static final String MAX_CPU_SECONDS_PROPERTY = "algonexus.strategy.maxCpuSeconds";
+    private static final String MAX_ALLOCATED_MEGABYTES_PROPERTY = "algonexus.strategy.maxAllocatedMegabytes";
+    private static final String MAX_ENGINE_REQUESTS_PROPERTY = "algonexus.strategy.maxEngineRequests";
+    private static final String MAX_DAO_OPERATIONS_PROPERTY = "algonexus.strategy.maxDaoOperations";
+    private static final String LIMIT_ACTION_PROPERTY = "algonexus.strategy.limitAction";
+
+    public StrategyResourceLimits {
+        if(action == null) {
+            action = ResourceLimitActionEnum.THROTTLE;
+        }
+    }
+
+    /**
+     * Checks if any limits have been set.
+     * @return true if there is at least one limit, false otherwise.
+     */
+    public boolean hasLimits() {
+        return maxCpuTimeNanos != null || maxAllocatedBytes != null || maxEngineRequests != null || maxDaoOperations != null;
+    }
+
+    /**
+     * Find the first limit that has been exceeded.
+     * @param resourceUsage ResourceUsage of the strategy.
+     * @return Description of the exceeded limit, or null if none have been exceeded.
+     */
+    public String findExceededLimit(ResourceUsage resourceUsage) {
+        if(maxCpuTimeNanos != null && resourceUsage.getCpuTimeNanos() > maxCpuTimeNanos) {
+            return "CPU time of " + maxCpuTimeNanos + "ns";
+        }
+        if(maxAllocatedBytes != null && resourceUsage.getAllocatedBytes() > maxAllocatedBytes) {
+            return "allocations of " + maxAllocatedBytes + " bytes";
+        }
+        if(maxEngineRequests != null && resourceUsage.getEngineRequests() > maxEngineRequests) {
+            return maxEngineRequests + " engine requests";
+        }
+        if(maxDaoOperations != null && resourceUsage.getDaoOperations() > maxDaoOperations) {
+            return maxDaoOperations + " DAO operations";
+        }
+        return null;
+    }
+
+    /**
+     * Create the limits set by the algonexus.strategy.maxCpuSeconds, algonexus.strategy.maxAllocatedMegabytes,
+     * algonexus.strategy.maxEngineRequests, algonexus.strategy.maxDaoOperations and algonexus.strategy.limitAction
+     * system properties. Properties that are missing or invalid are treated as no limit.
+     * @return StrategyResourceLimits
+     */
+    public static StrategyResourceLimits fromSystemProperties() {
+        Long maxCpuSeconds = getLongProperty(MAX_CPU_SECONDS_PROPERTY);
+        Long maxAllocatedMegabytes = getLongProperty(MAX_ALLOCATED_MEGABYTES_PROPERTY);
+        Long maxEngineRequests = getLongProperty(MAX_ENGINE_REQUESTS_PROPERTY);
+        Long maxDaoOperations = getLongProperty(MAX_DAO_OPERATIONS_PROPERTY);
+        if(maxCpuSeconds == null && maxAllocatedMegabytes == null && maxEngineRequests == null && maxDaoOperations == null) {
+            return NONE;
+        }
+
+        ResourceLimitActionEnum action = ResourceLimitActionEnum.THROTTLE;
+        String actionValue = System.getProperty(LIMIT_ACTION_PROPERTY);
+        if(actionValue != null) {
+            try {
+                action = ResourceLimitActionEnum.valueOf(actionValue.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                LOGGER.error("Invalid value for {}: {}", LIMIT_ACTION_PROPERTY, actionValue);
+            }
+        }
+
+        return new StrategyResourceLimits(maxCpuSeconds != null ? maxCpuSeconds * 1_000_000_000L : null,
+                maxAllocatedMegabytes != null ? maxAllocatedMegabytes * 1024 * 1024 : null,
+                maxEngineRequests, maxDaoOperations, action);
+    }
+
+    private static Long getLongProperty(String name) {
+        String value = System.getProperty(name);
+        if(value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.error("Invalid value for {}: {}", name, value);
+            return null;
+        }
+    }
+}
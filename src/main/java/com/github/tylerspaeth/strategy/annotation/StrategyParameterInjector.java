@@ -0,0 +1,106 @@
+package com.github.tylerspaeth.strategy.annotation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Sets the StrategyParameter fields of a single strategy class. The fields, their setters, and the conversion of each
+ * value to the type of its field are resolved once when the injector is created so that populating a strategy only has
+ * to look up and convert each value.
+ */
+final class StrategyParameterInjector {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StrategyParameterInjector.class);
+
+    // Setters are adapted to this type so that they can be called with invokeExact regardless of the field type
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final List<ParameterField> parameterFields;
+
+    /**
+     * A field with a StrategyParameter annotation.
+     * @param name Name of the parameter in the StrategyParameterSet.
+     * @param setter MethodHandle that sets the field on an instance of the strategy.
+     * @param converter Converts the String value of the parameter to the type of the field.
+     */
+    private record ParameterField(String name, MethodHandle setter, Function<String, Object> converter) {}
+
+    /**
+     * Create the injector for a strategy class.
+     * @param strategyClass Class containing fields with StrategyParameter annotations.
+     * @throws IllegalStateException If a setter can not be created for one of the fields.
+     */
+    StrategyParameterInjector(Class<?> strategyClass) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<ParameterField> fields = new ArrayList<>();
+        for (Field field : strategyClass.getDeclaredFields()) {
+            StrategyParameter annotation = field.getAnnotation(StrategyParameter.class);
+            if(annotation == null) {
+                continue;
+            }
+
+            String paramName = annotation.name().isEmpty() ? field.getName() : annotation.name();
+            field.setAccessible(true);
+            try {
+                MethodHandle setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+                fields.add(new ParameterField(paramName, setter, converterFor(field.getType())));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Unable to access StrategyParameter " + paramName + " on " + strategyClass.getName(), e);
+            }
+        }
+        this.parameterFields = List.copyOf(fields);
+    }
+
+    /**
+     * Sets every StrategyParameter field of the strategy that has a value in the provided map.
+     * @param strategy Instance of the strategy class this injector was created for.
+     * @param values Map of parameter name to the String representation of its value.
+     * @param parameterSetName Name of the StrategyParameterSet the values came from, used for logging.
+     */
+    void inject(Object strategy, Map<String, String> values, String parameterSetName) {
+        for (ParameterField parameterField : parameterFields) {
+            if(!values.containsKey(parameterField.name())) {
+                LOGGER.warn("Unable to find value for parameter with name: ({}) in set: ({}).", parameterField.name(), parameterSetName);
+                continue;
+            }
+
+            Object value = parameterField.converter().apply(values.get(parameterField.name()));
+            try {
+                parameterField.setter().invokeExact(strategy, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Get the function that casts the String value of a parameter to the appropriate data type.
+     * @param type Datatype the value should be cast to.
+     * @return Function converting the String representation to the correct type.
+     */
+    private static Function<String, Object> converterFor(Class<?> type) {
+        if(type == byte.class || type == Byte.class) return Byte::parseByte;
+        if(type == short.class || type == Short.class) return Short::parseShort;
+        if(type == int.class || type == Integer.class) return Integer::parseInt;
+        if(type == long.class || type == Long.class) return Long::parseLong;
+        if(type == float.class || type == Float.class) return Float::parseFloat;
+        if(type == double.class || type == Double.class) return Double::parseDouble;
+        if(type == boolean.class || type == Boolean.class) return Boolean::parseBoolean;
+        if(type.isEnum()) {
+            Class<? extends Enum> enumType = type.asSubclass(Enum.class);
+            return value -> Enum.valueOf(enumType, value);
+        }
+        return value -> value; // For strings or unsupported types
+    }
+}
@@ -2,12 +2,10 @@ package com.github.tylerspaeth.strategy.annotation;
 
 import com.github.tylerspaeth.common.data.entity.StrategyParameterSet;
 import com.github.tylerspaeth.strategy.AbstractStrategy;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Field;
-import java.util.List;
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class for loading fields with StrategyParameter annotations. This only supports loading
@@ -15,7 +13,20 @@ import java.util.Optional;
  */
 public class StrategyParameterLoader {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(StrategyParameterLoader.class);
+    /**
+     * Injectors for each strategy class. These are created by the StrategyRegistry on startup, or on first use for
+     * strategies that were not registered.
+     */
+    private static final Map<Class<?>, StrategyParameterInjector> INJECTORS = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the injector for a strategy class ahead of the first time it is populated.
+     * @param strategyClass Class that extends AbstractStrategy.
+     * @throws IllegalStateException If one of the StrategyParameter fields can not be set.
+     */
+    public static void prepare(Class<? extends AbstractStrategy> strategyClass) {
+        INJECTORS.computeIfAbsent(strategyClass, StrategyParameterInjector::new);
+    }
 
     /**
      * Populates all the fields marked with StrategyParameter annotations with values from the provided StrategyParameterSet.
@@ -23,44 +34,32 @@ public class StrategyParameterLoader {
      * @param parameterSet StrategyParameterSet containing values that should populate all the annotations on this strategy.
      */
     public static void populateParameters(AbstractStrategy strategy, StrategyParameterSet parameterSet) {
-        for (Field field : strategy.getClass().getDeclaredFields()) {
-            StrategyParameter annotation = field.getAnnotation(StrategyParameter.class);
-            if(annotation == null) {
-                continue;
-            }
-
-            String paramName = annotation.name().isEmpty() ? field.getName() : annotation.name();
-            Optional<com.github.tylerspaeth.common.data.entity.StrategyParameter> dbValue = parameterSet.getStrategyParameters().stream().filter(param -> param.getName().equals(paramName)).findFirst();
-
-            if(dbValue.isEmpty()) {
-                LOGGER.warn("Unable to find value for parameter with name: ({}) in set: ({}).", paramName, parameterSet.getName());
-                continue;
-            }
+        populateParameters(strategy, getParameterValues(parameterSet), parameterSet.getName());
+    }
 
-            field.setAccessible(true);
-            try {
-                field.set(strategy, castValue(field.getType(), dbValue.get().getValue()));
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
-        }
+    /**
+     * Populates all the fields marked with StrategyParameter annotations with values that have already been fetched.
+     * @param strategy AbstractStrategy containing StrategyParameter annotations.
+     * @param values Map of parameter name to the String representation of its value.
+     * @param parameterSetName Name of the StrategyParameterSet the values came from, used for logging.
+     */
+    public static void populateParameters(AbstractStrategy strategy, Map<String, String> values, String parameterSetName) {
+        INJECTORS.computeIfAbsent(strategy.getClass(), StrategyParameterInjector::new).inject(strategy, values, parameterSetName);
     }
 
     /**
-     * Casts the provides String value to the appropriate data type.
-     * @param type Datatype the value should be cast to.
-     * @param value String representation that needs to be cast.
-     * @return Object that has been cast to the correct type.
+     * Builds a map of parameter name to value from a StrategyParameterSet. If a name appears more than once the first
+     * value is used.
+     * @param parameterSet StrategyParameterSet
+     * @return Map of parameter name to the String representation of its value.
      */
-    private static Object castValue(Class<?> type, String value) {
-        if(List.of(byte.class, Byte.class).contains(type)) return Byte.parseByte(value);
-        if(List.of(short.class, Short.class).contains(type)) return Short.parseShort(value);
-        if(List.of(int.class, Integer.class).contains(type)) return Integer.parseInt(value);
-        if(List.of(long.class, Long.class).contains(type)) return Long.parseLong(value);
-        if(List.of(float.class, Float.class).contains(type)) return Float.parseFloat(value);
-        if(List.of(double.class, Double.class).contains(type)) return Double.parseDouble(value);
-        if(List.of(boolean.class, Boolean.class).contains(type)) return Boolean.parseBoolean(value);
-        if(type.isEnum()) return Enum.valueOf(type.asSubclass(Enum.class), value);
-        return value; // For strings or unsupported types
+    public static Map<String, String> getParameterValues(StrategyParameterSet parameterSet) {
+        Map<String, String> values = new HashMap<>();
+        for (com.github.tylerspaeth.common.data.entity.StrategyParameter parameter : parameterSet.getStrategyParameters()) {
+            if(!values.containsKey(parameter.getName())) {
+                values.put(parameter.getName(), parameter.getValue());
+            }
+        }
+        return values;
     }
 }
@@ -13,6 +13,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Terminal User Interface
@@ -22,6 +23,7 @@ public class TUI {
     private static final Logger LOGGER = LoggerFactory.getLogger(TUI.class);
 
     private static final Integer SECONDS_BETWEEN_REFRESHES = 60;
+    private static final String LOADING_TEXT = "Loading...";
 
     private final UIContext uiContext;
 
@@ -37,14 +39,19 @@ public class TUI {
     /**
      * Runs the TUI.
      * @param initialView Initial view that should be displayed.
+     * @param startup CompletableFuture that completes once the initial view can be entered. A loading screen is shown until then.
      */
-    public void run(AbstractView initialView) {
+    public void run(AbstractView initialView, CompletableFuture<Void> startup) {
         DefaultTerminalFactory terminalFactory = new DefaultTerminalFactory();
 
         try (Screen screen = terminalFactory.createScreen()) {
             screen.startScreen();
             screen.setCursorPosition(null);
 
+            if(!awaitStartup(screen, startup)) {
+                return;
+            }
+
             viewStack.push(initialView);
             initialView.onEnter(uiContext);
 
@@ -107,6 +114,34 @@ public class TUI {
         }
     }
 
+    /**
+     * Shows the loading screen until startup has finished. Input is discarded in the meantime since there is no view to
+     * handle it.
+     * @param screen Screen that will be rendered to.
+     * @param startup CompletableFuture that completes once the initial view can be entered.
+     * @return true if startup succeeded, false otherwise.
+     * @throws Exception Exception
+     */
+    private boolean awaitStartup(Screen screen, CompletableFuture<Void> startup) throws Exception {
+        boolean rendered = false;
+        while(!startup.isDone()) {
+            if(!rendered || screen.doResizeIfNecessary() != null) {
+                screen.clear();
+                screen.newTextGraphics().putString(0, 0, LOADING_TEXT);
+                screen.refresh();
+                rendered = true;
+            }
+            screen.pollInput();
+            Thread.sleep(16);
+        }
+
+        if(startup.isCompletedExceptionally()) {
+            LOGGER.error("Unable to show the UI because startup failed.");
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Handle the provided ViewAction.
      * @param action View action to handle.
@@ -1,16 +1,34 @@
 package com.github.tylerspaeth.ui.controller;
 
+import com.github.tylerspaeth.broker.backtester.BacktestCheckpointStore;
+import com.github.tylerspaeth.broker.backtester.BacktestTimeRange;
+import com.github.tylerspaeth.common.data.dao.BacktestJobDAO;
 import com.github.tylerspaeth.common.data.dao.BacktestResultDAO;
+import com.github.tylerspaeth.common.data.dao.HistoricalDatasetDAO;
+import com.github.tylerspaeth.common.data.dao.ParameterOptimizationDAO;
 import com.github.tylerspaeth.common.data.dao.StrategyDAO;
+import com.github.tylerspaeth.common.data.dao.StrategyParameterSetDAO;
+import com.github.tylerspaeth.common.data.dao.TradeDAO;
 import com.github.tylerspaeth.common.data.entity.*;
+import com.github.tylerspaeth.common.enums.OptimizationMetricEnum;
+import com.github.tylerspaeth.common.enums.ResamplingMethodEnum;
 import com.github.tylerspaeth.engine.EngineCoordinator;
 import com.github.tylerspaeth.engine.request.StrategyRunRequest;
+import com.github.tylerspaeth.optimization.ParameterOptimizationService;
+import com.github.tylerspaeth.optimization.PruningSchedule;
+import com.github.tylerspaeth.optimization.WalkForwardService;
+import com.github.tylerspaeth.statistics.MonteCarloSimulator;
 import com.github.tylerspaeth.statistics.StatisticsUtils;
 import com.github.tylerspaeth.strategy.AbstractStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Constructor;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 
 /**
@@ -20,12 +38,25 @@ public class BacktestController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BacktestController.class);
 
+    private static final long MONTE_CARLO_SEED = 0; // Fixed so that viewing the same backtest always shows the same simulation
+
     private final StrategyDAO strategyDAO;
+    private final StrategyParameterSetDAO strategyParameterSetDAO;
     private final BacktestResultDAO backtestResultDAO;
+    private final HistoricalDatasetDAO historicalDatasetDAO;
+    private final ParameterOptimizationService parameterOptimizationService;
+    private final WalkForwardService walkForwardService;
+    private final BacktestCheckpointStore checkpointStore;
 
     public BacktestController() {
         strategyDAO = new StrategyDAO();
+        strategyParameterSetDAO = new StrategyParameterSetDAO();
         backtestResultDAO = new BacktestResultDAO();
+        historicalDatasetDAO = new HistoricalDatasetDAO();
+        ParameterOptimizationDAO parameterOptimizationDAO = new ParameterOptimizationDAO();
+        parameterOptimizationService = new ParameterOptimizationService(parameterOptimizationDAO, backtestResultDAO, new TradeDAO(), new BacktestJobDAO());
+        walkForwardService = new WalkForwardService(parameterOptimizationService, parameterOptimizationDAO);
+        checkpointStore = new BacktestCheckpointStore();
     }
 
     /**
@@ -36,6 +67,14 @@ public class BacktestController {
         return strategyDAO.getAllActiveStrategies();
     }
 
+    /**
+     * Retrieve the strategies that are currently backtesting.
+     * @return List of AbstractStrategy.
+     */
+    public List<AbstractStrategy> getRunningBacktests() {
+        return StrategyRunRequest.getRunningStrategies().stream().filter(strategy -> strategy.getBacktestResult() != null).toList();
+    }
+
     /**
      * Calculates the PnL including fees of a collection of trades.
      * @param trades List<Trade>
@@ -64,19 +103,44 @@ public class BacktestController {
         return StatisticsUtils.calculateSharpeRatio(backtestResult, 0);
     }
 
+    /**
+     * Run a Monte Carlo simulation over the trades of a completed backtest.
+     * @param trades List<Trade> ordered by timestamp.
+     * @param startingBalance Starting account balance of the backtest.
+     * @param numPaths Number of trade sequences to simulate.
+     * @param resamplingMethod ResamplingMethodEnum to build each sequence with.
+     * @return MonteCarloResult, or null if there are no trades to resample.
+     */
+    public MonteCarloSimulator.MonteCarloResult runMonteCarloSimulation(List<Trade> trades, Float startingBalance, int numPaths, ResamplingMethodEnum resamplingMethod) {
+        if(trades.isEmpty()) {
+            return null;
+        }
+        double[] tradePnLs = StatisticsUtils.calculateTradePnLs(trades);
+        return MonteCarloSimulator.simulate(tradePnLs, startingBalance == null ? 0 : startingBalance, numPaths, resamplingMethod, MONTE_CARLO_SEED);
+    }
+
     /**
      * Run a backtest with the given StrategyParameterSet.
      * @param engineCoordinator EngineCoordinator that the backtest should run through.
      * @param user User that initiated the request.
      * @param strategyParameterSet StrategyParameterSet to run a backtest on.
+     * @param startingBalance Starting account balance.
+     * @param dataStart Date to start the backtest at, or null to start at the beginning of the data.
+     * @param dataEnd Date to end the backtest before, or null to run to the end of the data.
      */
-    public void runBacktest(EngineCoordinator engineCoordinator, User user, StrategyParameterSet strategyParameterSet, Float startingBalance) {
+    public void runBacktest(EngineCoordinator engineCoordinator, User user, StrategyParameterSet strategyParameterSet, Float startingBalance, LocalDate dataStart, LocalDate dataEnd) {
         Integer strategyID = strategyParameterSet.getStrategy().getStrategyID();
         try {
             Constructor<? extends AbstractStrategy> strategyClassConstructor = AbstractStrategy.getConstructorForClass(strategyID, true);
             BacktestResult backtestResult = new BacktestResult();
             backtestResult.setStartingBalance(startingBalance);
             backtestResult.setStrategyParameterSet(strategyParameterSet);
+            if(dataStart != null || dataEnd != null) {
+                // Validates the range before anything is run
+                BacktestTimeRange timeRange = new BacktestTimeRange(dataStart == null ? Timestamp.from(Instant.EPOCH) : toTimestamp(dataStart), dataEnd == null ? null : toTimestamp(dataEnd));
+                backtestResult.setDataStart(timeRange.start());
+                backtestResult.setDataEnd(timeRange.end());
+            }
             AbstractStrategy strategy = strategyClassConstructor.newInstance(strategyParameterSet, user, backtestResult);
             strategy.setEngineCoordinator(engineCoordinator);
             engineCoordinator.submitRequest(new StrategyRunRequest(strategy));
@@ -85,6 +149,94 @@ public class BacktestController {
         }
     }
 
+    /**
+     * Resume a backtest from its last checkpoint.
+     * @param engineCoordinator EngineCoordinator that the backtest should run through.
+     * @param user User that initiated the request.
+     * @param backtestResult BacktestResult of the backtest to resume. It must have a checkpoint.
+     */
+    public void resumeBacktest(EngineCoordinator engineCoordinator, User user, BacktestResult backtestResult) {
+        StrategyParameterSet strategyParameterSet = backtestResult.getStrategyParameterSet();
+        try {
+            Constructor<? extends AbstractStrategy> strategyClassConstructor = AbstractStrategy.getConstructorForClass(strategyParameterSet.getStrategy().getStrategyID(), true);
+            AbstractStrategy strategy = strategyClassConstructor.newInstance(strategyParameterSet, user, backtestResult);
+            strategy.setEngineCoordinator(engineCoordinator);
+            engineCoordinator.submitRequest(new StrategyRunRequest(strategy));
+        } catch (Exception e) {
+            LOGGER.error("Failed to resume backtest.", e);
+        }
+    }
+
+    /**
+     * Run a parameter optimization across every parameter set of a strategy, pruning the parameter sets that fall behind.
+     * @param engineCoordinator EngineCoordinator that the backtests should run through.
+     * @param user User that initiated the request.
+     * @param strategy Strategy whose parameter sets should be optimized.
+     * @param startingBalance Starting account balance for every backtest.
+     * @param metric OptimizationMetricEnum that the parameter sets are ranked by.
+     * @param firstRungFraction Fraction of the dataset every parameter set runs before any are pruned.
+     * @param pruneFraction Fraction of the parameter sets that are pruned each time they are compared.
+     */
+    public void runParameterOptimization(EngineCoordinator engineCoordinator, User user, Strategy strategy, Float startingBalance,
+                                         OptimizationMetricEnum metric, float firstRungFraction, float pruneFraction) {
+        try {
+            PruningSchedule pruningSchedule = PruningSchedule.successiveHalving(firstRungFraction, pruneFraction);
+            parameterOptimizationService.runOptimization(engineCoordinator, user, strategyParameterSetDAO.getStrategyParameterSetsWithParameters(strategy.getStrategyID()), startingBalance, metric, pruningSchedule);
+        } catch (Exception e) {
+            LOGGER.error("Failed to run parameter optimization.", e);
+        }
+    }
+
+    /**
+     * Queue a parameter optimization across every parameter set of a strategy for backtest workers to run.
+     * @param user User that initiated the request.
+     * @param strategy Strategy whose parameter sets should be optimized.
+     * @param startingBalance Starting account balance for every backtest.
+     * @param metric OptimizationMetricEnum that the parameter sets are ranked by.
+     */
+    public void queueParameterOptimization(User user, Strategy strategy, Float startingBalance, OptimizationMetricEnum metric) {
+        try {
+            parameterOptimizationService.queueOptimization(user, strategy.getStrategyParameterSets(), startingBalance, metric, null);
+        } catch (Exception e) {
+            LOGGER.error("Failed to queue parameter optimization.", e);
+        }
+    }
+
+    /**
+     * Run walk-forward analysis across every parameter set of a strategy. Each window optimizes on its in-sample days and
+     * then backtests the best parameter set on the out-of-sample days that follow.
+     * @param engineCoordinator EngineCoordinator that the backtests should run through.
+     * @param user User that initiated the request.
+     * @param strategy Strategy whose parameter sets should be optimized.
+     * @param historicalDatasetID ID of the HistoricalDataset to walk forward through.
+     * @param startingBalance Starting account balance for every backtest.
+     * @param metric OptimizationMetricEnum that the parameter sets are ranked by.
+     * @param inSampleDays Number of days each window optimizes on.
+     * @param outOfSampleDays Number of days each window is evaluated on.
+     */
+    public void runWalkForward(EngineCoordinator engineCoordinator, User user, Strategy strategy, Integer historicalDatasetID, Float startingBalance,
+                               OptimizationMetricEnum metric, int inSampleDays, int outOfSampleDays) {
+        try {
+            HistoricalDataset historicalDataset = historicalDatasetDAO.getHistoricalDatasetByID(historicalDatasetID);
+            if(historicalDataset == null) {
+                throw new IllegalArgumentException("No HistoricalDataset with ID " + historicalDatasetID);
+            }
+            walkForwardService.runWalkForward(engineCoordinator, user, strategyParameterSetDAO.getStrategyParameterSetsWithParameters(strategy.getStrategyID()), historicalDataset,
+                    Duration.ofDays(inSampleDays), Duration.ofDays(outOfSampleDays), startingBalance, metric, PruningSchedule.none());
+        } catch (Exception e) {
+            LOGGER.error("Failed to run walk-forward analysis.", e);
+        }
+    }
+
+    /**
+     * Convert a date to a Timestamp at the start of the day in UTC, which is the time zone that Candlesticks are stored in.
+     * @param date LocalDate
+     * @return Timestamp
+     */
+    private Timestamp toTimestamp(LocalDate date) {
+        return Timestamp.from(date.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
     /**
      * Get the BacktestResults that match the provided StrategyParameterSet ID.
      * @param strategyParameterSetID ID of a StrategyParameterSet
@@ -93,4 +245,17 @@ public class BacktestController {
     public List<BacktestResult> getBacktestResultsForStrategyParameterSetID(Integer strategyParameterSetID) {
         return backtestResultDAO.getBacktestResultsByStrategyParameterSetID(strategyParameterSetID);
     }
+
+    /**
+     * Get the BacktestResults of a StrategyParameterSet that did not finish and have a checkpoint to resume from.
+     * @param strategyParameterSetID ID of a StrategyParameterSet
+     * @return List of BacktestResults
+     */
+    public List<BacktestResult> getResumableBacktestResults(Integer strategyParameterSetID) {
+        List<Integer> runningBacktestResultIDs = getRunningBacktests().stream().map(strategy -> strategy.getBacktestResult().getBacktestResultID()).toList();
+        return getBacktestResultsForStrategyParameterSetID(strategyParameterSetID).stream()
+                .filter(backtestResult -> checkpointStore.exists(backtestResult.getBacktestResultID()))
+                .filter(backtestResult -> !runningBacktestResultIDs.contains(backtestResult.getBacktestResultID()))
+                .toList();
+    }
 }
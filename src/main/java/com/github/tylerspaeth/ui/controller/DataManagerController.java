@@ -1,11 +1,14 @@
 package com.github.tylerspaeth.ui.controller;
 
+import com.github.tylerspaeth.broker.ib.IBSyncWrapper;
+import com.github.tylerspaeth.common.data.dao.CandlestickDAO;
 import com.github.tylerspaeth.common.data.dao.HistoricalDatasetDAO;
 import com.github.tylerspaeth.common.data.dao.SymbolDAO;
 import com.github.tylerspaeth.common.data.entity.HistoricalDataset;
 import com.github.tylerspaeth.common.data.entity.Symbol;
 import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
 import com.github.tylerspaeth.datamanager.DataManagerService;
+import com.github.tylerspaeth.datamanager.HistoricalDataBackfillService;
 import jakarta.persistence.NonUniqueResultException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller for the Data Manager UI classes.
@@ -28,7 +32,16 @@ public class DataManagerController {
     public DataManagerController() {
         symbolDAO = new SymbolDAO();
         historicalDatasetDAO = new HistoricalDatasetDAO();
-        dataManagerService = new DataManagerService(historicalDatasetDAO);
+        dataManagerService = new DataManagerService(historicalDatasetDAO, new HistoricalDataBackfillService(IBSyncWrapper.getInstance(), new CandlestickDAO()));
+    }
+
+    /**
+     * For creating a controller with its dependencies provided. This should NOT be used for anything other than testing.
+     */
+    DataManagerController(SymbolDAO symbolDAO, HistoricalDatasetDAO historicalDatasetDAO, DataManagerService dataManagerService) {
+        this.symbolDAO = symbolDAO;
+        this.historicalDatasetDAO = historicalDatasetDAO;
+        this.dataManagerService = dataManagerService;
     }
 
     public List<HistoricalDataset> getAllHistoricalDatasets() {
@@ -73,4 +86,13 @@ public class DataManagerController {
         return dataManagerService.loadDatasetFromCSV(historicalDataset, new File(sourceFileLocation), sourceFileColumnOrder,
                 sourceFileMetadataRows, new SimpleDateFormat(sourceFileDateFormat));
     }
+
+    /**
+     * Extends a dataset with bars from IB from the end of the dataset up to now.
+     * @param historicalDataset The HistoricalDataset to extend.
+     * @return Future that completes with the number of Candlesticks added, or null if the extension could not be started.
+     */
+    public CompletableFuture<Integer> extendDatasetFromIB(HistoricalDataset historicalDataset) {
+        return dataManagerService.extendDatasetFromIB(historicalDataset);
+    }
 }
@@ -34,6 +34,14 @@ public class LiveTradingController {
         return strategyDAO.getAllActiveStrategies();
     }
 
+    /**
+     * Retrieve the strategies that are currently live trading.
+     * @return List of AbstractStrategy.
+     */
+    public List<AbstractStrategy> getRunningStrategies() {
+        return StrategyRunRequest.getRunningStrategies().stream().filter(strategy -> strategy.getBacktestResult() == null).toList();
+    }
+
     /**
      * Run a Strategy with the given StrategyParameterSet.
      * @param engineCoordinator EngineCoordinator that the strategy should run through.
@@ -6,6 +6,7 @@ import com.github.tylerspaeth.ui.view.backtest.BacktestMenu;
 import com.github.tylerspaeth.ui.view.common.AbstractMenuView;
 import com.github.tylerspaeth.ui.view.common.AbstractView;
 import com.github.tylerspaeth.ui.view.data.DataManagerMenu;
+import com.github.tylerspaeth.ui.view.diagnostics.DiagnosticsView;
 import com.github.tylerspaeth.ui.view.livetrading.LiveTradingMenu;
 import com.github.tylerspaeth.ui.view.settings.SettingsMenu;
 import com.github.tylerspaeth.ui.view.signin.SignInMenu;
@@ -44,6 +45,9 @@ public class MainMenuView extends AbstractMenuView {
         options.add("Settings");
         optionBehaviors.add(SettingsMenu::new);
 
+        options.add("Diagnostics");
+        optionBehaviors.add(DiagnosticsView::new);
+
         options.add("Sign Out");
         optionBehaviors.add(() -> {
             LOGGER.info("Signing out user {}", uiContext.activeUser);
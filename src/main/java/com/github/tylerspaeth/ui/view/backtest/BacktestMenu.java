@@ -6,6 +6,7 @@ import com.github.tylerspaeth.ui.controller.BacktestController;
 import com.github.tylerspaeth.ui.view.common.AbstractMenuView;
 import com.github.tylerspaeth.ui.view.common.AbstractView;
 import com.github.tylerspaeth.ui.view.common.HorizontalMultiView;
+import com.github.tylerspaeth.ui.view.diagnostics.StrategyResourceUsageView;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -29,6 +30,9 @@ public class BacktestMenu extends AbstractMenuView {
         List<String> options = new ArrayList<>();
         List<Supplier<AbstractView>> optionBehaviors = new ArrayList<>();
 
+        options.add("Running Backtest Resource Usage");
+        optionBehaviors.add(() -> new StrategyResourceUsageView("Backtest Resource Usage", backtestController::getRunningBacktests));
+
         List<Strategy> strategies = backtestController.getAllActiveStrategies();
         for(Strategy strategy : strategies) {
             options.add(strategy.toString());
@@ -2,6 +2,8 @@ package com.github.tylerspaeth.ui.view.backtest;
 
 import com.github.tylerspaeth.common.data.entity.BacktestResult;
 import com.github.tylerspaeth.common.data.entity.Trade;
+import com.github.tylerspaeth.common.enums.ResamplingMethodEnum;
+import com.github.tylerspaeth.statistics.MonteCarloSimulator;
 import com.github.tylerspaeth.ui.controller.BacktestController;
 import com.github.tylerspaeth.ui.view.common.AbstractDetailView;
 
@@ -23,8 +25,15 @@ public class BacktestResultsDetailView extends AbstractDetailView {
             Individual Trade Count: {3}
             Number of Positions Taken: {4}
             Sharpe Ratio: {5}
+            Pruned: {6}
+            Monte Carlo ({7} Bootstrapped Paths, 5th / 50th / 95th Percentile):
+              P/L: {8}
+              Max Drawdown: {9}
+              Per Trade Sharpe Ratio: {10}
             """;
 
+    private static final int MONTE_CARLO_PATHS = 1_000;
+
     private final BacktestController backtestController;
 
     public BacktestResultsDetailView() {
@@ -35,13 +44,31 @@ public class BacktestResultsDetailView extends AbstractDetailView {
         List<Trade> trades = new ArrayList<>();
         backtestResult.getOrders().forEach(order -> trades.addAll(order.getTrades()));
         trades.sort(Comparator.comparing(Trade::getTimestamp));
+        MonteCarloSimulator.MonteCarloResult monteCarloResult = backtestController.runMonteCarloSimulation(trades, backtestResult.getStartingBalance(), MONTE_CARLO_PATHS, ResamplingMethodEnum.BOOTSTRAP);
         setText(MessageFormat.format(DETAIL_VIEW_TEXT,
                                      backtestResult.getStartTime(),
                                      backtestResult.getEndTime(),
                                      backtestController.calculatePnL(trades),
                                      trades.size(),
                                      backtestController.calculatePositionsTaken(trades),
-                                     backtestController.calculateSharpeRatio(backtestResult)));
+                                     backtestController.calculateSharpeRatio(backtestResult),
+                                     backtestResult.isPruned() ? "At " + backtestResult.getPrunedAt() + " with a metric of " + backtestResult.getPrunedMetricValue() : "No",
+                                     MONTE_CARLO_PATHS,
+                                     formatPercentiles(monteCarloResult == null ? null : monteCarloResult.finalPnL()),
+                                     formatPercentiles(monteCarloResult == null ? null : monteCarloResult.maxDrawdown()),
+                                     formatPercentiles(monteCarloResult == null ? null : monteCarloResult.sharpeRatio())));
+    }
+
+    /**
+     * Format the 5th, 50th, and 95th percentiles of a Monte Carlo distribution.
+     * @param distribution Distribution to format, or null if there was no simulation.
+     * @return Formatted percentiles.
+     */
+    private String formatPercentiles(MonteCarloSimulator.Distribution distribution) {
+        if(distribution == null) {
+            return "N/A";
+        }
+        return String.format("%.2f / %.2f / %.2f", distribution.percentile(0.05), distribution.percentile(0.5), distribution.percentile(0.95));
     }
 
 }
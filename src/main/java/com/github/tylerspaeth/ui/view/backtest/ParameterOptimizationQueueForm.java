@@ -0,0 +1,68 @@
+package com.github.tylerspaeth.ui.view.backtest;
+
+import com.github.tylerspaeth.common.data.entity.Strategy;
+import com.github.tylerspaeth.common.enums.OptimizationMetricEnum;
+import com.github.tylerspaeth.ui.UIContext;
+import com.github.tylerspaeth.ui.controller.BacktestController;
+import com.github.tylerspaeth.ui.view.common.AbstractFormView;
+import com.github.tylerspaeth.ui.view.common.ViewAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Form for queueing a parameter optimization across all the parameter sets of a strategy to be run by backtest workers.
+ */
+public class ParameterOptimizationQueueForm extends AbstractFormView {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParameterOptimizationQueueForm.class);
+
+    private final BacktestController backtestController;
+
+    private final Strategy strategy;
+
+    private UIContext uiContext;
+
+    public ParameterOptimizationQueueForm(Strategy strategy) {
+        this.strategy = strategy;
+        this.backtestController = new BacktestController();
+    }
+
+    @Override
+    public void onEnter(UIContext uiContext) {
+        this.uiContext = uiContext;
+
+        if(strategy == null) {
+            return;
+        }
+
+        setTopText("Strategy: " + strategy + "\nParameter Sets: " + strategy.getStrategyParameterSets().size()
+                + "\n\nBacktests are run by workers started by running the jar with --worker");
+
+        setFormFields(new ArrayList<>(List.of("Enter Starting Account Balance", "Metric (PNL, PNL_PER_POSITION)")),
+                new ArrayList<>(List.of("", OptimizationMetricEnum.PNL.name())));
+        setSubmissionCallback(this::queueParameterOptimization);
+        setSubmitButtonText("Queue Parameter Optimization");
+    }
+
+    /**
+     * Submission callback for queueing the parameter optimization.
+     * @param formFields Fields that contain the starting account balance and metric.
+     * @return View to display upon submission.
+     */
+    private ViewAction queueParameterOptimization(List<String> formFields) {
+        try {
+            LOGGER.info("Queueing parameter optimization for Strategy {}", strategy.getStrategyID());
+            backtestController.queueParameterOptimization(uiContext.activeUser, strategy,
+                    Float.parseFloat(formFields.get(0)),
+                    OptimizationMetricEnum.valueOf(formFields.get(1).trim().toUpperCase()));
+        } catch (Exception e) {
+            LOGGER.error("Failed to queue parameter optimization for Strategy {}", strategy, e);
+            return ViewAction.none();
+        }
+        return ViewAction.pop();
+    }
+
+}
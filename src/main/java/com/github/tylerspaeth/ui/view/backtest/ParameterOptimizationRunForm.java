@@ -0,0 +1,69 @@
+package com.github.tylerspaeth.ui.view.backtest;
+
+import com.github.tylerspaeth.common.data.entity.Strategy;
+import com.github.tylerspaeth.common.enums.OptimizationMetricEnum;
+import com.github.tylerspaeth.ui.UIContext;
+import com.github.tylerspaeth.ui.controller.BacktestController;
+import com.github.tylerspaeth.ui.view.common.AbstractFormView;
+import com.github.tylerspaeth.ui.view.common.ViewAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Form for running a parameter optimization across all the parameter sets of a strategy.
+ */
+public class ParameterOptimizationRunForm extends AbstractFormView {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParameterOptimizationRunForm.class);
+
+    private final BacktestController backtestController;
+
+    private final Strategy strategy;
+
+    private UIContext uiContext;
+
+    public ParameterOptimizationRunForm(Strategy strategy) {
+        this.strategy = strategy;
+        this.backtestController = new BacktestController();
+    }
+
+    @Override
+    public void onEnter(UIContext uiContext) {
+        this.uiContext = uiContext;
+
+        if(strategy == null) {
+            return;
+        }
+
+        setTopText("Strategy: " + strategy + "\nParameter Sets: " + strategy.getStrategyParameterSets().size());
+
+        setFormFields(new ArrayList<>(List.of("Enter Starting Account Balance", "Metric (PNL, PNL_PER_POSITION)", "Fraction Of Dataset Before First Pruning", "Fraction Pruned Each Time")),
+                new ArrayList<>(List.of("", OptimizationMetricEnum.PNL.name(), "0.1", "0.5")));
+        setSubmissionCallback(this::runParameterOptimization);
+        setSubmitButtonText("Run Parameter Optimization");
+    }
+
+    /**
+     * Submission callback for running the parameter optimization.
+     * @param formFields Fields that contain the starting account balance, metric, first rung fraction, and prune fraction.
+     * @return View to display upon submission.
+     */
+    private ViewAction runParameterOptimization(List<String> formFields) {
+        try {
+            LOGGER.info("Running parameter optimization for Strategy {}", strategy.getStrategyID());
+            backtestController.runParameterOptimization(uiContext.engineCoordinator, uiContext.activeUser, strategy,
+                    Float.parseFloat(formFields.get(0)),
+                    OptimizationMetricEnum.valueOf(formFields.get(1).trim().toUpperCase()),
+                    Float.parseFloat(formFields.get(2)),
+                    Float.parseFloat(formFields.get(3)));
+        } catch (Exception e) {
+            LOGGER.error("Failed to run parameter optimization for Strategy {}", strategy, e);
+            return ViewAction.none();
+        }
+        return ViewAction.pop();
+    }
+
+}
@@ -40,6 +40,9 @@ public class ParameterSetOptionsMenu extends AbstractMenuView {
         options.add("Run New Backtest");
         optionBehaviors.add(() -> new ParameterSetRunForm(strategyParameterSet));
 
+        options.add("Resume Backtest");
+        optionBehaviors.add(() -> new ResumeBacktestMenu(strategyParameterSet));
+
         setOptions(options, optionBehaviors);
         setOptionsPerPage(10);
     }
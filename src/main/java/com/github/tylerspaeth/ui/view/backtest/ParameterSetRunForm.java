@@ -8,6 +8,7 @@ import com.github.tylerspaeth.ui.view.common.ViewAction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -39,20 +40,22 @@ public class ParameterSetRunForm extends AbstractFormView {
 
         setTopText("Parameter Set: " + strategyParameterSet);
 
-        setFormFields(new ArrayList<>(List.of("Enter Starting Account Balance")), new ArrayList<>(List.of("")));
+        setFormFields(new ArrayList<>(List.of("Enter Starting Account Balance", "Start Date (yyyy-mm-dd, Blank For All Data)", "End Date (yyyy-mm-dd, Blank For All Data)")),
+                new ArrayList<>(List.of("", "", "")));
         setSubmissionCallback(this::runBacktest);
         setSubmitButtonText("Run Backtest");
     }
 
     /**
      * Submission callback for running the backtest.
-     * @param formFields Fields the contain the starting account balance.
+     * @param formFields Fields the contain the starting account balance, start date, and end date.
      * @return View to display upon submission.
      */
     private ViewAction runBacktest(List<String> formFields) {
         try {
             LOGGER.info("Running backtest for StrategyParameterSet {}", strategyParameterSet.getStrategyParameterSetID());
-            backtestController.runBacktest(uiContext.engineCoordinator, uiContext.activeUser, strategyParameterSet, Float.parseFloat(formFields.getFirst()));
+            backtestController.runBacktest(uiContext.engineCoordinator, uiContext.activeUser, strategyParameterSet, Float.parseFloat(formFields.getFirst()),
+                    parseDate(formFields.get(1)), parseDate(formFields.get(2)));
         } catch (Exception e) {
             LOGGER.error("Failed to run backtest for StrategyParameterSet {}", strategyParameterSet, e);
             return ViewAction.none();
@@ -60,4 +63,13 @@ public class ParameterSetRunForm extends AbstractFormView {
         return ViewAction.pop();
     }
 
+    /**
+     * Parse an optional date field.
+     * @param field Text of the field.
+     * @return LocalDate, or null if the field is blank.
+     */
+    private LocalDate parseDate(String field) {
+        return field.isBlank() ? null : LocalDate.parse(field.trim());
+    }
+
 }
@@ -0,0 +1,64 @@
+package com.github.tylerspaeth.ui.view.backtest;
+
+import com.github.tylerspaeth.common.data.entity.BacktestResult;
+import com.github.tylerspaeth.common.data.entity.StrategyParameterSet;
+import com.github.tylerspaeth.ui.UIContext;
+import com.github.tylerspaeth.ui.controller.BacktestController;
+import com.github.tylerspaeth.ui.view.common.AbstractMenuView;
+import com.github.tylerspaeth.ui.view.common.AbstractView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Menu showing the backtests of a parameter set that did not finish and can be resumed from their last checkpoint.
+ */
+public class ResumeBacktestMenu extends AbstractMenuView {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResumeBacktestMenu.class);
+
+    private final int strategyParameterSetID;
+
+    private final BacktestController backtestController;
+
+    public ResumeBacktestMenu(StrategyParameterSet strategyParameterSet) {
+        this.strategyParameterSetID = strategyParameterSet.getStrategyParameterSetID();
+        this.backtestController = new BacktestController();
+    }
+
+    @Override
+    public void onEnter(UIContext uiContext) {
+        setTopText("Select a backtest to resume from its last checkpoint:\n ");
+
+        loadOptions(uiContext);
+    }
+
+    @Override
+    public void onRefresh(UIContext uiContext) {
+        loadOptions(uiContext);
+    }
+
+    /**
+     * Load the menu options.
+     */
+    private void loadOptions(UIContext uiContext) {
+        List<String> options = new ArrayList<>();
+        List<Supplier<AbstractView>> optionBehaviors = new ArrayList<>();
+
+        for(BacktestResult backtestResult : backtestController.getResumableBacktestResults(strategyParameterSetID)) {
+            options.add(backtestResult.toString());
+            optionBehaviors.add(() -> {
+                LOGGER.info("Resuming BacktestResult {}", backtestResult.getBacktestResultID());
+                backtestController.resumeBacktest(uiContext.engineCoordinator, uiContext.activeUser, backtestResult);
+                loadOptions(uiContext);
+                return null;
+            });
+        }
+
+        setOptions(options, optionBehaviors);
+        setOptionsPerPage(10);
+    }
+}
@@ -11,7 +11,8 @@ import java.util.List;
 import java.util.function.Supplier;
 
 /**
- * Menu for selecting a parameter set from a list of strategies and sending that selection to the ParameterSetOptionsMenu.
+ * Menu for selecting a parameter set from a list of strategies and sending that selection to the ParameterSetOptionsMenu,
+ * or for optimizing across all the parameter sets of the strategy.
  */
 public class StrategyMenu extends AbstractMenuView {
 
@@ -39,6 +40,16 @@ public class StrategyMenu extends AbstractMenuView {
                return null;
             });
         }
+
+        options.add("Run Parameter Optimization");
+        optionBehaviors.add(() -> new ParameterOptimizationRunForm(strategy));
+
+        options.add("Queue Parameter Optimization For Workers");
+        optionBehaviors.add(() -> new ParameterOptimizationQueueForm(strategy));
+
+        options.add("Run Walk-Forward Analysis");
+        optionBehaviors.add(() -> new WalkForwardRunForm(strategy));
+
         setOptions(options, optionBehaviors);
         setOptionsPerPage(10);
     }
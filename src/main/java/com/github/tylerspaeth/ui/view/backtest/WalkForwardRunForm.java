@@ -0,0 +1,70 @@
+package com.github.tylerspaeth.ui.view.backtest;
+
+import com.github.tylerspaeth.common.data.entity.Strategy;
+import com.github.tylerspaeth.common.enums.OptimizationMetricEnum;
+import com.github.tylerspaeth.ui.UIContext;
+import com.github.tylerspaeth.ui.controller.BacktestController;
+import com.github.tylerspaeth.ui.view.common.AbstractFormView;
+import com.github.tylerspaeth.ui.view.common.ViewAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Form for running walk-forward analysis across all the parameter sets of a strategy.
+ */
+public class WalkForwardRunForm extends AbstractFormView {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WalkForwardRunForm.class);
+
+    private final BacktestController backtestController;
+
+    private final Strategy strategy;
+
+    private UIContext uiContext;
+
+    public WalkForwardRunForm(Strategy strategy) {
+        this.strategy = strategy;
+        this.backtestController = new BacktestController();
+    }
+
+    @Override
+    public void onEnter(UIContext uiContext) {
+        this.uiContext = uiContext;
+
+        if(strategy == null) {
+            return;
+        }
+
+        setTopText("Strategy: " + strategy + "\nParameter Sets: " + strategy.getStrategyParameterSets().size());
+
+        setFormFields(new ArrayList<>(List.of("Enter Starting Account Balance", "Metric (PNL, PNL_PER_POSITION)", "Historical Dataset ID", "In-Sample Days", "Out-Of-Sample Days")),
+                new ArrayList<>(List.of("", OptimizationMetricEnum.PNL.name(), "", "90", "30")));
+        setSubmissionCallback(this::runWalkForward);
+        setSubmitButtonText("Run Walk-Forward Analysis");
+    }
+
+    /**
+     * Submission callback for running the walk-forward analysis.
+     * @param formFields Fields that contain the starting account balance, metric, dataset ID, in-sample days, and out-of-sample days.
+     * @return View to display upon submission.
+     */
+    private ViewAction runWalkForward(List<String> formFields) {
+        try {
+            LOGGER.info("Running walk-forward analysis for Strategy {}", strategy.getStrategyID());
+            backtestController.runWalkForward(uiContext.engineCoordinator, uiContext.activeUser, strategy,
+                    Integer.parseInt(formFields.get(2).trim()),
+                    Float.parseFloat(formFields.get(0)),
+                    OptimizationMetricEnum.valueOf(formFields.get(1).trim().toUpperCase()),
+                    Integer.parseInt(formFields.get(3).trim()),
+                    Integer.parseInt(formFields.get(4).trim()));
+        } catch (Exception e) {
+            LOGGER.error("Failed to run walk-forward analysis for Strategy {}", strategy, e);
+            return ViewAction.none();
+        }
+        return ViewAction.pop();
+    }
+
+}
@@ -28,8 +28,9 @@ public class DataManagerMenu extends AbstractMenuView {
         optionBehaviors.add(() -> {
             HorizontalMultiView horizontalMultiView = new HorizontalMultiView();
             DatasetDetailView datasetDetailView = new DatasetDetailView();
-            DatasetsMenu datasetsMenu = new DatasetsMenu(datasetDetailView);
-            horizontalMultiView.setViews(List.of(datasetsMenu, datasetDetailView));
+            DatasetOptionsMenu datasetOptionsMenu = new DatasetOptionsMenu();
+            DatasetsMenu datasetsMenu = new DatasetsMenu(datasetDetailView, datasetOptionsMenu);
+            horizontalMultiView.setViews(List.of(datasetsMenu, datasetOptionsMenu, datasetDetailView), List.of(false, true, false));
             return horizontalMultiView;
         });
 
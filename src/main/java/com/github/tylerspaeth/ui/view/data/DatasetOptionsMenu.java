@@ -0,0 +1,63 @@
+package com.github.tylerspaeth.ui.view.data;
+
+import com.github.tylerspaeth.common.data.entity.HistoricalDataset;
+import com.github.tylerspaeth.ui.UIContext;
+import com.github.tylerspaeth.ui.controller.DataManagerController;
+import com.github.tylerspaeth.ui.view.common.AbstractMenuView;
+import com.github.tylerspaeth.ui.view.common.AbstractView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Menu with options for what to do with a given dataset.
+ */
+public class DatasetOptionsMenu extends AbstractMenuView {
+
+    private final DataManagerController dataManagerController;
+
+    private HistoricalDataset historicalDataset;
+
+    public DatasetOptionsMenu() {
+        dataManagerController = new DataManagerController();
+    }
+
+    @Override
+    public void onEnter(UIContext uiContext) {
+        if(historicalDataset == null) {
+            return;
+        }
+
+        setTopText("Select an option:");
+        setBottomText(null);
+
+        List<String> options = new ArrayList<>();
+        List<Supplier<AbstractView>> optionBehaviors = new ArrayList<>();
+
+        options.add("Extend from IB");
+        optionBehaviors.add(() -> {
+            HistoricalDataset extendedDataset = historicalDataset;
+            CompletableFuture<Integer> result = dataManagerController.extendDatasetFromIB(extendedDataset);
+            if(result == null) {
+                setBottomText("Unable to extend " + extendedDataset + ".");
+                return null;
+            }
+            setBottomText("Extending " + extendedDataset + " from IB...");
+            result.whenComplete((added, ex) -> {
+                if(historicalDataset == extendedDataset) {
+                    setBottomText(ex == null ? "Added " + added + " candlesticks to " + extendedDataset + "." : "Extending " + extendedDataset + " failed, run it again to resume.");
+                }
+            });
+            return null;
+        });
+
+        setOptions(options, optionBehaviors);
+        setOptionsPerPage(10);
+    }
+
+    public void setHistoricalDataset(HistoricalDataset historicalDataset) {
+        this.historicalDataset = historicalDataset;
+    }
+}
@@ -11,7 +11,7 @@ import java.util.List;
 import java.util.function.Supplier;
 
 /**
- * Menu to select a dataset to view in DatasetDetailView
+ * Menu to select a dataset to view in DatasetDetailView and act on with DatasetOptionsMenu
  */
 public class DatasetsMenu extends AbstractMenuView {
 
@@ -19,9 +19,12 @@ public class DatasetsMenu extends AbstractMenuView {
 
     private final DatasetDetailView datasetDetailView;
 
-    public DatasetsMenu(DatasetDetailView datasetDetailView) {
+    private final DatasetOptionsMenu datasetOptionsMenu;
+
+    public DatasetsMenu(DatasetDetailView datasetDetailView, DatasetOptionsMenu datasetOptionsMenu) {
         dataManagerController = new DataManagerController();
         this.datasetDetailView = datasetDetailView;
+        this.datasetOptionsMenu = datasetOptionsMenu;
     }
 
     @Override
@@ -36,6 +39,8 @@ public class DatasetsMenu extends AbstractMenuView {
             options.add(historicalDataset.toString());
             optionBehaviors.add(() -> {
                 datasetDetailView.setHistoricalDataset(historicalDataset);
+                datasetOptionsMenu.setHistoricalDataset(historicalDataset);
+                datasetOptionsMenu.onEnter(uiContext);
                 return null;
             });
         }
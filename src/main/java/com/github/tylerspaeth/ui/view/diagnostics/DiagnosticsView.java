@@ -0,0 +1,72 @@
+package com.github.tylerspaeth.ui.view.diagnostics;
+
+import com.github.tylerspaeth.common.metrics.Counter;
+import com.github.tylerspaeth.common.metrics.MetricKey;
+import com.github.tylerspaeth.common.metrics.MetricsRegistry;
+import com.github.tylerspaeth.common.metrics.Timer;
+import com.github.tylerspaeth.ui.UIContext;
+import com.github.tylerspaeth.ui.view.common.AbstractDetailView;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * See the metrics that the engine, DAOs, strategies and IB callbacks have recorded. Rates are calculated from the change
+ * in each Counter since the last refresh, which can be triggered with F1.
+ */
+public class DiagnosticsView extends AbstractDetailView {
+
+    private static final String TIMER_FORMAT = "%-70s %10s %10s %10s %10s";
+    private static final String COUNTER_FORMAT = "%-70s %12s %12s";
+    private static final double NANOS_PER_MICRO = 1_000;
+
+    private final Map<MetricKey, Long> previousCounts = new HashMap<>();
+    private long previousRefreshNanos;
+
+    @Override
+    public void onEnter(UIContext uiContext) {
+        onRefresh(uiContext);
+    }
+
+    @Override
+    public void onResume(UIContext uiContext) {
+        onRefresh(uiContext);
+    }
+
+    @Override
+    public void onRefresh(UIContext uiContext) {
+        MetricsRegistry metricsRegistry = MetricsRegistry.getInstance();
+        long refreshNanos = System.nanoTime();
+        double secondsSinceRefresh = previousCounts.isEmpty() ? 0 : (refreshNanos - previousRefreshNanos) / 1e9;
+
+        StringBuilder text = new StringBuilder("Diagnostics (F1 to refresh, times in microseconds):\n\n");
+
+        text.append(String.format(TIMER_FORMAT, "Timer", "Count", "p50", "p99", "Max")).append('\n');
+        for(Map.Entry<MetricKey, Timer> entry : metricsRegistry.getTimers().entrySet()) {
+            Timer.Snapshot snapshot = entry.getValue().snapshot();
+            text.append(String.format(TIMER_FORMAT, entry.getKey(), snapshot.count(),
+                    formatMicros(snapshot.p50Nanos()), formatMicros(snapshot.p99Nanos()), formatMicros(snapshot.maxNanos()))).append('\n');
+        }
+
+        text.append('\n').append(String.format(COUNTER_FORMAT, "Counter", "Total", "Per Second")).append('\n');
+        for(Map.Entry<MetricKey, Counter> entry : metricsRegistry.getCounters().entrySet()) {
+            long count = entry.getValue().get();
+            Long previousCount = previousCounts.put(entry.getKey(), count);
+            String rate = previousCount == null || secondsSinceRefresh <= 0 ? "-" : String.format("%.1f", (count - previousCount) / secondsSinceRefresh);
+            text.append(String.format(COUNTER_FORMAT, entry.getKey(), count, rate)).append('\n');
+        }
+
+        text.append('\n').append(String.format(COUNTER_FORMAT, "Gauge", "Value", "")).append('\n');
+        for(Map.Entry<MetricKey, LongSupplier> entry : metricsRegistry.getGauges().entrySet()) {
+            text.append(String.format(COUNTER_FORMAT, entry.getKey(), entry.getValue().getAsLong(), "")).append('\n');
+        }
+
+        previousRefreshNanos = refreshNanos;
+        setText(text.toString());
+    }
+
+    private static String formatMicros(long nanos) {
+        return String.format("%.1f", nanos / NANOS_PER_MICRO);
+    }
+}
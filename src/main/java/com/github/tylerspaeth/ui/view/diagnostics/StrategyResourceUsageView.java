@@ -0,0 +1,67 @@
+package com.github.tylerspaeth.ui.view.diagnostics;
+
+import com.github.tylerspaeth.common.metrics.ResourceUsage;
+import com.github.tylerspaeth.strategy.AbstractStrategy;
+import com.github.tylerspaeth.strategy.StrategyResourceLimits;
+import com.github.tylerspaeth.ui.UIContext;
+import com.github.tylerspaeth.ui.view.common.AbstractDetailView;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * See the CPU time, allocations, engine requests and DAO operations of each running strategy, along with any limits
+ * that have been exceeded. The usage can be refreshed with F1.
+ */
+public class StrategyResourceUsageView extends AbstractDetailView {
+
+    private static final String ROW_FORMAT = "%-50s %12s %14s %16s %14s %-12s";
+    private static final double NANOS_PER_MILLI = 1_000_000;
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    private final String title;
+    private final Supplier<List<AbstractStrategy>> runningStrategies;
+
+    public StrategyResourceUsageView(String title, Supplier<List<AbstractStrategy>> runningStrategies) {
+        this.title = title;
+        this.runningStrategies = runningStrategies;
+    }
+
+    @Override
+    public void onEnter(UIContext uiContext) {
+        onRefresh(uiContext);
+    }
+
+    @Override
+    public void onResume(UIContext uiContext) {
+        onRefresh(uiContext);
+    }
+
+    @Override
+    public void onRefresh(UIContext uiContext) {
+        StringBuilder text = new StringBuilder(title).append(" (F1 to refresh):\n\n");
+        text.append(String.format(ROW_FORMAT, "Strategy", "CPU (ms)", "Allocated (MB)", "Engine Requests", "DAO Operations", "Limits")).append('\n');
+
+        List<AbstractStrategy> strategies = runningStrategies.get();
+        for(AbstractStrategy strategy : strategies) {
+            ResourceUsage resourceUsage = strategy.getResourceUsage();
+            text.append(String.format(ROW_FORMAT, strategy.getStrategyParameterSet(),
+                    String.format("%.1f", resourceUsage.getCpuTimeNanos() / NANOS_PER_MILLI),
+                    String.format("%.1f", resourceUsage.getAllocatedBytes() / BYTES_PER_MEGABYTE),
+                    resourceUsage.getEngineRequests(), resourceUsage.getDaoOperations(), describeLimits(strategy))).append('\n');
+        }
+        if(strategies.isEmpty()) {
+            text.append("No strategies are running.\n");
+        }
+
+        setText(text.toString());
+    }
+
+    private static String describeLimits(AbstractStrategy strategy) {
+        StrategyResourceLimits resourceLimits = strategy.getResourceLimits();
+        if(!resourceLimits.hasLimits()) {
+            return "None";
+        }
+        return strategy.isResourceLimitExceeded() ? "Exceeded (" + resourceLimits.action() + ")" : "Within";
+    }
+}
@@ -6,6 +6,7 @@ import com.github.tylerspaeth.ui.controller.LiveTradingController;
 import com.github.tylerspaeth.ui.view.common.AbstractMenuView;
 import com.github.tylerspaeth.ui.view.common.AbstractView;
 import com.github.tylerspaeth.ui.view.common.HorizontalMultiView;
+import com.github.tylerspaeth.ui.view.diagnostics.StrategyResourceUsageView;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -29,6 +30,9 @@ public class LiveTradingMenu extends AbstractMenuView {
         List<String> options = new ArrayList<>();
         List<Supplier<AbstractView>> optionBehaviors = new ArrayList<>();
 
+        options.add("Running Strategy Resource Usage");
+        optionBehaviors.add(() -> new StrategyResourceUsageView("Live Strategy Resource Usage", liveTradingController::getRunningStrategies));
+
         List<Strategy> strategies = liveTradingController.getAllActiveStrategies();
         for(Strategy strategy : strategies) {
             options.add(strategy.toString());
@@ -39,10 +43,10 @@ public class LiveTradingMenu extends AbstractMenuView {
                 horizontalMultiView.setViews(List.of(strategyMenu, parameterSetOptionsMenu), List.of(false, true));
                 return horizontalMultiView;
             });
-
-            setOptions(options, optionBehaviors);
-            setOptionsPerPage(10);
         }
+
+        setOptions(options, optionBehaviors);
+        setOptionsPerPage(10);
     }
 
 }
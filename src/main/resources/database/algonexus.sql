@@ -21,10 +21,16 @@ USE `algonexus` ;
 -- Table `algonexus`.`parameteroptimization`
 -- -----------------------------------------------------
 CREATE TABLE IF NOT EXISTS `algonexus`.`parameteroptimization` (
-  `ParameterOptimizationID` INT NOT NULL,
+  `ParameterOptimizationID` INT NOT NULL AUTO_INCREMENT,
   `StartTime` TIMESTAMP(6) NULL DEFAULT NULL,
   `EndTime` TIMESTAMP(6) NULL DEFAULT NULL,
-  PRIMARY KEY (`ParameterOptimizationID`))
+  `Metric` VARCHAR(20) NULL DEFAULT NULL,
+  `OutOfSampleBacktestResultID` INT NULL DEFAULT NULL,
+  PRIMARY KEY (`ParameterOptimizationID`),
+  INDEX `fk_parameteroptimization_backtestresults_OutOfSampleBacktest_idx` (`OutOfSampleBacktestResultID` ASC) VISIBLE,
+  CONSTRAINT `fk_parameteroptimization_backtestresults_OutOfSampleBacktestResultID`
+    FOREIGN KEY (`OutOfSampleBacktestResultID`)
+    REFERENCES `algonexus`.`backtestresults` (`BacktestResultID`))
 ENGINE = InnoDB
 DEFAULT CHARACTER SET = utf8mb4
 COLLATE = utf8mb4_0900_ai_ci;
@@ -80,6 +86,11 @@ CREATE TABLE IF NOT EXISTS `algonexus`.`backtestresults` (
   `EndTime` TIMESTAMP(6) NULL DEFAULT NULL,
   `StartingBalance` FLOAT NOT NULL,
   `ParameterOptimizationID` INT NULL DEFAULT NULL,
+  `Pruned` BIT(1) NOT NULL DEFAULT b'0',
+  `PrunedAt` TIMESTAMP(6) NULL DEFAULT NULL,
+  `PrunedMetricValue` FLOAT NULL DEFAULT NULL,
+  `DataStart` TIMESTAMP(6) NULL DEFAULT NULL,
+  `DataEnd` TIMESTAMP(6) NULL DEFAULT NULL,
   PRIMARY KEY (`BacktestResultID`),
   INDEX `StrategyParameterSetID_idx` (`StrategyParameterSetID` ASC) VISIBLE,
   INDEX `fk_backtestresults_parameteroptimization_ParameterOptimizat_idx` (`ParameterOptimizationID` ASC) VISIBLE,
@@ -322,6 +333,47 @@ DEFAULT CHARACTER SET = utf8mb4
 COLLATE = utf8mb4_0900_ai_ci;
 
 
+-- -----------------------------------------------------
+-- Table `algonexus`.`backtestjobs`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `algonexus`.`backtestjobs` (
+  `BacktestJobID` INT NOT NULL AUTO_INCREMENT,
+  `StrategyParameterSetID` INT NOT NULL,
+  `UserID` INT NOT NULL,
+  `StartingBalance` FLOAT NOT NULL,
+  `DataStart` TIMESTAMP(6) NULL DEFAULT NULL,
+  `DataEnd` TIMESTAMP(6) NULL DEFAULT NULL,
+  `ParameterOptimizationID` INT NULL DEFAULT NULL,
+  `Status` VARCHAR(20) NOT NULL,
+  `WorkerID` VARCHAR(100) NULL DEFAULT NULL,
+  `LeaseExpiry` TIMESTAMP(6) NULL DEFAULT NULL,
+  `Attempts` INT NOT NULL DEFAULT '0',
+  `BacktestResultID` INT NULL DEFAULT NULL,
+  `CreatedAt` TIMESTAMP(6) NOT NULL,
+  `FinishedAt` TIMESTAMP(6) NULL DEFAULT NULL,
+  PRIMARY KEY (`BacktestJobID`),
+  INDEX `Status_BacktestJobID_idx` (`Status` ASC, `BacktestJobID` ASC) VISIBLE,
+  INDEX `fk_backtestjobs_stratparamsets_StrategyParameterSetID_idx` (`StrategyParameterSetID` ASC) VISIBLE,
+  INDEX `fk_backtestjobs_users_UserID_idx` (`UserID` ASC) VISIBLE,
+  INDEX `fk_backtestjobs_parameteroptimization_ParameterOptimizationID_idx` (`ParameterOptimizationID` ASC) VISIBLE,
+  INDEX `fk_backtestjobs_backtestresults_BacktestResultID_idx` (`BacktestResultID` ASC) VISIBLE,
+  CONSTRAINT `fk_backtestjobs_stratparamsets_StrategyParameterSetID`
+    FOREIGN KEY (`StrategyParameterSetID`)
+    REFERENCES `algonexus`.`strategyparametersets` (`StrategyParameterSetID`),
+  CONSTRAINT `fk_backtestjobs_users_UserID`
+    FOREIGN KEY (`UserID`)
+    REFERENCES `algonexus`.`users` (`UserID`),
+  CONSTRAINT `fk_backtestjobs_parameteroptimization_ParameterOptimizationID`
+    FOREIGN KEY (`ParameterOptimizationID`)
+    REFERENCES `algonexus`.`parameteroptimization` (`ParameterOptimizationID`),
+  CONSTRAINT `fk_backtestjobs_backtestresults_BacktestResultID`
+    FOREIGN KEY (`BacktestResultID`)
+    REFERENCES `algonexus`.`backtestresults` (`BacktestResultID`))
+ENGINE = InnoDB
+DEFAULT CHARACTER SET = utf8mb4
+COLLATE = utf8mb4_0900_ai_ci;
+
+
 SET SQL_MODE=@OLD_SQL_MODE;
 SET FOREIGN_KEY_CHECKS=@OLD_FOREIGN_KEY_CHECKS;
 SET UNIQUE_CHECKS=@OLD_UNIQUE_CHECKS;
@@ -0,0 +1,459 @@
+package com.github.tylerspaeth.broker.backtester;
+
+import com.github.tylerspaeth.common.TimestampMicros;
+import com.github.tylerspaeth.common.data.dao.CandlestickCursor;
+import com.github.tylerspaeth.common.data.dao.CandlestickDAO;
+import com.github.tylerspaeth.common.data.dao.CommissionDAO;
+import com.github.tylerspaeth.common.data.dao.OrderDAO;
+import com.github.tylerspaeth.common.data.dao.SymbolDAO;
+import com.github.tylerspaeth.common.data.dao.TradeDAO;
+import com.github.tylerspaeth.common.data.entity.Candlestick;
+import com.github.tylerspaeth.common.data.entity.Commission;
+import com.github.tylerspaeth.common.data.entity.HistoricalDataset;
+import com.github.tylerspaeth.common.data.entity.Order;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.common.data.entity.Trade;
+import com.github.tylerspaeth.common.data.entity.User;
+import com.github.tylerspaeth.common.enums.AssetTypeEnum;
+import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
+import com.github.tylerspaeth.common.enums.OrderStatusEnum;
+import com.github.tylerspaeth.common.enums.OrderTypeEnum;
+import com.github.tylerspaeth.common.enums.SideEnum;
+import com.github.tylerspaeth.common.enums.TimeInForceEnum;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+public class BacktestCheckpointTest {
+
+    private static final int BACKTEST_RESULT_ID = 3;
+    private static final int SYMBOL_ID = 1;
+    private static final int HISTORICAL_DATASET_ID = 7;
+    // One more page than the data feed reads at a time, so the checkpoint is made with Candlesticks waiting to be condensed
+    private static final int NUM_CANDLESTICKS = 10_003;
+    private static final int CHECKPOINT_BAR = 1000;
+    private static final int BARS_READ_AFTER_CHECKPOINT = 30; // Bars the interrupted run reads past its checkpoint before it stops
+    private static final Instant DATASET_START = Instant.parse("2024-01-02T14:30:00Z");
+
+    @TempDir
+    private Path checkpointDirectory;
+
+    private record CandlestickSnapshot(Timestamp timestamp, Float open, Float high, Float low, Float close, Float volume) {
+        static CandlestickSnapshot of(Candlestick candlestick) {
+            return candlestick == null ? null : new CandlestickSnapshot(candlestick.getTimestamp(), candlestick.getOpen(), candlestick.getHigh(),
+                    candlestick.getLow(), candlestick.getClose(), candlestick.getVolume());
+        }
+
+        static List<CandlestickSnapshot> of(List<Candlestick> candlesticks) {
+            return candlesticks == null ? null : candlesticks.stream().map(CandlestickSnapshot::of).toList();
+        }
+    }
+
+    private record OrderSnapshot(Integer orderID, SideEnum side, OrderTypeEnum orderType, Float price, OrderStatusEnum status,
+                                 Timestamp timePlaced, Timestamp timeClosed, boolean finalized) {
+        static OrderSnapshot of(Order order) {
+            return new OrderSnapshot(order.getOrderID(), order.getSide(), order.getOrderType(), order.getPrice(), order.getStatus(),
+                    order.getTimePlaced(), order.getTimeClosed(), order.isFinalized());
+        }
+    }
+
+    private record TradeSnapshot(Integer tradeID, Integer orderID, SideEnum side, Float fillPrice, Float fillQuantity, Timestamp timestamp) {}
+
+    /**
+     * Orders and Trades persisted by a backtest, standing in for the database so they outlive the services of an
+     * interrupted run. Orders are stored as copies so that reloading one does not return the instance a service holds.
+     */
+    private static class PersistedBacktest {
+
+        private final Map<Integer, Order> orders = new TreeMap<>();
+        private final TreeMap<Integer, TradeSnapshot> trades = new TreeMap<>();
+
+        private synchronized Order update(Order order) {
+            if(order.getOrderID() == null) {
+                order.setOrderID(orders.size() + 1);
+            }
+            orders.put(order.getOrderID(), copy(order));
+            return order;
+        }
+
+        private synchronized void insert(Trade trade) throws Exception {
+            int tradeID = trades.isEmpty() ? 1 : trades.lastKey() + 1;
+            setField(trade, "tradeID", tradeID);
+            trades.put(tradeID, new TradeSnapshot(tradeID, trade.getOrder().getOrderID(), trade.getSide(), trade.getFillPrice(),
+                    trade.getFillQuantity(), trade.getTimestamp()));
+        }
+
+        private synchronized List<Order> getOrdersByIDs(Collection<Integer> orderIDs) {
+            return orderIDs.stream().filter(orders::containsKey).map(orderID -> copy(orders.get(orderID))).toList();
+        }
+
+        private synchronized void deleteAfterCheckpoint(Integer maxOrderID, Integer maxTradeID) {
+            trades.keySet().removeIf(tradeID -> maxTradeID == null || tradeID > maxTradeID);
+            orders.keySet().removeIf(orderID -> maxOrderID == null || orderID > maxOrderID);
+        }
+
+        private synchronized Integer maxOrderID() {
+            return orders.isEmpty() ? null : orders.size();
+        }
+
+        private synchronized Integer maxTradeID() {
+            return trades.isEmpty() ? null : trades.lastKey();
+        }
+
+        private synchronized Map<Integer, OrderSnapshot> orderSnapshots() {
+            Map<Integer, OrderSnapshot> snapshots = new TreeMap<>();
+            orders.forEach((orderID, order) -> snapshots.put(orderID, OrderSnapshot.of(order)));
+            return snapshots;
+        }
+
+        private synchronized List<TradeSnapshot> tradeSnapshots() {
+            return new ArrayList<>(trades.values());
+        }
+
+        private static Order copy(Order order) {
+            Order copy = new Order();
+            copy.setOrderID(order.getOrderID());
+            copy.setSymbol(order.getSymbol());
+            copy.setUser(order.getUser());
+            copy.setOrderType(order.getOrderType());
+            copy.setSide(order.getSide());
+            copy.setQuantity(order.getQuantity());
+            copy.setPrice(order.getPrice());
+            copy.setTimeInForce(order.getTimeInForce());
+            copy.setTransmit(order.isTransmit());
+            copy.setStatus(order.getStatus());
+            copy.setTimePlaced(order.getTimePlaced());
+            copy.setTimeClosed(order.getTimeClosed());
+            copy.setFinalized(order.isFinalized());
+            copy.setHistoricalDataset(order.getHistoricalDataset());
+            return copy;
+        }
+    }
+
+    /**
+     * Reads five minute bars from the one minute dataset on the thread it is run on, placing a market order every 25th
+     * bar and a limit order below the close every 50th bar, so that both are pending after the 1000th bar. The number of bars read and the side of the next market
+     * order are its strategy state.
+     */
+    private static class CheckpointedRun {
+
+        private final OrderDAO orderDAO;
+        private final BacktesterDataFeedService dataFeedService;
+        private final BacktesterOrderService orderService;
+        private final Symbol symbol;
+        private final User user = new User();
+        private final List<CandlestickSnapshot> candlesticks = new ArrayList<>();
+        private int barsRead = 0;
+        private SideEnum nextSide = SideEnum.BUY;
+
+        private CheckpointedRun(OrderDAO orderDAO, BacktesterDataFeedService dataFeedService, BacktesterOrderService orderService, Symbol symbol) {
+            this.orderDAO = orderDAO;
+            this.dataFeedService = dataFeedService;
+            this.orderService = orderService;
+            this.symbol = symbol;
+        }
+
+        /**
+         * Read bars until a number of them have been read in total or the data feed runs out.
+         */
+        private void readUntil(int totalBars) {
+            long threadID = Thread.currentThread().threadId();
+            while(barsRead < totalBars) {
+                List<Candlestick> read = dataFeedService.readFromDataFeed(threadID, symbol, 5, IntervalUnitEnum.MINUTE);
+                if(read.isEmpty()) {
+                    return;
+                }
+                Candlestick candlestick = read.getFirst();
+                candlesticks.add(CandlestickSnapshot.of(candlestick));
+                if((barsRead + 1) % 25 == 0) {
+                    placeOrder(OrderTypeEnum.MKT, nextSide, null);
+                    nextSide = nextSide == SideEnum.BUY ? SideEnum.SELL : SideEnum.BUY;
+                }
+                if((barsRead + 1) % 50 == 0) {
+                    placeOrder(OrderTypeEnum.LMT, SideEnum.BUY, candlestick.getClose() - 1f);
+                }
+                barsRead++;
+            }
+        }
+
+        private void placeOrder(OrderTypeEnum orderType, SideEnum side, Float price) {
+            Order order = new Order();
+            order.setSymbol(symbol);
+            order.setUser(user);
+            order.setOrderType(orderType);
+            order.setSide(side);
+            order.setQuantity(1f);
+            order.setPrice(price);
+            order.setTimeInForce(TimeInForceEnum.GTC);
+            order.setTransmit(true);
+            orderService.placeOrder(Thread.currentThread().threadId(), order);
+        }
+
+        private byte[] saveState() {
+            return ByteBuffer.allocate(2 * Integer.BYTES).putInt(barsRead).putInt(nextSide.ordinal()).array();
+        }
+
+        private void restoreState(byte[] state) {
+            ByteBuffer buffer = ByteBuffer.wrap(state);
+            barsRead = buffer.getInt();
+            nextSide = SideEnum.values()[buffer.getInt()];
+        }
+    }
+
+    private static void setField(Object target, String fieldName, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private Symbol createSymbol() throws Exception {
+        Commission commission = new Commission();
+        commission.setCommissionAmount(1.25f);
+
+        Symbol symbol = new Symbol();
+        symbol.setName("Test Symbol");
+        symbol.setTicker("TS");
+        symbol.setAssetType(AssetTypeEnum.OTHER);
+        symbol.setCommission(commission);
+        setField(symbol, "symbolID", SYMBOL_ID);
+
+        HistoricalDataset historicalDataset = new HistoricalDataset();
+        historicalDataset.setSymbol(symbol);
+        historicalDataset.setTimeInterval(1);
+        historicalDataset.setIntervalUnit(IntervalUnitEnum.MINUTE);
+        setField(historicalDataset, "historicalDatasetID", HISTORICAL_DATASET_ID);
+        symbol.getHistoricalDatasets().add(historicalDataset);
+        return symbol;
+    }
+
+    /**
+     * Create the same one minute dataset on every call, starting at a time that lines up with five minute bars.
+     */
+    private static List<Candlestick> createCandlesticks() {
+        List<Candlestick> candlesticks = new ArrayList<>(NUM_CANDLESTICKS);
+        float previousClose = 100f;
+        for(int i = 0; i < NUM_CANDLESTICKS; i++) {
+            float close = 100f + 5f * (float) Math.sin(i / 15.0) + (i % 7) * 0.1f;
+            candlesticks.add(new Candlestick(previousClose, Math.max(previousClose, close) + 0.3f, Math.min(previousClose, close) - 0.3f,
+                    close, 100f + i % 13, Timestamp.from(DATASET_START.plusSeconds(60L * i))));
+            previousClose = close;
+        }
+        return candlesticks;
+    }
+
+    /**
+     * Create a cursor over the Candlesticks after a given time.
+     */
+    private static CandlestickCursor mockCandlestickCursor(List<Candlestick> candlesticks, Timestamp after) {
+        List<Candlestick> remaining = new ArrayList<>(candlesticks.stream().filter(candlestick -> candlestick.getTimestamp().after(after)).toList());
+        return Mockito.mock(CandlestickCursor.class, invocationOnMock -> switch (invocationOnMock.getMethod().getName()) {
+            case "hasNext" -> !remaining.isEmpty();
+            case "next" -> {
+                Candlestick candlestick = remaining.removeFirst();
+                yield new CandlestickCursor.CandlestickValues(TimestampMicros.toMicros(candlestick.getTimestamp()), candlestick.getOpen(), candlestick.getHigh(), candlestick.getLow(),
+                        candlestick.getClose(), candlestick.getVolume());
+            }
+            default -> null;
+        });
+    }
+
+    /**
+     * Create a new CheckpointedRun with its own backtester services, as a resumed backtest would have, backed by mocked
+     * DAOs that persist to the given PersistedBacktest.
+     */
+    private CheckpointedRun createRun(Symbol symbol, List<Candlestick> fixture, PersistedBacktest persisted) throws Exception {
+        OrderDAO orderDAO = Mockito.mock(OrderDAO.class);
+        when(orderDAO.update(Mockito.any(Order.class))).thenAnswer(invocationOnMock -> persisted.update(invocationOnMock.getArgument(0)));
+        when(orderDAO.getOrdersByIDs(Mockito.any())).thenAnswer(invocationOnMock -> persisted.getOrdersByIDs(invocationOnMock.getArgument(0)));
+        Mockito.doAnswer(invocationOnMock -> {
+            persisted.deleteAfterCheckpoint(invocationOnMock.getArgument(1), invocationOnMock.getArgument(2));
+            return null;
+        }).when(orderDAO).deleteBacktestOrdersAfterCheckpoint(Mockito.anyInt(), Mockito.any(), Mockito.any());
+        TradeDAO tradeDAO = Mockito.mock(TradeDAO.class);
+        Mockito.doAnswer(invocationOnMock -> {
+            persisted.insert(invocationOnMock.getArgument(0));
+            return null;
+        }).when(tradeDAO).insert(Mockito.any(Trade.class));
+        SymbolDAO symbolDAO = Mockito.mock(SymbolDAO.class);
+        when(symbolDAO.getPersistedVersionOfSymbol(Mockito.any(Symbol.class))).thenReturn(symbol);
+        CandlestickDAO candlestickDAO = Mockito.mock(CandlestickDAO.class);
+        when(candlestickDAO.streamCandlesticksFromHistoricalDataset(Mockito.any(HistoricalDataset.class), Mockito.any(Timestamp.class), Mockito.any(), Mockito.anyInt()))
+                .thenAnswer(invocationOnMock -> mockCandlestickCursor(fixture, invocationOnMock.getArgument(1)));
+        when(candlestickDAO.getFirstAlignedCandlestick(Mockito.any(HistoricalDataset.class), Mockito.any(Timestamp.class), Mockito.any(), Mockito.anyLong()))
+                .thenAnswer(invocationOnMock -> {
+                    Timestamp after = invocationOnMock.getArgument(1);
+                    long alignmentSeconds = invocationOnMock.getArgument(3);
+                    return fixture.stream()
+                            .filter(candlestick -> candlestick.getTimestamp().after(after) && candlestick.getTimestamp().toInstant().getEpochSecond() % alignmentSeconds == 0)
+                            .findFirst().orElse(null);
+                });
+
+        BacktesterSharedService backtesterSharedService = new BacktesterSharedService(orderDAO, tradeDAO, Mockito.mock(CommissionDAO.class));
+        return new CheckpointedRun(orderDAO, new BacktesterDataFeedService(backtesterSharedService, symbolDAO, candlestickDAO),
+                new BacktesterOrderService(backtesterSharedService, orderDAO, symbolDAO), symbol);
+    }
+
+    /**
+     * Run a task on a thread of its own and wait for it, so that each part of a backtest has a different thread ID.
+     */
+    private static <T> T runOnNewThread(Callable<T> task) throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            return executorService.submit(task).get(30, TimeUnit.SECONDS);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testWriteAndReadRoundTrip() throws Exception {
+        Timestamp cursor = Timestamp.from(Instant.ofEpochSecond(100, 123456789));
+        Candlestick pendingReturn = new Candlestick(1f, 2f, 0.5f, 1.5f, 10f, Timestamp.from(Instant.ofEpochSecond(90)));
+        Candlestick lastSeen = new Candlestick(3f, 4f, 2.5f, 3.5f, 20f, Timestamp.from(Instant.ofEpochSecond(95)));
+        BacktestCheckpoint.DataFeedCheckpoint dataFeed = new BacktestCheckpoint.DataFeedCheckpoint(7, 11, 5, IntervalUnitEnum.MINUTE,
+                cursor, null, List.of(pendingReturn), null, lastSeen, lastSeen.getTimestamp(),
+                List.of(new BacktestCheckpoint.PendingOrderCheckpoint(42, 3.25f, true), new BacktestCheckpoint.PendingOrderCheckpoint(43, null, false)));
+        BacktestCheckpoint checkpoint = new BacktestCheckpoint(3, 50, null, List.of(dataFeed), new byte[]{1, 2, 3});
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        checkpoint.writeTo(outputStream);
+        BacktestCheckpoint read = BacktestCheckpoint.readFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        Assertions.assertEquals(3, read.backtestResultID());
+        Assertions.assertEquals(50, read.maxOrderID());
+        Assertions.assertNull(read.maxTradeID());
+        Assertions.assertArrayEquals(new byte[]{1, 2, 3}, read.strategyState());
+        Assertions.assertEquals(1, read.dataFeeds().size());
+
+        BacktestCheckpoint.DataFeedCheckpoint readDataFeed = read.dataFeeds().getFirst();
+        Assertions.assertEquals(7, readDataFeed.symbolID());
+        Assertions.assertEquals(11, readDataFeed.historicalDatasetID());
+        Assertions.assertEquals(5, readDataFeed.intervalDuration());
+        Assertions.assertEquals(IntervalUnitEnum.MINUTE, readDataFeed.intervalUnit());
+        Assertions.assertEquals(cursor, readDataFeed.cursor());
+        Assertions.assertNull(readDataFeed.lastCondensedTimestamp());
+        Assertions.assertNull(readDataFeed.candlesticksPendingCondensation());
+        Assertions.assertEquals(1, readDataFeed.candlesticksPendingReturn().size());
+        Assertions.assertEquals(pendingReturn.getTimestamp(), readDataFeed.candlesticksPendingReturn().getFirst().getTimestamp());
+        Assertions.assertEquals(1.5f, readDataFeed.candlesticksPendingReturn().getFirst().getClose());
+        Assertions.assertEquals(lastSeen.getTimestamp(), readDataFeed.lastSeenCandlestick().getTimestamp());
+        Assertions.assertEquals(20f, readDataFeed.lastSeenCandlestick().getVolume());
+        Assertions.assertEquals(lastSeen.getTimestamp(), readDataFeed.currentTimestamp());
+        Assertions.assertEquals(List.of(new BacktestCheckpoint.PendingOrderCheckpoint(42, 3.25f, true), new BacktestCheckpoint.PendingOrderCheckpoint(43, null, false)), readDataFeed.pendingOrders());
+    }
+
+    @Test
+    public void testReadRejectsOtherData() {
+        Assertions.assertThrows(IOException.class, () -> BacktestCheckpoint.readFrom(new ByteArrayInputStream(new byte[]{0, 0, 0, 0, 0, 1})));
+    }
+
+    @Test
+    public void testStoreSavesLoadsAndDeletes() {
+        BacktestCheckpointStore store = new BacktestCheckpointStore(checkpointDirectory);
+        Assertions.assertFalse(store.exists(3));
+        Assertions.assertNull(store.load(3));
+
+        Assertions.assertTrue(store.save(new BacktestCheckpoint(3, null, null, List.of(), null)));
+        Assertions.assertTrue(store.exists(3));
+        BacktestCheckpoint loaded = store.load(3);
+        Assertions.assertEquals(3, loaded.backtestResultID());
+        Assertions.assertNull(loaded.strategyState());
+        Assertions.assertTrue(loaded.dataFeeds().isEmpty());
+
+        store.delete(3);
+        Assertions.assertFalse(store.exists(3));
+    }
+
+    @Test
+    public void testResumedBacktestMatchesUninterruptedBacktest() throws Exception {
+        Symbol symbol = createSymbol();
+        List<Candlestick> fixture = createCandlesticks();
+
+        PersistedBacktest uninterrupted = new PersistedBacktest();
+        CheckpointedRun uninterruptedRun = createRun(symbol, fixture, uninterrupted);
+        runOnNewThread(() -> {
+            uninterruptedRun.dataFeedService.subscribeToDataFeed(Thread.currentThread().threadId(), symbol);
+            uninterruptedRun.readUntil(Integer.MAX_VALUE);
+            return null;
+        });
+
+        // Checkpoint part way through, carry on past the checkpoint and then stop as if the backtest had been interrupted
+        PersistedBacktest resumed = new PersistedBacktest();
+        BacktestCheckpointStore store = new BacktestCheckpointStore(checkpointDirectory);
+        CheckpointedRun interruptedRun = createRun(symbol, fixture, resumed);
+        runOnNewThread(() -> {
+            long threadID = Thread.currentThread().threadId();
+            interruptedRun.dataFeedService.subscribeToDataFeed(threadID, symbol);
+            interruptedRun.readUntil(CHECKPOINT_BAR);
+            Assertions.assertTrue(store.save(interruptedRun.dataFeedService.createCheckpoint(threadID, BACKTEST_RESULT_ID,
+                    resumed.maxOrderID(), resumed.maxTradeID(), interruptedRun.saveState())));
+            interruptedRun.readUntil(CHECKPOINT_BAR + BARS_READ_AFTER_CHECKPOINT);
+            return null;
+        });
+
+        BacktestCheckpoint checkpoint = store.load(BACKTEST_RESULT_ID);
+        Assertions.assertEquals(1, checkpoint.dataFeeds().size());
+        BacktestCheckpoint.DataFeedCheckpoint dataFeedCheckpoint = checkpoint.dataFeeds().getFirst();
+        // Make sure the checkpoint has something in each of the buffers and an order pending so that restoring them is tested
+        Assertions.assertEquals(HISTORICAL_DATASET_ID, dataFeedCheckpoint.historicalDatasetID());
+        Assertions.assertFalse(dataFeedCheckpoint.candlesticksPendingReturn().isEmpty());
+        Assertions.assertFalse(dataFeedCheckpoint.candlesticksPendingCondensation().isEmpty());
+        Assertions.assertNotNull(dataFeedCheckpoint.lastCondensedTimestamp());
+        Assertions.assertTrue(dataFeedCheckpoint.pendingOrders().stream().anyMatch(pendingOrder -> pendingOrder.price() == null));
+        Assertions.assertTrue(dataFeedCheckpoint.pendingOrders().stream().anyMatch(pendingOrder -> pendingOrder.price() != null));
+
+        // Resume on another thread with new services, in the same way as AbstractStrategy
+        CheckpointedRun resumedRun = createRun(symbol, fixture, resumed);
+        BacktestCheckpoint.DataFeedCheckpoint restoredDataFeed = runOnNewThread(() -> {
+            long threadID = Thread.currentThread().threadId();
+            resumedRun.orderDAO.deleteBacktestOrdersAfterCheckpoint(BACKTEST_RESULT_ID, checkpoint.maxOrderID(), checkpoint.maxTradeID());
+            resumedRun.dataFeedService.restoreCheckpoint(threadID, checkpoint);
+            resumedRun.restoreState(checkpoint.strategyState());
+            resumedRun.dataFeedService.subscribeToDataFeed(threadID, symbol);
+
+            BacktestCheckpoint.DataFeedCheckpoint restored = resumedRun.dataFeedService.createCheckpoint(threadID, BACKTEST_RESULT_ID,
+                    checkpoint.maxOrderID(), checkpoint.maxTradeID(), null).dataFeeds().getFirst();
+            resumedRun.readUntil(Integer.MAX_VALUE);
+            return restored;
+        });
+
+        Assertions.assertEquals(dataFeedCheckpoint.cursor(), restoredDataFeed.cursor());
+        Assertions.assertEquals(dataFeedCheckpoint.intervalDuration(), restoredDataFeed.intervalDuration());
+        Assertions.assertEquals(dataFeedCheckpoint.intervalUnit(), restoredDataFeed.intervalUnit());
+        Assertions.assertEquals(dataFeedCheckpoint.lastCondensedTimestamp(), restoredDataFeed.lastCondensedTimestamp());
+        Assertions.assertEquals(CandlestickSnapshot.of(dataFeedCheckpoint.candlesticksPendingReturn()), CandlestickSnapshot.of(restoredDataFeed.candlesticksPendingReturn()));
+        Assertions.assertEquals(CandlestickSnapshot.of(dataFeedCheckpoint.candlesticksPendingCondensation()), CandlestickSnapshot.of(restoredDataFeed.candlesticksPendingCondensation()));
+        Assertions.assertEquals(CandlestickSnapshot.of(dataFeedCheckpoint.lastSeenCandlestick()), CandlestickSnapshot.of(restoredDataFeed.lastSeenCandlestick()));
+        Assertions.assertEquals(dataFeedCheckpoint.currentTimestamp(), restoredDataFeed.currentTimestamp());
+        Assertions.assertEquals(new HashSet<>(dataFeedCheckpoint.pendingOrders()), new HashSet<>(restoredDataFeed.pendingOrders()));
+
+        // The remaining bars and everything persisted match the backtest that was never interrupted
+        Assertions.assertEquals(NUM_CANDLESTICKS / 5 + 1, uninterruptedRun.candlesticks.size());
+        Assertions.assertEquals(uninterruptedRun.candlesticks.subList(CHECKPOINT_BAR, uninterruptedRun.candlesticks.size()), resumedRun.candlesticks);
+        Assertions.assertEquals(uninterrupted.orderSnapshots(), resumed.orderSnapshots());
+        Assertions.assertEquals(uninterrupted.tradeSnapshots(), resumed.tradeSnapshots());
+        Assertions.assertTrue(resumed.orderSnapshots().values().stream().anyMatch(order -> order.orderType() == OrderTypeEnum.LMT && order.status() == OrderStatusEnum.FILLED));
+    }
+}
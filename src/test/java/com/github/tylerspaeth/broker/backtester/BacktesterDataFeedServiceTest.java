@@ -1,5 +1,6 @@
 package com.github.tylerspaeth.broker.backtester;
 
+import com.github.tylerspaeth.common.TimestampMicros;
 import com.github.tylerspaeth.common.data.dao.*;
 import com.github.tylerspaeth.common.data.entity.Candlestick;
 import com.github.tylerspaeth.common.data.entity.Exchange;
@@ -44,17 +45,36 @@ public class BacktesterDataFeedServiceTest {
     }
 
     private void mockPaginatedCandlesticks() {
-        when(candlestickDAO.getPaginatedCandlesticksFromHistoricalDataset(Mockito.any(HistoricalDataset.class), Mockito.any(Timestamp.class), Mockito.anyInt())).thenAnswer(invocationOnMock ->  {
+        // Not every read gets past aligning the first Candlestick, so these are lenient
+        Mockito.lenient().when(candlestickDAO.streamCandlesticksFromHistoricalDataset(Mockito.any(HistoricalDataset.class), Mockito.any(Timestamp.class), Mockito.any(), Mockito.anyInt())).thenAnswer(invocationOnMock ->  {
             HistoricalDataset dataset = invocationOnMock.getArgument(0);
-            int numCandles = invocationOnMock.getArgument(2);
-            List<Candlestick> candlesticks = new ArrayList<>();
-            for(int i = 0; i < numCandles; i++) {
-                if(dataset.getCandlesticks().isEmpty()) {
-                    break;
+            return mockCandlestickCursor(dataset.getCandlesticks());
+        });
+        Mockito.lenient().when(candlestickDAO.getFirstAlignedCandlestick(Mockito.any(HistoricalDataset.class), Mockito.any(Timestamp.class), Mockito.any(), Mockito.anyLong())).thenAnswer(invocationOnMock ->  {
+            HistoricalDataset dataset = invocationOnMock.getArgument(0);
+            long alignmentSeconds = invocationOnMock.getArgument(3);
+            while(!dataset.getCandlesticks().isEmpty()) {
+                Candlestick candlestick = dataset.getCandlesticks().removeFirst();
+                if(candlestick.getTimestamp().toInstant().getEpochSecond() % alignmentSeconds == 0) {
+                    return candlestick;
                 }
-                candlesticks.add(dataset.getCandlesticks().removeFirst());
             }
-            return candlesticks;
+            return null;
+        });
+    }
+
+    /**
+     * Create a cursor that reads the Candlesticks off the front of a list.
+     */
+    private static CandlestickCursor mockCandlestickCursor(List<Candlestick> candlesticks) {
+        return Mockito.mock(CandlestickCursor.class, invocationOnMock -> switch (invocationOnMock.getMethod().getName()) {
+            case "hasNext" -> !candlesticks.isEmpty();
+            case "next" -> {
+                Candlestick candlestick = candlesticks.removeFirst();
+                yield new CandlestickCursor.CandlestickValues(TimestampMicros.toMicros(candlestick.getTimestamp()), candlestick.getOpen(), candlestick.getHigh(), candlestick.getLow(),
+                        candlestick.getClose(), candlestick.getVolume());
+            }
+            default -> null;
         });
     }
 
@@ -705,4 +725,105 @@ public class BacktesterDataFeedServiceTest {
         Assertions.assertEquals(Timestamp.from(Instant.ofEpochSecond(4)), returnedCandlestick.getFirst().getTimestamp());
     }
 
+    @Test
+    public void testReadCondensesEveryWindowUntilEndOfDataset() throws Exception {
+        Symbol symbol = new Symbol();
+        symbol.setName("Test Symbol");
+        symbol.setTicker("TS");
+        symbol.setExchange(new Exchange());
+        symbol.setAssetType(AssetTypeEnum.OTHER);
+        setSymbolIDOnSymbol(symbol, 1);
+
+        HistoricalDataset historicalDataset = new HistoricalDataset();
+        historicalDataset.setDatasetName("Test Dataset");
+        historicalDataset.setSymbol(symbol);
+        historicalDataset.setDatasetStart(new Timestamp(0));
+        historicalDataset.setDatasetEnd(Timestamp.from(Instant.ofEpochSecond(15)));
+        historicalDataset.setTimeInterval(1);
+        historicalDataset.setIntervalUnit(IntervalUnitEnum.SECOND);
+        historicalDataset.setLastUpdated(Timestamp.from(Instant.now()));
+        symbol.getHistoricalDatasets().add(historicalDataset);
+
+        // The candlestick at 13 seconds is missing so the second window only has one candlestick
+        for(int second : new int[]{0, 1, 2, 4, 5}) {
+            Candlestick candlestick = new Candlestick(10f + second, 20f + second, 5f + second, 15f + second, 10f, Timestamp.from(Instant.ofEpochSecond(10 + second)));
+            historicalDataset.getCandlesticks().add(candlestick);
+            candlestick.setHistoricalDataset(historicalDataset);
+        }
+
+        when(symbolDAO.getPersistedVersionOfSymbol(Mockito.any(Symbol.class))).thenReturn(symbol);
+        mockPaginatedCandlesticks();
+        backtesterDataFeedService.subscribeToDataFeed(Thread.currentThread().threadId(), symbol);
+
+        List<Candlestick> returnedCandlestick = backtesterDataFeedService.readFromDataFeed(Thread.currentThread().threadId(), symbol, 2, IntervalUnitEnum.SECOND);
+        Assertions.assertEquals(1, returnedCandlestick.size());
+        Assertions.assertEquals(Timestamp.from(Instant.ofEpochSecond(10)), returnedCandlestick.getFirst().getTimestamp());
+        Assertions.assertEquals(10f, returnedCandlestick.getFirst().getOpen());
+        Assertions.assertEquals(16f, returnedCandlestick.getFirst().getClose());
+        Assertions.assertEquals(20f, returnedCandlestick.getFirst().getVolume());
+
+        returnedCandlestick = backtesterDataFeedService.readFromDataFeed(Thread.currentThread().threadId(), symbol, 2, IntervalUnitEnum.SECOND);
+        Assertions.assertEquals(1, returnedCandlestick.size());
+        Assertions.assertEquals(Timestamp.from(Instant.ofEpochSecond(12)), returnedCandlestick.getFirst().getTimestamp());
+        Assertions.assertEquals(12f, returnedCandlestick.getFirst().getOpen());
+        Assertions.assertEquals(17f, returnedCandlestick.getFirst().getClose());
+        Assertions.assertEquals(20f, returnedCandlestick.getFirst().getVolume());
+
+        returnedCandlestick = backtesterDataFeedService.readFromDataFeed(Thread.currentThread().threadId(), symbol, 2, IntervalUnitEnum.SECOND);
+        Assertions.assertEquals(1, returnedCandlestick.size());
+        Assertions.assertEquals(Timestamp.from(Instant.ofEpochSecond(14)), returnedCandlestick.getFirst().getTimestamp());
+        Assertions.assertEquals(14f, returnedCandlestick.getFirst().getOpen());
+        Assertions.assertEquals(20f, returnedCandlestick.getFirst().getClose());
+
+        Assertions.assertTrue(backtesterDataFeedService.readFromDataFeed(Thread.currentThread().threadId(), symbol, 2, IntervalUnitEnum.SECOND).isEmpty());
+    }
+
+    @Test
+    public void testReadWithTimeRangeSeeksToStartOfRange() throws Exception {
+        Symbol symbol = new Symbol();
+        symbol.setName("Test Symbol");
+        symbol.setTicker("TS");
+        symbol.setExchange(new Exchange());
+        symbol.setAssetType(AssetTypeEnum.OTHER);
+        setSymbolIDOnSymbol(symbol, 1);
+
+        HistoricalDataset historicalDataset = new HistoricalDataset();
+        historicalDataset.setDatasetName("Test Dataset");
+        historicalDataset.setSymbol(symbol);
+        historicalDataset.setDatasetStart(new Timestamp(0));
+        historicalDataset.setDatasetEnd(Timestamp.from(Instant.ofEpochSecond(1000)));
+        historicalDataset.setTimeInterval(1);
+        historicalDataset.setIntervalUnit(IntervalUnitEnum.SECOND);
+        historicalDataset.setLastUpdated(Timestamp.from(Instant.now()));
+        symbol.getHistoricalDatasets().add(historicalDataset);
+
+        Candlestick candlestick = new Candlestick();
+        candlestick.setTimestamp(Timestamp.from(Instant.ofEpochSecond(500)));
+        candlestick.setOpen(50f);
+        candlestick.setClose(40f);
+        candlestick.setHigh(100f);
+        candlestick.setLow(10f);
+        candlestick.setVolume(100000f);
+        candlestick.setHistoricalDataset(historicalDataset);
+
+        Timestamp rangeStart = Timestamp.from(Instant.ofEpochSecond(500));
+        Timestamp rangeEnd = Timestamp.from(Instant.ofEpochSecond(600));
+
+        when(symbolDAO.getPersistedVersionOfSymbol(Mockito.any(Symbol.class))).thenReturn(symbol);
+        when(candlestickDAO.getFirstAlignedCandlestick(Mockito.any(HistoricalDataset.class), Mockito.any(Timestamp.class), Mockito.any(), Mockito.anyLong())).thenReturn(candlestick);
+        when(candlestickDAO.streamCandlesticksFromHistoricalDataset(Mockito.any(HistoricalDataset.class), Mockito.any(Timestamp.class), Mockito.any(Timestamp.class), Mockito.anyInt())).thenReturn(mockCandlestickCursor(new ArrayList<>()));
+
+        backtesterDataFeedService.setTimeRange(Thread.currentThread().threadId(), new BacktestTimeRange(rangeStart, rangeEnd));
+        backtesterDataFeedService.subscribeToDataFeed(Thread.currentThread().threadId(), symbol);
+        List<Candlestick> returnedCandlestick = backtesterDataFeedService.readFromDataFeed(Thread.currentThread().threadId(), symbol, 1, IntervalUnitEnum.SECOND);
+        backtesterDataFeedService.clearTimeRange(Thread.currentThread().threadId());
+
+        Assertions.assertEquals(1, returnedCandlestick.size());
+        Assertions.assertEquals(rangeStart, returnedCandlestick.getFirst().getTimestamp());
+        // The first read goes straight to the start of the range in a single query instead of scanning from the epoch
+        Mockito.verify(candlestickDAO).getFirstAlignedCandlestick(Mockito.eq(historicalDataset), Mockito.eq(Timestamp.from(rangeStart.toInstant().minusNanos(1000))), Mockito.eq(rangeEnd), Mockito.eq(1L));
+        // The rest of the data is streamed from the first Candlestick to the end of the range
+        Mockito.verify(candlestickDAO).streamCandlesticksFromHistoricalDataset(Mockito.eq(historicalDataset), Mockito.eq(rangeStart), Mockito.eq(rangeEnd), Mockito.anyInt());
+    }
+
 }
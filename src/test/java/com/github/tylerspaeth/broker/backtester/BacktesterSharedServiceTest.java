@@ -4,6 +4,7 @@ import com.github.tylerspaeth.common.data.dao.CommissionDAO;
 import com.github.tylerspaeth.common.data.dao.OrderDAO;
 import com.github.tylerspaeth.common.data.dao.TradeDAO;
 import com.github.tylerspaeth.common.data.entity.*;
+import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
 import com.github.tylerspaeth.common.enums.OrderStatusEnum;
 import com.github.tylerspaeth.common.enums.OrderTypeEnum;
 import com.github.tylerspaeth.common.enums.SideEnum;
@@ -19,6 +20,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.lang.reflect.Field;
 import java.sql.Timestamp;
 import java.util.List;
+import java.util.Set;
 
 @ExtendWith({MockitoExtension.class})
 public class BacktesterSharedServiceTest {
@@ -1300,4 +1302,49 @@ public class BacktesterSharedServiceTest {
         Assertions.assertEquals(OrderStatusEnum.CANCELLED, childOrder.getStatus());
     }
 
+    @Test
+    public void testRestoreDataFeedPutsOrdersBackToHowTheyWereAtTheCheckpoint() throws Exception {
+        BacktesterDataFeedKey key = new BacktesterDataFeedKey(1, Thread.currentThread().threadId());
+        Symbol symbol = createSymbol(1);
+
+        // The Order as it was persisted after being filled past the checkpoint
+        Order order = new Order();
+        order.setPrice(2f);
+        order.setOrderType(OrderTypeEnum.LMT);
+        order.setSide(SideEnum.BUY);
+        order.setTimeInForce(TimeInForceEnum.GTC);
+        order.setQuantity(4f);
+        order.setUser(new User());
+        order.setSymbol(symbol);
+        order.setTransmit(false);
+        order.setStatus(OrderStatusEnum.FILLED);
+        order.setTimeClosed(new Timestamp(500));
+        order.setFinalized(true);
+        order.setOrderID(1);
+
+        Mockito.when(orderDAO.getOrdersByIDs(Set.of(1))).thenReturn(List.of(order));
+        Mockito.when(orderDAO.update(Mockito.any(Order.class))).thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+
+        Candlestick lastSeen = new Candlestick(4f, 4.5f, 3.5f, 4f, 1000f, new Timestamp(300));
+        backtesterSharedService.restoreDataFeed(key, new BacktestCheckpoint.DataFeedCheckpoint(1, 7, 5, IntervalUnitEnum.MINUTE,
+                new Timestamp(300), null, null, null, lastSeen, new Timestamp(300),
+                List.of(new BacktestCheckpoint.PendingOrderCheckpoint(1, 3.25f, true))));
+
+        Assertions.assertSame(lastSeen, backtesterSharedService.lastSeenCandlesticks.get(key));
+        Assertions.assertEquals(new Timestamp(300), backtesterSharedService.currentTimestamps.get(key));
+        Assertions.assertSame(order, backtesterSharedService.pendingOrders.get(key).get(1));
+        Assertions.assertEquals(OrderStatusEnum.SUBMITTED, order.getStatus());
+        Assertions.assertNull(order.getTimeClosed());
+        Assertions.assertFalse(order.isFinalized());
+        Assertions.assertEquals(3.25f, order.getPrice());
+        Assertions.assertTrue(order.isTransmit());
+        Mockito.verify(orderDAO).update(order);
+
+        // The restored Order is worked like any other pending Order
+        backtesterSharedService.updateDataFeed(key, new Candlestick(4f, 4.5f, 3f, 3.5f, 1000f, new Timestamp(600)), new Timestamp(600));
+        Assertions.assertEquals(OrderStatusEnum.FILLED, order.getStatus());
+        Assertions.assertEquals(new Timestamp(600), order.getTimeClosed());
+        Mockito.verify(tradeDAO).insert(Mockito.any(Trade.class));
+    }
+
 }
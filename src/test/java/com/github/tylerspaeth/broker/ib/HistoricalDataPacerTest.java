@@ -0,0 +1,68 @@
+package com.github.tylerspaeth.broker.ib;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class HistoricalDataPacerTest {
+
+    @Test
+    public void testRequestsWithinBurstAreNotDelayed() throws Exception {
+        HistoricalDataPacer pacer = new HistoricalDataPacer(10, 10, 10_000, 3, 1_000);
+        long start = System.nanoTime();
+        for(int i = 0; i < 3; i++) {
+            pacer.acquire();
+        }
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+        Assertions.assertEquals(3, pacer.getOpenRequestCount());
+    }
+
+    @Test
+    public void testRequestsBeyondBurstWaitForBurstWindow() throws Exception {
+        HistoricalDataPacer pacer = new HistoricalDataPacer(10, 10, 10_000, 2, 200);
+        long start = System.nanoTime();
+        for(int i = 0; i < 3; i++) {
+            pacer.acquire();
+            pacer.release();
+        }
+        Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void testRequestsBeyondWindowWaitForWindow() throws Exception {
+        HistoricalDataPacer pacer = new HistoricalDataPacer(10, 2, 300, 10, 100);
+        long start = System.nanoTime();
+        for(int i = 0; i < 3; i++) {
+            pacer.acquire();
+            pacer.release();
+        }
+        Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(300));
+    }
+
+    @Test
+    public void testOpenRequestsWaitForRelease() throws Exception {
+        HistoricalDataPacer pacer = new HistoricalDataPacer(1, 10, 10_000, 10, 1_000);
+        pacer.acquire();
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        new Thread(() -> {
+            try {
+                pacer.acquire();
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }, "Pacer-Waiter").start();
+
+        Assertions.assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+        pacer.release();
+        Assertions.assertTrue(acquired.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testBurstWindowMustFitInWindow() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new HistoricalDataPacer(10, 10, 1_000, 10, 2_000));
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.tylerspaeth.broker.ib;
+
+import com.github.tylerspaeth.broker.ib.response.OrderResponse;
+import com.github.tylerspaeth.common.data.entity.Order;
+import com.github.tylerspaeth.common.data.entity.OrderEvent;
+import com.github.tylerspaeth.common.data.entity.Trade;
+import com.github.tylerspaeth.common.enums.OrderStatusEnum;
+import com.ib.client.CommissionAndFeesReport;
+import com.ib.client.Contract;
+import com.ib.client.Decimal;
+import com.ib.client.Execution;
+import com.ib.client.OrderStatus;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public class IBOrderResponseProjectorTest {
+
+    private Order order;
+    private OrderResponse orderResponse;
+    private final List<List<Trade>> newTrades = new ArrayList<>();
+    private final List<List<Trade>> changedTrades = new ArrayList<>();
+    private final List<List<OrderEvent>> newOrderEvents = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        order = new Order();
+        orderResponse = new OrderResponse(1, new Contract(), new com.ib.client.Order());
+        orderResponse.setOrderResponseListener(new IBOrderResponseProjector(order, (updatedOrder, trades, changed, orderEvents) -> {
+            newTrades.add(trades);
+            changedTrades.add(changed);
+            newOrderEvents.add(orderEvents);
+            return updatedOrder;
+        }));
+    }
+
+    @Test
+    public void testInitialUpdateAddsPendingSubmitEvent() {
+        Assertions.assertEquals(1, newOrderEvents.size());
+        Assertions.assertEquals(1, newOrderEvents.getFirst().size());
+        Assertions.assertEquals(OrderStatusEnum.PENDING_SUBMIT, order.getStatus());
+        Assertions.assertEquals(1, order.getOrderEvents().size());
+    }
+
+    @Test
+    public void testOnlyNewExecutionsAreProjected() {
+        orderResponse.addExecution(createExecution("execId1"));
+        orderResponse.addExecution(createExecution("execId2"));
+
+        Assertions.assertEquals(1, newTrades.get(1).size());
+        Assertions.assertEquals("execId1", newTrades.get(1).getFirst().getExternalTradeID());
+        Assertions.assertEquals(1, newTrades.get(2).size());
+        Assertions.assertEquals("execId2", newTrades.get(2).getFirst().getExternalTradeID());
+        Assertions.assertTrue(newOrderEvents.get(2).isEmpty());
+        Assertions.assertEquals(2, order.getTrades().size());
+    }
+
+    @Test
+    public void testDuplicateExecutionIsNotAddedAgain() {
+        orderResponse.addExecution(createExecution("execId1"));
+        orderResponse.addExecution(createExecution("execId1"));
+
+        Assertions.assertTrue(newTrades.get(2).isEmpty());
+        Assertions.assertEquals(1, order.getTrades().size());
+    }
+
+    @Test
+    public void testCommissionAfterExecutionChangesExistingTrade() {
+        orderResponse.addExecution(createExecution("execId1"));
+        orderResponse.addCommission(createCommission("execId1", 1.5));
+
+        Assertions.assertTrue(newTrades.get(2).isEmpty());
+        Assertions.assertEquals(1, changedTrades.get(2).size());
+        Assertions.assertEquals(1.5f, order.getTrades().getFirst().getFees());
+    }
+
+    @Test
+    public void testCommissionBeforeExecutionIsAppliedToNewTrade() {
+        orderResponse.addCommission(createCommission("execId1", 1.5));
+        orderResponse.addExecution(createExecution("execId1"));
+
+        Assertions.assertEquals(1, newTrades.get(2).size());
+        Assertions.assertTrue(changedTrades.get(2).isEmpty());
+        Assertions.assertEquals(1.5f, newTrades.get(2).getFirst().getFees());
+    }
+
+    @Test
+    public void testOnlyNewStatusesAreProjected() {
+        orderResponse.updateFromOrderStatus(0, 1, 0, OrderStatus.Submitted);
+        orderResponse.updateFromOrderStatus(1, 0, 0, OrderStatus.Filled);
+
+        Assertions.assertEquals(1, newOrderEvents.get(1).size());
+        Assertions.assertEquals(OrderStatusEnum.SUBMITTED, newOrderEvents.get(1).getFirst().getNewStatus());
+        Assertions.assertEquals(1, newOrderEvents.get(2).size());
+        Assertions.assertEquals(OrderStatusEnum.FILLED, newOrderEvents.get(2).getFirst().getNewStatus());
+        Assertions.assertEquals(OrderStatusEnum.FILLED, order.getStatus());
+        Assertions.assertEquals(3, order.getOrderEvents().size());
+    }
+
+    @Test
+    public void testLaterStatusWithSameTimestampIsMostRecent() {
+        Order sameTimestampOrder = new Order();
+        OrderResponse sameTimestampResponse = new OrderResponse(2, new Contract(), new com.ib.client.Order());
+        // Both statuses come after the initial PendingSubmit status and share a timestamp
+        Timestamp timestamp = Timestamp.from(Instant.now().plusSeconds(60));
+        sameTimestampResponse.statuses.add(new com.github.tylerspaeth.broker.response.OrderStatus(OrderStatus.Submitted, timestamp));
+        sameTimestampResponse.statuses.add(new com.github.tylerspaeth.broker.response.OrderStatus(OrderStatus.Filled, timestamp));
+
+        sameTimestampResponse.setOrderResponseListener(new IBOrderResponseProjector(sameTimestampOrder, (updatedOrder, trades, changed, orderEvents) -> updatedOrder));
+
+        Assertions.assertEquals(OrderStatusEnum.FILLED, sameTimestampOrder.getStatus());
+        Assertions.assertEquals(3, sameTimestampOrder.getOrderEvents().size());
+    }
+
+    private Execution createExecution(String execId) {
+        Execution execution = new Execution();
+        execution.execId(execId);
+        execution.side("BUY");
+        execution.time("2025-01-01 00:00:00");
+        execution.price(1);
+        execution.cumQty(Decimal.ONE);
+        return execution;
+    }
+
+    private CommissionAndFeesReport createCommission(String execId, double commissionAndFees) {
+        CommissionAndFeesReport commissionAndFeesReport = new CommissionAndFeesReport();
+        commissionAndFeesReport.execId(execId);
+        commissionAndFeesReport.commissionAndFees(commissionAndFees);
+        return commissionAndFeesReport;
+    }
+}
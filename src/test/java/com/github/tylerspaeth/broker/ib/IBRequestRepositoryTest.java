@@ -0,0 +1,85 @@
+package com.github.tylerspaeth.broker.ib;
+
+import com.github.tylerspaeth.common.BuildableFuture;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class IBRequestRepositoryTest {
+
+    private final IBRequestRepository repository = new IBRequestRepository();
+
+    @Test
+    public void testCompletedRequestReturnsValue() throws Exception {
+        BuildableFuture<String> future = repository.registerPendingRequest("1");
+        Assertions.assertEquals(1, repository.getInFlightCount());
+        repository.setFutureValue("1", "value");
+        repository.removePendingRequest("1");
+        Assertions.assertEquals("value", future.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, repository.getInFlightCount());
+        Assertions.assertEquals(1, repository.getCompletedCount());
+    }
+
+    @Test
+    public void testDuplicateRegistrationReturnsNull() {
+        Assertions.assertNotNull(repository.registerPendingRequest("1"));
+        Assertions.assertNull(repository.registerPendingRequest("1"));
+    }
+
+    @Test
+    public void testRequestTimesOut() {
+        BuildableFuture<String> future = repository.registerPendingRequest("1", 10);
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(TimeoutException.class, exception.getCause());
+        Assertions.assertEquals(0, repository.getInFlightCount());
+        Assertions.assertEquals(1, repository.getTimedOutCount());
+    }
+
+    @Test
+    public void testRequestCanBeRegisteredAgainAfterTimingOut() {
+        BuildableFuture<String> future = repository.registerPendingRequest(IBRequestRepository.POSITION_REQ_MAP_KEY, 10);
+        Assertions.assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        Assertions.assertNotNull(repository.registerPendingRequest(IBRequestRepository.POSITION_REQ_MAP_KEY));
+    }
+
+    @Test
+    public void testCompletedRequestDoesNotTimeOut() throws Exception {
+        BuildableFuture<String> future = repository.registerPendingRequest("1", 50);
+        repository.removePendingRequest("1");
+        future.get(1, TimeUnit.SECONDS);
+        Thread.sleep(100);
+        Assertions.assertEquals(0, repository.getTimedOutCount());
+        Assertions.assertTrue(repository.getMaxLatencyNanos() >= repository.getAverageLatencyNanos());
+    }
+
+    @Test
+    public void testFailedRequest() {
+        BuildableFuture<String> future = repository.registerPendingRequest("1");
+        repository.removePendingRequestWithException("1", new IllegalStateException("Failure"));
+        Assertions.assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, repository.getFailedCount());
+    }
+
+    @Test
+    public void testConcurrentRegistration() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for(int i = 0; i < 8; i++) {
+            int offset = i * 1000;
+            threads.add(new Thread(() -> {
+                for(int j = 0; j < 1000; j++) {
+                    repository.registerPendingRequest(String.valueOf(offset + j));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for(Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(8000, repository.getInFlightCount());
+    }
+}
@@ -1,10 +1,17 @@
 package com.github.tylerspaeth.broker.ib;
 
 import com.github.tylerspaeth.broker.ib.response.*;
+import com.github.tylerspaeth.broker.response.MarketDepth;
+import com.github.tylerspaeth.broker.response.Quote;
+import com.github.tylerspaeth.broker.response.Timestamped;
+import com.github.tylerspaeth.broker.service.IDataFeedListener;
 import com.github.tylerspaeth.common.data.dao.SymbolDAO;
+import com.github.tylerspaeth.common.data.entity.Candlestick;
 import com.github.tylerspaeth.common.data.entity.Symbol;
 import com.github.tylerspaeth.common.enums.AssetTypeEnum;
 import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
+import com.github.tylerspaeth.common.metrics.Counter;
+import com.github.tylerspaeth.common.metrics.MetricsRegistry;
 import com.ib.client.*;
 import com.ib.client.Contract;
 import com.ib.client.ContractDetails;
@@ -17,8 +24,12 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 @ExtendWith(MockitoExtension.class)
 public class IBSyncWrapperTest {
@@ -130,6 +141,134 @@ public class IBSyncWrapperTest {
         Assertions.assertEquals(400, positionPnL.value());
     }
 
+    @Test
+    public void testGetPositionPnLAsyncRequestsAreMadeTogether() throws Exception {
+        int firstReqId = connection.nextValidId.get();
+
+        CompletableFuture<PositionPnL> first = wrapper.getPositionPnLAsync("TestAccount", "", 1);
+        CompletableFuture<PositionPnL> second = wrapper.getPositionPnLAsync("TestAccount", "", 2);
+
+        // Both requests are sent before either has a response
+        Mockito.verify(client).reqPnLSingle(firstReqId, "TestAccount", "", 1);
+        Mockito.verify(client).reqPnLSingle(firstReqId + 1, "TestAccount", "", 2);
+        Assertions.assertFalse(first.isDone());
+        Assertions.assertFalse(second.isDone());
+
+        connection.getWrapper().pnlSingle(firstReqId + 1, Decimal.ONE, 5, 6, 7, 8);
+        connection.getWrapper().pnlSingle(firstReqId, Decimal.ONE, 1, 2, 3, 4);
+
+        Assertions.assertEquals(1, first.get(1, TimeUnit.SECONDS).dailyPnL());
+        Assertions.assertEquals(5, second.get(1, TimeUnit.SECONDS).dailyPnL());
+
+        // The subscriptions are kept open for later reads
+        Mockito.verify(client, Mockito.never()).cancelPnLSingle(Mockito.anyInt());
+    }
+
+    @Test
+    public void testStreamAccountPnLKeepsSubscriptionOpen() throws Exception {
+        int reqId = connection.nextValidId.get();
+
+        CompletableFuture<Timestamped<AccountPnL>> first = wrapper.streamAccountPnL("TestAccount", "");
+        connection.getWrapper().pnl(reqId, 100, 200, 300);
+        Assertions.assertEquals(100, first.get(1, TimeUnit.SECONDS).value().dailyPnL());
+
+        // Later updates replace the cached value without another request being made
+        connection.getWrapper().pnl(reqId, 101, 201, 301);
+        Timestamped<AccountPnL> second = wrapper.streamAccountPnL("TestAccount", "").getNow(null);
+
+        Assertions.assertNotNull(second);
+        Assertions.assertEquals(101, second.value().dailyPnL());
+        Mockito.verify(client, Mockito.times(1)).reqPnL(Mockito.anyInt(), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(client, Mockito.never()).cancelPnL(Mockito.anyInt());
+    }
+
+    @Test
+    public void testStreamPositionPnLSubscribesPerContract() throws Exception {
+        int reqId = connection.nextValidId.get();
+
+        CompletableFuture<Timestamped<PositionPnL>> first = wrapper.streamPositionPnL("TestAccount", "", 1);
+        CompletableFuture<Timestamped<PositionPnL>> second = wrapper.streamPositionPnL("TestAccount", "", 2);
+        connection.getWrapper().pnlSingle(reqId, Decimal.ONE, 1, 2, 3, 4);
+        connection.getWrapper().pnlSingle(reqId + 1, Decimal.ONE, 5, 6, 7, 8);
+
+        Assertions.assertEquals(1, first.get(1, TimeUnit.SECONDS).value().dailyPnL());
+        Assertions.assertEquals(5, second.get(1, TimeUnit.SECONDS).value().dailyPnL());
+        Mockito.verify(client).reqPnLSingle(reqId, "TestAccount", "", 1);
+        Mockito.verify(client).reqPnLSingle(reqId + 1, "TestAccount", "", 2);
+    }
+
+    @Test
+    public void testPositionPnLSubscriptionIsCancelledOncePositionIsClosed() throws Exception {
+        int reqId = connection.nextValidId.get();
+
+        wrapper.streamPositionPnL("TestAccount", "", 1);
+        wrapper.streamPositionPnL("TestAccount", "", 2);
+        wrapper.streamPositionPnL("TestAccount", "", 3);
+        connection.getWrapper().pnlSingle(reqId, Decimal.ONE, 1, 2, 3, 4);
+        connection.getWrapper().pnlSingle(reqId + 1, Decimal.ONE, 5, 6, 7, 8);
+        connection.getWrapper().pnlSingle(reqId + 2, Decimal.ONE, 9, 10, 11, 12);
+
+        // Contract 2 is no longer in the positions and contract 3 has been closed out
+        CompletableFuture<List<Position>> positions = wrapper.getPositionsAsync();
+        Contract held = new Contract();
+        held.conid(1);
+        Contract closed = new Contract();
+        closed.conid(3);
+        connection.getWrapper().position("TestAccount", held, Decimal.ONE, 12.3);
+        connection.getWrapper().position("TestAccount", closed, Decimal.ZERO, 45.6);
+        connection.getWrapper().positionEnd();
+        positions.get(1, TimeUnit.SECONDS);
+
+        Mockito.verify(client, Mockito.never()).cancelPnLSingle(reqId);
+        Mockito.verify(client).cancelPnLSingle(reqId + 1);
+        Mockito.verify(client).cancelPnLSingle(reqId + 2);
+        Assertions.assertEquals(1, connection.accountStateCache.positionPnLs.size());
+
+        // Updates that were already on their way are ignored, and reading the position again subscribes again
+        connection.getWrapper().pnlSingle(reqId + 1, Decimal.ONE, 13, 14, 15, 16);
+        int resubscribeReqId = connection.nextValidId.get();
+        CompletableFuture<Timestamped<PositionPnL>> resubscribed = wrapper.streamPositionPnL("TestAccount", "", 2);
+        Assertions.assertFalse(resubscribed.isDone());
+        Mockito.verify(client).reqPnLSingle(resubscribeReqId, "TestAccount", "", 2);
+    }
+
+    @Test
+    public void testIdlePositionPnLSubscriptionIsCancelled() throws Exception {
+        int reqId = connection.nextValidId.get();
+
+        CompletableFuture<Timestamped<PositionPnL>> first = wrapper.streamPositionPnL("TestAccount", "", 1);
+        connection.getWrapper().pnlSingle(reqId, Decimal.ONE, 1, 2, 3, 4);
+        first.get(1, TimeUnit.SECONDS);
+
+        // Read recently enough to be kept
+        wrapper.evictPositionPnLSubscriptions(null, TimeUnit.MINUTES.toMillis(10));
+        Mockito.verify(client, Mockito.never()).cancelPnLSingle(Mockito.anyInt());
+
+        wrapper.evictPositionPnLSubscriptions(null, 0);
+        Mockito.verify(client).cancelPnLSingle(reqId);
+        Assertions.assertTrue(connection.accountStateCache.positionPnLs.isEmpty());
+    }
+
+    @Test
+    public void testStreamAccountSummaryWaitsForAllTags() throws Exception {
+        int reqId = connection.nextValidId.get();
+
+        CompletableFuture<Timestamped<List<AccountSummary>>> future = wrapper.streamAccountSummary("All", List.of(AccountSummaryTag.NetLiquidation, AccountSummaryTag.BuyingPower));
+        connection.getWrapper().accountSummary(reqId, "ACC123", "NetLiquidation", "1000", "USD");
+        Assertions.assertFalse(future.isDone());
+        connection.getWrapper().accountSummary(reqId, "ACC123", "BuyingPower", "2000", "USD");
+        connection.getWrapper().accountSummaryEnd(reqId);
+        Assertions.assertEquals(2, future.get(1, TimeUnit.SECONDS).value().size());
+
+        // A changed tag replaces the old value
+        connection.getWrapper().accountSummary(reqId, "ACC123", "BuyingPower", "2500", "USD");
+        List<AccountSummary> latest = wrapper.streamAccountSummary("All", List.of(AccountSummaryTag.NetLiquidation, AccountSummaryTag.BuyingPower)).getNow(null).value();
+
+        Assertions.assertEquals(2, latest.size());
+        Assertions.assertTrue(latest.contains(new AccountSummary("ACC123", "BuyingPower", "2500", "USD")));
+        Mockito.verify(client, Mockito.never()).cancelAccountSummary(Mockito.anyInt());
+    }
+
     @Test
     public void testGetMatchingSymbols() throws Exception {
         int reqId = connection.nextValidId.get();
@@ -195,6 +334,88 @@ public class IBSyncWrapperTest {
         Assertions.assertEquals(1, connection.datafeeds.size());
     }
 
+    @Test
+    public void testReadTickBars() {
+        Symbol symbol = new Symbol();
+        symbol.setIbConID(1);
+        Mockito.when(symbolDAO.getSymbolByCriteria(Mockito.anyString(), Mockito.anyString(), Mockito.any(AssetTypeEnum.class))).thenReturn(symbol);
+        IBDataFeedKey dataFeedKey = new IBDataFeedKey(null, "ticker", "STK", "exchange", "currency");
+        long threadID = Thread.currentThread().threadId();
+
+        int tradesReqId = connection.nextValidId.get();
+        wrapper.subscribeToTickFeed(threadID, dataFeedKey, false);
+        Mockito.verify(client).reqTickByTickData(Mockito.eq(tradesReqId), Mockito.any(Contract.class), Mockito.eq("AllLast"), Mockito.eq(0), Mockito.eq(false));
+        Mockito.verify(client).reqTickByTickData(Mockito.eq(tradesReqId + 1), Mockito.any(Contract.class), Mockito.eq("BidAsk"), Mockito.eq(0), Mockito.eq(true));
+
+        double[] prices = {10, 12, 9, 11, 13};
+        for(int i = 0; i < prices.length; i++) {
+            connection.getWrapper().tickByTickAllLast(tradesReqId, 1, 100 + i, prices[i], Decimal.ONE, new TickAttribLast(), "", "");
+        }
+
+        // 5 trades make 2 bars of 2, with the last trade left for the next read
+        List<RealtimeBar> bars = wrapper.readTickBars(threadID, dataFeedKey, 2);
+        Assertions.assertEquals(2, bars.size());
+        Assertions.assertEquals(100, bars.getFirst().date());
+        Assertions.assertEquals(10, bars.getFirst().open());
+        Assertions.assertEquals(12, bars.getFirst().high());
+        Assertions.assertEquals(10, bars.getFirst().low());
+        Assertions.assertEquals(12, bars.getFirst().close());
+        Assertions.assertEquals(2, bars.getFirst().volume().longValue());
+        Assertions.assertEquals(9, bars.get(1).low());
+        Assertions.assertTrue(wrapper.readTickBars(threadID, dataFeedKey, 2).isEmpty());
+    }
+
+    @Test
+    public void testTopOfBookAndDepth() {
+        Symbol symbol = new Symbol();
+        symbol.setIbConID(1);
+        Mockito.when(symbolDAO.getSymbolByCriteria(Mockito.anyString(), Mockito.anyString(), Mockito.any(AssetTypeEnum.class))).thenReturn(symbol);
+        IBDataFeedKey dataFeedKey = new IBDataFeedKey(null, "ticker", "STK", "exchange", "currency");
+        long threadID = Thread.currentThread().threadId();
+
+        int bidAskReqId = connection.nextValidId.get() + 1;
+        int depthReqId = connection.nextValidId.get() + 2;
+        wrapper.subscribeToTickFeed(threadID, dataFeedKey, true);
+        Mockito.verify(client).reqMktDepth(Mockito.eq(depthReqId), Mockito.any(Contract.class), Mockito.eq(IBTickFeed.DEPTH_ROWS), Mockito.eq(false), Mockito.any());
+        Assertions.assertNull(wrapper.getTopOfBook(dataFeedKey));
+
+        connection.getWrapper().tickByTickBidAsk(bidAskReqId, 100, 9.99, 10.01, Decimal.ONE, Decimal.ONE_HUNDRED, new TickAttribBidAsk());
+        Quote quote = wrapper.getTopOfBook(dataFeedKey);
+        Assertions.assertEquals(9.99, quote.bidPrice());
+        Assertions.assertEquals(10.01, quote.askPrice());
+        Assertions.assertEquals(100, quote.askSize());
+
+        // Insert two bid levels, then a better one in front of them, then delete the worst
+        connection.getWrapper().updateMktDepth(depthReqId, 0, 0, 1, 9.98, Decimal.ONE);
+        connection.getWrapper().updateMktDepth(depthReqId, 1, 0, 1, 9.97, Decimal.ONE);
+        connection.getWrapper().updateMktDepth(depthReqId, 0, 0, 1, 9.99, Decimal.ONE);
+        connection.getWrapper().updateMktDepth(depthReqId, 2, 2, 1, 0, Decimal.ZERO);
+        connection.getWrapper().updateMktDepth(depthReqId, 0, 0, 0, 10.01, Decimal.ONE);
+
+        MarketDepth depth = wrapper.getMarketDepth(dataFeedKey);
+        Assertions.assertArrayEquals(new double[] {9.99, 9.98}, depth.bidPrices());
+        Assertions.assertArrayEquals(new double[] {10.01}, depth.askPrices());
+    }
+
+    @Test
+    public void testUnsubscribeFromTickFeedCancelsIBSubscriptions() {
+        Symbol symbol = new Symbol();
+        symbol.setIbConID(1);
+        Mockito.when(symbolDAO.getSymbolByCriteria(Mockito.anyString(), Mockito.anyString(), Mockito.any(AssetTypeEnum.class))).thenReturn(symbol);
+        IBDataFeedKey dataFeedKey = new IBDataFeedKey(null, "ticker", "STK", "exchange", "currency");
+        long threadID = Thread.currentThread().threadId();
+
+        int tradesReqId = connection.nextValidId.get();
+        wrapper.subscribeToTickFeed(threadID, dataFeedKey, true);
+        wrapper.unsubscribeFromTickFeed(threadID, dataFeedKey);
+
+        Mockito.verify(client).cancelTickByTickData(tradesReqId);
+        Mockito.verify(client).cancelTickByTickData(tradesReqId + 1);
+        Mockito.verify(client).cancelMktDepth(tradesReqId + 2, false);
+        Assertions.assertTrue(connection.tickFeeds.isEmpty());
+        Assertions.assertTrue(connection.tickFeedReqIdMap.isEmpty());
+    }
+
     @Test
     public void testSubscribeToSameFeedFromDifferentThreads() throws InterruptedException {
 
@@ -374,6 +595,54 @@ public class IBSyncWrapperTest {
         Mockito.verify(client, Mockito.times(0)).cancelRealTimeBars(Mockito.anyInt());
     }
 
+    @Test
+    public void testDataFeedListenerReceivesCondensedBars() throws InterruptedException {
+        int reqId = connection.nextValidId.get();
+        IBDataFeedKey dataFeedKey = new IBDataFeedKey(null, "ticker", "STK", "exchange", "currency");
+        Symbol symbol = new Symbol();
+        symbol.setIbConID(1);
+        Mockito.when(symbolDAO.getSymbolByCriteria(Mockito.anyString(), Mockito.anyString(), Mockito.any(AssetTypeEnum.class))).thenReturn(symbol);
+        List<Candlestick> candlesticks = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        wrapper.addDataFeedListener(Thread.currentThread().threadId(), dataFeedKey, symbol, 10, IntervalUnitEnum.SECOND, (_, candlestick) -> {
+            candlesticks.add(candlestick);
+            latch.countDown();
+        });
+        Mockito.verify(client, Mockito.times(1)).reqRealTimeBars(Mockito.anyInt(), Mockito.any(Contract.class), Mockito.anyInt(), Mockito.anyString(), Mockito.anyBoolean(), Mockito.any());
+
+        connection.getWrapper().realtimeBar(reqId, 5, 1, 1, 1, 1, Decimal.ONE_HUNDRED, null, -1);
+        connection.getWrapper().realtimeBar(reqId, 10, 2, 2, 1, 1.5, Decimal.ONE_HUNDRED, null, -1);
+        connection.getWrapper().realtimeBar(reqId, 15, 1.5, 5, 1.5, 4, Decimal.ONE_HUNDRED, null, -1);
+
+        Assertions.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, candlesticks.size());
+        Assertions.assertEquals(10, candlesticks.getFirst().getTimestamp().toInstant().getEpochSecond());
+        Assertions.assertEquals(2, candlesticks.getFirst().getOpen());
+        Assertions.assertEquals(5, candlesticks.getFirst().getHigh());
+        Assertions.assertEquals(1, candlesticks.getFirst().getLow());
+        Assertions.assertEquals(4, candlesticks.getFirst().getClose());
+        Assertions.assertEquals(200, candlesticks.getFirst().getVolume());
+    }
+
+    @Test
+    public void testRemovingLastDataFeedListenerCancelsIBSubscription() {
+        IBDataFeedKey dataFeedKey = new IBDataFeedKey(null, "ticker", "STK", "exchange", "currency");
+        Symbol symbol = new Symbol();
+        symbol.setIbConID(1);
+        Mockito.when(symbolDAO.getSymbolByCriteria(Mockito.anyString(), Mockito.anyString(), Mockito.any(AssetTypeEnum.class))).thenReturn(symbol);
+        IDataFeedListener listener = (_, _) -> {};
+        wrapper.subscribeToDataFeed(Thread.currentThread().threadId(), dataFeedKey);
+        wrapper.addDataFeedListener(Thread.currentThread().threadId(), dataFeedKey, symbol, 5, IntervalUnitEnum.SECOND, listener);
+
+        wrapper.unsubscribeFromDataFeed(Thread.currentThread().threadId(), dataFeedKey);
+        Mockito.verify(client, Mockito.times(0)).cancelRealTimeBars(Mockito.anyInt());
+
+        wrapper.removeDataFeedListener(Thread.currentThread().threadId(), dataFeedKey, listener);
+        Mockito.verify(client, Mockito.times(1)).cancelRealTimeBars(Mockito.anyInt());
+        Assertions.assertTrue(connection.datafeeds.isEmpty());
+        Assertions.assertTrue(connection.datafeedListeners.isEmpty());
+    }
+
     @Test
     public void testReadAfterUnsubscribe() {
         int reqId = connection.nextValidId.get();
@@ -511,6 +780,87 @@ public class IBSyncWrapperTest {
         Assertions.assertEquals(2, orderResponse.commissions.size());
     }
 
+    @Test
+    public void testCommissionAndFeesReportRoutedToOwningOrder() {
+        int reqId1 = connection.nextValidId.get();
+        OrderResponse orderResponse1 = wrapper.placeOrder(new Contract(), new Order());
+        int reqId2 = connection.nextValidId.get();
+        OrderResponse orderResponse2 = wrapper.placeOrder(new Contract(), new Order());
+        Execution execution1 = new Execution();
+        execution1.execId("execId1");
+        execution1.orderId(reqId1);
+        Execution execution2 = new Execution();
+        execution2.execId("execId2");
+        execution2.orderId(reqId2);
+        connection.getWrapper().execDetails(reqId1, new Contract(), execution1);
+        connection.getWrapper().execDetails(reqId2, new Contract(), execution2);
+        CommissionAndFeesReport commissionAndFeesReport = new CommissionAndFeesReport();
+        commissionAndFeesReport.execId("execId2");
+        connection.getWrapper().commissionAndFeesReport(commissionAndFeesReport);
+        Assertions.assertTrue(orderResponse1.commissions.isEmpty());
+        Assertions.assertEquals(1, orderResponse2.commissions.size());
+    }
+
+    @Test
+    public void testExecutionIndexRemovedWhenOrderFinishes() {
+        int reqId = connection.nextValidId.get();
+        wrapper.placeOrder(new Contract(), new Order());
+        Execution execution1 = new Execution();
+        execution1.execId("execId1");
+        execution1.orderId(reqId);
+        execution1.shares(Decimal.ONE);
+        connection.getWrapper().execDetails(reqId, new Contract(), execution1);
+        Assertions.assertEquals(1, connection.executionOrderMap.size());
+
+        // Filled, but the commission report for the execution has not been received yet
+        connection.getWrapper().orderStatus(reqId, OrderStatus.Filled.name(), Decimal.ONE, Decimal.ZERO, 3, 4, 5, 6, 7, "", 8);
+        Assertions.assertEquals(1, connection.orderStateMap.size());
+        Assertions.assertEquals(1, connection.executionOrderMap.size());
+
+        CommissionAndFeesReport commissionAndFeesReport1 = new CommissionAndFeesReport();
+        commissionAndFeesReport1.execId("execId1");
+        connection.getWrapper().commissionAndFeesReport(commissionAndFeesReport1);
+        Assertions.assertTrue(connection.orderStateMap.isEmpty());
+        Assertions.assertTrue(connection.executionOrderMap.isEmpty());
+    }
+
+    @Test
+    public void testOrderNotRemovedUntilEveryFillHasAnExecution() {
+        int reqId = connection.nextValidId.get();
+        wrapper.placeOrder(new Contract(), new Order());
+        connection.getWrapper().orderStatus(reqId, OrderStatus.Filled.name(), Decimal.get(2), Decimal.ZERO, 3, 4, 5, 6, 7, "", 8);
+
+        Execution execution1 = new Execution();
+        execution1.execId("execId1");
+        execution1.orderId(reqId);
+        execution1.shares(Decimal.ONE);
+        connection.getWrapper().execDetails(reqId, new Contract(), execution1);
+        CommissionAndFeesReport commissionAndFeesReport1 = new CommissionAndFeesReport();
+        commissionAndFeesReport1.execId("execId1");
+        connection.getWrapper().commissionAndFeesReport(commissionAndFeesReport1);
+        Assertions.assertEquals(1, connection.orderStateMap.size());
+
+        Execution execution2 = new Execution();
+        execution2.execId("execId2");
+        execution2.orderId(reqId);
+        execution2.shares(Decimal.ONE);
+        connection.getWrapper().execDetails(reqId, new Contract(), execution2);
+        Assertions.assertEquals(1, connection.orderStateMap.size());
+        CommissionAndFeesReport commissionAndFeesReport2 = new CommissionAndFeesReport();
+        commissionAndFeesReport2.execId("execId2");
+        connection.getWrapper().commissionAndFeesReport(commissionAndFeesReport2);
+        Assertions.assertTrue(connection.orderStateMap.isEmpty());
+        Assertions.assertTrue(connection.executionOrderMap.isEmpty());
+    }
+
+    @Test
+    public void testCancelledOrderWithoutFillsRemovedOnStatus() {
+        int reqId = connection.nextValidId.get();
+        wrapper.placeOrder(new Contract(), new Order());
+        connection.getWrapper().orderStatus(reqId, OrderStatus.Cancelled.name(), Decimal.ZERO, Decimal.get(2), 3, 4, 5, 6, 7, "", 8);
+        Assertions.assertTrue(connection.orderStateMap.isEmpty());
+    }
+
     @Test
     public void testCommissionAndFeesReportWithoutExecutionDoesNothing() {
         CommissionAndFeesReport commissionAndFeesReport1 = new CommissionAndFeesReport();
@@ -530,6 +880,25 @@ public class IBSyncWrapperTest {
         Assertions.assertTrue(orderResponse.getExecDetailsEnded());
     }
 
+    @Test
+    public void testEndCallbacksAreCounted() {
+        Counter execDetailsEnd = MetricsRegistry.getInstance().counter("ib_callbacks_total", "callback", "execDetailsEnd");
+        Counter historicalDataEnd = MetricsRegistry.getInstance().counter("ib_callbacks_total", "callback", "historicalDataEnd");
+        Counter accountSummaryEnd = MetricsRegistry.getInstance().counter("ib_callbacks_total", "callback", "accountSummaryEnd");
+        long execDetailsEndBefore = execDetailsEnd.get();
+        long historicalDataEndBefore = historicalDataEnd.get();
+        long accountSummaryEndBefore = accountSummaryEnd.get();
+
+        // Ends of requests that are not pending are still counted
+        connection.getWrapper().execDetailsEnd(1);
+        connection.getWrapper().historicalDataEnd(2, "", "");
+        connection.getWrapper().accountSummaryEnd(3);
+
+        Assertions.assertEquals(execDetailsEndBefore + 1, execDetailsEnd.get());
+        Assertions.assertEquals(historicalDataEndBefore + 1, historicalDataEnd.get());
+        Assertions.assertEquals(accountSummaryEndBefore + 1, accountSummaryEnd.get());
+    }
+
     @Test
     public void testCancelOrderCallsIB() {
         Assertions.assertNotNull(wrapper.cancelOrder(1));
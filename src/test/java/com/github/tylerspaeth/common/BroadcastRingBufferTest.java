@@ -0,0 +1,145 @@
+package com.github.tylerspaeth.common;
+
+import com.github.tylerspaeth.common.enums.OverflowPolicyEnum;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+public class BroadcastRingBufferTest {
+
+    private static final long READER_1 = 1;
+    private static final long READER_2 = 2;
+
+    @Test
+    public void testReadWithoutSubscriptionReturnsNothing() {
+        BroadcastRingBuffer<Integer> buffer = new BroadcastRingBuffer<>();
+        buffer.write(1);
+        Assertions.assertNull(buffer.read(READER_1));
+        Assertions.assertNull(buffer.peek(READER_1));
+        Assertions.assertTrue(buffer.read(READER_1, 1).isEmpty());
+        Assertions.assertTrue(buffer.dump(READER_1).isEmpty());
+    }
+
+    @Test
+    public void testEveryReaderSeesEveryItemWrittenAfterSubscribing() {
+        BroadcastRingBuffer<Integer> buffer = new BroadcastRingBuffer<>();
+        buffer.subscribe(READER_1);
+        buffer.write(1);
+        buffer.subscribe(READER_2);
+        buffer.write(2);
+        buffer.write(3);
+
+        Assertions.assertEquals(2, buffer.readerCount());
+        Assertions.assertEquals(List.of(1, 2, 3), buffer.dump(READER_1));
+        Assertions.assertEquals(2, buffer.peek(READER_2));
+        Assertions.assertEquals(List.of(2, 3), buffer.read(READER_2, 2));
+        Assertions.assertNull(buffer.read(READER_2));
+    }
+
+    @Test
+    public void testBatchReadRequiresEnoughItems() {
+        BroadcastRingBuffer<Integer> buffer = new BroadcastRingBuffer<>();
+        buffer.subscribe(READER_1);
+        buffer.write(1);
+        buffer.write(2);
+
+        Assertions.assertTrue(buffer.read(READER_1, 3).isEmpty());
+        Assertions.assertEquals(2, buffer.unreadCount(READER_1));
+        buffer.write(3);
+        Assertions.assertEquals(List.of(1, 2, 3), buffer.read(READER_1, 3));
+        Assertions.assertEquals(0, buffer.unreadCount(READER_1));
+    }
+
+    @Test
+    public void testUnsubscribe() {
+        BroadcastRingBuffer<Integer> buffer = new BroadcastRingBuffer<>();
+        buffer.subscribe(READER_1);
+        buffer.unsubscribe(READER_1);
+        buffer.write(1);
+        Assertions.assertEquals(0, buffer.readerCount());
+        Assertions.assertNull(buffer.read(READER_1));
+    }
+
+    @Test
+    public void testSkipToOldestOverflowPolicy() {
+        BroadcastRingBuffer<Integer> buffer = new BroadcastRingBuffer<>(4, OverflowPolicyEnum.SKIP_TO_OLDEST);
+        buffer.subscribe(READER_1);
+        for(int i = 0; i < 6; i++) {
+            buffer.write(i);
+        }
+        Assertions.assertEquals(List.of(2, 3, 4, 5), buffer.dump(READER_1));
+    }
+
+    @Test
+    public void testSkipToLatestOverflowPolicy() {
+        BroadcastRingBuffer<Integer> buffer = new BroadcastRingBuffer<>(4, OverflowPolicyEnum.SKIP_TO_LATEST);
+        buffer.subscribe(READER_1);
+        for(int i = 0; i < 6; i++) {
+            buffer.write(i);
+        }
+        Assertions.assertNull(buffer.read(READER_1));
+        buffer.write(6);
+        Assertions.assertEquals(6, buffer.read(READER_1));
+    }
+
+    @Test
+    public void testUnsubscribeOverflowPolicy() {
+        BroadcastRingBuffer<Integer> buffer = new BroadcastRingBuffer<>(4, OverflowPolicyEnum.UNSUBSCRIBE);
+        buffer.subscribe(READER_1);
+        buffer.subscribe(READER_2);
+        for(int i = 0; i < 5; i++) {
+            buffer.write(i);
+            buffer.read(READER_2);
+        }
+        Assertions.assertTrue(buffer.read(READER_1, 1).isEmpty());
+        Assertions.assertEquals(1, buffer.readerCount());
+    }
+
+    @Test
+    public void testCapacityMustBePowerOfTwo() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BroadcastRingBuffer<Integer>(3, OverflowPolicyEnum.SKIP_TO_OLDEST));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BroadcastRingBuffer<Integer>(0, OverflowPolicyEnum.SKIP_TO_OLDEST));
+    }
+
+    @Test
+    public void testConcurrentReadersSeeItemsInOrder() throws Exception {
+        int numItems = 100_000;
+        BroadcastRingBuffer<Integer> buffer = new BroadcastRingBuffer<>(1024, OverflowPolicyEnum.SKIP_TO_OLDEST);
+        List<List<Integer>> results = new ArrayList<>();
+        List<Thread> readers = new ArrayList<>();
+        CountDownLatch subscribed = new CountDownLatch(2);
+
+        for(int r = 0; r < 2; r++) {
+            List<Integer> result = new ArrayList<>();
+            results.add(result);
+            readers.add(new Thread(() -> {
+                long threadID = Thread.currentThread().threadId();
+                buffer.subscribe(threadID);
+                subscribed.countDown();
+                while(result.isEmpty() || result.getLast() != numItems - 1) {
+                    result.addAll(buffer.dump(threadID));
+                }
+            }));
+        }
+        readers.forEach(Thread::start);
+        subscribed.await();
+
+        for(int i = 0; i < numItems; i++) {
+            buffer.write(i);
+        }
+        for(Thread reader : readers) {
+            reader.join(10_000);
+        }
+
+        // Readers may skip items if they fall behind, but never see them out of order or twice
+        for(List<Integer> result : results) {
+            Assertions.assertEquals(numItems - 1, result.getLast());
+            for(int i = 1; i < result.size(); i++) {
+                Assertions.assertTrue(result.get(i) > result.get(i - 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.tylerspaeth.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class ClasspathScannerTest {
+
+    private static final String INDEX_RESOURCE = "META-INF/algonexus/test-index";
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void testLoadsIndexedClasses() throws IOException {
+        URL index = writeIndex("java.lang.String\n\njava.lang.Integer\njava.lang.String\n");
+        Assertions.assertEquals(List.of(String.class, Integer.class), ClasspathScanner.loadIndex(index, ClasspathScannerTest.class.getClassLoader()));
+    }
+
+    @Test
+    public void testSkipsClassesThatCanNotBeLoaded() throws IOException {
+        URL index = writeIndex("com.github.tylerspaeth.DoesNotExist\njava.lang.String\n");
+        Assertions.assertEquals(List.of(String.class), ClasspathScanner.loadIndex(index, ClasspathScannerTest.class.getClassLoader()));
+    }
+
+    @Test
+    public void testOnlyRootsWithoutAnIndexAreScanned() throws IOException {
+        URL indexedDirectory = URI.create("file:/app/classes/").toURL();
+        URL indexedJar = URI.create("jar:file:/app/lib/strategies.jar!/").toURL();
+        URL unindexedJar = URI.create("jar:file:/app/lib/plugin.jar!/").toURL();
+
+        List<URL> indexes = List.of(
+                URI.create("file:/app/classes/" + INDEX_RESOURCE).toURL(),
+                URI.create("jar:file:/app/lib/strategies.jar!/" + INDEX_RESOURCE).toURL());
+
+        Assertions.assertEquals(List.of(unindexedJar), ClasspathScanner.getUnindexedRoots(indexes, INDEX_RESOURCE, List.of(indexedDirectory, indexedJar, unindexedJar)));
+    }
+
+    @Test
+    public void testEveryRootIsScannedWithoutAnIndex() throws IOException {
+        URL root = URI.create("file:/app/classes/").toURL();
+        Assertions.assertEquals(List.of(root), ClasspathScanner.getUnindexedRoots(List.of(), INDEX_RESOURCE, List.of(root)));
+    }
+
+    private URL writeIndex(String contents) throws IOException {
+        Path index = directory.resolve(INDEX_RESOURCE);
+        Files.createDirectories(index.getParent());
+        Files.writeString(index, contents);
+        return index.toUri().toURL();
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.tylerspaeth.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class KeyedSerialExecutorTest {
+
+    private final KeyedSerialExecutor<Integer> executor = new KeyedSerialExecutor<>("test", 4);
+
+    @AfterEach
+    public void teardown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testTasksOfAKeyRunInOrder() throws InterruptedException {
+        List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(1000);
+        for(int i = 0; i < 1000; i++) {
+            int value = i;
+            executor.execute(1, () -> {
+                results.add(value);
+                latch.countDown();
+            });
+        }
+
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        for(int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(i, results.get(i));
+        }
+    }
+
+    @Test
+    public void testDifferentKeysRunInParallel() throws InterruptedException {
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch otherKeyRan = new CountDownLatch(1);
+        executor.execute(1, () -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.execute(2, otherKeyRan::countDown);
+
+        Assertions.assertTrue(otherKeyRan.await(5, TimeUnit.SECONDS));
+        blocker.countDown();
+    }
+
+    @Test
+    public void testQueueDepthCountsWaitingTasks() throws InterruptedException {
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(2);
+        executor.execute(1, () -> {
+            started.countDown();
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finished.countDown();
+        });
+        executor.execute(1, finished::countDown);
+
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, executor.getQueueDepth());
+        blocker.countDown();
+        Assertions.assertTrue(finished.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, executor.getQueueDepth());
+        Assertions.assertTrue(executor.getMaxLagNanos() >= executor.getLastLagNanos());
+    }
+
+    @Test
+    public void testFailingTaskDoesNotStopLaterTasks() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(1, () -> {
+            throw new IllegalStateException("Failure");
+        });
+        executor.execute(1, latch::countDown);
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.tylerspaeth.common;
+
+import com.github.tylerspaeth.common.enums.OverflowPolicyEnum;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TickRingBufferTest {
+
+    private static final long READER_1 = 1;
+    private static final long READER_2 = 2;
+
+    private final long[] times = new long[4];
+    private final double[] prices = new double[4];
+    private final double[] sizes = new double[4];
+
+    @Test
+    public void testReadWithoutSubscriptionReturnsNothing() {
+        TickRingBuffer buffer = new TickRingBuffer();
+        buffer.write(1, 10, 100);
+        Assertions.assertFalse(buffer.read(READER_1, 1, times, prices, sizes));
+        Assertions.assertEquals(0, buffer.unreadCount(READER_1));
+    }
+
+    @Test
+    public void testEveryReaderSeesEveryTickWrittenAfterSubscribing() {
+        TickRingBuffer buffer = new TickRingBuffer();
+        buffer.subscribe(READER_1);
+        buffer.write(1, 10, 100);
+        buffer.subscribe(READER_2);
+        buffer.write(2, 11, 200);
+
+        Assertions.assertTrue(buffer.read(READER_1, 2, times, prices, sizes));
+        Assertions.assertEquals(1, times[0]);
+        Assertions.assertEquals(10, prices[0]);
+        Assertions.assertEquals(100, sizes[0]);
+        Assertions.assertEquals(2, times[1]);
+
+        Assertions.assertTrue(buffer.read(READER_2, 1, times, prices, sizes));
+        Assertions.assertEquals(2, times[0]);
+        Assertions.assertEquals(11, prices[0]);
+        Assertions.assertEquals(200, sizes[0]);
+    }
+
+    @Test
+    public void testBatchReadRequiresEnoughTicks() {
+        TickRingBuffer buffer = new TickRingBuffer();
+        buffer.subscribe(READER_1);
+        buffer.write(1, 10, 100);
+        buffer.write(2, 11, 100);
+
+        Assertions.assertFalse(buffer.read(READER_1, 3, times, prices, sizes));
+        Assertions.assertEquals(2, buffer.unreadCount(READER_1));
+        buffer.write(3, 12, 100);
+        Assertions.assertTrue(buffer.read(READER_1, 3, times, prices, sizes));
+        Assertions.assertEquals(12, prices[2]);
+        Assertions.assertEquals(0, buffer.unreadCount(READER_1));
+    }
+
+    @Test
+    public void testSkipToOldestOverflowPolicy() {
+        TickRingBuffer buffer = new TickRingBuffer(4, OverflowPolicyEnum.SKIP_TO_OLDEST);
+        buffer.subscribe(READER_1);
+        for(int i = 0; i < 6; i++) {
+            buffer.write(i, i, 1);
+        }
+        Assertions.assertTrue(buffer.read(READER_1, 4, times, prices, sizes));
+        Assertions.assertArrayEquals(new long[] {2, 3, 4, 5}, times);
+    }
+
+    @Test
+    public void testUnsubscribeOverflowPolicy() {
+        TickRingBuffer buffer = new TickRingBuffer(4, OverflowPolicyEnum.UNSUBSCRIBE);
+        buffer.subscribe(READER_1);
+        for(int i = 0; i < 5; i++) {
+            buffer.write(i, i, 1);
+        }
+        Assertions.assertFalse(buffer.read(READER_1, 1, times, prices, sizes));
+        Assertions.assertEquals(0, buffer.readerCount());
+    }
+
+    @Test
+    public void testCapacityMustBePowerOfTwo() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TickRingBuffer(3, OverflowPolicyEnum.SKIP_TO_OLDEST));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TickRingBuffer(0, OverflowPolicyEnum.SKIP_TO_OLDEST));
+    }
+
+    @Test
+    public void testConcurrentReaderSeesConsistentTicksInOrder() throws Exception {
+        int numTicks = 100_000;
+        TickRingBuffer buffer = new TickRingBuffer(1024, OverflowPolicyEnum.SKIP_TO_OLDEST);
+        long[] lastTime = {-1};
+        boolean[] consistent = {true};
+
+        Thread reader = new Thread(() -> {
+            long threadID = Thread.currentThread().threadId();
+            long[] readTimes = new long[1];
+            double[] readPrices = new double[1];
+            double[] readSizes = new double[1];
+            while(lastTime[0] != numTicks - 1) {
+                if(buffer.read(threadID, 1, readTimes, readPrices, readSizes)) {
+                    // Every field of a tick was written from the same value, so a torn read would not match
+                    if(readTimes[0] <= lastTime[0] || readPrices[0] != readTimes[0] || readSizes[0] != readTimes[0]) {
+                        consistent[0] = false;
+                    }
+                    lastTime[0] = readTimes[0];
+                }
+            }
+        });
+        buffer.subscribe(reader.threadId());
+        reader.start();
+
+        for(int i = 0; i < numTicks; i++) {
+            buffer.write(i, i, i);
+        }
+        reader.join(10_000);
+
+        Assertions.assertEquals(numTicks - 1, lastTime[0]);
+        Assertions.assertTrue(consistent[0]);
+    }
+}
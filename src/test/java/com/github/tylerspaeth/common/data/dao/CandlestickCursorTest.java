@@ -0,0 +1,128 @@
+package com.github.tylerspaeth.common.data.dao;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class CandlestickCursorTest {
+
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    /**
+     * Creates a PageLoader over candlesticks at each whole second from 1 to numCandles, recording the time each page was loaded after.
+     */
+    private CandlestickCursor.PageLoader pageLoader(int numCandles, List<Timestamp> requestedStarts) {
+        return (after, pageSize) -> {
+            requestedStarts.add(after);
+            CandlestickCursor.Page page = new CandlestickCursor.Page(pageSize);
+            for(long second = after.toInstant().getEpochSecond() + 1; second <= numCandles && page.size() < pageSize; second++) {
+                page.add(Timestamp.from(Instant.ofEpochSecond(second)), second, second + 1, second - 1, second, 100);
+            }
+            return page;
+        };
+    }
+
+    @Test
+    public void testReadsEveryCandlestickInOrderAcrossPages() {
+        List<Timestamp> requestedStarts = new ArrayList<>();
+        List<Long> seconds = new ArrayList<>();
+        try (CandlestickCursor cursor = new CandlestickCursor(pageLoader(10, requestedStarts), Timestamp.from(Instant.EPOCH), 4, DIRECT_EXECUTOR)) {
+            while(cursor.hasNext()) {
+                CandlestickCursor.CandlestickValues values = cursor.next();
+                seconds.add(values.timestamp().toInstant().getEpochSecond());
+                Assertions.assertEquals(values.open() + 1, values.high());
+            }
+        }
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), seconds);
+        // Each page seeks from the last timestamp of the page before it, and the short third page ends the cursor
+        Assertions.assertEquals(List.of(Timestamp.from(Instant.EPOCH), Timestamp.from(Instant.ofEpochSecond(4)), Timestamp.from(Instant.ofEpochSecond(8))), requestedStarts);
+    }
+
+    @Test
+    public void testFullLastPageRequiresOneEmptyPage() {
+        List<Timestamp> requestedStarts = new ArrayList<>();
+        int count = 0;
+        try (CandlestickCursor cursor = new CandlestickCursor(pageLoader(8, requestedStarts), Timestamp.from(Instant.EPOCH), 4, DIRECT_EXECUTOR)) {
+            while(cursor.hasNext()) {
+                cursor.next();
+                count++;
+            }
+            Assertions.assertThrows(NoSuchElementException.class, cursor::next);
+        }
+
+        Assertions.assertEquals(8, count);
+        Assertions.assertEquals(3, requestedStarts.size());
+    }
+
+    @Test
+    public void testPrefetchesOnBackgroundThread() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        List<String> loadingThreads = new ArrayList<>();
+        CandlestickCursor.PageLoader delegate = pageLoader(100, new ArrayList<>());
+        CandlestickCursor.PageLoader recordingLoader = (after, pageSize) -> {
+            synchronized (loadingThreads) {
+                loadingThreads.add(Thread.currentThread().getName());
+            }
+            return delegate.load(after, pageSize);
+        };
+
+        int count = 0;
+        try (CandlestickCursor cursor = new CandlestickCursor(recordingLoader, Timestamp.from(Instant.EPOCH), 10, executor)) {
+            while(cursor.hasNext()) {
+                cursor.next();
+                count++;
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertEquals(100, count);
+        Assertions.assertFalse(loadingThreads.contains(Thread.currentThread().getName()));
+    }
+
+    @Test
+    public void testClosedCursorHasNoMoreCandlesticks() {
+        CandlestickCursor cursor = new CandlestickCursor(pageLoader(10, new ArrayList<>()), Timestamp.from(Instant.EPOCH), 4, DIRECT_EXECUTOR);
+        Assertions.assertTrue(cursor.hasNext());
+        cursor.close();
+        Assertions.assertFalse(cursor.hasNext());
+    }
+
+    @Test
+    public void testFailedPageThrowsInsteadOfEndingCursor() {
+        CandlestickCursor.PageLoader failingLoader = (_, _) -> {
+            throw new IllegalStateException("Database unavailable");
+        };
+        try (CandlestickCursor cursor = new CandlestickCursor(failingLoader, Timestamp.from(Instant.EPOCH), 4, DIRECT_EXECUTOR)) {
+            IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class, cursor::hasNext);
+            Assertions.assertEquals("Database unavailable", exception.getCause().getMessage());
+            Assertions.assertFalse(cursor.hasNext());
+        }
+    }
+
+    @Test
+    public void testInterruptedWaitThrowsAndKeepsInterruptFlag() {
+        // The page is never loaded, so hasNext can only stop waiting by being interrupted
+        Executor neverRuns = _ -> {};
+        try (CandlestickCursor cursor = new CandlestickCursor(pageLoader(10, new ArrayList<>()), Timestamp.from(Instant.EPOCH), 4, neverRuns)) {
+            Thread.currentThread().interrupt();
+            IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class, cursor::hasNext);
+            Assertions.assertInstanceOf(InterruptedException.class, exception.getCause());
+            Assertions.assertTrue(Thread.interrupted());
+        }
+    }
+
+    @Test
+    public void testInvalidPageSize() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CandlestickCursor(pageLoader(10, new ArrayList<>()), Timestamp.from(Instant.EPOCH), 0, DIRECT_EXECUTOR));
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.tylerspaeth.common.data.dao;
+
+import com.github.tylerspaeth.common.data.entity.Order;
+import com.github.tylerspaeth.common.data.entity.Trade;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith({MockitoExtension.class})
+public class OrderDAOTest {
+
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private EntityTransaction transaction;
+    @Mock
+    private CriteriaBuilder cb;
+    // The criteria are only built up, so every path and subquery taken from them can be a mock
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private CriteriaDelete<Trade> tradeDelete;
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private CriteriaUpdate<Order> orderUnlink;
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private CriteriaDelete<Order> orderDelete;
+    @Mock
+    private Query tradeDeleteQuery;
+    @Mock
+    private Query orderUnlinkQuery;
+    @Mock
+    private Query orderDeleteQuery;
+
+    private final OrderDAO orderDAO = new OrderDAO();
+
+    @BeforeEach
+    public void setup() {
+        when(entityManager.getCriteriaBuilder()).thenReturn(cb);
+        when(entityManager.getTransaction()).thenReturn(transaction);
+        Mockito.doReturn(tradeDelete).when(cb).createCriteriaDelete(Trade.class);
+        Mockito.doReturn(orderUnlink).when(cb).createCriteriaUpdate(Order.class);
+        Mockito.doReturn(orderDelete).when(cb).createCriteriaDelete(Order.class);
+        when(tradeDelete.where(Mockito.<Expression<Boolean>>any())).thenReturn(tradeDelete);
+        when(entityManager.createQuery(tradeDelete)).thenReturn(tradeDeleteQuery);
+        when(entityManager.createQuery(orderUnlink)).thenReturn(orderUnlinkQuery);
+        when(entityManager.createQuery(orderDelete)).thenReturn(orderDeleteQuery);
+    }
+
+    @Test
+    public void testDeleteAfterCheckpointDeletesTradesThenUnlinksOrdersThenDeletesOrders() {
+        orderDAO.deleteBacktestOrdersAfterCheckpoint(entityManager, 3, 4, 9);
+
+        // Trades reference the Orders and the Orders reference each other, so anything else would break a foreign key
+        InOrder inOrder = Mockito.inOrder(transaction, tradeDeleteQuery, orderUnlinkQuery, orderDeleteQuery);
+        inOrder.verify(transaction).begin();
+        inOrder.verify(tradeDeleteQuery).executeUpdate();
+        inOrder.verify(orderUnlinkQuery).executeUpdate();
+        inOrder.verify(orderDeleteQuery).executeUpdate();
+        inOrder.verify(transaction).commit();
+
+        Mockito.verify(cb).nullLiteral(Order.class);
+        // Only the Trades and Orders made after the checkpoint are deleted
+        Mockito.verify(cb).greaterThan(Mockito.<Expression<Integer>>any(), Mockito.eq(9));
+        Mockito.verify(cb, Mockito.times(2)).greaterThan(Mockito.<Expression<Integer>>any(), Mockito.eq(4));
+    }
+
+    @Test
+    public void testDeleteAfterCheckpointWithoutOrdersDeletesEverythingForTheBacktest() {
+        orderDAO.deleteBacktestOrdersAfterCheckpoint(entityManager, 3, null, null);
+
+        InOrder inOrder = Mockito.inOrder(transaction, tradeDeleteQuery, orderUnlinkQuery, orderDeleteQuery);
+        inOrder.verify(transaction).begin();
+        inOrder.verify(tradeDeleteQuery).executeUpdate();
+        inOrder.verify(orderUnlinkQuery).executeUpdate();
+        inOrder.verify(orderDeleteQuery).executeUpdate();
+        inOrder.verify(transaction).commit();
+
+        Mockito.verify(cb, Mockito.never()).greaterThan(Mockito.<Expression<Integer>>any(), Mockito.<Integer>any());
+    }
+
+}
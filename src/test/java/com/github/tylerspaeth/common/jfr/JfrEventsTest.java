@@ -0,0 +1,217 @@
+package com.github.tylerspaeth.common.jfr;
+
+import com.github.tylerspaeth.broker.backtester.BacktesterDataFeedService;
+import com.github.tylerspaeth.broker.backtester.BacktesterSharedService;
+import com.github.tylerspaeth.common.TimestampMicros;
+import com.github.tylerspaeth.common.data.dao.*;
+import com.github.tylerspaeth.common.data.entity.Candlestick;
+import com.github.tylerspaeth.common.data.entity.Exchange;
+import com.github.tylerspaeth.common.data.entity.HistoricalDataset;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.common.enums.AssetTypeEnum;
+import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
+import com.github.tylerspaeth.engine.request.AbstractEngineRequest;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+public class JfrEventsTest {
+
+    private static final String ENGINE_REQUEST_EVENT = "algonexus.EngineRequest";
+    private static final String CANDLE_PAGE_LOAD_EVENT = "algonexus.CandlePageLoad";
+
+    /**
+     * Request with a name that no other request uses, so only its own events are looked at.
+     */
+    private static class RecordedRequest extends AbstractEngineRequest<String> {
+
+        private final boolean fail;
+
+        RecordedRequest(boolean fail) {
+            this.fail = fail;
+        }
+
+        @Override
+        protected String execute() {
+            if(fail) {
+                throw new IllegalStateException("Request failed");
+            }
+            return "response";
+        }
+    }
+
+    @Test
+    public void testEngineRequestEventIsCommittedWithItsFields() throws Exception {
+        List<RecordedEvent> events = record(EngineRequestEvent.class, true, () -> new RecordedRequest(false).run());
+
+        RecordedEvent event = findEngineRequestEvent(events);
+        Assertions.assertNotNull(event);
+        Assertions.assertEquals(Thread.currentThread().threadId(), event.getLong("threadID"));
+        Assertions.assertFalse(event.getBoolean("failed"));
+        Assertions.assertNull(event.getString("symbol"));
+        Assertions.assertFalse(event.getDuration().isNegative());
+    }
+
+    @Test
+    public void testEngineRequestEventIsCommittedForFailedRequests() throws Exception {
+        List<RecordedEvent> events = record(EngineRequestEvent.class, true, () -> new RecordedRequest(true).run());
+
+        RecordedEvent event = findEngineRequestEvent(events);
+        Assertions.assertNotNull(event);
+        Assertions.assertTrue(event.getBoolean("failed"));
+    }
+
+    @Test
+    public void testEngineRequestEventIsNotCommittedWhenDisabled() throws Exception {
+        List<RecordedEvent> events = record(EngineRequestEvent.class, false, () -> new RecordedRequest(false).run());
+
+        Assertions.assertNull(findEngineRequestEvent(events));
+    }
+
+    @Test
+    public void testCandlePageLoadEventIsCommittedWithItsFields() throws Exception {
+        Symbol symbol = createSymbol(3);
+        BacktesterDataFeedService backtesterDataFeedService = createBacktesterDataFeedService(symbol);
+        long threadID = Thread.currentThread().threadId();
+
+        List<RecordedEvent> events = record(CandlePageLoadEvent.class, true, () -> readAll(backtesterDataFeedService, threadID, symbol));
+
+        List<RecordedEvent> pageLoads = events.stream().filter(event -> event.getEventType().getName().equals(CANDLE_PAGE_LOAD_EVENT)).toList();
+        Assertions.assertFalse(pageLoads.isEmpty());
+        int loaded = 0;
+        for(RecordedEvent pageLoad : pageLoads) {
+            Assertions.assertEquals(1, pageLoad.getInt("symbolID"));
+            Assertions.assertEquals(threadID, pageLoad.getLong("threadID"));
+            Assertions.assertFalse(pageLoad.getBoolean("preloaded"));
+            Assertions.assertTrue(pageLoad.getInt("requested") >= pageLoad.getInt("loaded"));
+            loaded += pageLoad.getInt("loaded");
+        }
+        // Everything after the first Candlestick, which is found while aligning the data feed, is read in pages
+        Assertions.assertEquals(2, loaded);
+    }
+
+    @Test
+    public void testCandlePageLoadEventIsNotCommittedWhenDisabled() throws Exception {
+        Symbol symbol = createSymbol(3);
+        BacktesterDataFeedService backtesterDataFeedService = createBacktesterDataFeedService(symbol);
+        long threadID = Thread.currentThread().threadId();
+
+        List<RecordedEvent> events = record(CandlePageLoadEvent.class, false, () -> readAll(backtesterDataFeedService, threadID, symbol));
+
+        Assertions.assertTrue(events.stream().noneMatch(event -> event.getEventType().getName().equals(CANDLE_PAGE_LOAD_EVENT)));
+    }
+
+    /**
+     * Run an action while recording with the event enabled without a threshold, or disabled.
+     * @return Every event that was recorded.
+     */
+    private static List<RecordedEvent> record(Class<? extends Event> eventClass, boolean enabled, Runnable action) throws Exception {
+        Path file = Files.createTempFile("jfr-events-test", ".jfr");
+        try (Recording recording = new Recording()) {
+            if(enabled) {
+                recording.enable(eventClass).withThreshold(Duration.ZERO);
+            } else {
+                recording.disable(eventClass);
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static RecordedEvent findEngineRequestEvent(List<RecordedEvent> events) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(ENGINE_REQUEST_EVENT))
+                .filter(event -> RecordedRequest.class.getSimpleName().equals(event.getString("request")))
+                .findFirst().orElse(null);
+    }
+
+    private static void readAll(BacktesterDataFeedService backtesterDataFeedService, long threadID, Symbol symbol) {
+        while(!backtesterDataFeedService.readFromDataFeed(threadID, symbol, 1, IntervalUnitEnum.SECOND).isEmpty()) {
+            // Read until the end of the dataset
+        }
+    }
+
+    /**
+     * Create a Symbol with a single dataset of one second Candlesticks.
+     */
+    private static Symbol createSymbol(int numCandlesticks) throws Exception {
+        Symbol symbol = new Symbol();
+        symbol.setName("Test Symbol");
+        symbol.setTicker("TS");
+        symbol.setExchange(new Exchange());
+        symbol.setAssetType(AssetTypeEnum.OTHER);
+        Field symbolID = Symbol.class.getDeclaredField("symbolID");
+        symbolID.setAccessible(true);
+        symbolID.set(symbol, 1);
+
+        HistoricalDataset historicalDataset = new HistoricalDataset();
+        historicalDataset.setDatasetName("Test Dataset");
+        historicalDataset.setSymbol(symbol);
+        historicalDataset.setDatasetStart(new Timestamp(0));
+        historicalDataset.setDatasetEnd(Timestamp.from(Instant.ofEpochSecond(numCandlesticks)));
+        historicalDataset.setTimeInterval(1);
+        historicalDataset.setIntervalUnit(IntervalUnitEnum.SECOND);
+        historicalDataset.setLastUpdated(Timestamp.from(Instant.now()));
+        symbol.getHistoricalDatasets().add(historicalDataset);
+
+        for(int i = 0; i < numCandlesticks; i++) {
+            Candlestick candlestick = new Candlestick();
+            candlestick.setTimestamp(Timestamp.from(Instant.ofEpochSecond(i)));
+            candlestick.setOpen(1f);
+            candlestick.setClose(1f);
+            candlestick.setHigh(1f);
+            candlestick.setLow(1f);
+            candlestick.setVolume(1f);
+            candlestick.setHistoricalDataset(historicalDataset);
+            historicalDataset.getCandlesticks().add(candlestick);
+        }
+        return symbol;
+    }
+
+    /**
+     * Create a BacktesterDataFeedService that reads the Candlesticks of the Symbol's dataset off the front of its list,
+     * subscribed to the Symbol on the current thread.
+     */
+    private static BacktesterDataFeedService createBacktesterDataFeedService(Symbol symbol) {
+        List<Candlestick> candlesticks = symbol.getHistoricalDatasets().getFirst().getCandlesticks();
+        SymbolDAO symbolDAO = Mockito.mock(SymbolDAO.class);
+        CandlestickDAO candlestickDAO = Mockito.mock(CandlestickDAO.class);
+        when(symbolDAO.getPersistedVersionOfSymbol(Mockito.any(Symbol.class))).thenReturn(symbol);
+        when(candlestickDAO.getFirstAlignedCandlestick(Mockito.any(HistoricalDataset.class), Mockito.any(Timestamp.class), Mockito.any(), Mockito.anyLong()))
+                .thenAnswer(_ -> candlesticks.removeFirst());
+        when(candlestickDAO.streamCandlesticksFromHistoricalDataset(Mockito.any(HistoricalDataset.class), Mockito.any(Timestamp.class), Mockito.any(), Mockito.anyInt()))
+                .thenAnswer(_ -> Mockito.mock(CandlestickCursor.class, invocationOnMock -> switch (invocationOnMock.getMethod().getName()) {
+                    case "hasNext" -> !candlesticks.isEmpty();
+                    case "next" -> {
+                        Candlestick candlestick = candlesticks.removeFirst();
+                        yield new CandlestickCursor.CandlestickValues(TimestampMicros.toMicros(candlestick.getTimestamp()), candlestick.getOpen(), candlestick.getHigh(),
+                                candlestick.getLow(), candlestick.getClose(), candlestick.getVolume());
+                    }
+                    default -> null;
+                }));
+
+        BacktesterDataFeedService backtesterDataFeedService = new BacktesterDataFeedService(new BacktesterSharedService(Mockito.mock(OrderDAO.class),
+                Mockito.mock(TradeDAO.class), Mockito.mock(CommissionDAO.class)), symbolDAO, candlestickDAO);
+        backtesterDataFeedService.subscribeToDataFeed(Thread.currentThread().threadId(), symbol);
+        return backtesterDataFeedService;
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.tylerspaeth.common.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void testMetricsWithTheSameNameAndLabelsAreShared() {
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+
+        Counter counter = metricsRegistry.counter("requests_total", "request", "PlaceOrderRequest");
+        counter.increment();
+        metricsRegistry.counter("requests_total", "request", "PlaceOrderRequest").add(2);
+        metricsRegistry.counter("requests_total", "request", "CancelOrderRequest").increment();
+
+        Assertions.assertSame(counter, metricsRegistry.counter("requests_total", "request", "PlaceOrderRequest"));
+        Assertions.assertEquals(3, counter.get());
+        Assertions.assertEquals(2, metricsRegistry.getCounters().size());
+        Assertions.assertSame(metricsRegistry.timer("call_seconds"), metricsRegistry.timer("call_seconds"));
+    }
+
+    @Test
+    public void testLabelsMustBePairs() {
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> metricsRegistry.counter("requests_total", "request"));
+    }
+
+    @Test
+    public void testTimerSnapshotIncludesEverythingRecorded() {
+        Timer timer = new MetricsRegistry().timer("call_seconds");
+        timer.record(1_000);
+        timer.record(2_000);
+        Assertions.assertEquals(2, timer.snapshot().count());
+
+        // Durations recorded after a snapshot are added to the earlier ones rather than replacing them
+        timer.record(3_000);
+        timer.record(-1);
+        Timer.Snapshot snapshot = timer.snapshot();
+
+        Assertions.assertEquals(3, snapshot.count());
+        Assertions.assertEquals(6_000, snapshot.sumNanos());
+        Assertions.assertEquals(2_000, snapshot.p50Nanos(), 2_000 * 0.01);
+        Assertions.assertEquals(3_000, snapshot.maxNanos(), 3_000 * 0.01);
+    }
+
+    @Test
+    public void testScrapeFormatsEveryMetricForPrometheus() {
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+        metricsRegistry.counter("ib_callbacks_total", "callback", "orderStatus").add(5);
+        metricsRegistry.counter("ib_callbacks_total", "callback", "error").increment();
+        metricsRegistry.gauge("engine_request_queue_size", () -> 7);
+        metricsRegistry.timer("dao_call_seconds", "dao", "OrderDAO", "method", "update").record(2_000_000_000L);
+
+        String scrape = new PrometheusExporter(metricsRegistry).scrape();
+
+        Assertions.assertEquals(1, scrape.split("# TYPE ib_callbacks_total counter", -1).length - 1);
+        Assertions.assertTrue(scrape.contains("ib_callbacks_total{callback=\"error\"} 1\n"));
+        Assertions.assertTrue(scrape.contains("ib_callbacks_total{callback=\"orderStatus\"} 5\n"));
+        Assertions.assertTrue(scrape.contains("# TYPE engine_request_queue_size gauge\nengine_request_queue_size 7\n"));
+        Assertions.assertTrue(scrape.contains("# TYPE dao_call_seconds summary\n"));
+        Assertions.assertTrue(scrape.contains("dao_call_seconds{dao=\"OrderDAO\",method=\"update\",quantile=\"0.99\"} "));
+        Assertions.assertTrue(scrape.contains("dao_call_seconds_sum{dao=\"OrderDAO\",method=\"update\"} 2.0\n"));
+        Assertions.assertTrue(scrape.contains("dao_call_seconds_count{dao=\"OrderDAO\",method=\"update\"} 1\n"));
+    }
+
+    @Test
+    public void testLabelValuesAreEscaped() {
+        MetricKey metricKey = new MetricKey("strategy_bars_processed_total", List.of("strategy", "My \"Strategy\""));
+        Assertions.assertEquals("strategy_bars_processed_total{strategy=\"My \\\"Strategy\\\"\"}", metricKey.toString());
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.tylerspaeth.common.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ResourceUsageTest {
+
+    @Test
+    public void testStartBindsToTheCurrentThreadUntilFinished() {
+        ResourceUsage resourceUsage = new ResourceUsage();
+        Assertions.assertNull(ResourceUsage.current());
+
+        resourceUsage.start();
+        Assertions.assertSame(resourceUsage, ResourceUsage.current());
+
+        resourceUsage.finish();
+        Assertions.assertNull(ResourceUsage.current());
+    }
+
+    @Test
+    public void testBindReturnsThePreviousResourceUsageSoItCanBeRestored() {
+        ResourceUsage strategyUsage = new ResourceUsage();
+        ResourceUsage requestUsage = new ResourceUsage();
+        ResourceUsage.bind(strategyUsage);
+
+        ResourceUsage previous = ResourceUsage.bind(requestUsage);
+        Assertions.assertSame(strategyUsage, previous);
+        Assertions.assertSame(requestUsage, ResourceUsage.current());
+
+        ResourceUsage.bind(previous);
+        Assertions.assertSame(strategyUsage, ResourceUsage.current());
+
+        ResourceUsage.bind(null);
+        Assertions.assertNull(ResourceUsage.current());
+    }
+
+    @Test
+    public void testUsageIsKeptOnceFinished() {
+        ResourceUsage resourceUsage = new ResourceUsage();
+        Assertions.assertEquals(0, resourceUsage.getCpuTimeNanos());
+
+        resourceUsage.start();
+        resourceUsage.recordEngineRequest();
+        resourceUsage.recordDaoOperation();
+        resourceUsage.recordDaoOperation();
+        long sum = 0;
+        for(int i = 0; i < 1_000_000; i++) {
+            sum += Integer.toString(i).length();
+        }
+        Assertions.assertTrue(sum > 0);
+        resourceUsage.finish();
+
+        long cpuTimeNanos = resourceUsage.getCpuTimeNanos();
+        long allocatedBytes = resourceUsage.getAllocatedBytes();
+        Assertions.assertEquals(1, resourceUsage.getEngineRequests());
+        Assertions.assertEquals(2, resourceUsage.getDaoOperations());
+        Assertions.assertEquals(cpuTimeNanos, resourceUsage.getCpuTimeNanos());
+        Assertions.assertEquals(allocatedBytes, resourceUsage.getAllocatedBytes());
+        Assertions.assertTrue(allocatedBytes > 0);
+    }
+}
@@ -32,11 +32,14 @@ public class DataManagerServiceTest {
     @Mock
     private HistoricalDatasetDAO historicalDatasetDAO;
 
+    @Mock
+    private HistoricalDataBackfillService historicalDataBackfillService;
+
     private DataManagerService dataManagerService;
 
     @BeforeEach
     public void setup() {
-        dataManagerService = new DataManagerService(historicalDatasetDAO);
+        dataManagerService = new DataManagerService(historicalDatasetDAO, historicalDataBackfillService);
     }
 
     private HistoricalDataset buildHistoricalDataset()  {
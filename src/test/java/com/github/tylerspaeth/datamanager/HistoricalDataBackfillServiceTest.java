@@ -0,0 +1,198 @@
+package com.github.tylerspaeth.datamanager;
+
+import com.github.tylerspaeth.broker.ib.IBConnection;
+import com.github.tylerspaeth.broker.ib.IBRequestException;
+import com.github.tylerspaeth.broker.ib.IBSyncWrapper;
+import com.github.tylerspaeth.common.data.dao.CandlestickDAO;
+import com.github.tylerspaeth.common.data.dao.SymbolDAO;
+import com.github.tylerspaeth.common.data.entity.Candlestick;
+import com.github.tylerspaeth.common.data.entity.HistoricalDataset;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.common.enums.AssetTypeEnum;
+import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
+import com.ib.client.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+public class HistoricalDataBackfillServiceTest {
+
+    private static final DateTimeFormatter IB_END_DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm:ss");
+    private static final String NO_DATA_MSG = "Historical Market Data Service error message:HMDS query returned no data";
+    private static final String FAILED_MSG = "Historical Market Data Service error message:Historical data request pacing violation";
+
+    @Mock
+    private CandlestickDAO candlestickDAO;
+
+    @Mock
+    private SymbolDAO symbolDAO;
+
+    private final List<String> requestedEndDateTimes = new CopyOnWriteArrayList<>();
+    private final List<String> requestedDurations = new CopyOnWriteArrayList<>();
+    private HistoricalDataResponder responder;
+
+    private HistoricalDataBackfillService backfillService;
+
+    /**
+     * How the fake client answers the historical data request with the given index.
+     */
+    private interface HistoricalDataResponder {
+        void respond(EWrapper wrapper, int requestIndex, int reqId, Instant end, long durationSeconds);
+    }
+
+    @BeforeEach
+    public void setup() {
+        IBConnection connection = new IBConnection();
+        // Fake client that answers historical data requests through the wrapper instead of sending them to TWS
+        connection.client = new EClientSocket(connection.client.wrapper(), new EJavaSignal()) {
+            @Override
+            public synchronized void reqHistoricalData(int reqId, Contract contract, String endDateTime, String durationStr, String barSizeSetting,
+                                                       String whatToShow, int useRTH, int formatDate, boolean keepUpToDate, List<TagValue> chartOptions) {
+                int requestIndex = requestedEndDateTimes.size();
+                requestedEndDateTimes.add(endDateTime);
+                requestedDurations.add(durationStr);
+                Instant end = LocalDateTime.parse(endDateTime, IB_END_DATE_TIME_FORMAT).toInstant(ZoneOffset.UTC);
+                long durationSeconds = durationStr.endsWith(" D") ? Long.parseLong(durationStr.split(" ")[0]) * 86400 : Long.parseLong(durationStr.split(" ")[0]);
+                EWrapper wrapper = wrapper();
+                new Thread(() -> responder.respond(wrapper, requestIndex, reqId, end, durationSeconds), "Mock-Callback").start();
+            }
+        };
+        backfillService = new HistoricalDataBackfillService(IBSyncWrapper.getInstanceTest(connection, symbolDAO), candlestickDAO);
+    }
+
+    private HistoricalDataset buildHistoricalDataset(int timeInterval, Instant datasetEnd) {
+        Symbol symbol = new Symbol();
+        symbol.setTicker("TCKR");
+        symbol.setAssetType(AssetTypeEnum.EQUITIES);
+        symbol.setIbConID(123);
+        HistoricalDataset historicalDataset = new HistoricalDataset();
+        historicalDataset.setSymbol(symbol);
+        historicalDataset.setDatasetName("Test Dataset");
+        historicalDataset.setTimeInterval(timeInterval);
+        historicalDataset.setIntervalUnit(IntervalUnitEnum.MINUTE);
+        historicalDataset.setDatasetStart(Timestamp.from(datasetEnd.minus(1, ChronoUnit.DAYS)));
+        historicalDataset.setDatasetEnd(Timestamp.from(datasetEnd));
+        return historicalDataset;
+    }
+
+    /**
+     * Sends a one minute bar for every whole minute of the requested period, then ends the request.
+     */
+    private static void sendMinuteBars(EWrapper wrapper, int reqId, Instant end, long durationSeconds) {
+        long firstMinute = Math.ceilDiv(end.getEpochSecond() - durationSeconds, 60) * 60;
+        for(long time = firstMinute; time < end.getEpochSecond(); time += 60) {
+            wrapper.historicalData(reqId, new Bar(String.valueOf(time), 10, 11, 9, 10.5, Decimal.ONE_HUNDRED, 1, Decimal.ONE));
+        }
+        wrapper.historicalDataEnd(reqId, "", "");
+    }
+
+    /**
+     * Records the Candlesticks appended to the dataset, in the order they were appended.
+     */
+    private List<Candlestick> recordAppendedCandlesticks() {
+        List<Candlestick> appended = new CopyOnWriteArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            List<Candlestick> candlesticks = invocation.getArgument(1);
+            appended.addAll(candlesticks);
+            return null;
+        }).when(candlestickDAO).appendCandlesticks(Mockito.any(), Mockito.any(), Mockito.any());
+        return appended;
+    }
+
+    @Test
+    public void testBackfillResumesFromDatasetEndAndWritesPagesInOrder() throws Exception {
+        Instant datasetEnd = Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(2, ChronoUnit.DAYS);
+        HistoricalDataset historicalDataset = buildHistoricalDataset(1, datasetEnd);
+        List<Candlestick> appended = recordAppendedCandlesticks();
+        // Answer later pages first so they arrive before the pages that have to be written before them
+        responder = (wrapper, requestIndex, reqId, end, durationSeconds) -> {
+            try {
+                Thread.sleep(300L - requestIndex * 100L);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            sendMinuteBars(wrapper, reqId, end, durationSeconds);
+        };
+
+        CompletableFuture<Integer> result = backfillService.backfill(historicalDataset);
+        int added = result.get(10, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(3, requestedEndDateTimes.size());
+        Assertions.assertTrue(requestedDurations.stream().allMatch("1 D"::equals));
+
+        Assertions.assertEquals(added, appended.size());
+        Assertions.assertEquals(datasetEnd.plusSeconds(60), appended.getFirst().getTimestamp().toInstant());
+        for(int i = 1; i < appended.size(); i++) {
+            Assertions.assertEquals(60, appended.get(i).getTimestamp().toInstant().getEpochSecond() - appended.get(i - 1).getTimestamp().toInstant().getEpochSecond());
+        }
+        // Only bars that have closed are added
+        Assertions.assertFalse(appended.getLast().getTimestamp().toInstant().plusSeconds(60).isAfter(Instant.now()));
+        Assertions.assertEquals(appended.getLast().getTimestamp(), historicalDataset.getDatasetEnd());
+        Assertions.assertNotNull(historicalDataset.getLastUpdated());
+    }
+
+    @Test
+    public void testBackfillStopsAtFailedPage() {
+        Instant datasetEnd = Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(2, ChronoUnit.DAYS);
+        HistoricalDataset historicalDataset = buildHistoricalDataset(1, datasetEnd);
+        List<Candlestick> appended = recordAppendedCandlesticks();
+        responder = (wrapper, requestIndex, reqId, end, durationSeconds) -> {
+            if(requestIndex == 1) {
+                wrapper.error(reqId, 0, 162, FAILED_MSG, "");
+            }
+            else {
+                sendMinuteBars(wrapper, reqId, end, durationSeconds);
+            }
+        };
+
+        CompletableFuture<Integer> result = backfillService.backfill(historicalDataset);
+
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(IBRequestException.class, exception.getCause());
+        // The dataset ends at the last bar of the first page so the next backfill resumes from there
+        Assertions.assertEquals(datasetEnd.plus(1, ChronoUnit.DAYS).minusSeconds(60), appended.getLast().getTimestamp().toInstant());
+        Assertions.assertEquals(appended.getLast().getTimestamp(), historicalDataset.getDatasetEnd());
+    }
+
+    @Test
+    public void testBackfillWithNoDataAddsNothing() throws Exception {
+        Instant datasetEnd = Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(2, ChronoUnit.DAYS);
+        HistoricalDataset historicalDataset = buildHistoricalDataset(1, datasetEnd);
+        responder = (wrapper, _, reqId, _, _) -> wrapper.error(reqId, 0, 162, NO_DATA_MSG, "");
+
+        CompletableFuture<Integer> result = backfillService.backfill(historicalDataset);
+
+        Assertions.assertEquals(0, result.get(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(Timestamp.from(datasetEnd), historicalDataset.getDatasetEnd());
+        Mockito.verifyNoInteractions(candlestickDAO);
+    }
+
+    @Test
+    public void testBackfillWithUnsupportedBarSize() {
+        HistoricalDataset historicalDataset = buildHistoricalDataset(7, Instant.now().minus(1, ChronoUnit.DAYS));
+        Assertions.assertNull(backfillService.backfill(historicalDataset));
+        Assertions.assertTrue(requestedEndDateTimes.isEmpty());
+    }
+
+    @Test
+    public void testBackfillWithNullDataset() {
+        Assertions.assertNull(backfillService.backfill(null));
+    }
+}
@@ -0,0 +1,238 @@
+package com.github.tylerspaeth.optimization;
+
+import com.github.tylerspaeth.common.data.dao.BacktestJobDAO;
+import com.github.tylerspaeth.common.data.dao.BacktestResultDAO;
+import com.github.tylerspaeth.common.data.dao.ParameterOptimizationDAO;
+import com.github.tylerspaeth.common.data.entity.BacktestJob;
+import com.github.tylerspaeth.common.data.entity.BacktestResult;
+import com.github.tylerspaeth.common.data.entity.ParameterOptimization;
+import com.github.tylerspaeth.common.data.entity.Strategy;
+import com.github.tylerspaeth.common.data.entity.StrategyParameterSet;
+import com.github.tylerspaeth.common.data.entity.User;
+import com.github.tylerspaeth.common.enums.BacktestJobStatusEnum;
+import com.github.tylerspaeth.engine.EngineCoordinator;
+import com.github.tylerspaeth.engine.request.StrategyRunRequest;
+import com.github.tylerspaeth.strategy.AbstractStrategy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith({MockitoExtension.class})
+public class BacktestWorkerTest {
+
+    private static final String WORKER_ID = "test-worker";
+    private static final int TEST_STRATEGY_ID = -2;
+
+    @Mock
+    private EngineCoordinator engineCoordinator;
+    @Mock
+    private BacktestJobDAO backtestJobDAO;
+    @Mock
+    private BacktestResultDAO backtestResultDAO;
+    @Mock
+    private ParameterOptimizationDAO parameterOptimizationDAO;
+
+    /**
+     * Strategy that never runs since the EngineCoordinator is mocked. Its backtest is finished by completing its
+     * completion future.
+     */
+    public static class TestStrategy extends AbstractStrategy {
+
+        private static volatile TestStrategy lastCreated;
+
+        public TestStrategy(StrategyParameterSet strategyParameterSet, User user, BacktestResult backtestResult) {
+            super(strategyParameterSet, user, backtestResult);
+            lastCreated = this;
+        }
+
+        @Override
+        protected void onRun() {}
+
+        @Override
+        protected void onStop() {}
+    }
+
+    @BeforeAll
+    public static void registerTestStrategy() {
+        AbstractStrategy.setStrategyEntityID(TEST_STRATEGY_ID, TestStrategy.class);
+    }
+
+    @Test
+    public void testJobThatCanNotStartIsFailedAndItsSlotReused() throws Exception {
+        Strategy strategy = new Strategy();
+        setField(strategy, "strategyID", -1); // Not registered, so the strategy can not be constructed
+        StrategyParameterSet strategyParameterSet = new StrategyParameterSet();
+        strategyParameterSet.setStrategy(strategy);
+        BacktestJob backtestJob = new BacktestJob();
+        setField(backtestJob, "backtestJobID", 7);
+        backtestJob.setStrategyParameterSet(strategyParameterSet);
+        backtestJob.setUser(new User());
+        backtestJob.setStartingBalance(1000f);
+
+        when(backtestJobDAO.leaseNextJob(Mockito.eq(WORKER_ID), Mockito.any(Duration.class), Mockito.anyInt())).thenReturn(backtestJob, (BacktestJob) null);
+
+        // A single slot means the second lease only happens once the failed job has given its slot back
+        BacktestWorker backtestWorker = new BacktestWorker(engineCoordinator, backtestJobDAO, backtestResultDAO, parameterOptimizationDAO, WORKER_ID, 1, Duration.ofMinutes(1));
+        Thread workerThread = new Thread(backtestWorker);
+        workerThread.start();
+        try {
+            Mockito.verify(backtestJobDAO, Mockito.timeout(5000)).finishJob(7, WORKER_ID, BacktestJobStatusEnum.FAILED, null);
+            Mockito.verify(backtestJobDAO, Mockito.timeout(5000).atLeast(2)).leaseNextJob(Mockito.eq(WORKER_ID), Mockito.any(Duration.class), Mockito.anyInt());
+        } finally {
+            backtestWorker.stop();
+            workerThread.join(5000);
+        }
+        Mockito.verify(backtestJobDAO, Mockito.never()).releaseJob(Mockito.any(), Mockito.any());
+        Mockito.verifyNoInteractions(engineCoordinator);
+    }
+
+    @Test
+    public void testStopWhileQueueIsEmpty() throws Exception {
+        when(backtestJobDAO.leaseNextJob(Mockito.eq(WORKER_ID), Mockito.any(Duration.class), Mockito.anyInt())).thenReturn(null);
+
+        BacktestWorker backtestWorker = new BacktestWorker(engineCoordinator, backtestJobDAO, backtestResultDAO, parameterOptimizationDAO, WORKER_ID, 2, Duration.ofMinutes(1));
+        Thread workerThread = new Thread(backtestWorker);
+        workerThread.start();
+        Mockito.verify(backtestJobDAO, Mockito.timeout(5000)).leaseNextJob(Mockito.eq(WORKER_ID), Mockito.any(Duration.class), Mockito.anyInt());
+        backtestWorker.stop();
+        workerThread.join(5000);
+
+        Assertions.assertFalse(workerThread.isAlive());
+        Mockito.verify(backtestJobDAO, Mockito.never()).finishJob(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void testReleasedJobHasItsResultPruned() throws Exception {
+        when(backtestJobDAO.leaseNextJob(Mockito.eq(WORKER_ID), Mockito.any(Duration.class), Mockito.anyInt())).thenReturn(buildRunnableJob(1, null), (BacktestJob) null);
+
+        BacktestWorker backtestWorker = new BacktestWorker(engineCoordinator, backtestJobDAO, backtestResultDAO, parameterOptimizationDAO, WORKER_ID, 1, Duration.ofMinutes(1));
+        Thread workerThread = new Thread(backtestWorker);
+        workerThread.start();
+        Mockito.verify(engineCoordinator, Mockito.timeout(5000)).submitRequest(Mockito.any(StrategyRunRequest.class));
+        backtestWorker.stop();
+        workerThread.join(5000);
+        Mockito.verify(backtestJobDAO).releaseJob(7, WORKER_ID);
+
+        // The stopped backtest finishes after its job has been given back to the queue
+        finishTestStrategy(21);
+
+        Mockito.verify(backtestResultDAO).update(Mockito.argThat(backtestResult -> backtestResult.isPruned() && backtestResult.getPrunedAt() != null));
+        Mockito.verify(backtestJobDAO, Mockito.never()).finishJob(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void testJobWithLostLeaseHasItsResultPruned() throws Exception {
+        when(backtestJobDAO.leaseNextJob(Mockito.eq(WORKER_ID), Mockito.any(Duration.class), Mockito.anyInt())).thenReturn(buildRunnableJob(1, null), (BacktestJob) null);
+        when(backtestJobDAO.finishJob(7, WORKER_ID, BacktestJobStatusEnum.COMPLETED, 21)).thenReturn(false);
+
+        BacktestWorker backtestWorker = new BacktestWorker(engineCoordinator, backtestJobDAO, backtestResultDAO, parameterOptimizationDAO, WORKER_ID, 1, Duration.ofMinutes(1));
+        Thread workerThread = new Thread(backtestWorker);
+        workerThread.start();
+        try {
+            Mockito.verify(engineCoordinator, Mockito.timeout(5000)).submitRequest(Mockito.any(StrategyRunRequest.class));
+            finishTestStrategy(21);
+
+            Mockito.verify(backtestResultDAO).update(Mockito.argThat(BacktestResult::isPruned));
+            // The slot is given back so the worker carries on leasing
+            Mockito.verify(backtestJobDAO, Mockito.timeout(5000).atLeast(2)).leaseNextJob(Mockito.eq(WORKER_ID), Mockito.any(Duration.class), Mockito.anyInt());
+        } finally {
+            backtestWorker.stop();
+            workerThread.join(5000);
+        }
+        Mockito.verify(backtestJobDAO, Mockito.never()).countUnfinishedJobs(Mockito.any());
+        Mockito.verify(backtestJobDAO, Mockito.never()).releaseJob(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void testReleasedJobPrunesResultsOfEarlierAttemptsAndRunsAgain() throws Exception {
+        ParameterOptimization parameterOptimization = new ParameterOptimization();
+        setField(parameterOptimization, "parameterOptimizationID", 3);
+        when(backtestJobDAO.leaseNextJob(Mockito.eq(WORKER_ID), Mockito.any(Duration.class), Mockito.anyInt())).thenReturn(buildRunnableJob(2, parameterOptimization), (BacktestJob) null);
+        when(backtestJobDAO.finishJob(7, WORKER_ID, BacktestJobStatusEnum.COMPLETED, 22)).thenReturn(true);
+        when(backtestJobDAO.countUnfinishedJobs(3)).thenReturn(0L);
+
+        BacktestWorker backtestWorker = new BacktestWorker(engineCoordinator, backtestJobDAO, backtestResultDAO, parameterOptimizationDAO, WORKER_ID, 1, Duration.ofMinutes(1));
+        Thread workerThread = new Thread(backtestWorker);
+        workerThread.start();
+        try {
+            Mockito.verify(engineCoordinator, Mockito.timeout(5000)).submitRequest(Mockito.any(StrategyRunRequest.class));
+            InOrder inOrder = Mockito.inOrder(backtestResultDAO, engineCoordinator);
+            inOrder.verify(backtestResultDAO).pruneBacktestResults(Mockito.eq(3), Mockito.eq(11), Mockito.any());
+            inOrder.verify(engineCoordinator).submitRequest(Mockito.any(StrategyRunRequest.class));
+
+            // The new attempt runs to the end and its own result is kept
+            BacktestResult backtestResult = finishTestStrategy(22);
+            Assertions.assertFalse(backtestResult.isPruned());
+            Mockito.verify(parameterOptimizationDAO, Mockito.timeout(5000)).update(parameterOptimization);
+        } finally {
+            backtestWorker.stop();
+            workerThread.join(5000);
+        }
+        Mockito.verify(backtestResultDAO, Mockito.never()).update(Mockito.any());
+    }
+
+    @Test
+    public void testFirstAttemptDoesNotPruneResults() throws Exception {
+        ParameterOptimization parameterOptimization = new ParameterOptimization();
+        setField(parameterOptimization, "parameterOptimizationID", 3);
+        when(backtestJobDAO.leaseNextJob(Mockito.eq(WORKER_ID), Mockito.any(Duration.class), Mockito.anyInt())).thenReturn(buildRunnableJob(1, parameterOptimization), (BacktestJob) null);
+
+        BacktestWorker backtestWorker = new BacktestWorker(engineCoordinator, backtestJobDAO, backtestResultDAO, parameterOptimizationDAO, WORKER_ID, 1, Duration.ofMinutes(1));
+        Thread workerThread = new Thread(backtestWorker);
+        workerThread.start();
+        Mockito.verify(engineCoordinator, Mockito.timeout(5000)).submitRequest(Mockito.any(StrategyRunRequest.class));
+        backtestWorker.stop();
+        workerThread.join(5000);
+
+        Mockito.verify(backtestResultDAO, Mockito.never()).pruneBacktestResults(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    /**
+     * Build a leased job for the test strategy.
+     * @param attempts Number of times the job has been leased, including this lease.
+     * @param parameterOptimization ParameterOptimization the job is part of, or null.
+     */
+    private static BacktestJob buildRunnableJob(int attempts, ParameterOptimization parameterOptimization) throws Exception {
+        Strategy strategy = new Strategy();
+        setField(strategy, "strategyID", TEST_STRATEGY_ID);
+        StrategyParameterSet strategyParameterSet = new StrategyParameterSet();
+        setField(strategyParameterSet, "strategyParameterSetID", 11);
+        strategyParameterSet.setStrategy(strategy);
+        BacktestJob backtestJob = new BacktestJob();
+        setField(backtestJob, "backtestJobID", 7);
+        backtestJob.setStrategyParameterSet(strategyParameterSet);
+        backtestJob.setUser(new User());
+        backtestJob.setStartingBalance(1000f);
+        backtestJob.setParameterOptimization(parameterOptimization);
+        backtestJob.setAttempts(attempts);
+        return backtestJob;
+    }
+
+    /**
+     * Finish the backtest of the most recently created test strategy as if it had run.
+     * @param backtestResultID ID the BacktestResult would have been given when the backtest started.
+     * @return BacktestResult the backtest finished with.
+     */
+    private static BacktestResult finishTestStrategy(int backtestResultID) throws Exception {
+        BacktestResult backtestResult = TestStrategy.lastCreated.getBacktestResult();
+        setField(backtestResult, "backtestResultID", backtestResultID);
+        TestStrategy.lastCreated.getCompletionFuture().complete(backtestResult);
+        return backtestResult;
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
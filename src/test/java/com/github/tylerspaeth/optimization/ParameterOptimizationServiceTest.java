@@ -0,0 +1,128 @@
+package com.github.tylerspaeth.optimization;
+
+import com.github.tylerspaeth.broker.backtester.BacktesterDataFeedService;
+import com.github.tylerspaeth.common.data.dao.BacktestJobDAO;
+import com.github.tylerspaeth.common.data.dao.BacktestResultDAO;
+import com.github.tylerspaeth.common.data.dao.ParameterOptimizationDAO;
+import com.github.tylerspaeth.common.data.dao.TradeDAO;
+import com.github.tylerspaeth.common.data.entity.BacktestResult;
+import com.github.tylerspaeth.common.data.entity.ParameterOptimization;
+import com.github.tylerspaeth.common.data.entity.Strategy;
+import com.github.tylerspaeth.common.data.entity.StrategyParameterSet;
+import com.github.tylerspaeth.common.data.entity.User;
+import com.github.tylerspaeth.common.enums.OptimizationMetricEnum;
+import com.github.tylerspaeth.engine.EngineCoordinator;
+import com.github.tylerspaeth.strategy.AbstractStrategy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith({MockitoExtension.class})
+public class ParameterOptimizationServiceTest {
+
+    private static final int TEST_STRATEGY_ID = -3;
+    private static final int CANDIDATES = 3;
+
+    @Mock
+    private EngineCoordinator engineCoordinator;
+    @Mock
+    private BacktesterDataFeedService backtesterDataFeedService;
+    @Mock
+    private ParameterOptimizationDAO parameterOptimizationDAO;
+    @Mock
+    private BacktestResultDAO backtestResultDAO;
+    @Mock
+    private TradeDAO tradeDAO;
+    @Mock
+    private BacktestJobDAO backtestJobDAO;
+
+    private ParameterOptimizationService parameterOptimizationService;
+
+    /**
+     * Strategy that never runs since the EngineCoordinator is mocked.
+     */
+    public static class TestStrategy extends AbstractStrategy {
+
+        public TestStrategy(StrategyParameterSet strategyParameterSet, User user, BacktestResult backtestResult) {
+            super(strategyParameterSet, user, backtestResult);
+        }
+
+        @Override
+        protected void onRun() {}
+
+        @Override
+        protected void onStop() {}
+    }
+
+    @BeforeAll
+    public static void registerTestStrategy() {
+        AbstractStrategy.setStrategyEntityID(TEST_STRATEGY_ID, TestStrategy.class);
+    }
+
+    @BeforeEach
+    public void setup() {
+        when(parameterOptimizationDAO.update(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(engineCoordinator.getBacktesterDataFeedService()).thenReturn(backtesterDataFeedService);
+        parameterOptimizationService = new ParameterOptimizationService(parameterOptimizationDAO, backtestResultDAO, tradeDAO, backtestJobDAO);
+    }
+
+    @Test
+    public void testInterruptedSubmissionFailsUnsubmittedCandidatesAndFinishes() throws Exception {
+        when(engineCoordinator.submitRequest(Mockito.any())).thenThrow(new InterruptedException());
+
+        CompletableFuture<ParameterOptimization> future = parameterOptimizationService.runOptimization(engineCoordinator, new User(), buildParameterSets(),
+                1000f, OptimizationMetricEnum.PNL, PruningSchedule.none());
+
+        // The candidates after the interrupted one are never submitted, but the optimization still finishes
+        Assertions.assertTrue(Thread.interrupted());
+        Mockito.verify(engineCoordinator).submitRequest(Mockito.any());
+        ParameterOptimization parameterOptimization = future.get(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(parameterOptimization.getEndTime());
+        Mockito.verify(backtesterDataFeedService).removeProgressListener(Mockito.any());
+    }
+
+    @Test
+    public void testFailedSubmissionDoesNotStopLaterCandidates() throws Exception {
+        when(engineCoordinator.submitRequest(Mockito.any())).thenThrow(new ExecutionException(new IllegalStateException("Engine stopped")));
+
+        CompletableFuture<ParameterOptimization> future = parameterOptimizationService.runOptimization(engineCoordinator, new User(), buildParameterSets(),
+                1000f, OptimizationMetricEnum.PNL, PruningSchedule.none());
+
+        Mockito.verify(engineCoordinator, Mockito.times(CANDIDATES)).submitRequest(Mockito.any());
+        ParameterOptimization parameterOptimization = future.get(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(parameterOptimization.getEndTime());
+        Mockito.verify(backtesterDataFeedService).removeProgressListener(Mockito.any());
+    }
+
+    private static List<StrategyParameterSet> buildParameterSets() throws Exception {
+        Strategy strategy = new Strategy();
+        setField(strategy, "strategyID", TEST_STRATEGY_ID);
+        List<StrategyParameterSet> strategyParameterSets = new ArrayList<>();
+        for(int i = 0; i < CANDIDATES; i++) {
+            StrategyParameterSet strategyParameterSet = new StrategyParameterSet();
+            strategyParameterSet.setStrategy(strategy);
+            strategyParameterSets.add(strategyParameterSet);
+        }
+        return strategyParameterSets;
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
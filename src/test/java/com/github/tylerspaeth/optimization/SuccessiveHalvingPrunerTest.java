@@ -0,0 +1,126 @@
+package com.github.tylerspaeth.optimization;
+
+import com.github.tylerspaeth.broker.backtester.BacktesterDataFeedKey;
+import com.github.tylerspaeth.common.data.dao.TradeDAO;
+import com.github.tylerspaeth.common.data.entity.BacktestResult;
+import com.github.tylerspaeth.common.data.entity.Trade;
+import com.github.tylerspaeth.common.enums.OptimizationMetricEnum;
+import com.github.tylerspaeth.common.enums.SideEnum;
+import com.github.tylerspaeth.strategy.AbstractStrategy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Field;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith({MockitoExtension.class})
+public class SuccessiveHalvingPrunerTest {
+
+    @Mock
+    private TradeDAO tradeDAO;
+
+    @Test
+    public void testSuccessiveHalvingRungs() {
+        PruningSchedule pruningSchedule = PruningSchedule.successiveHalving(0.1f, 0.5f);
+        Assertions.assertEquals(List.of(0.1f, 0.2f, 0.4f, 0.8f), pruningSchedule.rungs());
+        Assertions.assertEquals(0.5f, pruningSchedule.pruneFraction());
+    }
+
+    @Test
+    public void testNoPruningScheduleHasNoRungs() {
+        Assertions.assertTrue(PruningSchedule.none().rungs().isEmpty());
+        Assertions.assertTrue(PruningSchedule.successiveHalving(0.1f, 0).rungs().isEmpty());
+    }
+
+    @Test
+    public void testInvalidPruneFractionThrows() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PruningSchedule.successiveHalving(0.1f, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PruningSchedule.successiveHalving(0, 0.5f));
+    }
+
+    @Test
+    public void testShouldPruneRequiresMinimumCandidates() {
+        PruningSchedule pruningSchedule = new PruningSchedule(List.of(0.5f), 0.5f, 3);
+        Assertions.assertFalse(SuccessiveHalvingPruner.shouldPrune(List.of(10f, 1f), 1f, pruningSchedule));
+    }
+
+    @Test
+    public void testShouldPruneBottomFraction() {
+        PruningSchedule pruningSchedule = new PruningSchedule(List.of(0.5f), 0.5f, 3);
+        List<Float> results = List.of(4f, 3f, 2f, 1f);
+        Assertions.assertFalse(SuccessiveHalvingPruner.shouldPrune(results, 4f, pruningSchedule));
+        Assertions.assertFalse(SuccessiveHalvingPruner.shouldPrune(results, 3f, pruningSchedule));
+        Assertions.assertTrue(SuccessiveHalvingPruner.shouldPrune(results, 2f, pruningSchedule));
+        Assertions.assertTrue(SuccessiveHalvingPruner.shouldPrune(results, 1f, pruningSchedule));
+    }
+
+    @Test
+    public void testOnProgressStopsWorstCandidate() throws Exception {
+        AbstractStrategy first = mockCandidate(1L, 1);
+        AbstractStrategy second = mockCandidate(2L, 2);
+        AbstractStrategy third = mockCandidate(3L, 3);
+
+        when(tradeDAO.getTradesForBacktestResult(1)).thenReturn(roundTrip(15));
+        when(tradeDAO.getTradesForBacktestResult(2)).thenReturn(roundTrip(20));
+        when(tradeDAO.getTradesForBacktestResult(3)).thenReturn(roundTrip(11));
+
+        SuccessiveHalvingPruner pruner = new SuccessiveHalvingPruner(tradeDAO, List.of(first, second, third), OptimizationMetricEnum.PNL, new PruningSchedule(List.of(0.5f), 0.5f, 3));
+
+        Timestamp timestamp = Timestamp.from(Instant.now());
+        pruner.onProgress(new BacktesterDataFeedKey(1, 1L), timestamp, 0.6f);
+        pruner.onProgress(new BacktesterDataFeedKey(1, 2L), timestamp, 0.6f);
+        pruner.onProgress(new BacktesterDataFeedKey(1, 3L), timestamp, 0.6f);
+
+        Mockito.verify(first, Mockito.never()).stop();
+        Mockito.verify(second, Mockito.never()).stop();
+        Mockito.verify(third, Mockito.times(1)).stop();
+        Mockito.verify(third, Mockito.times(1)).updateBacktestResult(Mockito.any());
+    }
+
+    @Test
+    public void testOnProgressBeforeFirstRungDoesNothing() {
+        AbstractStrategy candidate = Mockito.mock(AbstractStrategy.class);
+        when(candidate.getRunningThreadID()).thenReturn(1L);
+
+        SuccessiveHalvingPruner pruner = new SuccessiveHalvingPruner(tradeDAO, List.of(candidate), OptimizationMetricEnum.PNL, new PruningSchedule(List.of(0.5f), 0.5f, 1));
+        pruner.onProgress(new BacktesterDataFeedKey(1, 1L), Timestamp.from(Instant.now()), 0.2f);
+        pruner.onProgress(new BacktesterDataFeedKey(1, 99L), Timestamp.from(Instant.now()), 0.9f);
+
+        Mockito.verify(tradeDAO, Mockito.never()).getTradesForBacktestResult(Mockito.any());
+        Mockito.verify(candidate, Mockito.never()).stop();
+    }
+
+    private AbstractStrategy mockCandidate(long threadID, int backtestResultID) throws Exception {
+        BacktestResult backtestResult = new BacktestResult();
+        Field field = BacktestResult.class.getDeclaredField("backtestResultID");
+        field.setAccessible(true);
+        field.set(backtestResult, backtestResultID);
+
+        AbstractStrategy candidate = Mockito.mock(AbstractStrategy.class);
+        when(candidate.getRunningThreadID()).thenReturn(threadID);
+        when(candidate.getBacktestResult()).thenReturn(backtestResult);
+        return candidate;
+    }
+
+    private List<Trade> roundTrip(float exitPrice) {
+        Trade entry = new Trade();
+        entry.setSide(SideEnum.BUY);
+        entry.setFillQuantity(1f);
+        entry.setFillPrice(10f);
+        entry.setFees(0f);
+        Trade exit = new Trade();
+        exit.setSide(SideEnum.SELL);
+        exit.setFillQuantity(1f);
+        exit.setFillPrice(exitPrice);
+        exit.setFees(0f);
+        return List.of(entry, exit);
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.tylerspaeth.optimization;
+
+import com.github.tylerspaeth.broker.backtester.BacktesterDataFeedService;
+import com.github.tylerspaeth.common.data.dao.ParameterOptimizationDAO;
+import com.github.tylerspaeth.common.data.entity.HistoricalDataset;
+import com.github.tylerspaeth.common.data.entity.ParameterOptimization;
+import com.github.tylerspaeth.common.data.entity.User;
+import com.github.tylerspaeth.common.enums.OptimizationMetricEnum;
+import com.github.tylerspaeth.engine.EngineCoordinator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+public class WalkForwardServiceTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    public void testWindowsStepByOutOfSampleLength() {
+        List<WalkForwardService.WalkForwardWindow> windows = WalkForwardService.createWindows(Timestamp.from(START),
+                Timestamp.from(START.plus(Duration.ofDays(100))), Duration.ofDays(60), Duration.ofDays(20));
+
+        Assertions.assertEquals(3, windows.size());
+        for(int i = 0; i < windows.size(); i++) {
+            WalkForwardService.WalkForwardWindow window = windows.get(i);
+            Instant windowStart = START.plus(Duration.ofDays(20L * i));
+            Assertions.assertEquals(Timestamp.from(windowStart), window.inSample().start());
+            Assertions.assertEquals(Timestamp.from(windowStart.plus(Duration.ofDays(60))), window.inSample().end());
+            Assertions.assertEquals(window.inSample().end(), window.outOfSample().start());
+            Assertions.assertEquals(Timestamp.from(windowStart.plus(Duration.ofDays(80))), window.outOfSample().end());
+        }
+    }
+
+    @Test
+    public void testPartialWindowIsNotCreated() {
+        List<WalkForwardService.WalkForwardWindow> windows = WalkForwardService.createWindows(Timestamp.from(START),
+                Timestamp.from(START.plus(Duration.ofDays(79))), Duration.ofDays(60), Duration.ofDays(20));
+        Assertions.assertTrue(windows.isEmpty());
+    }
+
+    @Test
+    public void testInvalidLengthsCreateNoWindows() {
+        Timestamp start = Timestamp.from(START);
+        Timestamp end = Timestamp.from(START.plus(Duration.ofDays(100)));
+        Assertions.assertTrue(WalkForwardService.createWindows(start, end, Duration.ZERO, Duration.ofDays(20)).isEmpty());
+        Assertions.assertTrue(WalkForwardService.createWindows(start, end, Duration.ofDays(60), Duration.ofDays(-1)).isEmpty());
+        Assertions.assertTrue(WalkForwardService.createWindows(null, end, Duration.ofDays(60), Duration.ofDays(20)).isEmpty());
+    }
+
+    @Test
+    public void testWindowsRunOneAfterAnother() throws Exception {
+        ParameterOptimizationService parameterOptimizationService = Mockito.mock(ParameterOptimizationService.class);
+        EngineCoordinator engineCoordinator = Mockito.mock(EngineCoordinator.class);
+        BacktesterDataFeedService backtesterDataFeedService = Mockito.mock(BacktesterDataFeedService.class);
+        when(engineCoordinator.getBacktesterDataFeedService()).thenReturn(backtesterDataFeedService);
+        List<CompletableFuture<ParameterOptimization>> optimizations = new ArrayList<>();
+        when(parameterOptimizationService.runOptimization(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(_ -> {
+                    CompletableFuture<ParameterOptimization> optimization = new CompletableFuture<>();
+                    optimizations.add(optimization);
+                    return optimization;
+                });
+
+        HistoricalDataset historicalDataset = new HistoricalDataset();
+        historicalDataset.setDatasetStart(Timestamp.from(START));
+        historicalDataset.setDatasetEnd(Timestamp.from(START.plus(Duration.ofDays(100))));
+        WalkForwardService walkForwardService = new WalkForwardService(parameterOptimizationService, Mockito.mock(ParameterOptimizationDAO.class), Runnable::run);
+        CompletableFuture<List<ParameterOptimization>> future = walkForwardService.runWalkForward(engineCoordinator, new User(), List.of(), historicalDataset,
+                Duration.ofDays(60), Duration.ofDays(20), 1000f, OptimizationMetricEnum.PNL, PruningSchedule.none());
+
+        // A window is only optimized once the one before it has finished
+        List<ParameterOptimization> finished = new ArrayList<>();
+        for(int i = 0; i < 3; i++) {
+            Assertions.assertEquals(i + 1, optimizations.size());
+            ParameterOptimization parameterOptimization = new ParameterOptimization();
+            finished.add(parameterOptimization);
+            optimizations.get(i).complete(parameterOptimization);
+        }
+
+        List<ParameterOptimization> results = future.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(3, results.size());
+        for(int i = 0; i < 3; i++) {
+            Assertions.assertSame(finished.get(i), results.get(i));
+        }
+        Mockito.verify(backtesterDataFeedService).preloadHistoricalDataset(historicalDataset);
+        Mockito.verify(backtesterDataFeedService).releaseHistoricalDataset(historicalDataset);
+    }
+}
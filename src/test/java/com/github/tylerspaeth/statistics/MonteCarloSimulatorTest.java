@@ -0,0 +1,86 @@
+package com.github.tylerspaeth.statistics;
+
+import com.github.tylerspaeth.common.data.entity.Trade;
+import com.github.tylerspaeth.common.enums.ResamplingMethodEnum;
+import com.github.tylerspaeth.common.enums.SideEnum;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class MonteCarloSimulatorTest {
+
+    private static final double[] TRADE_PNLS = {100, -50, 25, -75, 200, -10, 40};
+
+    @Test
+    public void testTradePnLsSumToPnL() {
+        List<Trade> trades = List.of(
+                trade(SideEnum.BUY, 2, 10, 1),
+                trade(SideEnum.SELL, 1, 12, 1),
+                trade(SideEnum.SELL, 2, 11, 1),
+                trade(SideEnum.BUY, 1, 8, 1));
+
+        double[] tradePnLs = StatisticsUtils.calculateTradePnLs(trades);
+
+        Assertions.assertArrayEquals(new double[] {-1, 1, 0, 2}, tradePnLs, 1e-6);
+        Assertions.assertEquals(StatisticsUtils.calculatePnL(trades), (float) (tradePnLs[0] + tradePnLs[1] + tradePnLs[2] + tradePnLs[3]), 1e-6);
+    }
+
+    @Test
+    public void testShuffleKeepsFinalPnL() {
+        MonteCarloSimulator.MonteCarloResult result = MonteCarloSimulator.simulate(TRADE_PNLS, 1000, 500, ResamplingMethodEnum.SHUFFLE, 1);
+
+        Assertions.assertEquals(500, result.finalPnL().size());
+        Assertions.assertEquals(230, result.finalPnL().min(), 1e-9);
+        Assertions.assertEquals(230, result.finalPnL().max(), 1e-9);
+        // Every ordering loses at least the largest single loss and at most every loss
+        Assertions.assertTrue(result.maxDrawdown().min() >= 75);
+        Assertions.assertTrue(result.maxDrawdown().max() <= 135);
+    }
+
+    @Test
+    public void testBootstrapDrawsFromTrades() {
+        MonteCarloSimulator.MonteCarloResult result = MonteCarloSimulator.simulate(TRADE_PNLS, 1000, 2000, ResamplingMethodEnum.BOOTSTRAP, 1);
+
+        Assertions.assertTrue(result.finalPnL().min() < result.finalPnL().max());
+        Assertions.assertTrue(result.finalPnL().min() >= -75 * TRADE_PNLS.length);
+        Assertions.assertTrue(result.finalPnL().max() <= 200 * TRADE_PNLS.length);
+        Assertions.assertEquals(230, result.finalPnL().mean(), 20);
+    }
+
+    @Test
+    public void testSameSeedGivesSameResult() {
+        MonteCarloSimulator.MonteCarloResult first = MonteCarloSimulator.simulate(TRADE_PNLS, 1000, 1000, ResamplingMethodEnum.BOOTSTRAP, 42);
+        MonteCarloSimulator.MonteCarloResult second = MonteCarloSimulator.simulate(TRADE_PNLS, 1000, 1000, ResamplingMethodEnum.BOOTSTRAP, 42);
+
+        for(double fraction : new double[] {0, 0.05, 0.5, 0.95, 1}) {
+            Assertions.assertEquals(first.finalPnL().percentile(fraction), second.finalPnL().percentile(fraction));
+            Assertions.assertEquals(first.maxDrawdown().percentile(fraction), second.maxDrawdown().percentile(fraction));
+            Assertions.assertEquals(first.sharpeRatio().percentile(fraction), second.sharpeRatio().percentile(fraction));
+        }
+    }
+
+    @Test
+    public void testPercentileInterpolates() {
+        MonteCarloSimulator.Distribution distribution = new MonteCarloSimulator.Distribution(new double[] {30, 10, 20, 40});
+
+        Assertions.assertEquals(10, distribution.percentile(0));
+        Assertions.assertEquals(25, distribution.percentile(0.5));
+        Assertions.assertEquals(40, distribution.percentile(1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> distribution.percentile(1.5));
+    }
+
+    @Test
+    public void testInvalidNumberOfPaths() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MonteCarloSimulator.simulate(TRADE_PNLS, 1000, 0, ResamplingMethodEnum.SHUFFLE, 1));
+    }
+
+    private Trade trade(SideEnum side, float quantity, float price, float fees) {
+        Trade trade = new Trade();
+        trade.setSide(side);
+        trade.setFillQuantity(quantity);
+        trade.setFillPrice(price);
+        trade.setFees(fees);
+        return trade;
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.tylerspaeth.strategy;
+
+import com.github.tylerspaeth.common.data.entity.StrategyParameterSet;
+import com.github.tylerspaeth.common.data.entity.User;
+import com.github.tylerspaeth.common.enums.ResourceLimitActionEnum;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class AbstractStrategyResourceLimitsTest {
+
+    private static class LimitedStrategy extends AbstractStrategy {
+
+        private int stopCount = 0;
+
+        LimitedStrategy() {
+            super(new StrategyParameterSet(), new User());
+        }
+
+        @Override
+        protected void onRun() {}
+
+        @Override
+        protected void onStop() {
+            stopCount++;
+        }
+    }
+
+    @Test
+    public void testStopLimitStopsTheStrategyAtTheNextCheck() throws Exception {
+        LimitedStrategy strategy = new LimitedStrategy();
+        strategy.setResourceLimits(new StrategyResourceLimits(null, null, 10L, null, ResourceLimitActionEnum.STOP));
+        setRunning(strategy);
+
+        // The limit is exceeded from the 11th request, but it is only checked every RESOURCE_LIMIT_CHECK_INTERVAL requests
+        for(int i = 1; i < AbstractStrategy.RESOURCE_LIMIT_CHECK_INTERVAL; i++) {
+            strategy.beforeEngineRequest();
+        }
+        Assertions.assertFalse(strategy.isResourceLimitExceeded());
+        Assertions.assertEquals(0, strategy.stopCount);
+
+        strategy.beforeEngineRequest();
+        Assertions.assertTrue(strategy.isResourceLimitExceeded());
+        Assertions.assertEquals(1, strategy.stopCount);
+
+        // Later requests do not stop it again
+        strategy.beforeEngineRequest();
+        Assertions.assertEquals(1, strategy.stopCount);
+    }
+
+    @Test
+    public void testThrottleLimitDelaysLaterRequests() throws Exception {
+        LimitedStrategy strategy = new LimitedStrategy();
+        strategy.setResourceLimits(new StrategyResourceLimits(null, null, 10L, null, ResourceLimitActionEnum.THROTTLE));
+        setRunning(strategy);
+
+        for(int i = 1; i < AbstractStrategy.RESOURCE_LIMIT_CHECK_INTERVAL; i++) {
+            strategy.beforeEngineRequest();
+        }
+        Assertions.assertFalse(strategy.isResourceLimitExceeded());
+
+        strategy.beforeEngineRequest();
+        Assertions.assertTrue(strategy.isResourceLimitExceeded());
+
+        long startNanos = System.nanoTime();
+        strategy.beforeEngineRequest();
+        strategy.beforeEngineRequest();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        Assertions.assertTrue(elapsedMillis >= 2 * AbstractStrategy.THROTTLE_DELAY_MILLIS, "Throttled requests took " + elapsedMillis + " ms");
+        Assertions.assertEquals(0, strategy.stopCount);
+    }
+
+    @Test
+    public void testRequestsUnderTheLimitAreNotThrottled() throws Exception {
+        LimitedStrategy strategy = new LimitedStrategy();
+        strategy.setResourceLimits(new StrategyResourceLimits(null, null, 1000L, null, ResourceLimitActionEnum.THROTTLE));
+
+        for(int i = 0; i < 2 * AbstractStrategy.RESOURCE_LIMIT_CHECK_INTERVAL; i++) {
+            strategy.beforeEngineRequest();
+        }
+        Assertions.assertFalse(strategy.isResourceLimitExceeded());
+        Assertions.assertEquals(2L * AbstractStrategy.RESOURCE_LIMIT_CHECK_INTERVAL, strategy.getResourceUsage().getEngineRequests());
+    }
+
+    /**
+     * Mark the strategy as running without starting its thread so that stop reaches onStop.
+     */
+    private void setRunning(AbstractStrategy strategy) throws Exception {
+        Field field = AbstractStrategy.class.getDeclaredField("running");
+        field.setAccessible(true);
+        ((AtomicBoolean) field.get(strategy)).set(true);
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.tylerspaeth.strategy;
+
+import com.github.tylerspaeth.broker.backtester.BacktestCheckpointStore;
+import com.github.tylerspaeth.broker.backtester.BacktesterDataFeedService;
+import com.github.tylerspaeth.common.data.dao.BacktestResultDAO;
+import com.github.tylerspaeth.common.data.dao.OrderDAO;
+import com.github.tylerspaeth.common.data.dao.TradeDAO;
+import com.github.tylerspaeth.common.data.entity.BacktestResult;
+import com.github.tylerspaeth.common.data.entity.StrategyParameter;
+import com.github.tylerspaeth.common.data.entity.StrategyParameterSet;
+import com.github.tylerspaeth.common.data.entity.User;
+import com.github.tylerspaeth.engine.EngineCoordinator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith({MockitoExtension.class})
+public class AbstractStrategyRunTest {
+
+    @Mock
+    private EngineCoordinator engineCoordinator;
+    @Mock
+    private BacktesterDataFeedService backtesterDataFeedService;
+    @Mock
+    private OrderDAO orderDAO;
+    @Mock
+    private TradeDAO tradeDAO;
+    @Mock
+    private BacktestResultDAO backtestResultDAO;
+    @Mock
+    private BacktestCheckpointStore checkpointStore;
+
+    private static class ParameterizedStrategy extends AbstractStrategy {
+
+        @com.github.tylerspaeth.strategy.annotation.StrategyParameter
+        private int threshold;
+
+        ParameterizedStrategy(StrategyParameterSet strategyParameterSet) {
+            super(strategyParameterSet, new User());
+        }
+
+        @Override
+        protected void onRun() {}
+
+        @Override
+        protected void onStop() {}
+    }
+
+    private static class BlockingStrategy extends AbstractStrategy {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        BlockingStrategy(StrategyParameterSet strategyParameterSet, BacktestResult backtestResult, OrderDAO orderDAO, TradeDAO tradeDAO,
+                         BacktestResultDAO backtestResultDAO, BacktestCheckpointStore checkpointStore) {
+            super(strategyParameterSet, new User(), backtestResult, orderDAO, tradeDAO, backtestResultDAO, checkpointStore);
+        }
+
+        @Override
+        protected void onRun() {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        protected void onStop() {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testParameterFailureCompletesTheFutureExceptionally() {
+        StrategyParameter strategyParameter = new StrategyParameter();
+        strategyParameter.setName("threshold");
+        strategyParameter.setValue("not a number");
+        StrategyParameterSet strategyParameterSet = new StrategyParameterSet();
+        strategyParameterSet.getStrategyParameters().add(strategyParameter);
+
+        ParameterizedStrategy strategy = new ParameterizedStrategy(strategyParameterSet);
+        strategy.setEngineCoordinator(engineCoordinator);
+        CompletableFuture<BacktestResult> completion = strategy.run();
+
+        Assertions.assertSame(strategy.getCompletionFuture(), completion);
+        Assertions.assertTrue(completion.isCompletedExceptionally());
+        Assertions.assertFalse(strategy.isRunning());
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, completion::get);
+        Assertions.assertInstanceOf(NumberFormatException.class, exception.getCause());
+    }
+
+    @Test
+    public void testRunWhileRunningReturnsTheSameFuture() throws Exception {
+        BlockingStrategy strategy = new BlockingStrategy(new StrategyParameterSet(), null, orderDAO, tradeDAO, backtestResultDAO, checkpointStore);
+        strategy.setEngineCoordinator(engineCoordinator);
+
+        CompletableFuture<BacktestResult> first = strategy.run();
+        CompletableFuture<BacktestResult> second = strategy.run();
+        Assertions.assertSame(first, second);
+        Assertions.assertFalse(second.isDone());
+
+        strategy.stop();
+        Assertions.assertNull(second.get(5, TimeUnit.SECONDS));
+        Assertions.assertFalse(strategy.isRunning());
+    }
+
+    @Test
+    public void testFailureWhileFinishingStillCompletesTheFuture() throws Exception {
+        when(engineCoordinator.getBacktesterDataFeedService()).thenReturn(backtesterDataFeedService);
+        when(backtestResultDAO.update(Mockito.any())).thenThrow(new IllegalStateException("Database unavailable"));
+
+        BlockingStrategy strategy = new BlockingStrategy(new StrategyParameterSet(), new BacktestResult(), orderDAO, tradeDAO, backtestResultDAO, checkpointStore);
+        strategy.setEngineCoordinator(engineCoordinator);
+
+        // The end time can not be saved, so the future fails rather than leaving whatever waits on it hanging
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> strategy.run().get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("Database unavailable", exception.getCause().getMessage());
+        Assertions.assertFalse(strategy.isRunning());
+        Mockito.verify(backtesterDataFeedService).clearTimeRange(Mockito.anyLong());
+    }
+}
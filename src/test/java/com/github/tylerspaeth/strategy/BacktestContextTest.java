@@ -0,0 +1,322 @@
+package com.github.tylerspaeth.strategy;
+
+import com.github.tylerspaeth.common.TimestampMicros;
+import com.github.tylerspaeth.broker.backtester.BacktestCheckpointStore;
+import com.github.tylerspaeth.broker.backtester.BacktesterDataFeedService;
+import com.github.tylerspaeth.broker.backtester.BacktesterOrderService;
+import com.github.tylerspaeth.broker.backtester.BacktesterSharedService;
+import com.github.tylerspaeth.common.data.dao.BacktestResultDAO;
+import com.github.tylerspaeth.common.data.dao.CandlestickCursor;
+import com.github.tylerspaeth.common.data.dao.CandlestickDAO;
+import com.github.tylerspaeth.common.data.dao.CommissionDAO;
+import com.github.tylerspaeth.common.data.dao.OrderDAO;
+import com.github.tylerspaeth.common.data.dao.SymbolDAO;
+import com.github.tylerspaeth.common.data.dao.TradeDAO;
+import com.github.tylerspaeth.common.data.entity.BacktestResult;
+import com.github.tylerspaeth.common.data.entity.Candlestick;
+import com.github.tylerspaeth.common.data.entity.Commission;
+import com.github.tylerspaeth.common.data.entity.HistoricalDataset;
+import com.github.tylerspaeth.common.data.entity.Order;
+import com.github.tylerspaeth.common.data.entity.StrategyParameterSet;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.common.data.entity.Trade;
+import com.github.tylerspaeth.common.data.entity.User;
+import com.github.tylerspaeth.common.enums.AssetTypeEnum;
+import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
+import com.github.tylerspaeth.common.enums.OrderStatusEnum;
+import com.github.tylerspaeth.common.enums.OrderTypeEnum;
+import com.github.tylerspaeth.common.enums.SideEnum;
+import com.github.tylerspaeth.common.enums.TimeInForceEnum;
+import com.github.tylerspaeth.engine.EngineCoordinator;
+import com.github.tylerspaeth.engine.request.datafeed.ReadFromDataFeedRequest;
+import com.github.tylerspaeth.engine.request.datafeed.SubscribeToDataFeedRequest;
+import com.github.tylerspaeth.engine.request.datafeed.UnsubscribeFromDataFeedRequest;
+import com.github.tylerspaeth.engine.request.order.CancelOrderRequest;
+import com.github.tylerspaeth.engine.request.order.PlaceOrderRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.lang.reflect.Field;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+public class BacktestContextTest {
+
+    private static final int BACKTEST_RESULT_ID = 5;
+    private static final int SYMBOL_ID = 1;
+    private static final int NUM_CANDLESTICKS = 1000;
+    private static final Instant DATASET_START = Instant.parse("2024-01-02T14:30:00Z");
+
+    private record CandlestickSnapshot(Timestamp timestamp, Float open, Float high, Float low, Float close, Float volume) {
+        static CandlestickSnapshot of(Candlestick candlestick) {
+            return new CandlestickSnapshot(candlestick.getTimestamp(), candlestick.getOpen(), candlestick.getHigh(), candlestick.getLow(),
+                    candlestick.getClose(), candlestick.getVolume());
+        }
+    }
+
+    private record OrderSnapshot(Integer orderID, SideEnum side, OrderTypeEnum orderType, Float quantity, Float price, OrderStatusEnum status,
+                                 Timestamp timePlaced, Timestamp timeClosed, boolean finalized, Integer backtestResultID) {
+        static OrderSnapshot of(Order order) {
+            return new OrderSnapshot(order.getOrderID(), order.getSide(), order.getOrderType(), order.getQuantity(), order.getPrice(),
+                    order.getStatus(), order.getTimePlaced(), order.getTimeClosed(), order.isFinalized(),
+                    order.getBacktestResult() != null ? order.getBacktestResult().getBacktestResultID() : null);
+        }
+    }
+
+    private record TradeSnapshot(Integer orderID, SideEnum side, Float fillPrice, Float fillQuantity, Float fees, Timestamp timestamp) {
+        static TradeSnapshot of(Trade trade) {
+            return new TradeSnapshot(trade.getOrder().getOrderID(), trade.getSide(), trade.getFillPrice(), trade.getFillQuantity(),
+                    trade.getFees(), trade.getTimestamp());
+        }
+    }
+
+    /**
+     * What a backtest read and the final persisted state of the Orders and Trades it made.
+     */
+    private record BacktestRun(List<CandlestickSnapshot> candlesticks, Map<Integer, OrderSnapshot> orders, List<TradeSnapshot> trades) {}
+
+    /**
+     * Reads five minute bars from a one minute dataset, placing market orders on a fixed schedule alongside limit orders
+     * that are cancelled if they have not filled after a few bars. Requests are either submitted to the engine or made
+     * through the BacktestContext.
+     */
+    private static class ComparisonStrategy extends AbstractStrategy {
+
+        private final Symbol symbol;
+        private final boolean direct;
+        private final List<CandlestickSnapshot> candlesticks = new ArrayList<>();
+        private volatile boolean stopped = false;
+
+        private SideEnum nextSide = SideEnum.BUY;
+        private Order pendingLimitOrder;
+        private int pendingLimitOrderPlacedAt;
+
+        ComparisonStrategy(StrategyParameterSet strategyParameterSet, User user, BacktestResult backtestResult, Symbol symbol, boolean direct,
+                           OrderDAO orderDAO, TradeDAO tradeDAO, BacktestResultDAO backtestResultDAO, BacktestCheckpointStore checkpointStore) {
+            super(strategyParameterSet, user, backtestResult, orderDAO, tradeDAO, backtestResultDAO, checkpointStore);
+            this.symbol = symbol;
+            this.direct = direct;
+        }
+
+        @Override
+        protected void onRun() {
+            try {
+                if(direct) {
+                    getBacktestContext().subscribeToDataFeed(symbol);
+                } else {
+                    submitEngineRequest(new SubscribeToDataFeedRequest(symbol));
+                }
+
+                List<Candlestick> read = read();
+                while(!stopped && !read.isEmpty()) {
+                    for(Candlestick candlestick : read) {
+                        candlesticks.add(CandlestickSnapshot.of(candlestick));
+                        onCandlestick(candlestick, candlesticks.size() - 1);
+                    }
+                    read = read();
+                }
+
+                if(direct) {
+                    getBacktestContext().unsubscribeFromDataFeed(symbol);
+                } else {
+                    submitEngineRequest(new UnsubscribeFromDataFeedRequest(symbol));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        protected void onStop() {
+            stopped = true;
+        }
+
+        private List<Candlestick> read() throws ExecutionException, InterruptedException {
+            return direct ? getBacktestContext().readFromDataFeed(symbol, 5, IntervalUnitEnum.MINUTE)
+                    : submitEngineRequest(new ReadFromDataFeedRequest(symbol, 5, IntervalUnitEnum.MINUTE));
+        }
+
+        private void onCandlestick(Candlestick candlestick, int index) throws ExecutionException, InterruptedException {
+            if(index % 10 == 9) {
+                placeOrder(OrderTypeEnum.MKT, nextSide, null);
+                nextSide = nextSide == SideEnum.BUY ? SideEnum.SELL : SideEnum.BUY;
+            }
+
+            if(pendingLimitOrder != null && index - pendingLimitOrderPlacedAt == 8) {
+                if(!pendingLimitOrder.isFinalized()) {
+                    if(direct) {
+                        getBacktestContext().cancelOrder(pendingLimitOrder);
+                    } else {
+                        submitEngineRequest(new CancelOrderRequest(pendingLimitOrder));
+                    }
+                }
+                pendingLimitOrder = null;
+            }
+
+            if(index % 25 == 0) {
+                pendingLimitOrder = placeOrder(OrderTypeEnum.LMT, SideEnum.BUY, candlestick.getClose() - 1f);
+                pendingLimitOrderPlacedAt = index;
+            }
+        }
+
+        private Order placeOrder(OrderTypeEnum orderType, SideEnum side, Float price) throws ExecutionException, InterruptedException {
+            Order order = new Order();
+            order.setSymbol(symbol);
+            order.setUser(user);
+            order.setStrategyParameterSet(strategyParameterSet);
+            order.setOrderType(orderType);
+            order.setSide(side);
+            order.setQuantity(1f);
+            order.setPrice(price);
+            order.setTimeInForce(TimeInForceEnum.GTC);
+            order.setTransmit(true);
+            return direct ? getBacktestContext().placeOrder(order) : submitEngineRequest(new PlaceOrderRequest(order));
+        }
+    }
+
+    private void setField(Object target, String fieldName, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * Create the same one minute dataset on every call, starting at a time that lines up with five minute bars.
+     */
+    private static List<Candlestick> createCandlesticks() {
+        List<Candlestick> candlesticks = new ArrayList<>(NUM_CANDLESTICKS);
+        float previousClose = 100f;
+        for(int i = 0; i < NUM_CANDLESTICKS; i++) {
+            float close = 100f + 5f * (float) Math.sin(i / 15.0) + (i % 7) * 0.1f;
+            candlesticks.add(new Candlestick(previousClose, Math.max(previousClose, close) + 0.3f, Math.min(previousClose, close) - 0.3f,
+                    close, 100f + i % 13, Timestamp.from(DATASET_START.plusSeconds(60L * i))));
+            previousClose = close;
+        }
+        return candlesticks;
+    }
+
+    /**
+     * Create a cursor over the Candlesticks after a given time.
+     */
+    private static CandlestickCursor mockCandlestickCursor(List<Candlestick> candlesticks, Timestamp after) {
+        List<Candlestick> remaining = new ArrayList<>(candlesticks.stream().filter(candlestick -> candlestick.getTimestamp().after(after)).toList());
+        return Mockito.mock(CandlestickCursor.class, invocationOnMock -> switch (invocationOnMock.getMethod().getName()) {
+            case "hasNext" -> !remaining.isEmpty();
+            case "next" -> {
+                Candlestick candlestick = remaining.removeFirst();
+                yield new CandlestickCursor.CandlestickValues(TimestampMicros.toMicros(candlestick.getTimestamp()), candlestick.getOpen(), candlestick.getHigh(), candlestick.getLow(),
+                        candlestick.getClose(), candlestick.getVolume());
+            }
+            default -> null;
+        });
+    }
+
+    /**
+     * Backtest the ComparisonStrategy over the fixture with the backtester services backed by mocked DAOs.
+     * @param direct true to make requests through the BacktestContext, false to submit them to the engine.
+     * @return BacktestRun
+     */
+    private BacktestRun runBacktest(boolean direct) throws Exception {
+        List<Candlestick> fixture = createCandlesticks();
+
+        Commission commission = new Commission();
+        commission.setCommissionAmount(1.25f);
+
+        Symbol symbol = new Symbol();
+        symbol.setName("Test Symbol");
+        symbol.setTicker("TS");
+        symbol.setAssetType(AssetTypeEnum.OTHER);
+        symbol.setCommission(commission);
+        setField(symbol, "symbolID", SYMBOL_ID);
+
+        HistoricalDataset historicalDataset = new HistoricalDataset();
+        historicalDataset.setSymbol(symbol);
+        historicalDataset.setTimeInterval(1);
+        historicalDataset.setIntervalUnit(IntervalUnitEnum.MINUTE);
+        symbol.getHistoricalDatasets().add(historicalDataset);
+
+        BacktestResult backtestResult = new BacktestResult();
+        setField(backtestResult, "backtestResultID", BACKTEST_RESULT_ID);
+
+        StrategyParameterSet strategyParameterSet = new StrategyParameterSet();
+        strategyParameterSet.setName("Comparison");
+
+        // The latest version of each Order and every Trade that was persisted
+        Map<Integer, OrderSnapshot> persistedOrders = new TreeMap<>();
+        List<TradeSnapshot> persistedTrades = new ArrayList<>();
+
+        OrderDAO orderDAO = Mockito.mock(OrderDAO.class);
+        when(orderDAO.update(Mockito.any(Order.class))).thenAnswer(invocationOnMock -> {
+            Order order = invocationOnMock.getArgument(0);
+            if(order.getOrderID() == null) {
+                order.setOrderID(persistedOrders.size() + 1);
+            }
+            persistedOrders.put(order.getOrderID(), OrderSnapshot.of(order));
+            return order;
+        });
+        TradeDAO tradeDAO = Mockito.mock(TradeDAO.class);
+        Mockito.doAnswer(invocationOnMock -> persistedTrades.add(TradeSnapshot.of(invocationOnMock.getArgument(0))))
+                .when(tradeDAO).insert(Mockito.any(Trade.class));
+        BacktestResultDAO backtestResultDAO = Mockito.mock(BacktestResultDAO.class);
+        when(backtestResultDAO.update(Mockito.any(BacktestResult.class))).thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+        SymbolDAO symbolDAO = Mockito.mock(SymbolDAO.class);
+        when(symbolDAO.getPersistedVersionOfSymbol(Mockito.any(Symbol.class))).thenReturn(symbol);
+        CandlestickDAO candlestickDAO = Mockito.mock(CandlestickDAO.class);
+        when(candlestickDAO.streamCandlesticksFromHistoricalDataset(Mockito.any(HistoricalDataset.class), Mockito.any(Timestamp.class), Mockito.any(), Mockito.anyInt()))
+                .thenAnswer(invocationOnMock -> mockCandlestickCursor(fixture, invocationOnMock.getArgument(1)));
+        when(candlestickDAO.getFirstAlignedCandlestick(Mockito.any(HistoricalDataset.class), Mockito.any(Timestamp.class), Mockito.any(), Mockito.anyLong()))
+                .thenAnswer(invocationOnMock -> {
+                    Timestamp after = invocationOnMock.getArgument(1);
+                    long alignmentSeconds = invocationOnMock.getArgument(3);
+                    return fixture.stream()
+                            .filter(candlestick -> candlestick.getTimestamp().after(after) && candlestick.getTimestamp().toInstant().getEpochSecond() % alignmentSeconds == 0)
+                            .findFirst().orElse(null);
+                });
+
+        BacktesterSharedService backtesterSharedService = new BacktesterSharedService(orderDAO, tradeDAO, Mockito.mock(CommissionDAO.class));
+        EngineCoordinator engineCoordinator = new EngineCoordinator(null, null, null, null,
+                new BacktesterDataFeedService(backtesterSharedService, symbolDAO, candlestickDAO),
+                new BacktesterOrderService(backtesterSharedService, orderDAO, symbolDAO));
+        engineCoordinator.useBacktester();
+
+        ComparisonStrategy strategy = new ComparisonStrategy(strategyParameterSet, new User(), backtestResult, symbol, direct,
+                orderDAO, tradeDAO, backtestResultDAO, Mockito.mock(BacktestCheckpointStore.class));
+        strategy.setEngineCoordinator(engineCoordinator);
+        strategy.run();
+        strategy.getCompletionFuture().get(30, TimeUnit.SECONDS);
+
+        return new BacktestRun(strategy.candlesticks, persistedOrders, persistedTrades);
+    }
+
+    @Test
+    public void testBacktestContextMatchesEngineRequestsBarForBar() throws Exception {
+        BacktestRun engineRun = runBacktest(false);
+        BacktestRun directRun = runBacktest(true);
+
+        // Make sure the fixture exercises fills and cancels so the comparison means something
+        Assertions.assertEquals(NUM_CANDLESTICKS / 5, engineRun.candlesticks().size());
+        Assertions.assertFalse(engineRun.trades().isEmpty());
+        Assertions.assertTrue(engineRun.orders().values().stream().anyMatch(order -> order.status() == OrderStatusEnum.CANCELLED));
+        Assertions.assertTrue(engineRun.orders().values().stream().anyMatch(order -> order.orderType() == OrderTypeEnum.LMT && order.status() == OrderStatusEnum.FILLED));
+
+        Assertions.assertEquals(engineRun.candlesticks(), directRun.candlesticks());
+        Assertions.assertEquals(engineRun.orders(), directRun.orders());
+        Assertions.assertEquals(engineRun.trades(), directRun.trades());
+
+        for(OrderSnapshot order : directRun.orders().values()) {
+            Assertions.assertEquals(BACKTEST_RESULT_ID, order.backtestResultID());
+        }
+    }
+
+}
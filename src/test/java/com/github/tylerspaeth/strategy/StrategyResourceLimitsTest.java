@@ -0,0 +1,91 @@
+package com.github.tylerspaeth.strategy;
+
+import com.github.tylerspaeth.common.enums.ResourceLimitActionEnum;
+import com.github.tylerspaeth.common.metrics.ResourceUsage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class StrategyResourceLimitsTest {
+
+    private static final List<String> PROPERTIES = List.of("algonexus.strategy.maxCpuSeconds", "algonexus.strategy.maxAllocatedMegabytes",
+            "algonexus.strategy.maxEngineRequests", "algonexus.strategy.maxDaoOperations", "algonexus.strategy.limitAction");
+
+    @AfterEach
+    public void clearProperties() {
+        PROPERTIES.forEach(System::clearProperty);
+    }
+
+    @Test
+    public void testNoLimitIsExceededUntilUsageGoesOverIt() {
+        StrategyResourceLimits limits = new StrategyResourceLimits(null, null, 2L, null, ResourceLimitActionEnum.STOP);
+        ResourceUsage resourceUsage = new ResourceUsage();
+        resourceUsage.recordEngineRequest();
+        resourceUsage.recordEngineRequest();
+        Assertions.assertNull(limits.findExceededLimit(resourceUsage));
+
+        resourceUsage.recordEngineRequest();
+        Assertions.assertEquals("2 engine requests", limits.findExceededLimit(resourceUsage));
+    }
+
+    @Test
+    public void testDaoOperationLimit() {
+        StrategyResourceLimits limits = new StrategyResourceLimits(null, null, 100L, 1L, ResourceLimitActionEnum.THROTTLE);
+        ResourceUsage resourceUsage = new ResourceUsage();
+        resourceUsage.recordEngineRequest();
+        resourceUsage.recordDaoOperation();
+        resourceUsage.recordDaoOperation();
+        Assertions.assertEquals("1 DAO operations", limits.findExceededLimit(resourceUsage));
+    }
+
+    @Test
+    public void testNoLimitsAreNeverExceeded() {
+        ResourceUsage resourceUsage = new ResourceUsage();
+        resourceUsage.recordEngineRequest();
+        resourceUsage.recordDaoOperation();
+        Assertions.assertFalse(StrategyResourceLimits.NONE.hasLimits());
+        Assertions.assertNull(StrategyResourceLimits.NONE.findExceededLimit(resourceUsage));
+    }
+
+    @Test
+    public void testMissingActionDefaultsToThrottle() {
+        Assertions.assertEquals(ResourceLimitActionEnum.THROTTLE, new StrategyResourceLimits(1L, null, null, null, null).action());
+    }
+
+    @Test
+    public void testFromSystemPropertiesConvertsUnits() {
+        System.setProperty("algonexus.strategy.maxCpuSeconds", "2");
+        System.setProperty("algonexus.strategy.maxAllocatedMegabytes", " 3 ");
+        System.setProperty("algonexus.strategy.maxEngineRequests", "100");
+        System.setProperty("algonexus.strategy.maxDaoOperations", "50");
+        System.setProperty("algonexus.strategy.limitAction", "stop");
+
+        Assertions.assertEquals(new StrategyResourceLimits(2_000_000_000L, 3L * 1024 * 1024, 100L, 50L, ResourceLimitActionEnum.STOP),
+                StrategyResourceLimits.fromSystemProperties());
+    }
+
+    @Test
+    public void testFromSystemPropertiesWithoutLimitsIsNone() {
+        Assertions.assertSame(StrategyResourceLimits.NONE, StrategyResourceLimits.fromSystemProperties());
+    }
+
+    @Test
+    public void testFromSystemPropertiesTreatsInvalidLimitsAsNoLimit() {
+        System.setProperty("algonexus.strategy.maxCpuSeconds", "abc");
+        System.setProperty("algonexus.strategy.maxEngineRequests", "1.5");
+        Assertions.assertSame(StrategyResourceLimits.NONE, StrategyResourceLimits.fromSystemProperties());
+
+        System.setProperty("algonexus.strategy.maxDaoOperations", "10");
+        Assertions.assertEquals(new StrategyResourceLimits(null, null, null, 10L, ResourceLimitActionEnum.THROTTLE),
+                StrategyResourceLimits.fromSystemProperties());
+    }
+
+    @Test
+    public void testFromSystemPropertiesTreatsInvalidActionAsThrottle() {
+        System.setProperty("algonexus.strategy.maxEngineRequests", "10");
+        System.setProperty("algonexus.strategy.limitAction", "pause");
+        Assertions.assertEquals(ResourceLimitActionEnum.THROTTLE, StrategyResourceLimits.fromSystemProperties().action());
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.tylerspaeth.strategy.annotation;
+
+import com.github.tylerspaeth.common.enums.SideEnum;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class StrategyParameterInjectorTest {
+
+    @SuppressWarnings("unused")
+    private static class ParameterFixture {
+        @StrategyParameter
+        private int period;
+        @StrategyParameter
+        private Long maxPosition;
+        @StrategyParameter(name = "threshold")
+        private double entryThreshold;
+        @StrategyParameter
+        private boolean enabled;
+        @StrategyParameter
+        private SideEnum side;
+        @StrategyParameter
+        private String label;
+        private int notAParameter = 7;
+    }
+
+    @Test
+    public void testInjectsEveryParameterType() {
+        StrategyParameterInjector injector = new StrategyParameterInjector(ParameterFixture.class);
+        ParameterFixture fixture = new ParameterFixture();
+
+        injector.inject(fixture, Map.of("period", "14", "maxPosition", "3", "threshold", "1.5", "enabled", "true",
+                "side", "SELL", "label", "test", "notAParameter", "1"), "Set");
+
+        Assertions.assertEquals(14, fixture.period);
+        Assertions.assertEquals(3L, fixture.maxPosition);
+        Assertions.assertEquals(1.5, fixture.entryThreshold);
+        Assertions.assertTrue(fixture.enabled);
+        Assertions.assertEquals(SideEnum.SELL, fixture.side);
+        Assertions.assertEquals("test", fixture.label);
+        Assertions.assertEquals(7, fixture.notAParameter);
+    }
+
+    @Test
+    public void testMissingParametersAreLeftUnchanged() {
+        StrategyParameterInjector injector = new StrategyParameterInjector(ParameterFixture.class);
+        ParameterFixture fixture = new ParameterFixture();
+        fixture.period = 5;
+
+        Map<String, String> values = new HashMap<>();
+        values.put("label", null);
+        injector.inject(fixture, values, "Set");
+
+        Assertions.assertEquals(5, fixture.period);
+        Assertions.assertNull(fixture.label);
+    }
+
+    @Test
+    public void testInvalidValueThrows() {
+        StrategyParameterInjector injector = new StrategyParameterInjector(ParameterFixture.class);
+        Assertions.assertThrows(NumberFormatException.class, () -> injector.inject(new ParameterFixture(), Map.of("period", "abc"), "Set"));
+    }
+}
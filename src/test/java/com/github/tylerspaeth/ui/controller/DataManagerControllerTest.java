@@ -0,0 +1,155 @@
+package com.github.tylerspaeth.ui.controller;
+
+import com.github.tylerspaeth.broker.ib.IBConnection;
+import com.github.tylerspaeth.broker.ib.IBSyncWrapper;
+import com.github.tylerspaeth.common.data.dao.CandlestickDAO;
+import com.github.tylerspaeth.common.data.dao.HistoricalDatasetDAO;
+import com.github.tylerspaeth.common.data.dao.SymbolDAO;
+import com.github.tylerspaeth.common.data.entity.Candlestick;
+import com.github.tylerspaeth.common.data.entity.HistoricalDataset;
+import com.github.tylerspaeth.common.data.entity.Symbol;
+import com.github.tylerspaeth.common.enums.AssetTypeEnum;
+import com.github.tylerspaeth.common.enums.IntervalUnitEnum;
+import com.github.tylerspaeth.datamanager.DataManagerService;
+import com.github.tylerspaeth.datamanager.HistoricalDataBackfillService;
+import com.ib.client.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Field;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+public class DataManagerControllerTest {
+
+    private static final DateTimeFormatter IB_END_DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm:ss");
+    private static final int HISTORICAL_DATASET_ID = 5;
+
+    @Mock
+    private SymbolDAO symbolDAO;
+
+    @Mock
+    private HistoricalDatasetDAO historicalDatasetDAO;
+
+    @Mock
+    private CandlestickDAO candlestickDAO;
+
+    private final List<Instant> requestedEnds = new CopyOnWriteArrayList<>();
+    private final CountDownLatch respond = new CountDownLatch(1);
+
+    private DataManagerController dataManagerController;
+
+    @BeforeEach
+    public void setup() {
+        IBConnection connection = new IBConnection();
+        // Fake client that sends a one minute bar for every whole minute of each requested period once allowed to respond
+        connection.client = new EClientSocket(connection.client.wrapper(), new EJavaSignal()) {
+            @Override
+            public synchronized void reqHistoricalData(int reqId, Contract contract, String endDateTime, String durationStr, String barSizeSetting,
+                                                       String whatToShow, int useRTH, int formatDate, boolean keepUpToDate, List<TagValue> chartOptions) {
+                Instant end = LocalDateTime.parse(endDateTime, IB_END_DATE_TIME_FORMAT).toInstant(ZoneOffset.UTC);
+                requestedEnds.add(end);
+                long durationSeconds = Long.parseLong(durationStr.split(" ")[0]) * 86400;
+                EWrapper wrapper = wrapper();
+                new Thread(() -> {
+                    try {
+                        respond.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    long firstMinute = Math.ceilDiv(end.getEpochSecond() - durationSeconds, 60) * 60;
+                    for(long time = firstMinute; time < end.getEpochSecond(); time += 60) {
+                        wrapper.historicalData(reqId, new Bar(String.valueOf(time), 10, 11, 9, 10.5, Decimal.ONE_HUNDRED, 1, Decimal.ONE));
+                    }
+                    wrapper.historicalDataEnd(reqId, "", "");
+                }, "Mock-Callback").start();
+            }
+        };
+        HistoricalDataBackfillService backfillService = new HistoricalDataBackfillService(IBSyncWrapper.getInstanceTest(connection, symbolDAO), candlestickDAO);
+        dataManagerController = new DataManagerController(symbolDAO, historicalDatasetDAO, new DataManagerService(historicalDatasetDAO, backfillService));
+    }
+
+    private HistoricalDataset buildHistoricalDataset(Instant datasetEnd) throws Exception {
+        Symbol symbol = new Symbol();
+        symbol.setTicker("TCKR");
+        symbol.setAssetType(AssetTypeEnum.EQUITIES);
+        symbol.setIbConID(123);
+        HistoricalDataset historicalDataset = new HistoricalDataset();
+        Field field = HistoricalDataset.class.getDeclaredField("historicalDatasetID");
+        field.setAccessible(true);
+        field.set(historicalDataset, HISTORICAL_DATASET_ID);
+        historicalDataset.setSymbol(symbol);
+        historicalDataset.setDatasetName("Test Dataset");
+        historicalDataset.setTimeInterval(1);
+        historicalDataset.setIntervalUnit(IntervalUnitEnum.MINUTE);
+        historicalDataset.setDatasetStart(Timestamp.from(datasetEnd.minus(1, ChronoUnit.DAYS)));
+        historicalDataset.setDatasetEnd(Timestamp.from(datasetEnd));
+        return historicalDataset;
+    }
+
+    @Test
+    public void testExtendDatasetFromIBResumesFromPersistedDatasetEnd() throws Exception {
+        Instant persistedEnd = Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(1, ChronoUnit.DAYS);
+        // The dataset shown in the UI was loaded before the last extension moved its end
+        HistoricalDataset staleDataset = buildHistoricalDataset(persistedEnd.minus(3, ChronoUnit.DAYS));
+        HistoricalDataset persistedDataset = buildHistoricalDataset(persistedEnd);
+        Mockito.when(historicalDatasetDAO.getHistoricalDatasetByID(HISTORICAL_DATASET_ID)).thenReturn(persistedDataset);
+        List<Candlestick> appended = new CopyOnWriteArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            List<Candlestick> candlesticks = invocation.getArgument(1);
+            appended.addAll(candlesticks);
+            return null;
+        }).when(candlestickDAO).appendCandlesticks(Mockito.eq(persistedDataset), Mockito.any(), Mockito.any());
+
+        CompletableFuture<Integer> result = dataManagerController.extendDatasetFromIB(staleDataset);
+        Assertions.assertNotNull(result);
+
+        // The same dataset can not be extended twice at once
+        Assertions.assertNull(dataManagerController.extendDatasetFromIB(staleDataset));
+
+        respond.countDown();
+        int added = result.get(10, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(persistedEnd.plus(1, ChronoUnit.DAYS), requestedEnds.getFirst());
+        Assertions.assertEquals(added, appended.size());
+        Assertions.assertEquals(persistedEnd.plusSeconds(60), appended.getFirst().getTimestamp().toInstant());
+        Assertions.assertEquals(appended.getLast().getTimestamp(), persistedDataset.getDatasetEnd());
+        Assertions.assertEquals(Timestamp.from(persistedEnd.minus(3, ChronoUnit.DAYS)), staleDataset.getDatasetEnd());
+
+        // Once finished the dataset can be extended again
+        CompletableFuture<Integer> nextResult = dataManagerController.extendDatasetFromIB(staleDataset);
+        Assertions.assertNotNull(nextResult);
+        nextResult.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testExtendDatasetFromIBWithDeletedDataset() throws Exception {
+        Mockito.when(historicalDatasetDAO.getHistoricalDatasetByID(HISTORICAL_DATASET_ID)).thenReturn(null);
+
+        Assertions.assertNull(dataManagerController.extendDatasetFromIB(buildHistoricalDataset(Instant.now().minus(1, ChronoUnit.DAYS))));
+        Assertions.assertTrue(requestedEnds.isEmpty());
+        Mockito.verifyNoInteractions(candlestickDAO);
+    }
+
+    @Test
+    public void testExtendDatasetFromIBWithUnsavedDataset() {
+        Assertions.assertNull(dataManagerController.extendDatasetFromIB(new HistoricalDataset()));
+        Assertions.assertNull(dataManagerController.extendDatasetFromIB(null));
+        Mockito.verifyNoInteractions(historicalDatasetDAO);
+    }
+}
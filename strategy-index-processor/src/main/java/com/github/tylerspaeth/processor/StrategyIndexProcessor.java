@@ -0,0 +1,78 @@
+package com.github.tylerspaeth.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor that writes the binary name of every class with a Strategy annotation to an index file at
+ * compile time, so that the StrategyRegistry can load the strategies on startup without scanning the classpath. The
+ * processor runs for every compilation, even one without strategies, so that an empty index records that there are
+ * none to scan for.
+ */
+@SupportedAnnotationTypes("*")
+public class StrategyIndexProcessor extends AbstractProcessor {
+
+    static final String STRATEGY_ANNOTATION = "com.github.tylerspaeth.strategy.annotation.Strategy";
+    static final String INDEX_RESOURCE = "META-INF/algonexus/strategies";
+
+    private final Set<String> strategyClasses = new TreeSet<>();
+    private final List<Element> originatingElements = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement annotation = processingEnv.getElementUtils().getTypeElement(STRATEGY_ANNOTATION);
+        if(annotation != null) {
+            for(Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if(element instanceof TypeElement typeElement) {
+                    strategyClasses.add(processingEnv.getElementUtils().getBinaryName(typeElement).toString());
+                    originatingElements.add(typeElement);
+                }
+            }
+        }
+
+        // The index is written once every round has been processed so that it covers all the strategies
+        if(roundEnv.processingOver()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    /**
+     * Writes the index with one binary class name per line.
+     */
+    private void writeIndex() {
+        Filer filer = processingEnv.getFiler();
+        try {
+            FileObject index = filer.createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE, originatingElements.toArray(new Element[0]));
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                for(String strategyClass : strategyClasses) {
+                    writer.write(strategyClass);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write strategy index: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.tylerspaeth.processor;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class StrategyIndexProcessorTest {
+
+    private static final String STRATEGY_ANNOTATION_SOURCE = """
+            package com.github.tylerspaeth.strategy.annotation;
+
+            import java.lang.annotation.*;
+
+            @Retention(RetentionPolicy.RUNTIME)
+            @Target(ElementType.TYPE)
+            public @interface Strategy {
+                String name() default "";
+                int version() default 0;
+            }
+            """;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void testIndexListsStrategiesByBinaryName() throws IOException {
+        Path output = compile(List.of(
+                source("com/github/tylerspaeth/strategy/annotation/Strategy.java", STRATEGY_ANNOTATION_SOURCE),
+                source("com/example/TopLevelStrategy.java", """
+                        package com.example;
+
+                        @com.github.tylerspaeth.strategy.annotation.Strategy
+                        public class TopLevelStrategy {
+                            @com.github.tylerspaeth.strategy.annotation.Strategy(name = "Nested")
+                            public static class NestedStrategy {}
+
+                            public static class NotAStrategy {}
+                        }
+                        """),
+                source("com/example/Helper.java", """
+                        package com.example;
+
+                        public class Helper {}
+                        """)));
+
+        Assertions.assertEquals(List.of("com.example.TopLevelStrategy", "com.example.TopLevelStrategy$NestedStrategy"), readIndex(output));
+    }
+
+    @Test
+    public void testEmptyIndexIsWrittenWithoutStrategies() throws IOException {
+        Path output = compile(List.of(
+                source("com/github/tylerspaeth/strategy/annotation/Strategy.java", STRATEGY_ANNOTATION_SOURCE),
+                source("com/example/Helper.java", """
+                        package com.example;
+
+                        public class Helper {}
+                        """)));
+
+        Assertions.assertEquals(List.of(), readIndex(output));
+    }
+
+    /**
+     * Compiles the sources with only the StrategyIndexProcessor enabled.
+     * @return Directory the classes and index were written to.
+     */
+    private Path compile(List<Path> sources) throws IOException {
+        Path output = Files.createDirectories(directory.resolve("classes"));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromPaths(sources);
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, List.of("-d", output.toString(), "-proc:only"), null, compilationUnits);
+            task.setProcessors(List.of(new StrategyIndexProcessor()));
+            Assertions.assertTrue(task.call());
+        }
+        return output;
+    }
+
+    private Path source(String path, String contents) throws IOException {
+        Path source = directory.resolve("src").resolve(path);
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, contents);
+        return source;
+    }
+
+    private List<String> readIndex(Path output) throws IOException {
+        Path index = output.resolve(StrategyIndexProcessor.INDEX_RESOURCE);
+        Assertions.assertTrue(Files.exists(index));
+        return new ArrayList<>(Files.readAllLines(index));
+    }
+}